@@ -2,15 +2,14 @@ package AsteroidField;
 
 import AsteroidField.physics.PhysicsSystem;
 import AsteroidField.runtime.CollidableRegistry;
+import AsteroidField.runtime.RaycastWorld;
 import AsteroidField.spacecraft.CameraKinematicAdapter;
 import AsteroidField.spacecraft.collision.SpacecraftCollisionContributor;
 import AsteroidField.spacecraft.control.ThrusterController;
 import AsteroidField.tether.TetherController;
-import AsteroidField.ui.scene3d.CubeAtlas;
 import AsteroidField.ui.scene3d.Grid3D;
-import AsteroidField.ui.scene3d.Skybox;
+import AsteroidField.ui.scene3d.SkyboxLoader;
 import AsteroidField.util.FpsLookController;
-import AsteroidField.util.ResourceUtils;
 import java.io.IOException;
 import java.util.List;
 import java.util.function.Supplier;
@@ -21,7 +20,6 @@ import javafx.scene.PerspectiveCamera;
 import javafx.scene.PointLight;
 import javafx.scene.SceneAntialiasing;
 import javafx.scene.SubScene;
-import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 
@@ -52,6 +50,8 @@ public class Game3DView extends Pane {
 
     // View controls
     private final FpsLookController fpsLook; 
+    // Skybox faces at the level the view needs (null if the atlas failed to load)
+    private SkyboxLoader skyLoader;
 
     // Optional craft proxy we can show/hide while docking
     private Node craftProxy;
@@ -60,6 +60,8 @@ public class Game3DView extends Pane {
     private CollidableRegistry collidablesRegistry;
     // supplier for tethers & collisions:
     Supplier<List<Node>> collidableSupplier;    
+    // shared ray/segment queries over the collidables (tethers, picking)
+    private RaycastWorld raycastWorld;
 
     public Game3DView() {
         // --- World root + camera + subscene ---
@@ -85,15 +87,9 @@ public class Game3DView extends Pane {
         // --- Skybox ---
         double skySize = 100000D;
         try {
-            Image atlas = ResourceUtils.load3DTextureImage("stars_atlas-4k");
-            // Slice -> six faces
-            CubeAtlas.Faces f = CubeAtlas.slice(atlas);
-            
-            // Build skybox via MULTIPLE path (everything else stays the same)
-            Skybox sky = new Skybox(
-                f.top(), f.bottom(), f.left(), f.right(), f.front(), f.back(), skySize, camera
-            );
-            worldRoot.getChildren().add(0, sky);
+            // Mip level per face picked from subscene size + FOV, loaded off-thread and cached on disk
+            skyLoader = new SkyboxLoader("stars_atlas-4k", skySize, subScene, camera);
+            worldRoot.getChildren().add(0, skyLoader.getSkybox());
         } catch (IOException ex) {
             System.getLogger(Game3DView.class.getName())
                   .log(System.Logger.Level.ERROR, (String) null, ex);
@@ -129,6 +125,7 @@ public class Game3DView extends Pane {
         // --- Collidables supplier initialization ---
         collidablesRegistry = new CollidableRegistry();
         collidableSupplier = () -> collidablesRegistry.getCollidables();    
+        raycastWorld = new RaycastWorld(worldRoot, collidablesRegistry);
 
         // --- Thrusters (physics contributor) ---
         this.thrusters = new ThrusterController(subScene, camera, craft);
@@ -140,7 +137,7 @@ public class Game3DView extends Pane {
         thrusters.setLookSensitivity(0.0); // mouse-look handled by fpsLook
 
         // --- Tethers (physics contributor + input handler gated externally) ---
-        tethers = new TetherController(subScene, camera, worldRoot, collidableSupplier, craft);
+        tethers = new TetherController(subScene, camera, worldRoot, raycastWorld, craft);
         tethers.setSymmetricWingOffsets(20, 50, 5);
         tethers.setTetherInputEnabled(false); // toggle from UI when ready
         for (int i = 0; i < 2; i++) {
@@ -169,9 +166,11 @@ public class Game3DView extends Pane {
         // --- Register contributors with physics ---
         //Order matters! spacecraft should have all forces accumulated before it integrates
         physics.addContributor(thrusters);
+        physics.addContributor(tethers.getRopeSystem());
         physics.addContributor(tethers);
         physics.addContributor(shipCollisions);
         physics.addContributor(craft);
+        physics.addContributor(tethers.getRenderer());
 
         // --- FPS mouse-look ---
         this.fpsLook = new FpsLookController(subScene, camera);
@@ -194,6 +193,7 @@ public class Game3DView extends Pane {
     public ThrusterController getThrusters() { return thrusters; }
     public TetherController getTethers() { return tethers; }
     public SpacecraftCollisionContributor getShipCollisions() { return shipCollisions; }
+    public RaycastWorld getRaycastWorld() { return raycastWorld; }
     public void addCollidable(Node n) {
         if (n != null) {
             worldRoot.getChildren().add(n);
@@ -236,4 +236,5 @@ public class Game3DView extends Pane {
     public SubScene getSubScene() { return subScene; }
     public Group getWorldRoot() { return worldRoot; }
     public PerspectiveCamera getCamera() { return camera; }
+    public SkyboxLoader getSkyLoader() { return skyLoader; }
 }
@@ -3,6 +3,7 @@ package AsteroidField;
 import AsteroidField.asteroids.AsteroidLodManager;
 import AsteroidField.asteroids.field.AsteroidField;
 import AsteroidField.asteroids.field.AsteroidFieldGenerator;
+import AsteroidField.asteroids.field.FieldSnapshot;
 import AsteroidField.asteroids.field.families.FamilyPool;
 import AsteroidField.asteroids.field.families.WeightedFamilyEntry;
 import AsteroidField.asteroids.field.placement.BeltPlacementStrategy;
@@ -16,12 +17,17 @@ import AsteroidField.events.AudioEvent;
 import AsteroidField.events.SfxEvent;
 import AsteroidField.runtime.DockingController;
 import AsteroidField.runtime.DockingModeController;
+import AsteroidField.runtime.RaycastWorld;
+import AsteroidField.runtime.SectorStreamer;
 import AsteroidField.runtime.WorldBuilder;
 import AsteroidField.spacecraft.FancyCraft;
 import AsteroidField.ui.overlay.OverlayController;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import javafx.application.Application;
 import javafx.geometry.Insets;
@@ -51,8 +57,10 @@ public class GameApp extends Application {
     DockingModeController dockingModeController;
     SfxPlayer sfx;
     FancyCraft fancyCraft;
+    Game3DView gameView;
     WorldBuilder worldBuilder;
     WorldBuilder.Handle fieldHandle;
+    SectorStreamer streamer;
     FamilyPool familyPool;
     PlacementStrategy placement;
     AsteroidLodManager lodManager;
@@ -69,7 +77,7 @@ private CullFace currentCullFace = CullFace.BACK;
         scene.setFill(Color.BLACK);
 
         // --- Center stack: 3D + overlays ---
-        Game3DView gameView = new Game3DView();
+        gameView = new Game3DView();
 
         // --- WorldBuilder: families + placement ---
         worldBuilder = new WorldBuilder(gameView);
@@ -88,6 +96,9 @@ private CullFace currentCullFace = CullFace.BACK;
         lodManager.setDistances(1500, 3500, 6000, 400); // near, mid, far, hysteresis
         lodManager.setBudgetPerFrame(120);
         lodManager.setForwardConeDegrees(70);          // optional gating
+        lodManager.setImpostorsEnabled(true);          // LOD3 quads beyond the far distance
+        lodManager.setImpostorBatchingEnabled(true);   // one merged mesh for all impostors
+        lodManager.setCellBatchingEnabled(true);       // merged meshes per cell outside the near band
         lodManager.start();
         
         //REgester all our services
@@ -95,11 +106,14 @@ private CullFace currentCullFace = CullFace.BACK;
         OverlayController.registerGlobalService(WorldBuilder.class, worldBuilder);
         OverlayController.registerGlobalService(FamilyPool.class, familyPool);
         OverlayController.registerGlobalService(PlacementStrategy.class, placement);
+        OverlayController.registerGlobalService(RaycastWorld.class, gameView.getRaycastWorld());
 
         // REQUIRED: register LOD manager for asteroid-field lifecycle events
         scene.addEventHandler(AsteroidFieldEvent.ANY, lodManager);
         scene.addEventHandler(AsteroidFieldEvent.REGENERATE_REQUEST, e -> {
-            // Clean out prior field if present
+            // Clean out prior field (and any build still in flight, or a running streaming belt)
+            worldBuilder.cancelActiveBuild();
+            if (streamer != null) streamer.stop();
             if (fieldHandle != null) {
                 fieldHandle.detach();
                 fieldHandle = null;
@@ -109,12 +123,12 @@ private CullFace currentCullFace = CullFace.BACK;
             if (cfg == null) {
                 cfg = WorldBuilder.defaultHighCountConfig();
             }
-            // Build & attach
-            fieldHandle = worldBuilder.buildAndAttach(familyPool, placement, cfg);
-            System.out.println("Spawned: " + fieldHandle.getField().instances.size() + " asteroids");
+            spawnFieldAsync(cfg);
             e.consume();
         });
         scene.addEventHandler(AsteroidFieldEvent.CLEAR_REQUEST, e -> {
+            worldBuilder.cancelActiveBuild();
+            if (streamer != null) streamer.stop();
             if (fieldHandle != null) {
                 fieldHandle.detach();
                 fieldHandle = null;
@@ -155,6 +169,13 @@ scene.addEventHandler(AsteroidFieldEvent.ATTACHED, e -> {
     }
     // no consume() so LOD manager also sees ATTACHED via its ANY handler
 });
+// Same for streamed sectors
+scene.addEventHandler(AsteroidFieldEvent.SECTOR_ATTACHED, e -> {
+    AsteroidField f = e.getField();
+    if (f != null) {
+        applyRenderSettingsToField(f);
+    }
+});
 
         // TEMP craft proxy to visualize quickly
         fancyCraft = new FancyCraft();
@@ -223,8 +244,26 @@ scene.addEventHandler(AsteroidFieldEvent.ATTACHED, e -> {
                     scene.getRoot().fireEvent(new ApplicationEvent(ApplicationEvent.SHOW_FIELD_MANAGER));
                 }
                 
+                case F8 -> { // Toggle the streaming belt (sectors paged in/out around the camera)
+                    if (streamer != null && streamer.isRunning()) {
+                        streamer.stop();
+                        System.out.println("Streaming belt stopped.");
+                    } else {
+                        worldBuilder.cancelActiveBuild(); // a late async field would land on top of the belt
+                        if (fieldHandle != null) {
+                            fieldHandle.detach();
+                            fieldHandle = null;
+                        }
+                        ensureStreamer();
+                        if (streamer.getSnapshot() != null) streamer.useSnapshot(null); // generate, not F12's snapshot
+                        streamer.start();
+                        System.out.println("Streaming belt started.");
+                    }
+                }
                 case F9 -> {
-                    // Clear any prior field first
+                    // Clear any prior field first (a streaming belt or a build still in flight counts as one)
+                    worldBuilder.cancelActiveBuild();
+                    if (streamer != null) streamer.stop();
                     if (fieldHandle != null) {
                         fieldHandle.detach();
                         fieldHandle = null;
@@ -237,10 +276,11 @@ scene.addEventHandler(AsteroidFieldEvent.ATTACHED, e -> {
                     cfg.usePrototypes = true;
                     cfg.prototypeCount = 20;
 
-                    fieldHandle = worldBuilder.buildAndAttach(familyPool, placement, cfg);
-                    System.out.println("Spawned: " + fieldHandle.getField().instances.size() + " asteroids");
+                    spawnFieldAsync(cfg);
                 }
                 case F10 -> {
+                    worldBuilder.cancelActiveBuild();
+                    if (streamer != null) streamer.stop();
                     if (fieldHandle != null) {
                         fieldHandle.detach();
                         fieldHandle = null;
@@ -248,6 +288,36 @@ scene.addEventHandler(AsteroidFieldEvent.ATTACHED, e -> {
                     }
                     // No direct LOD/event calls—Handle now fires DETACHED.
                 }
+                case F11 -> { // Save the current field as a snapshot (F12 streams it back)
+                    if (fieldHandle == null) {
+                        System.out.println("No field to snapshot (F9 builds one).");
+                    } else {
+                        try {
+                            WorldBuilder.saveSnapshot(fieldHandle, WorldBuilder.defaultSnapshotFile(),
+                                    ensureStreamer().getSectorSize());
+                        } catch (IOException ex) {
+                            System.out.println("Snapshot failed: " + ex);
+                        }
+                    }
+                }
+                case F12 -> { // Stream the saved snapshot around the camera instead of generating sectors
+                    Path file = WorldBuilder.defaultSnapshotFile();
+                    FieldSnapshot.Reader reader;
+                    try {
+                        reader = FieldSnapshot.open(file);
+                    } catch (IOException ex) {
+                        System.out.println("No snapshot to stream (" + ex.getMessage() + "); F11 saves one.");
+                        break;
+                    }
+                    worldBuilder.cancelActiveBuild();
+                    if (fieldHandle != null) {
+                        fieldHandle.detach();
+                        fieldHandle = null;
+                    }
+                    ensureStreamer().useSnapshot(reader);
+                    streamer.start();
+                    System.out.println("Streaming snapshot " + file + " (" + reader.instanceCount() + " asteroids).");
+                }
                 default -> { /* noop */ }
             }
         });
@@ -262,6 +332,33 @@ scene.addEventHandler(AsteroidFieldEvent.ATTACHED, e -> {
         stage.setScene(scene);
         stage.show();
     }
+    /**
+     * Build off the FX thread and attach in batches; the handle is kept once the build completes (on the FX
+     * thread). Callers cancel any previous build first, so a superseded build never lands in fieldHandle.
+     */
+    private void spawnFieldAsync(AsteroidFieldGenerator.Config cfg) {
+        worldBuilder.buildAndAttachAsync(familyPool, placement, cfg).whenComplete((h, err) -> {
+            if (h != null) {
+                fieldHandle = h;
+                System.out.println("Spawned: " + h.getField().instances.size() + " asteroids");
+            } else if (err != null && !(err instanceof CancellationException)) {
+                System.out.println("Field build failed: " + err);
+            }
+        });
+    }
+
+    /** The streaming belt (F8 generates sectors, F12 pages a snapshot); created on first use, not started. */
+    private SectorStreamer ensureStreamer() {
+        if (streamer == null) {
+            var cfg = WorldBuilder.defaultHighCountConfig();
+            cfg.count = 20000;            // whole belt; only nearby sectors are realized
+            cfg.usePrototypes = true;
+            cfg.prototypeCount = 32;
+            streamer = new SectorStreamer(gameView, familyPool, placement, cfg);
+        }
+        return streamer;
+    }
+
 private void applyRenderSettingsToField(AsteroidField field) {
     field.instances.forEach(ai -> {
         MeshView mv = ai.node();
@@ -277,6 +374,9 @@ private void applyRenderSettingsToField(AsteroidField field) {
             // scene.removeEventHandler(AsteroidFieldEvent.ANY, lodManager);
             lodManager.stop();
         }
+        if (streamer != null) {
+            streamer.dispose();
+        }
         super.stop();
     }
 
@@ -4,10 +4,12 @@ import AsteroidField.asteroids.field.AsteroidField;
 import AsteroidField.asteroids.field.AsteroidInstance;
 import AsteroidField.asteroids.parameters.AsteroidParameters;
 import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import AsteroidField.asteroids.providers.MeshDiskCache;
 import AsteroidField.events.AsteroidFieldEvent;
 import javafx.animation.AnimationTimer;
 import javafx.event.EventHandler;
 import javafx.geometry.Point3D;
+import javafx.scene.Group;
 import javafx.scene.PerspectiveCamera;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Material;
@@ -21,7 +23,17 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Throttled, hysteresis-based runtime LOD for asteroid MeshViews.
  *
- * - 3 levels: LOD0(High), LOD1(Med), LOD2(Low)
+ * - 3 mesh levels: LOD0(High), LOD1(Med), LOD2(Low)
+ * - Optional LOD3 impostor tier beyond the far band: the MeshView is hidden (mesh, collision and
+ *   tether anchoring stay intact) and a camera-facing quad from a pre-baked ImpostorAtlas is drawn
+ *   instead, either merged into one batched mesh (default) or as one small quad node per asteroid;
+ *   atlas tiles are per shared prototype, else per family and material, and at most
+ *   'maxImpostorBakesPerFrame' tiles are baked per tick
+ * - Optional static cell batching: asteroids are bucketed per spatial cell and shared material; a cell
+ *   whose nearest point is outside the near band is drawn as one merged TriangleMesh (LOD1/LOD2) with the
+ *   member MeshViews hidden, and is unbatched back into individual MeshViews when the camera approaches
+ * - LOD meshes are cached per prototype (entries sharing one AsteroidParameters share their LOD meshes)
+ * - Incremental registration for streamed sectors (addField/removeField via SECTOR_ATTACHED/SECTOR_DETACHED)
  * - Hysteresis: enter/exit thresholds differ to reduce thrash
  * - Throttle: evaluate at most 'budgetPerFrame' items/frames
  * - Lazy mesh cache: meshes are generated the first time a level is actually needed
@@ -32,6 +44,8 @@ import java.util.concurrent.ThreadLocalRandom;
  *   AsteroidLodManager lod = new AsteroidLodManager(camera);
  *   lod.setDistances(5_000, 10_000, 20_000, 800);
  *   lod.setBudgetPerFrame(100);
+ *   lod.setImpostorsEnabled(true);   // optional LOD3 beyond the far distance
+ *   lod.setCellBatchingEnabled(true); // optional merged meshes per spatial cell
  *   // register lod as an event handler on the Scene/root for AsteroidFieldEvent.ANY
  *   lod.start();
  */
@@ -53,17 +67,61 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         final double approxR;
         final Point3D pos;
 
-        final TriangleMesh[] lodMeshes = new TriangleMesh[3]; // 0..2
+        final TriangleMesh[] lodMeshes;                       // 0..2, shared per prototype
         final Material originalMaterial;                      // for debug tint restore
+        final Object familyTileKey;                           // impostor tile key when not a shared prototype
         int currentLevel = -1; // unknown
 
-        Entry(Source src) {
+        // Impostor tier (LOD3) bookkeeping
+        ImpostorBatch impostorBatch; // shared batch, or a private one when batching is off
+        int impostorSlot = -1;
+
+        // Static cell batching bookkeeping (null when the entry is not in a batchable cell)
+        Cell cell;
+
+        Entry(Source src, TriangleMesh[] lodMeshes) {
+            this.lodMeshes = lodMeshes;
             this.view = src.view();
             this.family = src.familyName();
             this.baseParams = src.params();
             this.approxR = src.approxRadius();
             this.pos = src.position();
             this.originalMaterial = src.view().getMaterial(); // may be null; we preserve it
+            this.familyTileKey = List.of("family", String.valueOf(family),
+                    originalMaterial != null ? originalMaterial : "default");
+        }
+    }
+
+    /** A spatial cell of entries sharing one material; drawn as a single merged mesh while batched. */
+    private static final class Cell {
+        final long key;
+        final List<Entry> members;
+        final double cx, cy, cz;  // centroid of member positions
+        final double radius;      // bounding radius around the centroid (includes member radii)
+        final Material material;
+        final StaticBatchChunk chunk;
+
+        boolean merged = false;
+        boolean unbatchable = false; // a member mesh could not be merged; stays live
+        int chunkLevel = -1;
+
+        Cell(long key, List<Entry> members, Material material) {
+            this.key = key;
+            this.members = members;
+            this.material = material;
+            double sx = 0, sy = 0, sz = 0;
+            for (Entry e : members) {
+                sx += e.pos.getX(); sy += e.pos.getY(); sz += e.pos.getZ();
+            }
+            int n = members.size();
+            this.cx = sx / n; this.cy = sy / n; this.cz = sz / n;
+            double r = 0;
+            for (Entry e : members) {
+                double dx = e.pos.getX() - cx, dy = e.pos.getY() - cy, dz = e.pos.getZ() - cz;
+                r = Math.max(r, Math.sqrt(dx*dx + dy*dy + dz*dz) + e.approxR);
+            }
+            this.radius = r;
+            this.chunk = new StaticBatchChunk(cx, cy, cz);
         }
     }
 
@@ -92,6 +150,34 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
     private double nearIn2, midIn2, farIn2;
     private double nearOut2, midOut2, farOut2;
 
+    // Impostor tier (LOD3)
+    private static final int IMPOSTOR_LEVEL = 3;
+    private boolean impostorsEnabled = false;
+    private boolean impostorBatching = true;
+    private ImpostorAtlas impostorAtlas = new ImpostorAtlas(64, 8);
+    private ImpostorBatch sharedBatch = null;
+    private Group impostorParent = null;
+    private int impostorCount = 0;
+    private final float[] uvScratch = new float[4];
+    private int maxImpostorBakesPerFrame = 2; // each bake is a synchronous snapshot on the FX thread
+    private int impostorBakesLeft = 0;
+
+    // Static cell batching
+    private boolean cellBatching = false;
+    private double cellSize = 2_500;
+    private int maxCellMergesPerFrame = 2; // merged-mesh builds are the expensive part
+    private final List<Cell> cells = new ArrayList<>();
+    private boolean cellsDirty = false;
+    private int mergedCellCount = 0;
+
+    // LOD mesh cache keyed by prototype parameters (identity), reference-counted so streamed-out
+    // sectors release meshes nobody uses any more
+    private static final class LodMeshes {
+        final TriangleMesh[] meshes = new TriangleMesh[3];
+        int refs;
+    }
+    private final Map<AsteroidParameters, LodMeshes> lodCache = new IdentityHashMap<>();
+
     // Budget
     private int budgetPerFrame = 120; // evaluate up to N entries/frame
     private final List<Entry> entries = new ArrayList<>();
@@ -129,6 +215,7 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
     /** Register a whole field at once. */
     public void registerField(AsteroidField field) {
         if (field == null) return;
+        setImpostorParent(field.root);
         for (AsteroidInstance ai : field.instances) {
             register(toSource(ai));
         }
@@ -137,11 +224,62 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
 
     /** Register a single asteroid. You may call this any time. */
     public void register(Source src) {
-        entries.add(new Entry(src));
+        AsteroidParameters key = src.params();
+        TriangleMesh[] meshes;
+        if (key != null) {
+            LodMeshes shared = lodCache.computeIfAbsent(key, k -> new LodMeshes());
+            shared.refs++;
+            meshes = shared.meshes;
+        } else {
+            meshes = new TriangleMesh[3];
+        }
+        entries.add(new Entry(src, meshes));
+        cellsDirty = true;
+    }
+
+    /**
+     * Incrementally add a field (e.g. a streamed sector) without clearing existing entries.
+     * The impostor parent is left alone once set; otherwise the field's parent group is used,
+     * since sector roots come and go.
+     */
+    public void addField(AsteroidField field) {
+        if (field == null) return;
+        if (impostorParent == null && field.root.getParent() instanceof Group g) setImpostorParent(g);
+        for (AsteroidInstance ai : field.instances) {
+            register(toSource(ai));
+        }
+        shuffle();
+    }
+
+    /** Incrementally remove a field's asteroids (e.g. a retired sector). */
+    public void removeField(AsteroidField field) {
+        if (field == null || field.instances.isEmpty()) return;
+        Set<MeshView> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AsteroidInstance ai : field.instances) gone.add(ai.node());
+
+        boolean removed = entries.removeIf(e -> {
+            if (!gone.contains(e.view)) return false;
+            if (e.cell != null && e.cell.merged) unmergeCell(e.cell, null);
+            if (e.currentLevel == IMPOSTOR_LEVEL) exitImpostor(e);
+            LodMeshes shared = (e.baseParams != null) ? lodCache.get(e.baseParams) : null;
+            if (shared != null && --shared.refs <= 0) lodCache.remove(e.baseParams);
+            return true;
+        });
+        if (removed) {
+            cellsDirty = true;
+            evalIndex = 0;
+        }
     }
 
     /** Clear all registered asteroids and cached meshes. */
     public void clear() {
+        resetCells();
+        cellsDirty = false;
+        lodCache.clear();
+        releaseAllImpostors();
+        if (sharedBatch != null) detachBatch(sharedBatch);
+        sharedBatch = null;
+        impostorAtlas.clear(); // prototypes are per field
         entries.clear();
         evalIndex = 0;
     }
@@ -205,6 +343,81 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         return Math.toDegrees(Math.acos(cosHalfFov));
     }
 
+    // ----------------------------
+    // Tuning: impostor tier (LOD3)
+    // ----------------------------
+
+    /** Enable the impostor tier for asteroids beyond the far distance. Default false. */
+    public void setImpostorsEnabled(boolean v) {
+        if (this.impostorsEnabled == v) return;
+        this.impostorsEnabled = v;
+        if (!v) releaseAllImpostors();
+    }
+    public boolean isImpostorsEnabled() { return impostorsEnabled; }
+
+    /** Merge all impostor quads into one mesh (true, default) or use one quad node per asteroid. */
+    public void setImpostorBatchingEnabled(boolean v) {
+        if (this.impostorBatching == v) return;
+        releaseAllImpostors(); // re-enter under the new mode on the next evaluations
+        this.impostorBatching = v;
+    }
+    public boolean isImpostorBatchingEnabled() { return impostorBatching; }
+
+    /** Atlas layout: tile edge in pixels and tiles per row (capacity = columns²). Resets baked tiles. */
+    public void setImpostorAtlasLayout(int tileSize, int columns) {
+        releaseAllImpostors();
+        ImpostorAtlas next = new ImpostorAtlas(tileSize, columns);
+        if (sharedBatch != null) sharedBatch.getView().setMaterial(next.getMaterial());
+        impostorAtlas = next;
+    }
+
+    /**
+     * Upper bound on impostor tile bakes per tick. Entries whose tile is not baked yet keep their mesh tier
+     * and are retried on a later evaluation.
+     */
+    public void setMaxImpostorBakesPerFrame(int n) { this.maxImpostorBakesPerFrame = Math.max(1, n); }
+    public int getMaxImpostorBakesPerFrame() { return maxImpostorBakesPerFrame; }
+
+    /** Group that receives impostor quads; registerField(...) uses the field root. */
+    public void setImpostorParent(Group parent) {
+        if (parent == impostorParent) return;
+        releaseAllImpostors();
+        if (sharedBatch != null) detachBatch(sharedBatch);
+        sharedBatch = null;
+        impostorParent = parent;
+    }
+
+    // ----------------------------
+    // Tuning: static cell batching
+    // ----------------------------
+
+    /**
+     * Merge asteroids outside the near band into one TriangleMesh per spatial cell and material.
+     * Cells are unbatched back into individual MeshViews (collision and tethers keep using those)
+     * as soon as the camera comes within the near distance. Default false.
+     */
+    public void setCellBatchingEnabled(boolean v) {
+        if (this.cellBatching == v) return;
+        this.cellBatching = v;
+        if (!v) unmergeAllCells();
+        else cellsDirty = true;
+    }
+    public boolean isCellBatchingEnabled() { return cellBatching; }
+
+    /** Edge length of the batching grid (world units). Rebuckets and unbatches all cells. */
+    public void setBatchCellSize(double size) {
+        size = Math.max(100, size);
+        if (size == cellSize) return;
+        cellSize = size;
+        resetCells();
+        cellsDirty = true;
+    }
+    public double getBatchCellSize() { return cellSize; }
+
+    /** Upper bound on merged-mesh builds per frame (cached merges and unbatching are not limited). */
+    public void setMaxCellMergesPerFrame(int n) { this.maxCellMergesPerFrame = Math.max(1, n); }
+    public int getMaxCellMergesPerFrame() { return maxCellMergesPerFrame; }
+
     // ----------------------------
     // Debug tinting
     // ----------------------------
@@ -222,11 +435,14 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         } else {
             // Turning ON: apply tint matching current level (if already assigned)
             for (Entry e : entries) {
-                if (e.currentLevel >= 0 && e.currentLevel <= 2) {
+                if (e.currentLevel >= 0 && e.currentLevel <= 2) { // impostors keep the atlas material
                     e.view.setMaterial(tierTint[e.currentLevel]);
                 }
             }
         }
+        for (Cell c : cells) {
+            if (c.merged) c.chunk.getView().setMaterial(v ? tierTint[c.chunkLevel] : c.material);
+        }
     }
     public boolean isTintByTierEnabled() { return tintByTierEnabled; }
 
@@ -256,19 +472,28 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
 
         final int n = entries.size();
         int budget = Math.min(budgetPerFrame, n);
+        impostorBakesLeft = maxImpostorBakesPerFrame;
 
         // Camera position & forward
         Point3D camWorld = camera.localToScene(Point3D.ZERO);
         Point3D fw = camera.getLocalToSceneTransform().deltaTransform(0, 0, 1).normalize();
 
+        if (cellBatching) {
+            if (cellsDirty) rebuildCells();
+            updateCells(camWorld);
+        }
+
         for (int i = 0; i < budget; i++) {
             if (evalIndex >= n) evalIndex = 0;
             Entry e = entries.get(evalIndex++);
-            updateLod(e, camWorld, fw);
+            if (e.cell != null && e.cell.merged) continue; // drawn by its cell chunk
+            updateLod(e, camWorld, fw, true);
         }
+
+        if (impostorCount > 0) updateImpostors();
     }
 
-    private void updateLod(Entry e, Point3D camWorld, Point3D camForward) {
+    private void updateLod(Entry e, Point3D camWorld, Point3D camForward, boolean gated) {
         // Distance^2
         double dx = e.pos.getX() - camWorld.getX();
         double dy = e.pos.getY() - camWorld.getY();
@@ -279,7 +504,7 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         if (targetLevel == e.currentLevel) return;
 
         // Optional on-screen gating: if required, only swap when within forward cone
-        if (onScreenOnly) {
+        if (gated && onScreenOnly) {
             double dist = Math.sqrt(d2);
             if (dist > 1e-6) {
                 double dot = (dx * camForward.getX() + dy * camForward.getY() + dz * camForward.getZ()) / dist;
@@ -287,8 +512,14 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
             }
         }
 
+        if (targetLevel == IMPOSTOR_LEVEL) {
+            enterImpostor(e);
+            return;
+        }
+
         TriangleMesh mesh = getOrBuildMeshForLevel(e, targetLevel);
         if (mesh != null) {
+            if (e.currentLevel == IMPOSTOR_LEVEL) exitImpostor(e);
             applyLevelChange(e, targetLevel, mesh);
         }
     }
@@ -310,6 +541,7 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         if (current < 0) {
             if (d2 <= nearIn2) return 0;
             if (d2 <= midIn2)  return 1;
+            if (impostorsEnabled && d2 > farIn2) return IMPOSTOR_LEVEL;
             return 2;
         }
         switch (current) {
@@ -322,7 +554,14 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
                 return 1;
             case 2: // currently Low
                 if (d2 <= midIn2)  return (d2 <= nearIn2 ? 0 : 1);
+                if (impostorsEnabled && d2 > farOut2) return IMPOSTOR_LEVEL;
                 return 2;
+            case IMPOSTOR_LEVEL: // currently Impostor
+                if (!impostorsEnabled || d2 <= farIn2) {
+                    if (d2 <= nearIn2) return 0;
+                    return (d2 <= midIn2 ? 1 : 2);
+                }
+                return IMPOSTOR_LEVEL;
             default:
                 return 2;
         }
@@ -336,7 +575,7 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
         if (provider == null) return null;
 
         AsteroidParameters p = adjustedParamsForLevel(e.baseParams, level);
-        m = provider.generateMesh(p);
+        m = MeshDiskCache.getOrGenerate(provider, p);
         e.lodMeshes[level] = m;
         return m;
     }
@@ -354,10 +593,321 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
                 .build();
     }
 
+    // ----------------------------
+    // Impostor tier internals
+    // ----------------------------
+
+    /**
+     * Hide the MeshView and show a camera-facing quad instead. Leaves the entry untouched while its tile
+     * waits for the bake budget; drops it to the low mesh tier if the atlas is full.
+     */
+    private void enterImpostor(Entry e) {
+        if (impostorParent == null) return;
+        if (e.currentLevel == IMPOSTOR_LEVEL) return;
+
+        int tile = impostorTile(e);
+        if (tile == BAKE_DEFERRED) return;
+        if (tile < 0) {
+            // Atlas full: fall back to the low mesh tier
+            if (e.currentLevel != 2) {
+                TriangleMesh low = getOrBuildMeshForLevel(e, 2);
+                if (low != null) applyLevelChange(e, 2, low);
+            }
+            return;
+        }
+        impostorAtlas.uvRect(tile, uvScratch);
+
+        ImpostorBatch batch;
+        if (impostorBatching) {
+            if (sharedBatch == null) {
+                sharedBatch = new ImpostorBatch(impostorAtlas.getMaterial());
+                impostorParent.getChildren().add(sharedBatch.getView());
+            }
+            batch = sharedBatch;
+        } else {
+            batch = new ImpostorBatch(impostorAtlas.getMaterial());
+            impostorParent.getChildren().add(batch.getView());
+        }
+
+        e.impostorBatch = batch;
+        e.impostorSlot = batch.add(e, e.pos.getX(), e.pos.getY(), e.pos.getZ(),
+                ImpostorAtlas.quadHalfExtent(e.approxR), uvScratch);
+        e.view.setVisible(false);
+        e.currentLevel = IMPOSTOR_LEVEL;
+        impostorCount++;
+    }
+
+    private static final int BAKE_DEFERRED = -2;
+
+    /**
+     * Tile for an entry: its prototype's own tile when several asteroids share its params, otherwise (or when
+     * the atlas has no room for another prototype) the tile of its family and material. Bakes count against
+     * the per-tick budget.
+     * @return tile index, -1 when the atlas is full, BAKE_DEFERRED when the bake budget is spent this tick
+     */
+    private int impostorTile(Entry e) {
+        LodMeshes shared = (e.baseParams != null) ? lodCache.get(e.baseParams) : null;
+        boolean prototype = shared != null && shared.refs > 1;
+        Object key = prototype ? e.baseParams : e.familyTileKey;
+
+        int tile = impostorAtlas.existingTile(key);
+        if (tile >= 0) return tile;
+        if (!impostorAtlas.isFull() && impostorBakesLeft > 0) return bakeTile(e, key);
+
+        if (prototype) {
+            tile = impostorAtlas.existingTile(e.familyTileKey);
+            if (tile >= 0) return tile;
+        }
+        return impostorAtlas.isFull() ? -1 : BAKE_DEFERRED;
+    }
+
+    private int bakeTile(Entry e, Object key) {
+        impostorBakesLeft--;
+        // Bake from whatever mesh the view currently shows (LOD2 when coming from the far band)
+        TriangleMesh bakeMesh = (e.view.getMesh() instanceof TriangleMesh tm) ? tm : getOrBuildMeshForLevel(e, 2);
+        return impostorAtlas.tileFor(key, bakeMesh, e.originalMaterial);
+    }
+
+    /** Remove the entry's quad and make its MeshView visible again (caller assigns the new mesh level). */
+    private void exitImpostor(Entry e) {
+        ImpostorBatch batch = e.impostorBatch;
+        if (batch != null) {
+            Object moved = batch.remove(e.impostorSlot);
+            if (moved instanceof Entry m) m.impostorSlot = e.impostorSlot;
+            if (batch != sharedBatch) detachBatch(batch);
+            impostorCount--;
+        }
+        e.impostorBatch = null;
+        e.impostorSlot = -1;
+        e.view.setVisible(true);
+    }
+
+    /**
+     * Turn every impostor back into its (unchanged) MeshView and mark the level unknown,
+     * so the next evaluation re-decides without forcing any mesh builds here.
+     */
+    private void releaseAllImpostors() {
+        if (impostorCount == 0) return;
+        for (Entry e : entries) {
+            if (e.currentLevel != IMPOSTOR_LEVEL) continue;
+            exitImpostor(e);
+            e.currentLevel = -1;
+        }
+        if (sharedBatch != null) sharedBatch.clear();
+        impostorCount = 0;
+    }
+
+    private static void detachBatch(ImpostorBatch batch) {
+        MeshView v = batch.getView();
+        if (v.getParent() instanceof Group g) g.getChildren().remove(v);
+    }
+
+    /** Re-orient impostor quads to the camera (cheap no-op when nothing changed). */
+    private void updateImpostors() {
+        javafx.scene.transform.Transform l2s = camera.getLocalToSceneTransform();
+        Point3D right = l2s.deltaTransform(1, 0, 0).normalize();
+        Point3D down  = l2s.deltaTransform(0, 1, 0).normalize();
+        double rx = right.getX(), ry = right.getY(), rz = right.getZ();
+        double dx = down.getX(),  dy = down.getY(),  dz = down.getZ();
+
+        if (sharedBatch != null) sharedBatch.update(rx, ry, rz, dx, dy, dz);
+        if (!impostorBatching) {
+            for (Entry e : entries) {
+                if (e.impostorBatch != null && e.impostorBatch != sharedBatch) {
+                    e.impostorBatch.update(rx, ry, rz, dx, dy, dz);
+                }
+            }
+        }
+    }
+
+    // ----------------------------
+    // Static cell batching internals
+    // ----------------------------
+
+    /**
+     * Bucket entries by grid cell and material; cells with a single member are not worth merging.
+     * Cells whose membership is unchanged are kept as-is (including their merged state and cached
+     * chunk meshes), so streaming sectors in and out only disturbs the cells they touch.
+     */
+    private void rebuildCells() {
+        Map<Material, Map<Long, List<Entry>>> buckets = new IdentityHashMap<>();
+        for (Entry e : entries) {
+            long key = cellKey(e.pos);
+            buckets.computeIfAbsent(e.originalMaterial, m -> new HashMap<>())
+                   .computeIfAbsent(key, k -> new ArrayList<>())
+                   .add(e);
+        }
+
+        Set<Cell> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Cell> next = new ArrayList<>();
+        for (Map.Entry<Material, Map<Long, List<Entry>>> byMat : buckets.entrySet()) {
+            for (Map.Entry<Long, List<Entry>> bucket : byMat.getValue().entrySet()) {
+                List<Entry> members = bucket.getValue();
+                if (members.size() < 2) continue;
+                Cell old = members.get(0).cell;
+                if (old != null && old.key == bucket.getKey() && old.material == byMat.getKey()
+                        && old.members.size() == members.size() && allIn(members, old)) {
+                    kept.add(old);
+                    next.add(old);
+                    continue;
+                }
+                next.add(new Cell(bucket.getKey(), members, byMat.getKey()));
+            }
+        }
+
+        for (Cell c : cells) {
+            if (!kept.contains(c) && c.merged) unmergeCell(c, null);
+        }
+        for (Entry e : entries) e.cell = null;
+        for (Cell c : next) {
+            for (Entry e : c.members) e.cell = c;
+        }
+        cells.clear();
+        cells.addAll(next);
+        cellsDirty = false;
+    }
+
+    private static boolean allIn(List<Entry> members, Cell c) {
+        for (Entry e : members) {
+            if (e.cell != c) return false;
+        }
+        return true;
+    }
+
+    /** Unbatch and forget all cells (grid size changed, or everything is being cleared). */
+    private void resetCells() {
+        unmergeAllCells();
+        for (Cell c : cells) {
+            for (Entry e : c.members) e.cell = null;
+        }
+        cells.clear();
+    }
+
+    /** Pack the integer grid coordinates (21 bits each) into one long key. */
+    private long cellKey(Point3D p) {
+        long ix = (long) Math.floor(p.getX() / cellSize) & 0x1FFFFF;
+        long iy = (long) Math.floor(p.getY() / cellSize) & 0x1FFFFF;
+        long iz = (long) Math.floor(p.getZ() / cellSize) & 0x1FFFFF;
+        return (ix << 42) | (iy << 21) | iz;
+    }
+
+    /**
+     * Decide batched/live per cell using the distance from the camera to the cell's nearest point.
+     * - Live → merged once outside near+hysteresis; merged → live once inside near
+     * - With impostors enabled, cells beyond the far band stay live so their members can become impostors
+     * - Merged cells switch between LOD1/LOD2 chunk meshes with the usual mid-band hysteresis
+     */
+    private void updateCells(Point3D camWorld) {
+        int mergesLeft = maxCellMergesPerFrame;
+        for (Cell c : cells) {
+            if (c.unbatchable) continue;
+            double dx = c.cx - camWorld.getX();
+            double dy = c.cy - camWorld.getY();
+            double dz = c.cz - camWorld.getZ();
+            double d = Math.max(0, Math.sqrt(dx*dx + dy*dy + dz*dz) - c.radius);
+
+            boolean wantMerged = c.merged
+                    ? d > nearIn && !(impostorsEnabled && d > farIn + hysteresis)
+                    : d > nearIn + hysteresis && !(impostorsEnabled && d > farIn);
+
+            if (!wantMerged) {
+                if (c.merged) unmergeCell(c, camWorld);
+                continue;
+            }
+
+            int level = (c.chunkLevel == 1)
+                    ? (d > midIn + hysteresis ? 2 : 1)
+                    : (d <= midIn ? 1 : 2);
+            if (c.merged && level == c.chunkLevel) continue;
+
+            boolean needsBuild = c.chunk.mesh(level) == null;
+            if (needsBuild && mergesLeft <= 0) continue; // try again next frame
+            if (needsBuild) mergesLeft--;
+            mergeCell(c, level);
+        }
+    }
+
+    /** Show the cell as one merged mesh at the given level and hide its member MeshViews. */
+    private void mergeCell(Cell c, int level) {
+        MeshView first = c.members.get(0).view;
+        if (!(first.getParent() instanceof Group parent)) return; // not attached yet
+
+        TriangleMesh merged = c.chunk.mesh(level);
+        if (merged == null) {
+            List<MeshView> views = new ArrayList<>(c.members.size());
+            List<TriangleMesh> meshes = new ArrayList<>(c.members.size());
+            for (Entry e : c.members) {
+                if (e.view.getParent() != parent) { markUnbatchable(c); return; }
+                TriangleMesh m = getOrBuildMeshForLevel(e, level);
+                if (m == null && e.view.getMesh() instanceof TriangleMesh tm) m = tm;
+                views.add(e.view);
+                meshes.add(m);
+            }
+            merged = c.chunk.build(level, views, meshes);
+            if (merged == null) { markUnbatchable(c); return; }
+        }
+
+        MeshView cv = c.chunk.getView();
+        cv.setMesh(merged);
+        cv.setMaterial(tintByTierEnabled ? tierTint[level] : c.material);
+        cv.setDrawMode(first.getDrawMode());
+        cv.setCullFace(first.getCullFace());
+        if (cv.getParent() != parent) parent.getChildren().add(cv);
+
+        if (!c.merged) {
+            for (Entry e : c.members) {
+                if (e.currentLevel == IMPOSTOR_LEVEL) {
+                    exitImpostor(e);
+                    e.currentLevel = -1; // re-decided when the cell is unbatched
+                }
+                e.view.setVisible(false);
+            }
+            c.merged = true;
+            mergedCellCount++;
+        }
+        c.chunkLevel = level;
+    }
+
+    /** Restore a cell's individual MeshViews, immediately re-deciding each member's level. */
+    private void unmergeCell(Cell c, Point3D camWorld) {
+        detachChunk(c);
+        for (Entry e : c.members) {
+            e.view.setVisible(true);
+            if (camWorld != null) updateLod(e, camWorld, null, false);
+        }
+    }
+
+    /** Give up on batching a cell (mixed parents or an unsupported mesh format); it stays live from now on. */
+    private void markUnbatchable(Cell c) {
+        c.unbatchable = true;
+        if (c.merged) unmergeCell(c, null);
+        c.chunk.invalidate();
+    }
+
+    /** Unbatch every cell without re-deciding levels (members keep the mesh they had). */
+    private void unmergeAllCells() {
+        if (mergedCellCount == 0) return;
+        for (Cell c : cells) {
+            if (c.merged) unmergeCell(c, null);
+        }
+    }
+
+    private void detachChunk(Cell c) {
+        MeshView cv = c.chunk.getView();
+        if (cv.getParent() instanceof Group g) g.getChildren().remove(cv);
+        if (c.merged) mergedCellCount--;
+        c.merged = false;
+        c.chunkLevel = -1;
+    }
+
     public String debugSummary() {
         return String.format(
-            "Entries=%d  Budget=%d  Near=%.0f  Mid=%.0f  Far=%.0f",
-            entries.size(), budgetPerFrame, nearIn, midIn, farIn);
+            "Entries=%d  Budget=%d  Near=%.0f  Mid=%.0f  Far=%.0f%nImpostors=%s%s  Active=%d  Atlas=%d/%d%n"
+                + "Cells=%s  Batched=%d/%d",
+            entries.size(), budgetPerFrame, nearIn, midIn, farIn,
+            impostorsEnabled ? "on" : "off", impostorBatching ? " (batched)" : "",
+            impostorCount, impostorAtlas.size(), impostorAtlas.capacity(),
+            cellBatching ? "on" : "off", mergedCellCount, cells.size());
     }
 
     // Adapter from your existing AsteroidInstance
@@ -386,6 +936,12 @@ public final class AsteroidLodManager implements EventHandler<AsteroidFieldEvent
             clear();
             registerField(f);
         }
+        else if (type == AsteroidFieldEvent.SECTOR_ATTACHED) {
+            addField(event.getField());
+        }
+        else if (type == AsteroidFieldEvent.SECTOR_DETACHED) {
+            removeField(event.getField());
+        }
         else if (type == AsteroidFieldEvent.DETACHED) {
             // Clear everything and forget the field
             clear();
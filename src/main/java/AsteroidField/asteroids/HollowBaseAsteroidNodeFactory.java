@@ -8,6 +8,7 @@ import AsteroidField.asteroids.geometry.HollowBaseSplitUtil.Split;
 import AsteroidField.asteroids.geometry.Portal;
 import AsteroidField.asteroids.parameters.HollowBaseAsteroidParameters;
 import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import AsteroidField.asteroids.providers.MeshDiskCache;
 import javafx.geometry.Point3D;
 import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.CullFace;
@@ -30,7 +31,7 @@ public final class HollowBaseAsteroidNodeFactory {
                                       PhongMaterial innerMaterial) {
 
         // Reuse your current geometry pipeline
-        TriangleMesh combined = provider.generateMesh(p);
+        TriangleMesh combined = MeshDiskCache.getOrGenerate(provider, p);
 
         // Split into two meshes with UVs
         Split split = HollowBaseSplitUtil.splitOuterInnerWithUV(combined);
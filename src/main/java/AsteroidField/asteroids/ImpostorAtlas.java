@@ -0,0 +1,145 @@
+package AsteroidField.asteroids;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.scene.AmbientLight;
+import javafx.scene.Group;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.PointLight;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Material;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Pre-baked impostor atlas for far-tier asteroids.
+ *
+ * - One square tile per key, captured once via an offscreen Node.snapshot
+ * - Keys are chosen by the caller: a shared prototype's AsteroidParameters (identity equality) or a
+ *   per-family value key, so one-off asteroids share tiles instead of filling the atlas
+ * - A single shared PhongMaterial samples the atlas, so all impostor quads can be batched
+ *
+ * FX thread only (snapshot requirement).
+ */
+public final class ImpostorAtlas {
+
+    /** Vertical FOV of the bake camera; quads are sized to match this framing. */
+    private static final double BAKE_FOV_DEG = 30.0;
+    /** Extra room around the bounding sphere so silhouettes never touch the tile edge. */
+    private static final double BAKE_MARGIN = 1.08;
+
+    private final int tileSize;
+    private final int columns;
+    private final int capacity;
+    private final WritableImage atlas;
+    private final PhongMaterial material = new PhongMaterial(Color.WHITE);
+    private final Map<Object, Integer> tiles = new HashMap<>();
+
+    // Offscreen bake rig (reused for every tile)
+    private final MeshView bakeView = new MeshView();
+    private final Group bakeRoot = new Group();
+    private final PerspectiveCamera bakeCamera = new PerspectiveCamera(true);
+    private final SnapshotParameters params = new SnapshotParameters();
+    private final PhongMaterial fallbackMaterial = new PhongMaterial(Color.DARKGRAY);
+
+    public ImpostorAtlas(int tileSize, int columns) {
+        this.tileSize = Math.max(8, tileSize);
+        this.columns = Math.max(1, columns);
+        this.capacity = this.columns * this.columns;
+        this.atlas = new WritableImage(this.tileSize * this.columns, this.tileSize * this.columns);
+        material.setDiffuseMap(atlas);
+        material.setSpecularColor(Color.BLACK); // lighting is baked into the tile
+
+        bakeView.setCullFace(CullFace.BACK);
+        PointLight key = new PointLight(Color.color(0.85, 0.85, 0.85));
+        key.setTranslateX(-4000);
+        key.setTranslateY(-4000);
+        key.setTranslateZ(-6000);
+        bakeRoot.getChildren().addAll(bakeView, new AmbientLight(Color.color(0.35, 0.35, 0.35)), key);
+
+        bakeCamera.setFieldOfView(BAKE_FOV_DEG);
+        params.setCamera(bakeCamera);
+        params.setDepthBuffer(true);
+        params.setFill(Color.TRANSPARENT);
+        params.setViewport(new javafx.geometry.Rectangle2D(0, 0, this.tileSize, this.tileSize));
+    }
+
+    /**
+     * Return the tile index for the given prototype key, baking it on first use.
+     * @return tile index, or -1 when the atlas is full (caller should keep the mesh tier)
+     */
+    public int tileFor(Object key, TriangleMesh mesh, Material sourceMaterial) {
+        Integer existing = tiles.get(key);
+        if (existing != null) return existing;
+        if (tiles.size() >= capacity || mesh == null) return -1;
+
+        int tile = tiles.size();
+        bake(tile, mesh, sourceMaterial);
+        tiles.put(key, tile);
+        return tile;
+    }
+
+    /** Tile index already baked for key, or -1 (never bakes). */
+    public int existingTile(Object key) {
+        Integer existing = tiles.get(key);
+        return existing != null ? existing : -1;
+    }
+
+    /** Write the atlas UV rectangle (u0, v0, u1, v1) of a tile into out[0..3]. */
+    public void uvRect(int tile, float[] out) {
+        int col = tile % columns;
+        int row = tile / columns;
+        float inset = 0.5f / (tileSize * columns); // half-texel inset avoids bleeding
+        out[0] = (float) col / columns + inset;
+        out[1] = (float) row / columns + inset;
+        out[2] = (float) (col + 1) / columns - inset;
+        out[3] = (float) (row + 1) / columns - inset;
+    }
+
+    /** Half-extent of a camera-facing quad that matches the bake framing for a given world radius. */
+    public static double quadHalfExtent(double worldRadius) {
+        return worldRadius * BAKE_MARGIN / Math.cos(Math.toRadians(BAKE_FOV_DEG * 0.5));
+    }
+
+    public PhongMaterial getMaterial() { return material; }
+    public int size() { return tiles.size(); }
+    public int capacity() { return capacity; }
+    public boolean isFull() { return tiles.size() >= capacity; }
+
+    /** Forget all tiles; pixels are overwritten as new prototypes are baked. */
+    public void clear() { tiles.clear(); }
+
+    private void bake(int tile, TriangleMesh mesh, Material sourceMaterial) {
+        double r = Math.max(1e-3, localRadius(mesh));
+        double dist = BAKE_MARGIN * r / Math.sin(Math.toRadians(BAKE_FOV_DEG * 0.5));
+        bakeCamera.setTranslateZ(-dist);
+        bakeCamera.setNearClip(Math.max(0.1, dist - 2 * r));
+        bakeCamera.setFarClip(dist + 2 * r);
+
+        bakeView.setMesh(mesh);
+        bakeView.setMaterial(sourceMaterial != null ? sourceMaterial : fallbackMaterial);
+        WritableImage shot = bakeRoot.snapshot(params, null);
+        bakeView.setMesh(null); // do not pin the mesh
+
+        int x = (tile % columns) * tileSize;
+        int y = (tile / columns) * tileSize;
+        int w = Math.min(tileSize, (int) shot.getWidth());
+        int h = Math.min(tileSize, (int) shot.getHeight());
+        atlas.getPixelWriter().setPixels(x, y, w, h, shot.getPixelReader(), 0, 0);
+    }
+
+    private static double localRadius(TriangleMesh tm) {
+        javafx.collections.ObservableFloatArray pts = tm.getPoints();
+        double maxR2 = 0.0;
+        for (int i = 0; i + 2 < pts.size(); i += 3) {
+            float x = pts.get(i), y = pts.get(i + 1), z = pts.get(i + 2);
+            double r2 = x * x + y * y + z * z;
+            if (r2 > maxR2) maxR2 = r2;
+        }
+        return Math.sqrt(maxR2);
+    }
+}
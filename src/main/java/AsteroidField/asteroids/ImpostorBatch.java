@@ -0,0 +1,159 @@
+package AsteroidField.asteroids;
+
+import java.util.Arrays;
+import javafx.scene.paint.Material;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Camera-facing impostor quads merged into a single dynamic TriangleMesh.
+ *
+ * - One slot per impostor (4 points, 4 texcoords, 2 faces), SoA primitive storage
+ * - O(1) add and swap-remove; the owner moved into a freed slot is returned to the caller
+ * - Texcoords/faces are republished only when membership changes
+ * - Points are republished only when membership or camera orientation changes
+ *   (screen-aligned billboards depend on camera orientation, not position)
+ *
+ * FX thread only.
+ */
+final class ImpostorBatch {
+
+    private final TriangleMesh mesh = new TriangleMesh();
+    private final MeshView view = new MeshView(mesh);
+
+    // Per-slot data
+    private Object[] owners = new Object[16];
+    private double[] cx = new double[16], cy = new double[16], cz = new double[16], half = new double[16];
+    private float[] uv = new float[16 * 4];
+    private int count = 0;
+
+    // Publish buffers
+    private float[] pointBuf = new float[0];
+    private boolean topologyDirty = true;
+    private boolean pointsDirty = true;
+    private double lastRx, lastRy, lastRz, lastDx, lastDy, lastDz;
+
+    ImpostorBatch(Material material) {
+        view.setMaterial(material);
+        view.setCullFace(CullFace.NONE); // quads may be seen from either winding
+        view.setMouseTransparent(true);
+        view.setPickOnBounds(false);
+    }
+
+    MeshView getView() { return view; }
+    int size() { return count; }
+
+    /** Add an impostor; returns its slot index. uvRect = (u0, v0, u1, v1). */
+    int add(Object owner, double x, double y, double z, double halfExtent, float[] uvRect) {
+        ensureCapacity(count + 1);
+        int s = count++;
+        owners[s] = owner;
+        cx[s] = x; cy[s] = y; cz[s] = z; half[s] = halfExtent;
+        System.arraycopy(uvRect, 0, uv, s * 4, 4);
+        topologyDirty = true;
+        return s;
+    }
+
+    /**
+     * Swap-remove a slot.
+     * @return the owner that now occupies {@code slot}, or null if the last slot was removed
+     */
+    Object remove(int slot) {
+        if (slot < 0 || slot >= count) return null;
+        int last = --count;
+        Object moved = null;
+        if (slot != last) {
+            owners[slot] = owners[last];
+            cx[slot] = cx[last]; cy[slot] = cy[last]; cz[slot] = cz[last]; half[slot] = half[last];
+            System.arraycopy(uv, last * 4, uv, slot * 4, 4);
+            moved = owners[slot];
+        }
+        owners[last] = null;
+        topologyDirty = true;
+        return moved;
+    }
+
+    /** Drop all slots and empty the mesh. */
+    void clear() {
+        Arrays.fill(owners, 0, count, null);
+        count = 0;
+        topologyDirty = true;
+        publish(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Orient all quads to the camera.
+     * @param rx,ry,rz camera right (scene space, unit)
+     * @param dx,dy,dz camera down  (scene space, unit; JavaFX Y+ is down)
+     */
+    void update(double rx, double ry, double rz, double dx, double dy, double dz) {
+        if (!topologyDirty && !pointsDirty
+                && rx == lastRx && ry == lastRy && rz == lastRz
+                && dx == lastDx && dy == lastDy && dz == lastDz) {
+            return;
+        }
+        publish(rx, ry, rz, dx, dy, dz);
+    }
+
+    private void publish(double rx, double ry, double rz, double dx, double dy, double dz) {
+        lastRx = rx; lastRy = ry; lastRz = rz;
+        lastDx = dx; lastDy = dy; lastDz = dz;
+
+        int nPts = count * 12;
+        if (pointBuf.length < nPts) pointBuf = new float[Math.max(nPts, pointBuf.length * 2)];
+        for (int s = 0, p = 0; s < count; s++) {
+            double h = half[s];
+            double ax = (rx + dx) * h, ay = (ry + dy) * h, az = (rz + dz) * h; // right + down
+            double bx = (rx - dx) * h, by = (ry - dy) * h, bz = (rz - dz) * h; // right - down
+            // corners: (-r,-d), (+r,-d), (+r,+d), (-r,+d)
+            pointBuf[p++] = (float) (cx[s] - ax); pointBuf[p++] = (float) (cy[s] - ay); pointBuf[p++] = (float) (cz[s] - az);
+            pointBuf[p++] = (float) (cx[s] + bx); pointBuf[p++] = (float) (cy[s] + by); pointBuf[p++] = (float) (cz[s] + bz);
+            pointBuf[p++] = (float) (cx[s] + ax); pointBuf[p++] = (float) (cy[s] + ay); pointBuf[p++] = (float) (cz[s] + az);
+            pointBuf[p++] = (float) (cx[s] - bx); pointBuf[p++] = (float) (cy[s] - by); pointBuf[p++] = (float) (cz[s] - bz);
+        }
+
+        if (topologyDirty) {
+            // Shrinking: drop faces first so no face references a missing point
+            if (mesh.getPoints().size() > nPts) {
+                mesh.getFaces().clear();
+                mesh.getTexCoords().clear();
+            }
+            mesh.getPoints().setAll(pointBuf, 0, nPts);
+            float[] tex = new float[count * 8];
+            int[] faces = new int[count * 12];
+            for (int s = 0; s < count; s++) {
+                float u0 = uv[s * 4], v0 = uv[s * 4 + 1], u1 = uv[s * 4 + 2], v1 = uv[s * 4 + 3];
+                int t = s * 8;
+                tex[t]     = u0; tex[t + 1] = v0;
+                tex[t + 2] = u1; tex[t + 3] = v0;
+                tex[t + 4] = u1; tex[t + 5] = v1;
+                tex[t + 6] = u0; tex[t + 7] = v1;
+                int b = s * 4, f = s * 12;
+                faces[f]     = b;     faces[f + 1]  = b;
+                faces[f + 2] = b + 1; faces[f + 3]  = b + 1;
+                faces[f + 4] = b + 2; faces[f + 5]  = b + 2;
+                faces[f + 6] = b;     faces[f + 7]  = b;
+                faces[f + 8] = b + 2; faces[f + 9]  = b + 2;
+                faces[f + 10] = b + 3; faces[f + 11] = b + 3;
+            }
+            mesh.getTexCoords().setAll(tex);
+            mesh.getFaces().setAll(faces);
+            topologyDirty = false;
+        } else {
+            mesh.getPoints().set(0, pointBuf, 0, nPts);
+        }
+        pointsDirty = false;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= owners.length) return;
+        int cap = Math.max(n, owners.length * 2);
+        owners = Arrays.copyOf(owners, cap);
+        cx = Arrays.copyOf(cx, cap);
+        cy = Arrays.copyOf(cy, cap);
+        cz = Arrays.copyOf(cz, cap);
+        half = Arrays.copyOf(half, cap);
+        uv = Arrays.copyOf(uv, cap * 4);
+    }
+}
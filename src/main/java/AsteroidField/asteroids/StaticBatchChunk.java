@@ -0,0 +1,134 @@
+package AsteroidField.asteroids;
+
+import java.util.Arrays;
+import java.util.List;
+import javafx.collections.ObservableFloatArray;
+import javafx.collections.ObservableIntegerArray;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.ObservableFaceArray;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.shape.VertexFormat;
+import javafx.scene.transform.Transform;
+
+/**
+ * One spatial cell's worth of asteroids merged into a single static TriangleMesh.
+ *
+ * - Member transforms (translate/rotate/scale) are baked into the merged points
+ * - Points are stored relative to the cell center; the chunk MeshView is translated there
+ *   (keeps float precision for cells far from the origin)
+ * - One merged mesh is cached per LOD level, so re-batching at a known level is free
+ *
+ * FX thread only (reads live node transforms).
+ */
+final class StaticBatchChunk {
+
+    private final MeshView view = new MeshView();
+    private final TriangleMesh[] levels = new TriangleMesh[3]; // 0..2, built lazily
+    private final double cx, cy, cz;
+
+    StaticBatchChunk(double cx, double cy, double cz) {
+        this.cx = cx;
+        this.cy = cy;
+        this.cz = cz;
+        view.setTranslateX(cx);
+        view.setTranslateY(cy);
+        view.setTranslateZ(cz);
+        view.setMouseTransparent(true);
+        view.setPickOnBounds(false);
+    }
+
+    MeshView getView() { return view; }
+
+    /** Cached merged mesh for a level, or null if it has not been built yet. */
+    TriangleMesh mesh(int level) { return levels[level]; }
+
+    /** Merge the given member views at one level and cache the result; returns null if a member can't be merged. */
+    TriangleMesh build(int level, List<MeshView> views, List<TriangleMesh> meshes) {
+        TriangleMesh merged = merge(views, meshes, cx, cy, cz);
+        levels[level] = merged;
+        return merged;
+    }
+
+    /** Drop cached merged meshes (e.g. after members changed). */
+    void invalidate() {
+        levels[0] = levels[1] = levels[2] = null;
+    }
+
+    /**
+     * Bake each view's local-to-parent transform into a copy of its mesh and concatenate them.
+     * Only POINT_TEXCOORD meshes are supported (all asteroid providers emit that format).
+     */
+    static TriangleMesh merge(List<MeshView> views, List<TriangleMesh> meshes,
+                              double originX, double originY, double originZ) {
+        int nPts = 0, nTex = 0, nFaces = 0;
+        for (TriangleMesh m : meshes) {
+            if (m == null || m.getVertexFormat() != VertexFormat.POINT_TEXCOORD) return null;
+            nPts += m.getPoints().size();
+            nTex += m.getTexCoords().size();
+            nFaces += m.getFaces().size();
+        }
+
+        float[] pts = new float[nPts];
+        float[] tex = new float[nTex];
+        int[] faces = new int[nFaces];
+        int[] smoothing = new int[nFaces / 6];
+
+        int pOff = 0, tOff = 0, fOff = 0, sOff = 0;
+        float[] srcPts = null, srcTex = null;
+        int[] srcFaces = null, srcSmooth = null;
+        for (int i = 0; i < meshes.size(); i++) {
+            TriangleMesh m = meshes.get(i);
+            Transform t = views.get(i).getLocalToParentTransform();
+            double mxx = t.getMxx(), mxy = t.getMxy(), mxz = t.getMxz(), tx = t.getTx() - originX;
+            double myx = t.getMyx(), myy = t.getMyy(), myz = t.getMyz(), ty = t.getTy() - originY;
+            double mzx = t.getMzx(), mzy = t.getMzy(), mzz = t.getMzz(), tz = t.getTz() - originZ;
+
+            ObservableFloatArray mp = m.getPoints();
+            int np = mp.size();
+            srcPts = mp.toArray(srcPts);
+            for (int k = 0; k < np; k += 3) {
+                double x = srcPts[k], y = srcPts[k + 1], z = srcPts[k + 2];
+                pts[pOff + k]     = (float) (mxx * x + mxy * y + mxz * z + tx);
+                pts[pOff + k + 1] = (float) (myx * x + myy * y + myz * z + ty);
+                pts[pOff + k + 2] = (float) (mzx * x + mzy * y + mzz * z + tz);
+            }
+
+            ObservableFloatArray mt = m.getTexCoords();
+            int nt = mt.size();
+            srcTex = mt.toArray(srcTex);
+            System.arraycopy(srcTex, 0, tex, tOff, nt);
+
+            // Faces: p0,t0,p1,t1,p2,t2 — shift point and texcoord indices into the merged arrays
+            ObservableFaceArray mf = m.getFaces();
+            int nf = mf.size();
+            srcFaces = mf.toArray(srcFaces);
+            int pBase = pOff / 3, tBase = tOff / 2;
+            for (int k = 0; k < nf; k += 2) {
+                faces[fOff + k]     = srcFaces[k] + pBase;
+                faces[fOff + k + 1] = srcFaces[k + 1] + tBase;
+            }
+
+            // Smoothing groups: copy when present, otherwise everything in group 1 (the JavaFX default)
+            ObservableIntegerArray ms = m.getFaceSmoothingGroups();
+            int tris = nf / 6;
+            if (ms.size() == tris) {
+                srcSmooth = ms.toArray(srcSmooth);
+                System.arraycopy(srcSmooth, 0, smoothing, sOff, tris);
+            } else {
+                Arrays.fill(smoothing, sOff, sOff + tris, 1);
+            }
+
+            pOff += np;
+            tOff += nt;
+            fOff += nf;
+            sOff += tris;
+        }
+
+        TriangleMesh merged = new TriangleMesh();
+        merged.getPoints().setAll(pts);
+        merged.getTexCoords().setAll(tex);
+        merged.getFaces().setAll(faces);
+        merged.getFaceSmoothingGroups().setAll(smoothing);
+        return merged;
+    }
+}
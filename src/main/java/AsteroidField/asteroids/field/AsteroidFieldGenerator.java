@@ -2,13 +2,21 @@ package AsteroidField.asteroids.field;
 
 import AsteroidField.asteroids.parameters.AsteroidParameters;
 import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import AsteroidField.asteroids.providers.MeshDiskCache;
 import AsteroidField.asteroids.field.families.FamilyPool;
 import AsteroidField.asteroids.field.families.FamilySupport;
+import AsteroidField.asteroids.field.placement.PlacementBuffer;
 import AsteroidField.asteroids.field.placement.PlacementStrategy;
 import AsteroidField.asteroids.field.placement.PlacementStrategy.Placement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import javafx.application.Platform;
 import javafx.geometry.Point3D;
 import javafx.scene.paint.Color;
@@ -17,11 +25,16 @@ import javafx.scene.shape.CullFace;
 import javafx.scene.shape.MeshView;
 import javafx.scene.shape.Sphere;
 import javafx.scene.shape.TriangleMesh;
-import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Affine;
 
 /**
  * Synchronous field generator. Call build() on a background thread for heavy scenes,
  * then attach the returned field.root to your scene on the FX thread.
+ *
+ * Parallel mode (cfg.parallel): all random draws (placements, family picks, parameters) still happen
+ * serially from the single seeded Random, in the same order as serial mode. Only mesh generation, which
+ * is a pure function of each AsteroidParameters (its own sub-seed), runs on a fork-join pool.
+ * Results are assembled in input order, so a given seed yields an identical field in either mode.
  */
 public final class AsteroidFieldGenerator {
 
@@ -38,6 +51,11 @@ public final class AsteroidFieldGenerator {
         public int prototypeCount = 60;
 
         public Color baseColor = Color.DARKGRAY;
+
+        /** Generate meshes concurrently (output is identical to serial mode). */
+        public boolean parallel = true;
+        /** Worker count for parallel mode; 0 uses the common fork-join pool. */
+        public int parallelism = 0;
     }
 
     private final FamilyPool families;
@@ -48,80 +66,247 @@ public final class AsteroidFieldGenerator {
         this.placement = placement;
     }
 
+    /** Build stages reported to a BuildMonitor (ATTACH is reported by callers that attach the field). */
+    public enum Phase { PLACEMENTS, PROTOTYPES, INSTANCES, ATTACH }
+
+    /** Optional progress/cancellation hooks for long builds; may be called from worker threads. */
+    public interface BuildMonitor {
+        BuildMonitor NONE = new BuildMonitor() {};
+
+        default void progress(Phase phase, int done, int total) {}
+        default boolean isCancelled() { return false; }
+    }
+
+    /** Shared prototype meshes (plus their params and family names), reusable across builds and sectors. */
+    public static final class Prototypes {
+        public final List<TriangleMesh> meshes;
+        public final List<AsteroidParameters> params;
+        public final List<String> families;
+
+        Prototypes(List<TriangleMesh> meshes, List<AsteroidParameters> params, List<String> families) {
+            this.meshes = meshes;
+            this.params = params;
+            this.families = families;
+        }
+
+        public int size() { return meshes.size(); }
+        public boolean isEmpty() { return meshes.isEmpty(); }
+    }
+
     /** Build the field synchronously. Prefer running on a worker thread. */
     public AsteroidField build(Config cfg) {
+        return build(cfg, BuildMonitor.NONE);
+    }
+
+    /**
+     * Build the field synchronously, reporting progress and honouring cancellation.
+     * @throws CancellationException if the monitor reports cancellation mid-build
+     */
+    public AsteroidField build(Config cfg, BuildMonitor monitor) {
+        BuildMonitor mon = (monitor != null) ? monitor : BuildMonitor.NONE;
         Random rng = new Random(cfg.seed);
-        List<Placement> places = placement.generate(cfg.count, rng);
-        List<AsteroidInstance> instances = new ArrayList<>(cfg.count);
+        checkCancelled(mon);
+        mon.progress(Phase.PLACEMENTS, 0, 1);
+        PlacementBuffer places = new PlacementBuffer(cfg.count);
+        placement.generate(cfg.count, rng, places);
+        mon.progress(Phase.PLACEMENTS, 1, 1);
 
         // Optional prototype meshes for speed
-        List<TriangleMesh> prototypes = new ArrayList<>();
-        List<AsteroidParameters> protoParams = new ArrayList<>();
-        List<String> protoFamilies = new ArrayList<>();
-        if (cfg.usePrototypes) {
-            int pc = Math.min(cfg.prototypeCount, cfg.count);
-            for (int i = 0; i < pc; i++) {
+        Prototypes protos = cfg.usePrototypes
+                ? buildPrototypes(cfg, Math.min(cfg.prototypeCount, cfg.count), rng, mon)
+                : null;
+
+        PhongMaterial sharedMat = new PhongMaterial(cfg.baseColor);
+        List<AsteroidInstance> instances = new ArrayList<>(cfg.count);
+        if (protos != null && !protos.isEmpty()) {
+            for (int i = 0; i < cfg.count; i++) {
+                if ((i & 63) == 0) {
+                    checkCancelled(mon);
+                    mon.progress(Phase.INSTANCES, i, cfg.count);
+                }
+                int idx = i % protos.size();
+                instances.add(realize(places, i, protos.meshes.get(idx), protos.params.get(idx),
+                        protos.families.get(idx), sharedMat));
+            }
+            mon.progress(Phase.INSTANCES, cfg.count, cfg.count);
+        } else {
+            // Unique meshes: draw every parameter set first, then generate
+            List<AsteroidMeshProvider> picks = new ArrayList<>(cfg.count);
+            List<AsteroidParameters> params = new ArrayList<>(cfg.count);
+            for (int i = 0; i < cfg.count; i++) {
                 AsteroidMeshProvider picked = families.pick(rng);
-                AsteroidParameters p = FamilySupport.createParams(
-                        picked, rng,
-                        lerp(cfg.radiusMin, cfg.radiusMax, rng.nextDouble()),
-                        randInt(rng, cfg.subdivisionsMin, cfg.subdivisionsMax),
-                        lerp(cfg.deformationMin, cfg.deformationMax, rng.nextDouble())
-                );
-                TriangleMesh m = picked.generateMesh(p);
-                prototypes.add(m);
-                protoParams.add(p);
-                protoFamilies.add(picked.getDisplayName());
+                picks.add(picked);
+                params.add(randomParams(cfg, picked, rng));
+            }
+            TriangleMesh[] meshes = generateMeshes(picks, params, cfg.parallel, cfg.parallelism,
+                    mon, Phase.INSTANCES);
+            for (int i = 0; i < cfg.count; i++) {
+                instances.add(realize(places, i, meshes[i], params.get(i),
+                        picks.get(i).getDisplayName(), sharedMat));
             }
         }
 
-        PhongMaterial sharedMat = new PhongMaterial(cfg.baseColor);
+        return new AsteroidField(instances);
+    }
 
-        for (int i = 0; i < cfg.count; i++) {
-            Placement pl = places.get(i);
-            TriangleMesh mesh;
-            AsteroidParameters params;
-            String family;
-
-            if (cfg.usePrototypes && !prototypes.isEmpty()) {
-                int idx = i % prototypes.size();
-                mesh = prototypes.get(idx);
-                params = protoParams.get(idx);
-                family = protoFamilies.get(idx);
+    /**
+     * Build a partial field (e.g. one streaming sector) from precomputed placements.
+     * Prototypes are picked at random from the shared set so neighbouring sectors don't repeat in lockstep.
+     */
+    public AsteroidField buildFromPlacements(Config cfg, List<Placement> places, Prototypes protos,
+                                             PhongMaterial sharedMat, Random rng) {
+        return buildFromPlacements(cfg, PlacementBuffer.of(places), protos, sharedMat, rng);
+    }
+
+    /** As above from a primitive placement buffer. */
+    public AsteroidField buildFromPlacements(Config cfg, PlacementBuffer places, Prototypes protos,
+                                             PhongMaterial sharedMat, Random rng) {
+        List<AsteroidInstance> instances = new ArrayList<>(places.size());
+        for (int i = 0; i < places.size(); i++) {
+            if (protos != null && !protos.isEmpty()) {
+                int idx = rng.nextInt(protos.size());
+                instances.add(realize(places, i, protos.meshes.get(idx), protos.params.get(idx),
+                        protos.families.get(idx), sharedMat));
             } else {
                 AsteroidMeshProvider picked = families.pick(rng);
-                family = picked.getDisplayName();
-                params = FamilySupport.createParams(
-                        picked, rng,
-                        lerp(cfg.radiusMin, cfg.radiusMax, rng.nextDouble()),
-                        randInt(rng, cfg.subdivisionsMin, cfg.subdivisionsMax),
-                        lerp(cfg.deformationMin, cfg.deformationMax, rng.nextDouble())
-                );
-                mesh = picked.generateMesh(params);
+                AsteroidParameters params = randomParams(cfg, picked, rng);
+                // One-off random seed: never read back, so it bypasses the disk cache
+                instances.add(realize(places, i, picked.generateMesh(params), params, picked.getDisplayName(), sharedMat));
             }
-            MeshView mv = new MeshView(mesh);
-            mv.setMouseTransparent(true);
-            mv.setPickOnBounds(false);
-            mv.setCullFace(CullFace.BACK);
-            mv.setMaterial(sharedMat); // tweak per-instance if desired
-            
-            // Placement
-            Point3D pos = pl.getPosition();
-            mv.setTranslateX(pos.getX());
-            mv.setTranslateY(pos.getY());
-            mv.setTranslateZ(pos.getZ());
-            applyOrientation(mv, pl.getForward(), pl.getUp());
-            mv.setScaleX(pl.getBaseScale());
-            mv.setScaleY(pl.getBaseScale());
-            mv.setScaleZ(pl.getBaseScale());
-
-            double approxR = estimateBoundingRadius(mesh) * pl.getBaseScale();
-            instances.add(new AsteroidInstance(mv, family, params, approxR, pos));
         }
-
         return new AsteroidField(instances);
     }
 
+    /** Generate 'count' prototype meshes using the config's size/shape ranges (honours cfg.parallel). */
+    public Prototypes buildPrototypes(Config cfg, int count, Random rng) {
+        return buildPrototypes(cfg, count, rng, BuildMonitor.NONE);
+    }
+
+    /** As {@link #buildPrototypes(Config, int, Random)}, reporting PROTOTYPES progress to the monitor. */
+    public Prototypes buildPrototypes(Config cfg, int count, Random rng, BuildMonitor monitor) {
+        BuildMonitor mon = (monitor != null) ? monitor : BuildMonitor.NONE;
+        List<AsteroidMeshProvider> picks = new ArrayList<>(count);
+        List<AsteroidParameters> protoParams = new ArrayList<>(count);
+        List<String> protoFamilies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AsteroidMeshProvider picked = families.pick(rng);
+            picks.add(picked);
+            protoParams.add(randomParams(cfg, picked, rng));
+            protoFamilies.add(picked.getDisplayName());
+        }
+        TriangleMesh[] meshes = generateMeshes(picks, protoParams, cfg.parallel, cfg.parallelism,
+                mon, Phase.PROTOTYPES);
+        return new Prototypes(new ArrayList<>(List.of(meshes)), protoParams, protoFamilies);
+    }
+
+    /**
+     * Generate one mesh per (provider, params) pair; result[i] belongs to input i.
+     * In parallel mode each pair is an independent fork-join task (no shared Random).
+     * Progress is reported per finished mesh; cancellation is checked before each mesh.
+     * Only PROTOTYPES go through MeshDiskCache: unique INSTANCES meshes have one-off seeds.
+     */
+    private static TriangleMesh[] generateMeshes(List<AsteroidMeshProvider> providers,
+                                                 List<AsteroidParameters> params,
+                                                 boolean parallel, int parallelism,
+                                                 BuildMonitor mon, Phase phase) {
+        int n = providers.size();
+        TriangleMesh[] out = new TriangleMesh[n];
+        boolean diskCache = (phase == Phase.PROTOTYPES);
+        mon.progress(phase, 0, n);
+        if (!parallel || n < 2) {
+            for (int i = 0; i < n; i++) {
+                checkCancelled(mon);
+                out[i] = generate(providers.get(i), params.get(i), diskCache);
+                mon.progress(phase, i + 1, n);
+            }
+            return out;
+        }
+
+        AtomicInteger finished = new AtomicInteger();
+        List<Callable<TriangleMesh>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            AsteroidMeshProvider p = providers.get(i);
+            AsteroidParameters ap = params.get(i);
+            tasks.add(() -> {
+                checkCancelled(mon);
+                TriangleMesh m = generate(p, ap, diskCache);
+                mon.progress(phase, finished.incrementAndGet(), n);
+                return m;
+            });
+        }
+        ForkJoinPool pool = (parallelism > 0) ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        try {
+            List<Future<TriangleMesh>> done = pool.invokeAll(tasks);
+            for (int i = 0; i < n; i++) out[i] = done.get(i).get();
+            return out;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Field generation interrupted", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException("Mesh generation failed", cause);
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+    }
+
+    /** One asteroid node for a legacy placement and an already generated mesh. */
+    private static AsteroidInstance realize(Placement pl, TriangleMesh mesh, AsteroidParameters params,
+                                            String family, PhongMaterial sharedMat) {
+        return realize(pl, mesh, params, family, sharedMat, estimateBoundingRadius(mesh) * pl.getBaseScale());
+    }
+
+    /** As above with a known bounding radius (snapshot loading skips the per-mesh point scan). */
+    static AsteroidInstance realize(Placement pl, TriangleMesh mesh, AsteroidParameters params,
+                                    String family, PhongMaterial sharedMat, double approxR) {
+        PlacementBuffer one = new PlacementBuffer(1);
+        one.add(pl);
+        return realize(one, 0, mesh, params, family, sharedMat, approxR);
+    }
+
+    /** One asteroid node for placement i of a batch. */
+    private static AsteroidInstance realize(PlacementBuffer places, int i, TriangleMesh mesh,
+                                            AsteroidParameters params, String family, PhongMaterial sharedMat) {
+        return realize(places, i, mesh, params, family, sharedMat, estimateBoundingRadius(mesh) * places.scale(i));
+    }
+
+    /** Placement as a single Affine (translate * yaw/pitch rotation * uniform scale) instead of node properties. */
+    private static AsteroidInstance realize(PlacementBuffer places, int i, TriangleMesh mesh,
+                                            AsteroidParameters params, String family, PhongMaterial sharedMat,
+                                            double approxR) {
+        MeshView mv = new MeshView(mesh);
+        mv.setMouseTransparent(true);
+        mv.setPickOnBounds(false);
+        mv.setCullFace(CullFace.BACK);
+        mv.setMaterial(sharedMat); // tweak per-instance if desired
+
+        Affine xf = new Affine();
+        places.toAffine(i, xf);
+        mv.getTransforms().add(xf);
+
+        Point3D pos = new Point3D(places.x(i), places.y(i), places.z(i));
+        return new AsteroidInstance(mv, family, params, approxR, pos);
+    }
+
+    private static TriangleMesh generate(AsteroidMeshProvider provider, AsteroidParameters params, boolean diskCache) {
+        return diskCache ? MeshDiskCache.getOrGenerate(provider, params) : provider.generateMesh(params);
+    }
+
+    private static void checkCancelled(BuildMonitor mon) {
+        if (mon.isCancelled()) throw new CancellationException("Field build cancelled");
+    }
+
+    private AsteroidParameters randomParams(Config cfg, AsteroidMeshProvider picked, Random rng) {
+        return FamilySupport.createParams(
+                picked, rng,
+                lerp(cfg.radiusMin, cfg.radiusMax, rng.nextDouble()),
+                randInt(rng, cfg.subdivisionsMin, cfg.subdivisionsMax),
+                lerp(cfg.deformationMin, cfg.deformationMax, rng.nextDouble())
+        );
+    }
+
     // --- utilities ---
 
     private static int randInt(Random rng, int a, int bInclusive) {
@@ -142,14 +327,6 @@ public final class AsteroidFieldGenerator {
         return Math.sqrt(maxR2);
     }
 
-    /** Simple yaw/pitch from forward vector, assuming up ≈ +Z. */
-    private static void applyOrientation(MeshView n, Point3D forward, Point3D up) {
-        Point3D f = forward.normalize();
-        double yaw = Math.toDegrees(Math.atan2(f.getX(), f.getZ()));   // rotate around Y
-        double pitch = Math.toDegrees(Math.asin(-f.getY()));           // rotate around X
-        n.getTransforms().addAll(new Rotate(yaw, Rotate.Y_AXIS), new Rotate(pitch, Rotate.X_AXIS));
-    }
-
     /** Utility to add the field Group on the FX thread. */
     public static void attachToSceneOnFx(AsteroidField field, javafx.scene.Group parent) {
         Platform.runLater(() -> parent.getChildren().add(field.root));
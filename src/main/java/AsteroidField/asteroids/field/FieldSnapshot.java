@@ -0,0 +1,380 @@
+package AsteroidField.asteroids.field;
+
+import AsteroidField.asteroids.field.placement.PlacementStrategy.Placement;
+import AsteroidField.asteroids.geometry.MeshBuffers;
+import AsteroidField.asteroids.parameters.AsteroidParameters;
+import AsteroidField.asteroids.parameters.ParameterCodec;
+import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import AsteroidField.asteroids.providers.MeshDiskCache;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javafx.geometry.Point3D;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Transform;
+
+/**
+ * Versioned binary snapshot of a generated AsteroidField.
+ *
+ * Layout (little-endian unless noted):
+ * - Header (64 bytes): magic, version, instance/prototype/sector counts, flags, sector size,
+ *   offsets of the prototype table, sector table, instance table and mesh blobs
+ * - Prototype table (DataOutput, big-endian): family name, ParameterCodec params, embedded mesh offset (-1 = none)
+ * - Sector table: ix, iy, iz, first instance, instance count (instances are grouped by sector)
+ * - Instance table: 48-byte records (position, forward, up, base scale, bounding radius, prototype index)
+ * - Optional mesh blobs: one MeshBuffers blob per prototype
+ *
+ * Reading maps the file once and touches only the tables it needs: prototype meshes are decoded
+ * (or regenerated through MeshDiskCache when not embedded) on first use, and each sector is
+ * realized on demand, so a streamer can page a pre-baked belt in around the camera.
+ *
+ * Usage:
+ *   FieldSnapshot.write(path, field, 4000, true);          // FX thread, or a detached field
+ *   FieldSnapshot.Reader r = FieldSnapshot.open(path);
+ *   AsteroidField whole = r.loadAll(mat);                  // or r.loadSector(ix, iy, iz, mat)
+ */
+public final class FieldSnapshot {
+
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x41465331; // "AFS1"
+    private static final int HEADER_BYTES = 64;
+    private static final int SECTOR_BYTES = 20;
+    private static final int INSTANCE_BYTES = 48;
+    private static final int FLAG_EMBEDDED_MESHES = 1;
+
+    private FieldSnapshot() {}
+
+    // ----------------------------
+    // Writer
+    // ----------------------------
+
+    /**
+     * Write the field's instances grouped into cubic sectors of 'sectorSize'.
+     * Instances sharing a TriangleMesh share one prototype entry; with 'embedMeshes' the prototype
+     * geometry is stored too, otherwise it is regenerated from (family, params) on load.
+     * Reads node transforms, so call on the FX thread for an attached field.
+     */
+    public static void write(Path file, AsteroidField field, double sectorSize, boolean embedMeshes) throws IOException {
+        if (!(sectorSize > 0)) throw new IllegalArgumentException("sectorSize must be > 0");
+        List<AsteroidInstance> instances = field.instances;
+        int n = instances.size();
+
+        // Prototypes by mesh identity
+        Map<TriangleMesh, Integer> protoIndex = new IdentityHashMap<>();
+        List<AsteroidInstance> protoOwners = new ArrayList<>();
+        int[] protoOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            AsteroidInstance ai = instances.get(i);
+            if (!(ai.node().getMesh() instanceof TriangleMesh tm)) {
+                throw new IOException("Instance " + i + " has no TriangleMesh");
+            }
+            Integer p = protoIndex.get(tm);
+            if (p == null) {
+                p = protoOwners.size();
+                protoIndex.put(tm, p);
+                protoOwners.add(ai);
+            }
+            protoOf[i] = p;
+        }
+
+        // Group instances by sector (stable within a sector)
+        long[] sectorKey = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Point3D pos = instances.get(i).position();
+            sectorKey[i] = packSector(cell(pos.getX(), sectorSize), cell(pos.getY(), sectorSize), cell(pos.getZ(), sectorSize));
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(sectorKey[a], sectorKey[b]));
+        List<int[]> sectors = new ArrayList<>(); // ix, iy, iz, first, count
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (sectors.isEmpty() || sectorKey[order[k - 1]] != sectorKey[i]) {
+                Point3D pos = instances.get(i).position();
+                sectors.add(new int[] { cell(pos.getX(), sectorSize), cell(pos.getY(), sectorSize),
+                                        cell(pos.getZ(), sectorSize), k, 0 });
+            }
+            sectors.get(sectors.size() - 1)[4]++;
+        }
+
+        // Prototype table (mesh offsets patched once blob positions are known)
+        int protoCount = protoOwners.size();
+        long protoTableOffset = HEADER_BYTES;
+        byte[][] protoHead = new byte[protoCount][];
+        int protoTableBytes = 0;
+        for (int p = 0; p < protoCount; p++) {
+            AsteroidInstance owner = protoOwners.get(p);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(owner.familyName() != null ? owner.familyName() : "");
+            out.writeBoolean(owner.params() != null);
+            if (owner.params() != null) ParameterCodec.write(out, owner.params());
+            out.flush();
+            protoHead[p] = bytes.toByteArray();
+            protoTableBytes += protoHead[p].length + 8;
+        }
+        long sectorTableOffset = protoTableOffset + protoTableBytes;
+        long instanceTableOffset = sectorTableOffset + (long) sectors.size() * SECTOR_BYTES;
+        long meshOffset = instanceTableOffset + (long) n * INSTANCE_BYTES;
+
+        long[] protoMeshOffset = new long[protoCount];
+        long total = meshOffset;
+        for (int p = 0; p < protoCount; p++) {
+            if (embedMeshes) {
+                protoMeshOffset[p] = total;
+                total += MeshBuffers.encodedSize((TriangleMesh) protoOwners.get(p).node().getMesh());
+            } else {
+                protoMeshOffset[p] = -1;
+            }
+        }
+        if (total > Integer.MAX_VALUE) throw new IOException("Snapshot too large (" + total + " bytes)");
+
+        ByteBuffer buf = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(protoCount).putInt(sectors.size())
+           .putInt(embedMeshes ? FLAG_EMBEDDED_MESHES : 0).putDouble(sectorSize)
+           .putLong(protoTableOffset).putLong(sectorTableOffset).putLong(instanceTableOffset)
+           .putLong(embedMeshes ? meshOffset : 0);
+
+        buf.position((int) protoTableOffset);
+        for (int p = 0; p < protoCount; p++) {
+            buf.put(protoHead[p]);
+            buf.order(ByteOrder.BIG_ENDIAN).putLong(protoMeshOffset[p]).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        for (int[] s : sectors) buf.putInt(s[0]).putInt(s[1]).putInt(s[2]).putInt(s[3]).putInt(s[4]);
+
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            AsteroidInstance ai = instances.get(i);
+            MeshView mv = ai.node();
+            Transform t = mv.getLocalToParentTransform();
+            Point3D pos = ai.position();
+            Point3D fwd = t.deltaTransform(0, 0, 1).normalize();
+            Point3D up = t.deltaTransform(0, 1, 0).normalize();
+            buf.putFloat((float) pos.getX()).putFloat((float) pos.getY()).putFloat((float) pos.getZ());
+            buf.putFloat((float) fwd.getX()).putFloat((float) fwd.getY()).putFloat((float) fwd.getZ());
+            buf.putFloat((float) up.getX()).putFloat((float) up.getY()).putFloat((float) up.getZ());
+            buf.putFloat((float) t.deltaTransform(0, 0, 1).magnitude()).putFloat((float) ai.approxRadius()).putInt(protoOf[i]);
+        }
+
+        if (embedMeshes) {
+            for (int p = 0; p < protoCount; p++) {
+                MeshBuffers.encode((TriangleMesh) protoOwners.get(p).node().getMesh(), buf);
+            }
+        }
+        buf.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "field", ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        System.out.println("FieldSnapshot: wrote " + n + " instances, " + protoCount + " prototypes, "
+                + sectors.size() + " sectors (" + total + " bytes) to " + file);
+    }
+
+    // ----------------------------
+    // Reader
+    // ----------------------------
+
+    /** Map a snapshot and read its header, prototype table and sector index. */
+    public static Reader open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            return new Reader(file, map); // the mapping stays valid after the channel is closed
+        }
+    }
+
+    /**
+     * Lazy view over a mapped snapshot. Thread-safe: sectors can be realized from worker threads
+     * (instance records are read with absolute gets; prototype meshes are published once).
+     * The mapping is released when the Reader becomes unreachable.
+     */
+    public static final class Reader {
+        private final Path file;
+        private final ByteBuffer map;
+        private final int instanceCount;
+        private final double sectorSize;
+        private final boolean embedded;
+        private final long instanceTableOffset;
+
+        private final String[] families;
+        private final AsteroidParameters[] params;
+        private final long[] meshOffsets;
+        private final AtomicReferenceArray<TriangleMesh> meshes;
+
+        private final int[] sectorCoords; // ix, iy, iz per sector
+        private final int[] sectorFirst;
+        private final int[] sectorCount;
+        private final Map<Long, Integer> sectorIndex = new HashMap<>();
+
+        private Reader(Path file, ByteBuffer map) throws IOException {
+            this.file = file;
+            this.map = map;
+            if (map.capacity() < HEADER_BYTES || map.getInt(0) != MAGIC) throw new IOException(file + " is not a field snapshot");
+            int version = map.getInt(4);
+            if (version != VERSION) throw new IOException(file + ": unsupported snapshot version " + version);
+            instanceCount = map.getInt(8);
+            int protoCount = map.getInt(12);
+            int sectors = map.getInt(16);
+            embedded = (map.getInt(20) & FLAG_EMBEDDED_MESHES) != 0;
+            sectorSize = map.getDouble(24);
+            long protoTableOffset = map.getLong(32);
+            long sectorTableOffset = map.getLong(40);
+            instanceTableOffset = map.getLong(48);
+            if (instanceTableOffset + (long) instanceCount * INSTANCE_BYTES > map.capacity()
+                || sectorTableOffset + (long) sectors * SECTOR_BYTES > instanceTableOffset) {
+                throw new IOException(file + ": truncated snapshot");
+            }
+
+            // Prototype table: small, decoded eagerly
+            families = new String[protoCount];
+            params = new AsteroidParameters[protoCount];
+            meshOffsets = new long[protoCount];
+            meshes = new AtomicReferenceArray<>(protoCount);
+            byte[] table = new byte[(int) (sectorTableOffset - protoTableOffset)];
+            map.get((int) protoTableOffset, table);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(table));
+            for (int p = 0; p < protoCount; p++) {
+                families[p] = in.readUTF();
+                params[p] = in.readBoolean() ? ParameterCodec.read(in) : null;
+                meshOffsets[p] = in.readLong();
+            }
+
+            sectorCoords = new int[sectors * 3];
+            sectorFirst = new int[sectors];
+            sectorCount = new int[sectors];
+            for (int s = 0; s < sectors; s++) {
+                int o = (int) sectorTableOffset + s * SECTOR_BYTES;
+                int ix = map.getInt(o), iy = map.getInt(o + 4), iz = map.getInt(o + 8);
+                sectorCoords[s * 3] = ix; sectorCoords[s * 3 + 1] = iy; sectorCoords[s * 3 + 2] = iz;
+                sectorFirst[s] = map.getInt(o + 12);
+                sectorCount[s] = map.getInt(o + 16);
+                sectorIndex.put(packSector(ix, iy, iz), s);
+            }
+        }
+
+        public Path file() { return file; }
+        public int instanceCount() { return instanceCount; }
+        public int prototypeCount() { return families.length; }
+        public int sectorCount() { return sectorFirst.length; }
+        public double sectorSize() { return sectorSize; }
+        public boolean hasEmbeddedMeshes() { return embedded; }
+
+        /** Sector index for grid coordinates, or -1 if the snapshot has no asteroids there. */
+        public int findSector(int ix, int iy, int iz) {
+            Integer s = sectorIndex.get(packSector(ix, iy, iz));
+            return s != null ? s : -1;
+        }
+
+        /** {ix, iy, iz} of sector s. */
+        public int[] sectorCoords(int s) {
+            return new int[] { sectorCoords[s * 3], sectorCoords[s * 3 + 1], sectorCoords[s * 3 + 2] };
+        }
+
+        public int sectorInstanceCount(int s) { return sectorCount[s]; }
+
+        /** Realize one sector as its own AsteroidField, or null if the coordinates hold no asteroids. */
+        public AsteroidField loadSector(int ix, int iy, int iz, PhongMaterial mat) {
+            int s = findSector(ix, iy, iz);
+            return s < 0 ? null : loadSector(s, mat);
+        }
+
+        public AsteroidField loadSector(int sector, PhongMaterial mat) {
+            return new AsteroidField(realizeRange(sectorFirst[sector], sectorCount[sector], mat));
+        }
+
+        /** Realize every instance into one field. */
+        public AsteroidField loadAll(PhongMaterial mat) {
+            return new AsteroidField(realizeRange(0, instanceCount, mat));
+        }
+
+        /** Shared prototype mesh (decoded, or regenerated through MeshDiskCache, on first use). */
+        public TriangleMesh prototypeMesh(int p) {
+            TriangleMesh m = meshes.get(p);
+            if (m != null) return m;
+            if (meshOffsets[p] >= 0) {
+                ByteBuffer blob = map.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                blob.position((int) meshOffsets[p]);
+                m = MeshBuffers.decode(blob);
+            } else {
+                AsteroidMeshProvider provider = providerFor(families[p]);
+                if (provider == null || params[p] == null) {
+                    throw new IllegalStateException(file + ": prototype " + p + " (" + families[p]
+                            + ") has no embedded mesh and no registered provider");
+                }
+                m = MeshDiskCache.getOrGenerate(provider, params[p]);
+            }
+            meshes.compareAndSet(p, null, m);
+            return meshes.get(p);
+        }
+
+        private List<AsteroidInstance> realizeRange(int first, int count, PhongMaterial mat) {
+            List<AsteroidInstance> out = new ArrayList<>(count);
+            for (int k = first; k < first + count; k++) {
+                int o = (int) (instanceTableOffset + (long) k * INSTANCE_BYTES);
+                Point3D pos = new Point3D(map.getFloat(o), map.getFloat(o + 4), map.getFloat(o + 8));
+                Point3D fwd = new Point3D(map.getFloat(o + 12), map.getFloat(o + 16), map.getFloat(o + 20));
+                Point3D up = new Point3D(map.getFloat(o + 24), map.getFloat(o + 28), map.getFloat(o + 32));
+                double scale = map.getFloat(o + 36);
+                double radius = map.getFloat(o + 40);
+                int p = map.getInt(o + 44);
+                out.add(AsteroidFieldGenerator.realize(new Placement(pos, fwd, up, scale),
+                        prototypeMesh(p), params[p], families[p], mat, radius));
+            }
+            return out;
+        }
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+
+    /** Registry key first, then display name (instances record getDisplayName(), which can differ from the key). */
+    private static AsteroidMeshProvider providerFor(String family) {
+        AsteroidMeshProvider p = AsteroidMeshProvider.PROVIDERS.get(family);
+        if (p != null) return p;
+        for (AsteroidMeshProvider candidate : AsteroidMeshProvider.PROVIDERS.values()) {
+            if (candidate.getDisplayName().equals(family)) return candidate;
+        }
+        return null;
+    }
+
+    private static int cell(double v, double size) { return (int) Math.floor(v / size); }
+
+    private static long packSector(int ix, int iy, int iz) {
+        return (((long) ix & 0x1FFFFF) << 42) | (((long) iy & 0x1FFFFF) << 21) | ((long) iz & 0x1FFFFF);
+    }
+}
@@ -4,31 +4,107 @@ import AsteroidField.asteroids.providers.AsteroidMeshProvider;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.beans.InvalidationListener;
 
-/** Weighted random selection among enabled families. */
+/**
+ * Weighted random selection among enabled families.
+ *
+ * - O(1) picks from a Walker/Vose alias table (one rng.nextDouble() per pick, as before)
+ * - The table is rebuilt lazily on the next pick after any entry's weight or enabled flag changes
+ * - Safe to pick from worker threads while the UI edits weights (the table is an immutable snapshot)
+ * - Each table records the modification count it was built from; a table whose build raced an edit is
+ *   stale as soon as it is published, so the next pick rebuilds it instead of using the old weights
+ */
 public final class FamilyPool {
     private final List<WeightedFamilyEntry> entries;
+    private final AtomicLong modCount = new AtomicLong();
+    private volatile AliasTable table; // null = not built yet
 
     public FamilyPool(List<WeightedFamilyEntry> entries) {
         this.entries = new ArrayList<WeightedFamilyEntry>(entries);
+        InvalidationListener stale = obs -> modCount.incrementAndGet();
+        for (WeightedFamilyEntry e : this.entries) {
+            e.weightProperty().addListener(stale);
+            e.enabledProperty().addListener(stale);
+        }
     }
 
     public AsteroidMeshProvider pick(Random rng) {
-        double total = 0.0;
-        for (WeightedFamilyEntry e : entries) {
-            if (e.isEnabled()) total += e.getWeight();
-        }
-        if (total <= 0) throw new IllegalStateException("No asteroid families enabled.");
-
-        double r = rng.nextDouble() * total;
-        double acc = 0.0;
-        for (WeightedFamilyEntry e : entries) {
-            if (!e.isEnabled()) continue;
-            acc += e.getWeight();
-            if (r <= acc) return e.provider();
-        }
-        return entries.get(entries.size() - 1).provider();
+        AliasTable t = table;
+        if (t == null || t.modCount != modCount.get()) t = rebuild();
+        return t.pick(rng.nextDouble());
     }
 
     public List<WeightedFamilyEntry> entries() { return entries; }
+
+    private synchronized AliasTable rebuild() {
+        long stamp = modCount.get();
+        AliasTable t = table;
+        if (t == null || t.modCount != stamp) {
+            // Read the count before the weights: an edit during the build leaves this table stale
+            t = AliasTable.build(entries, stamp);
+            table = t;
+        }
+        return t;
+    }
+
+    /** Vose alias table over the enabled, positively weighted entries. */
+    private static final class AliasTable {
+        final AsteroidMeshProvider[] providers;
+        final double[] prob;
+        final int[] alias;
+        final long modCount;
+
+        private AliasTable(AsteroidMeshProvider[] providers, double[] prob, int[] alias, long modCount) {
+            this.providers = providers;
+            this.prob = prob;
+            this.alias = alias;
+            this.modCount = modCount;
+        }
+
+        static AliasTable build(List<WeightedFamilyEntry> entries, long modCount) {
+            List<AsteroidMeshProvider> live = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            double total = 0.0;
+            for (WeightedFamilyEntry e : entries) {
+                double w = e.getWeight();
+                if (!e.isEnabled() || !(w > 0)) continue;
+                live.add(e.provider());
+                weights.add(w);
+                total += w;
+            }
+            if (total <= 0) throw new IllegalStateException("No asteroid families enabled.");
+
+            int n = live.size();
+            double[] prob = new double[n];
+            int[] alias = new int[n];
+            double[] scaled = new double[n];
+            int[] small = new int[n], large = new int[n];
+            int ns = 0, nl = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights.get(i) * n / total;
+                if (scaled[i] < 1.0) small[ns++] = i; else large[nl++] = i;
+            }
+            while (ns > 0 && nl > 0) {
+                int s = small[--ns], l = large[--nl];
+                prob[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+                if (scaled[l] < 1.0) small[ns++] = l; else large[nl++] = l;
+            }
+            // Leftovers are 1 up to rounding
+            while (nl > 0) { int l = large[--nl]; prob[l] = 1.0; alias[l] = l; }
+            while (ns > 0) { int s = small[--ns]; prob[s] = 1.0; alias[s] = s; }
+
+            return new AliasTable(live.toArray(new AsteroidMeshProvider[0]), prob, alias, modCount);
+        }
+
+        /** u in [0, 1): column from the integer part of u*n, coin from the fraction. */
+        AsteroidMeshProvider pick(double u) {
+            double x = u * prob.length;
+            int i = (int) x;
+            return providers[(x - i) < prob[i] ? i : alias[i]];
+        }
+    }
 }
@@ -1,11 +1,12 @@
 package AsteroidField.asteroids.field.placement;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.geometry.Point3D;
 import javafx.scene.Node;
@@ -15,17 +16,26 @@ import javafx.scene.layout.GridPane;
 
 /**
  * Annular "belt" placement. Samples area-uniformly in XY annulus and Gaussian thickness in Z.
- * Optional Poisson-disk min separation in 3D to avoid overlaps.
+ * Optional Poisson-disk min separation in 3D to avoid overlaps (PoissonDiskSampler; grid-backed,
+ * fine for 100k+ asteroids, optionally tiled across cores with deterministic output).
  *
  * Extended: optional ellipse scaling in XY, orientation (yaw/pitch/roll), and world offset.
  * Defaults keep original behavior (circle ring in XY, centered at origin).
+ *
+ * Sector sampling (streaming): the belt is treated as a density (uniform over the annulus area,
+ * Gaussian in thickness) and each sector is filled by thinning a uniform Poisson process.
+ * Min separation is enforced within a sector only.
+ *
+ * Both paths also fill a PlacementBuffer directly (no per-asteroid objects); the List variants
+ * share the same sampling and random stream, so positions are identical either way.
  */
-public final class BeltPlacementStrategy implements PlacementStrategy {
+public final class BeltPlacementStrategy implements PlacementStrategy, SectorPlacement {
     // Core belt parameters
     private final DoubleProperty rMin = new SimpleDoubleProperty(5000);
     private final DoubleProperty rMax = new SimpleDoubleProperty(8000);
     private final DoubleProperty thickness = new SimpleDoubleProperty(1000);     // 1σ vertical
     private final DoubleProperty minSeparation = new SimpleDoubleProperty(0);   // 0 disables Poisson
+    private final BooleanProperty parallelSampling = new SimpleBooleanProperty(false); // tiled Poisson on all cores
     private final DoubleProperty baseScale = new SimpleDoubleProperty(1.0);     // uniform pre-scale
 
     // New: ellipse shape in XY (1,1 == circle)
@@ -68,54 +78,163 @@ public final class BeltPlacementStrategy implements PlacementStrategy {
 
     @Override
     public List<Placement> generate(int count, Random rng) {
+        double[][] R = rotation();
+        double[] xyz = sampleLocal(count, rng);
+        List<Placement> out = new ArrayList<Placement>(xyz.length / 3);
+        for (int i = 0; i < xyz.length; i += 3) out.add(toPlacement(R, xyz[i], xyz[i + 1], xyz[i + 2]));
+        return out;
+    }
+
+    @Override
+    public void generate(int count, Random rng, PlacementBuffer out) {
+        double[][] R = rotation();
+        double[] xyz = sampleLocal(count, rng);
+        out.ensureCapacity(out.size() + xyz.length / 3);
+        for (int i = 0; i < xyz.length; i += 3) emit(R, xyz[i], xyz[i + 1], xyz[i + 2], out);
+    }
+
+    @Override
+    public List<Placement> generateSector(int totalCount,
+                                          double minX, double minY, double minZ, double size,
+                                          Random rng) {
+        double[][] R = rotation();
+        double[] xyz = sectorLocal(totalCount, minX, minY, minZ, size, R, rng);
+        List<Placement> out = new ArrayList<Placement>(xyz.length / 3);
+        for (int i = 0; i < xyz.length; i += 3) out.add(toPlacement(R, xyz[i], xyz[i + 1], xyz[i + 2]));
+        return out;
+    }
+
+    @Override
+    public void generateSector(int totalCount,
+                               double minX, double minY, double minZ, double size,
+                               Random rng, PlacementBuffer out) {
+        double[][] R = rotation();
+        double[] xyz = sectorLocal(totalCount, minX, minY, minZ, size, R, rng);
+        out.ensureCapacity(out.size() + xyz.length / 3);
+        for (int i = 0; i < xyz.length; i += 3) emit(R, xyz[i], xyz[i + 1], xyz[i + 2], out);
+    }
+
+    /** Belt-local (pre-ellipse) sample points, flat xyz. */
+    private double[] sampleLocal(int count, Random rng) {
         double r0 = Math.min(rMin.get(), rMax.get());
         double r1 = Math.max(rMin.get(), rMax.get());
         double sigmaZ = Math.max(0, thickness.get());
         double sep = Math.max(0, minSeparation.get());
 
-        List<Point3D> pts = (sep > 0)
-                ? poissonAnnulus(count, r0, r1, sigmaZ, sep, rng)
-                : jitteredAnnulus(count, r0, r1, sigmaZ, rng);
+        if (sep > 0) {
+            PoissonDiskSampler sampler = new PoissonDiskSampler(r0, r1, sigmaZ, sep);
+            return parallelSampling.get()
+                    ? sampler.sampleParallel(count, rng.nextLong())
+                    : sampler.sample(count, rng);
+        }
+        return jitteredAnnulus(count, r0, r1, sigmaZ, rng);
+    }
 
-        // Precompute rotation matrix from yaw/pitch/roll
+    /** Belt-local (pre-ellipse) points of one sector, flat xyz. */
+    private double[] sectorLocal(int totalCount, double minX, double minY, double minZ, double size,
+                                 double[][] R, Random rng) {
+        double r0 = Math.min(rMin.get(), rMax.get());
+        double r1 = Math.max(rMin.get(), rMax.get());
+        double sigmaZ = Math.max(1.0, thickness.get()); // a zero-thickness plane has no volume density
+        double sep = Math.max(0, minSeparation.get());
+        double sx = Math.abs(scaleX.get()), sy = Math.abs(scaleY.get());
+        double area = Math.PI * (r1 * r1 - r0 * r0) * sx * sy;
+        if (totalCount <= 0 || area <= 0 || size <= 0 || sx == 0 || sy == 0) return new double[0];
+
+        // Peak density (at mid-plane) and candidate count for thinning
+        double peak = totalCount / (area * sigmaZ * Math.sqrt(2 * Math.PI));
+        int candidates = poisson(peak * size * size * size, rng);
+
+        double cx = centerX.get(), cy = centerY.get(), cz = centerZ.get();
+        PoissonDiskSampler.Samples accepted = (sep > 0) ? PoissonDiskSampler.separationSet(sep, 64) : null;
+        double[] out = new double[3 * 64];
+        int n = 0;
+        for (int i = 0; i < candidates; i++) {
+            double wx = minX + rng.nextDouble() * size;
+            double wy = minY + rng.nextDouble() * size;
+            double wz = minZ + rng.nextDouble() * size;
+            double u = rng.nextDouble(); // always drawn, keeps the stream aligned per candidate
+
+            // World -> belt-local (R is orthonormal: inverse = transpose), then undo ellipse scaling
+            double dx = wx - cx, dy = wy - cy, dz = wz - cz;
+            double lx = (R[0][0]*dx + R[1][0]*dy + R[2][0]*dz) / scaleX.get();
+            double ly = (R[0][1]*dx + R[1][1]*dy + R[2][1]*dz) / scaleY.get();
+            double lz =  R[0][2]*dx + R[1][2]*dy + R[2][2]*dz;
+
+            double rad = Math.hypot(lx, ly);
+            if (rad < r0 || rad > r1) continue;
+            if (u > Math.exp(-0.5 * (lz * lz) / (sigmaZ * sigmaZ))) continue;
+
+            if (accepted != null && !accepted.tryAdd(wx, wy, wz)) continue;
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = lx; out[n++] = ly; out[n++] = lz;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** R = Rz(yaw) * Rx(pitch) * Ry(roll)  (any consistent order is fine; keep stable). */
+    private double[][] rotation() {
         double cy = Math.cos(Math.toRadians(yawDeg.get()));
         double sy = Math.sin(Math.toRadians(yawDeg.get()));
         double cp = Math.cos(Math.toRadians(pitchDeg.get()));
         double sp = Math.sin(Math.toRadians(pitchDeg.get()));
         double cr = Math.cos(Math.toRadians(rollDeg.get()));
         double sr = Math.sin(Math.toRadians(rollDeg.get()));
-
-        // R = Rz(yaw) * Rx(pitch) * Ry(roll)  (any consistent order is fine; keep stable)
-        // Multiply vector v by R with helper mulR(...)
-        double[][] R = new double[][]{
+        return new double[][]{
             { cy*cr + sy*sp*sr,  sy*sp*cr - cy*sr,  sy*cp },
             { sr*cp,              cr*cp,            -sp    },
             { cy*sr*sp - sy*cr,  sy*sr + cy*sp*cr,  cy*cp }
         };
+    }
 
-        List<Placement> out = new ArrayList<Placement>(count);
-        for (Point3D p0 : pts) {
-            // 1) ellipse scaling in XY
-            double x = p0.getX() * scaleX.get();
-            double y = p0.getY() * scaleY.get();
-            double z = p0.getZ();
+    /** Belt-local (pre-ellipse) point -> world placement with tangent forward and belt-normal up. */
+    private Placement toPlacement(double[][] R, double px, double py, double pz) {
+        // 1) ellipse scaling in XY
+        double x = px * scaleX.get();
+        double y = py * scaleY.get();
+        double z = pz;
 
-            // 2) build local forward/up before rotation: tangent in XY, up = +Z
-            Point3D radial = new Point3D(x, y, 0);
-            Point3D fLocal = new Point3D(-radial.getY(), radial.getX(), 0); // CCW tangent
-            Point3D uLocal = new Point3D(0, 0, 1);
+        // 2) build local forward/up before rotation: tangent in XY, up = +Z
+        Point3D radial = new Point3D(x, y, 0);
+        Point3D fLocal = new Point3D(-radial.getY(), radial.getX(), 0); // CCW tangent
+        Point3D uLocal = new Point3D(0, 0, 1);
 
-            // 3) rotate position and basis
-            Point3D pR = mulR(R, new Point3D(x, y, z));
-            Point3D fR = mulR(R, fLocal).normalize();
-            Point3D uR = mulR(R, uLocal).normalize();
+        // 3) rotate position and basis
+        Point3D pR = mulR(R, new Point3D(x, y, z));
+        Point3D fR = mulR(R, fLocal).normalize();
+        Point3D uR = mulR(R, uLocal).normalize();
 
-            // 4) translate to center
-            Point3D pW = pR.add(centerX.get(), centerY.get(), centerZ.get());
+        // 4) translate to center
+        Point3D pW = pR.add(centerX.get(), centerY.get(), centerZ.get());
 
-            out.add(new Placement(pW, fR, uR, baseScale.get()));
+        return new Placement(pW, fR, uR, baseScale.get());
+    }
+
+    /** As toPlacement, written straight into the buffer (same position math, no Point3D). */
+    private void emit(double[][] R, double px, double py, double pz, PlacementBuffer out) {
+        double x = px * scaleX.get();
+        double y = py * scaleY.get();
+        double z = pz;
+        double wx = R[0][0]*x + R[0][1]*y + R[0][2]*z + centerX.get();
+        double wy = R[1][0]*x + R[1][1]*y + R[1][2]*z + centerY.get();
+        double wz = R[2][0]*x + R[2][1]*y + R[2][2]*z + centerZ.get();
+        // CCW tangent (-y, x, 0) rotated into the belt frame; addFacing normalizes
+        double fx = R[0][0]*(-y) + R[0][1]*x;
+        double fy = R[1][0]*(-y) + R[1][1]*x;
+        double fz = R[2][0]*(-y) + R[2][1]*x;
+        out.addFacing(wx, wy, wz, fx, fy, fz, baseScale.get());
+    }
+
+    /** Poisson-distributed count (Knuth for small means, normal approximation above). */
+    private static int poisson(double mean, Random rng) {
+        if (mean <= 0) return 0;
+        if (mean > 30) {
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * rng.nextGaussian()));
         }
-        return out;
+        double limit = Math.exp(-mean), prod = rng.nextDouble();
+        int n = 0;
+        while (prod > limit) { n++; prod *= rng.nextDouble(); }
+        return n;
     }
 
     private static Point3D mulR(double[][] R, Point3D v) {
@@ -126,87 +245,19 @@ public final class BeltPlacementStrategy implements PlacementStrategy {
     }
 
     // --- sampling helpers ---
-    private static List<Point3D> jitteredAnnulus(int n, double r0, double r1, double sigmaZ, Random rng) {
-        List<Point3D> pts = new ArrayList<Point3D>(n);
+    private static double[] jitteredAnnulus(int n, double r0, double r1, double sigmaZ, Random rng) {
+        double[] pts = new double[n * 3];
         for (int i = 0; i < n; i++) {
             double u = rng.nextDouble(), v = rng.nextDouble();
             double r = Math.sqrt(u * (r1 * r1 - r0 * r0) + r0 * r0);
             double th = 2 * Math.PI * v;
             double x = r * Math.cos(th), y = r * Math.sin(th);
             double z = rng.nextGaussian() * sigmaZ;
-            pts.add(new Point3D(x, y, z));
+            pts[i * 3] = x; pts[i * 3 + 1] = y; pts[i * 3 + 2] = z;
         }
         return pts;
     }
 
-    /** Bridson-like Poisson sampling in an annular cylinder (good for ≤ 1000). */
-    private static List<Point3D> poissonAnnulus(int target, double r0, double r1, double sigmaZ,
-                                                double minDist, Random rng) {
-        final double cell = minDist / Math.sqrt(3.0);
-        final Map<Long, Point3D> grid = new HashMap<Long, Point3D>();
-        final List<Point3D> active = new ArrayList<Point3D>();
-        final List<Point3D> samples = new ArrayList<Point3D>();
-
-        Point3D first = jitteredAnnulus(1, r0, r1, sigmaZ, rng).get(0);
-        grid.put(hashCell(first, cell), first);
-        active.add(first); samples.add(first);
-
-        final int k = 30;
-        while (!active.isEmpty() && samples.size() < target) {
-            Point3D p = active.remove(rng.nextInt(active.size()));
-            boolean found = false;
-            for (int i = 0; i < k; i++) {
-                double r = minDist * (1 + rng.nextDouble());
-                double theta = 2 * Math.PI * rng.nextDouble();
-                double phi = Math.acos(2 * rng.nextDouble() - 1);
-                double dx = r * Math.sin(phi) * Math.cos(theta);
-                double dy = r * Math.sin(phi) * Math.sin(theta);
-                double dz = r * Math.cos(phi);
-                Point3D q = p.add(dx, dy, dz);
-                double rad = Math.hypot(q.getX(), q.getY());
-                if (rad < r0 || rad > r1 || Math.abs(q.getZ()) > 3 * sigmaZ) continue;
-                if (farEnough(grid, q, cell, minDist)) {
-                    grid.put(hashCell(q, cell), q);
-                    samples.add(q); active.add(q); found = true;
-                    if (samples.size() >= target) break;
-                }
-            }
-        }
-        // Rare top-up
-        Random topRng = new Random(rng.nextLong());
-        while (samples.size() < target) {
-            Point3D q = jitteredAnnulus(1, r0, r1, sigmaZ, topRng).get(0);
-            if (farEnough(grid, q, cell, minDist)) {
-                grid.put(hashCell(q, cell), q); samples.add(q);
-            }
-        }
-        return samples;
-    }
-
-    private static long hashCell(Point3D p, double cell) {
-        int ix = (int) Math.floor(p.getX() / cell);
-        int iy = (int) Math.floor(p.getY() / cell);
-        int iz = (int) Math.floor(p.getZ() / cell);
-        long key = (((long) ix & 0x1FFFFF) << 42) | (((long) iy & 0x1FFFFF) << 21) | ((long) iz & 0x1FFFFF);
-        return key;
-    }
-
-    private static boolean farEnough(Map<Long, Point3D> grid, Point3D q, double cell, double minDist) {
-        int ix = (int) Math.floor(q.getX() / cell);
-        int iy = (int) Math.floor(q.getY() / cell);
-        int iz = (int) Math.floor(q.getZ() / cell);
-        for (int dx = -2; dx <= 2; dx++)
-            for (int dy = -2; dy <= 2; dy++)
-                for (int dz = -2; dz <= 2; dz++) {
-                    long key = (((long) (ix + dx) & 0x1FFFFF) << 42)
-                            | (((long) (iy + dy) & 0x1FFFFF) << 21)
-                            | ((long) (iz + dz) & 0x1FFFFF);
-                    Point3D n = grid.get(key);
-                    if (n != null && n.distance(q) < minDist) return false;
-                }
-        return true;
-    }
-
     // --- Public API (getters/setters/properties) ---
 
     public double getInnerRadius() { return rMin.get(); }
@@ -225,6 +276,11 @@ public final class BeltPlacementStrategy implements PlacementStrategy {
     public void setMinSeparation(double v) { minSeparation.set(v); }
     public DoubleProperty minSeparationProperty() { return minSeparation; }
 
+    /** Tiled parallel Poisson sampling (same seed -> same belt; differs from the serial layout). */
+    public boolean isParallelSampling() { return parallelSampling.get(); }
+    public void setParallelSampling(boolean v) { parallelSampling.set(v); }
+    public BooleanProperty parallelSamplingProperty() { return parallelSampling; }
+
     public double getBaseScale() { return baseScale.get(); }
     public void setBaseScale(double v) { baseScale.set(v); }
     public DoubleProperty baseScaleProperty() { return baseScale; }
@@ -0,0 +1,144 @@
+package AsteroidField.asteroids.field.placement;
+
+import AsteroidField.asteroids.field.placement.PlacementStrategy.Placement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.geometry.Point3D;
+import javafx.scene.transform.Affine;
+
+/**
+ * Structure-of-arrays placement batch: position (xyz), orientation quaternion (xyzw) and uniform scale
+ * per asteroid in flat primitive arrays.
+ *
+ * - Filling N placements allocates O(1) objects (the arrays grow geometrically; presize for exact)
+ * - The quaternion is the node orientation the generator applies: yaw about +Y then pitch about +X,
+ *   taking local +Z to the placement's forward (same convention as the old two-Rotate path)
+ * - toAffine writes translate * rotate * scale into one Affine, ready for a node or a batch bake
+ * - positions()/rotations()/scales() expose the live arrays (valid up to size()) for instancing code
+ *
+ * Not thread-safe; fill on one thread, then hand off.
+ */
+public final class PlacementBuffer {
+    private double[] pos;   // x, y, z
+    private double[] rot;   // qx, qy, qz, qw
+    private double[] scale;
+    private int size;
+
+    public PlacementBuffer(int capacity) {
+        int cap = Math.max(1, capacity);
+        pos = new double[cap * 3];
+        rot = new double[cap * 4];
+        scale = new double[cap];
+    }
+
+    public int size() { return size; }
+    public void clear() { size = 0; }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= scale.length) return;
+        int cap = Math.max(capacity, scale.length * 2);
+        pos = Arrays.copyOf(pos, cap * 3);
+        rot = Arrays.copyOf(rot, cap * 4);
+        scale = Arrays.copyOf(scale, cap);
+    }
+
+    /** Append with an explicit unit quaternion. */
+    public void add(double x, double y, double z, double qx, double qy, double qz, double qw, double s) {
+        ensureCapacity(size + 1);
+        int p = size * 3, r = size * 4;
+        pos[p] = x; pos[p + 1] = y; pos[p + 2] = z;
+        rot[r] = qx; rot[r + 1] = qy; rot[r + 2] = qz; rot[r + 3] = qw;
+        scale[size++] = s;
+    }
+
+    /**
+     * Append an asteroid facing along (fx, fy, fz) (need not be unit length).
+     * Builds the yaw/pitch quaternion from half-angle identities, no atan2/asin.
+     */
+    public void addFacing(double x, double y, double z, double fx, double fy, double fz, double s) {
+        ensureCapacity(size + 1);
+        int p = size * 3, r = size * 4;
+        pos[p] = x; pos[p + 1] = y; pos[p + 2] = z;
+        facing(fx, fy, fz, rot, r);
+        scale[size++] = s;
+    }
+
+    /** Append a legacy Placement (its up vector is ignored, as the renderer always did). */
+    public void add(Placement pl) {
+        Point3D p = pl.getPosition(), f = pl.getForward();
+        addFacing(p.getX(), p.getY(), p.getZ(), f.getX(), f.getY(), f.getZ(), pl.getBaseScale());
+    }
+
+    public static PlacementBuffer of(List<Placement> placements) {
+        PlacementBuffer b = new PlacementBuffer(placements.size());
+        for (Placement pl : placements) b.add(pl);
+        return b;
+    }
+
+    // ----------------------------
+    // Access
+    // ----------------------------
+
+    public double x(int i) { return pos[i * 3]; }
+    public double y(int i) { return pos[i * 3 + 1]; }
+    public double z(int i) { return pos[i * 3 + 2]; }
+    public double scale(int i) { return scale[i]; }
+
+    /** Live arrays (xyz / xyzw / s per placement, valid for indices < size()). */
+    public double[] positions() { return pos; }
+    public double[] rotations() { return rot; }
+    public double[] scales() { return scale; }
+
+    /** out = translate(pos) * rotate(q) * scale(s). */
+    public void toAffine(int i, Affine out) {
+        int r = i * 4, p = i * 3;
+        double qx = rot[r], qy = rot[r + 1], qz = rot[r + 2], qw = rot[r + 3];
+        double s = scale[i];
+        double xx = qx * qx, yy = qy * qy, zz = qz * qz;
+        double xy = qx * qy, xz = qx * qz, yz = qy * qz;
+        double wx = qw * qx, wy = qw * qy, wz = qw * qz;
+        out.setToTransform(
+            (1 - 2 * (yy + zz)) * s, 2 * (xy - wz) * s,       2 * (xz + wy) * s,       pos[p],
+            2 * (xy + wz) * s,       (1 - 2 * (xx + zz)) * s, 2 * (yz - wx) * s,       pos[p + 1],
+            2 * (xz - wy) * s,       2 * (yz + wx) * s,       (1 - 2 * (xx + yy)) * s, pos[p + 2]);
+    }
+
+    /** Legacy view of placement i (forward/up are the rotated local +Z/+Y axes). */
+    public Placement toPlacement(int i) {
+        int r = i * 4;
+        double qx = rot[r], qy = rot[r + 1], qz = rot[r + 2], qw = rot[r + 3];
+        Point3D forward = new Point3D(2 * (qx * qz + qw * qy), 2 * (qy * qz - qw * qx), 1 - 2 * (qx * qx + qy * qy));
+        Point3D up = new Point3D(2 * (qx * qy - qw * qz), 1 - 2 * (qx * qx + qz * qz), 2 * (qy * qz + qw * qx));
+        return new Placement(new Point3D(x(i), y(i), z(i)), forward, up, scale[i]);
+    }
+
+    public List<Placement> toPlacements() {
+        List<Placement> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(toPlacement(i));
+        return out;
+    }
+
+    /**
+     * q = qY(yaw) * qX(pitch) with yaw = atan2(fx, fz), pitch = asin(-fy) of the normalized forward,
+     * written as (x, y, z, w) at out[o..o+3]. A zero forward gives the identity.
+     */
+    static void facing(double fx, double fy, double fz, double[] out, int o) {
+        double len = Math.sqrt(fx * fx + fy * fy + fz * fz);
+        if (len == 0) { out[o] = 0; out[o + 1] = 0; out[o + 2] = 0; out[o + 3] = 1; return; }
+        fx /= len; fy /= len; fz /= len;
+
+        double h = Math.sqrt(fx * fx + fz * fz);          // cos(pitch) >= 0
+        double cosYaw = h > 0 ? fz / h : 1, sinYaw = h > 0 ? fx / h : 0;
+        double cy = Math.sqrt(Math.max(0, (1 + cosYaw) * 0.5));
+        double sy = Math.copySign(Math.sqrt(Math.max(0, (1 - cosYaw) * 0.5)), sinYaw);
+        double cosPitch = h, sinPitch = -fy;
+        double cp = Math.sqrt(Math.max(0, (1 + cosPitch) * 0.5)); // pitch in [-90, 90]: half-angle cos > 0
+        double sp = Math.copySign(Math.sqrt(Math.max(0, (1 - cosPitch) * 0.5)), sinPitch);
+
+        out[o]     = cy * sp;
+        out[o + 1] = sy * cp;
+        out[o + 2] = -sy * sp;
+        out[o + 3] = cy * cp;
+    }
+}
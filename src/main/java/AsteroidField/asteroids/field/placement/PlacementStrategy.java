@@ -12,6 +12,16 @@ public interface PlacementStrategy {
 
     List<Placement> generate(int count, Random rng);
 
+    /**
+     * Append 'count' placements to a primitive buffer. The default adapts the List result;
+     * strategies that place many asteroids override it to skip the per-placement objects.
+     */
+    default void generate(int count, Random rng, PlacementBuffer out) {
+        List<Placement> places = generate(count, rng);
+        out.ensureCapacity(out.size() + places.size());
+        for (Placement pl : places) out.add(pl);
+    }
+
     /** Immutable placement tuple. */
     public static final class Placement {
         private final Point3D position;
@@ -0,0 +1,383 @@
+package AsteroidField.asteroids.field.placement;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Grid-backed Bridson Poisson-disk sampler for an annular cylinder (r0 <= hypot(x, y) <= r1, |z| <= 3 sigma).
+ *
+ * - Samples live in primitive x/y/z arrays; the active list is an int[] with O(1) swap-remove
+ * - Background grid: cell = minDist / sqrt(3), so a cell holds at most one sample; cells are kept in a
+ *   primitive open-addressing long -> int map (the domain is far too large for a dense 3D array)
+ * - Neighbour stencil: only the cells that can contain a point closer than minDist (the 5x5x5 block minus
+ *   its 8 unreachable corners), nearest first so conflicts are found early
+ * - Parallel tiled mode: the annulus is cut into angular wedges, each sampled independently from its own
+ *   seed and kept minDist / 2 away from its borders; the border bands are then stitched serially with a
+ *   Bridson pass seeded from the samples next to each border. The tile count depends only on the
+ *   geometry, so output is identical for a given seed regardless of core count
+ * - If the domain saturates before 'target' samples, the remainder is filled without the separation
+ *   constraint (logged) so callers always get exactly 'target' points
+ */
+public final class PoissonDiskSampler {
+
+    private static final int K = 30;        // candidates per active sample
+    private static final int MAX_TILES = 32;
+
+    /** Cell offsets that can hold a sample within minDist, nearest first (dx, dy, dz triples). */
+    private static final int[] STENCIL = buildStencil();
+
+    private final double r0, r1, zMax, minDist, minDist2, cell;
+
+    public PoissonDiskSampler(double r0, double r1, double sigmaZ, double minDist) {
+        this.r0 = Math.min(r0, r1);
+        this.r1 = Math.max(r0, r1);
+        this.zMax = 3 * Math.max(0, sigmaZ);
+        this.minDist = minDist;
+        this.minDist2 = minDist * minDist;
+        this.cell = minDist / Math.sqrt(3.0);
+    }
+
+    /** Flat xyz array of exactly 'target' samples. Serial; deterministic for the Random's state. */
+    public double[] sample(int target, Random rng) {
+        Samples s = new Samples(target);
+        Tile whole = new Tile(0, 1);
+        double[] first = new double[3];
+        firstPoint(rng, whole, first);
+        s.add(first[0], first[1], first[2]);
+        bridson(s, target, rng, whole, 0);
+        return finish(s, target, rng);
+    }
+
+    /**
+     * As sample(...), with wedges sampled concurrently on the common fork-join pool and their
+     * borders stitched afterwards. Falls back to serial when the belt is too narrow to tile.
+     */
+    public double[] sampleParallel(int target, long seed) {
+        int tiles = tileCount();
+        if (tiles < 2) return sample(target, new Random(seed));
+
+        // Per-tile targets by area share; the last tile takes the rounding remainder
+        int[] share = new int[tiles];
+        int assigned = 0;
+        for (int t = 0; t < tiles - 1; t++) { share[t] = target / tiles; assigned += share[t]; }
+        share[tiles - 1] = target - assigned;
+
+        Samples[] parts = IntStream.range(0, tiles).parallel().mapToObj(t -> {
+            Tile tile = new Tile(t, tiles);
+            Random r = new Random(mix(seed, t));
+            Samples s = new Samples(share[t]);
+            double[] first = new double[3];
+            if (!firstPoint(r, tile, first)) return s;
+            s.add(first[0], first[1], first[2]);
+            bridson(s, share[t], r, tile, 0);
+            return s;
+        }).toArray(Samples[]::new);
+
+        // Stitch: merge in tile order (wedge margins keep tiles apart; re-check anyway), then fill the bands
+        Samples all = new Samples(target);
+        for (Samples part : parts) {
+            for (int i = 0; i < part.n && all.n < target; i++) {
+                double x = part.xs[i], y = part.ys[i], z = part.zs[i];
+                if (all.farEnough(x, y, z)) all.add(x, y, z);
+            }
+        }
+        Random stitchRng = new Random(mix(seed, tiles));
+        if (all.n < target) {
+            Tile whole = new Tile(0, 1);
+            double band = 2 * minDist;
+            double wedge = 2 * Math.PI / tiles;
+            int[] seeds = new int[all.n];
+            int nSeeds = 0;
+            for (int i = 0; i < all.n; i++) {
+                if (borderDistance(all.xs[i], all.ys[i], wedge) < band) seeds[nSeeds++] = i;
+            }
+            all.setActive(seeds, nSeeds);
+            bridson(all, target, stitchRng, whole, all.n);
+        }
+        return finish(all, target, stitchRng);
+    }
+
+    // ----------------------------
+    // Core
+    // ----------------------------
+
+    /**
+     * Bridson growth from the current active list until 'target' samples or no active samples remain.
+     * Samples added from index 'from' on are appended to the active list as they are accepted.
+     */
+    private void bridson(Samples s, int target, Random rng, Tile tile, int from) {
+        if (from == 0) s.setActiveAll();
+        while (s.activeCount > 0 && s.n < target) {
+            int ai = rng.nextInt(s.activeCount);
+            int p = s.active[ai];
+            double px = s.xs[p], py = s.ys[p], pz = s.zs[p];
+            for (int i = 0; i < K && s.n < target; i++) {
+                double r = minDist * (1 + rng.nextDouble());
+                double theta = 2 * Math.PI * rng.nextDouble();
+                double cosPhi = 2 * rng.nextDouble() - 1;
+                if (zMax == 0) cosPhi = 0; // flat belt: grow in the plane
+                double sinPhi = Math.sqrt(1 - cosPhi * cosPhi);
+                double qx = px + r * sinPhi * Math.cos(theta);
+                double qy = py + r * sinPhi * Math.sin(theta);
+                double qz = pz + r * cosPhi;
+                if (!inDomain(qx, qy, qz) || !tile.contains(qx, qy, minDist * 0.5)) continue;
+                if (s.farEnough(qx, qy, qz)) s.addActive(qx, qy, qz);
+            }
+            s.removeActive(ai); // swap-remove: p has had its K tries
+        }
+    }
+
+    /** Rejection top-up for saturated/odd domains; unconstrained fill only as a last resort. */
+    private double[] finish(Samples s, int target, Random rng) {
+        int misses = 0, missLimit = Math.min(100_000, 64 * Math.max(1, target));
+        double[] q = new double[3];
+        Tile whole = new Tile(0, 1);
+        while (s.n < target && misses < missLimit) {
+            firstPoint(rng, whole, q);
+            if (s.farEnough(q[0], q[1], q[2])) { s.add(q[0], q[1], q[2]); misses = 0; }
+            else misses++;
+        }
+        if (s.n < target) {
+            System.out.println("PoissonDiskSampler: domain saturated at " + s.n + "/" + target
+                    + " (minDist " + minDist + "); filling the rest without separation");
+            while (s.n < target) {
+                firstPoint(rng, whole, q);
+                s.add(q[0], q[1], q[2]);
+            }
+        }
+        double[] out = new double[target * 3];
+        for (int i = 0; i < target; i++) {
+            out[i * 3] = s.xs[i]; out[i * 3 + 1] = s.ys[i]; out[i * 3 + 2] = s.zs[i];
+        }
+        return out;
+    }
+
+    /** Area-uniform annulus point with |z| <= 3 sigma inside the tile (false if the tile rejects 1000 tries). */
+    private boolean firstPoint(Random rng, Tile tile, double[] out) {
+        for (int tries = 0; tries < 1000; tries++) {
+            double u = rng.nextDouble(), v = rng.nextDouble();
+            double r = Math.sqrt(u * (r1 * r1 - r0 * r0) + r0 * r0);
+            double th = tile.start + tile.width * v;
+            double x = r * Math.cos(th), y = r * Math.sin(th);
+            double z = zMax > 0 ? (2 * rng.nextDouble() - 1) * zMax : 0;
+            if (tile.contains(x, y, tile.whole ? 0 : minDist * 0.5)) {
+                out[0] = x; out[1] = y; out[2] = z;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean inDomain(double x, double y, double z) {
+        double rad2 = x * x + y * y;
+        return rad2 >= r0 * r0 && rad2 <= r1 * r1 && Math.abs(z) <= zMax;
+    }
+
+    /** Wedges whose inner arc is at least 8 * minDist wide (independent of hardware). */
+    private int tileCount() {
+        double ref = Math.max(r0, r1 * 0.5);
+        int t = (int) Math.floor(2 * Math.PI * ref / (8 * minDist));
+        return Math.max(1, Math.min(MAX_TILES, t));
+    }
+
+    /** Distance from (x, y) to the nearest wedge border plane (planes contain the z axis). */
+    private static double borderDistance(double x, double y, double wedge) {
+        double th = Math.atan2(y, x);
+        if (th < 0) th += 2 * Math.PI;
+        double lo = Math.floor(th / wedge) * wedge, hi = lo + wedge;
+        double dLo = Math.abs(x * Math.sin(lo) - y * Math.cos(lo));
+        double dHi = Math.abs(x * Math.sin(hi) - y * Math.cos(hi));
+        return Math.min(dLo, dHi);
+    }
+
+    private static long mix(long seed, int t) {
+        long z = seed + 0x9E3779B97F4A7C15L * (t + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int[] buildStencil() {
+        int[] tmp = new int[125 * 3];
+        int[] reach = new int[125];
+        int n = 0;
+        for (int dx = -2; dx <= 2; dx++)
+            for (int dy = -2; dy <= 2; dy++)
+                for (int dz = -2; dz <= 2; dz++) {
+                    // Squared min distance between the two cells, in cell units
+                    int g = gap(dx) + gap(dy) + gap(dz);
+                    if (g >= 3) continue; // >= minDist^2 = 3 cell^2: nothing in that cell can conflict
+                    tmp[n * 3] = dx; tmp[n * 3 + 1] = dy; tmp[n * 3 + 2] = dz;
+                    reach[n++] = g * 100 + dx * dx + dy * dy + dz * dz;
+                }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(reach[a], reach[b]));
+        int[] out = new int[n * 3];
+        for (int i = 0; i < n; i++) System.arraycopy(tmp, order[i] * 3, out, i * 3, 3);
+        return out;
+    }
+
+    private static int gap(int d) {
+        int g = Math.max(0, Math.abs(d) - 1);
+        return g * g;
+    }
+
+    // ----------------------------
+    // Internals
+    // ----------------------------
+
+    /** Angular wedge [start, start + width); 'whole' disables border checks. */
+    private static final class Tile {
+        final double start, width;
+        final boolean whole;
+        final double sinLo, cosLo, sinHi, cosHi;
+
+        Tile(int index, int count) {
+            this.width = 2 * Math.PI / count;
+            this.start = index * width;
+            this.whole = count == 1;
+            this.sinLo = Math.sin(start); this.cosLo = Math.cos(start);
+            this.sinHi = Math.sin(start + width); this.cosHi = Math.cos(start + width);
+        }
+
+        /** Inside the wedge and at least 'margin' from both border planes. */
+        boolean contains(double x, double y, double margin) {
+            if (whole) return true;
+            // Left of the start ray and right of the end ray (wedges are < pi wide)
+            double a = cosLo * y - sinLo * x;
+            double b = x * sinHi - y * cosHi;
+            return a >= margin && b >= margin;
+        }
+    }
+
+    /** Empty separation set (grid-backed 'no sample within minDist' checks), e.g. for sector thinning. */
+    public static Samples separationSet(double minDist, int expected) {
+        return new PoissonDiskSampler(0, 0, 0, minDist).new Samples(expected);
+    }
+
+    /** Primitive sample store + cell map + active list. */
+    public final class Samples {
+        double[] xs, ys, zs;
+        int n;
+        int[] active = new int[16];
+        int activeCount;
+        final CellMap grid;
+
+        Samples(int expected) {
+            int cap = Math.max(16, expected);
+            xs = new double[cap]; ys = new double[cap]; zs = new double[cap];
+            grid = new CellMap(cap);
+        }
+
+        public int size() { return n; }
+
+        /** Add (x, y, z) unless a sample lies within minDist; returns whether it was added. */
+        public boolean tryAdd(double x, double y, double z) {
+            if (!farEnough(x, y, z)) return false;
+            add(x, y, z);
+            return true;
+        }
+
+        void add(double x, double y, double z) {
+            if (n == xs.length) {
+                int cap = n * 2;
+                xs = Arrays.copyOf(xs, cap); ys = Arrays.copyOf(ys, cap); zs = Arrays.copyOf(zs, cap);
+            }
+            xs[n] = x; ys[n] = y; zs[n] = z;
+            grid.put(key(cellOf(x), cellOf(y), cellOf(z)), n);
+            n++;
+        }
+
+        void addActive(double x, double y, double z) {
+            add(x, y, z);
+            if (activeCount == active.length) active = Arrays.copyOf(active, activeCount * 2);
+            active[activeCount++] = n - 1;
+        }
+
+        void setActiveAll() {
+            if (active.length < n) active = new int[Math.max(16, n)];
+            for (int i = 0; i < n; i++) active[i] = i;
+            activeCount = n;
+        }
+
+        void setActive(int[] idx, int count) {
+            active = Arrays.copyOf(idx, Math.max(16, count));
+            activeCount = count;
+        }
+
+        void removeActive(int i) {
+            active[i] = active[--activeCount];
+        }
+
+        boolean farEnough(double x, double y, double z) {
+            int ix = cellOf(x), iy = cellOf(y), iz = cellOf(z);
+            for (int s = 0; s < STENCIL.length; s += 3) {
+                int j = grid.get(key(ix + STENCIL[s], iy + STENCIL[s + 1], iz + STENCIL[s + 2]));
+                if (j < 0) continue;
+                double dx = xs[j] - x, dy = ys[j] - y, dz = zs[j] - z;
+                if (dx * dx + dy * dy + dz * dz < minDist2) return false;
+            }
+            return true;
+        }
+    }
+
+    private int cellOf(double v) { return (int) Math.floor(v / cell); }
+
+    private static long key(int ix, int iy, int iz) {
+        return (((long) ix & 0x1FFFFF) << 42) | (((long) iy & 0x1FFFFF) << 21) | ((long) iz & 0x1FFFFF);
+    }
+
+    /** Open-addressing long -> int map (linear probing, grows at 50% load). */
+    static final class CellMap {
+        private static final long EMPTY = Long.MIN_VALUE; // packed keys are non-negative
+        private long[] keys;
+        private int[] values;
+        private int mask, size;
+
+        CellMap(int expected) {
+            int cap = Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+            alloc(cap);
+        }
+
+        private void alloc(int cap) {
+            keys = new long[cap];
+            values = new int[cap];
+            mask = cap - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long k = keys[slot];
+                if (k == key) return values[slot];
+                if (k == EMPTY) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) size++;
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            alloc(keys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package AsteroidField.asteroids.field.placement;
+
+import AsteroidField.asteroids.field.placement.PlacementStrategy.Placement;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Optional capability for placement strategies that can sample one axis-aligned sector at a time.
+ *
+ * - Used by streaming fields: each sector is generated independently from its own seeded Random,
+ *   so the same sector always yields the same placements regardless of load order
+ * - 'totalCount' is the expected number of asteroids in the whole (unbounded) distribution;
+ *   a sector receives its share according to the strategy's density
+ */
+public interface SectorPlacement {
+
+    /** Placements whose positions fall inside [min, min + size) on each axis. */
+    List<Placement> generateSector(int totalCount,
+                                   double minX, double minY, double minZ, double size,
+                                   Random rng);
+
+    /** As above, appended to a primitive buffer (default adapts the List result). */
+    default void generateSector(int totalCount,
+                                double minX, double minY, double minZ, double size,
+                                Random rng, PlacementBuffer out) {
+        List<Placement> places = generateSector(totalCount, minX, minY, minZ, size, rng);
+        out.ensureCapacity(out.size() + places.size());
+        for (Placement pl : places) out.add(pl);
+    }
+}
@@ -139,29 +139,9 @@ public class CapsuleMesh extends TriangleMesh {
 
         // Convert to arrays
         this.vertsList = tempVerts;
-        this.verts = new float[tempVerts.size() * 3];
-        for (int i = 0; i < tempVerts.size(); i++) {
-            float[] v = tempVerts.get(i);
-            verts[i * 3] = v[0];
-            verts[i * 3 + 1] = v[1];
-            verts[i * 3 + 2] = v[2];
-        }
-        this.faces = new int[tempFaces.size() * 6];
-        for (int i = 0; i < tempFaces.size(); i++) {
-            int[] f = tempFaces.get(i);
-            faces[i * 6] = f[0];
-            faces[i * 6 + 1] = 0;
-            faces[i * 6 + 2] = f[1];
-            faces[i * 6 + 3] = 0;
-            faces[i * 6 + 4] = f[2];
-            faces[i * 6 + 5] = 0;
-        }
-
-        getPoints().setAll(verts);
-        getTexCoords().addAll(0, 0);
-        getFaces().setAll(faces);
-        getFaceSmoothingGroups().clear();
-        for (int i = 0; i < faces.length / 6; i++) getFaceSmoothingGroups().addAll(1);
+        this.verts = MeshBuffers.flattenPoints(tempVerts);
+        this.faces = MeshBuffers.flattenTris(tempFaces, false);
+        MeshBuffers.publish(this, verts, MeshBuffers.SINGLE_UV, faces);
     }
 
     /** Deform with bumps/craters. Call after construction or whenever parameters change. */
@@ -211,7 +191,7 @@ public class CapsuleMesh extends TriangleMesh {
             meshVerts[idx * 3 + 1] = (float) (p[1] + ny * disp) * (float) bumpRand;
             meshVerts[idx * 3 + 2] = (float) (p[2] + nz * disp) * (float) bumpRand;
         }
-        getPoints().setAll(meshVerts);
+        MeshBuffers.publishPoints(this, meshVerts);
     }
 
     // Helper for deformation logic
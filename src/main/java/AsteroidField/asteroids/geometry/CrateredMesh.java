@@ -1,14 +1,25 @@
 package AsteroidField.asteroids.geometry;
 
 import AsteroidField.asteroids.parameters.CrateredAsteroidParameters;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Icosphere with spherical-cap craters and a radial noise bump.
+ *
+ * - Crater lookup is bucketed on a cube-map grid: each vertex only visits craters whose cap
+ *   can reach its cell, and a cosine threshold rejects misses before any acos
+ * - Both filters are conservative, so the output is identical to testing every crater
+ */
 public class CrateredMesh extends IcosphereMesh {
 
+    /** Slack on the cosine/angle tests so rounding can never reject a crater that touches. */
+    private static final double FILTER_EPS = 1e-7;
+
     public CrateredMesh(double radius, int subdivisions, CrateredAsteroidParameters params) {
-        super(radius, subdivisions);
+        super(radius, subdivisions, false);
         deform(params);
     }
 
@@ -23,14 +34,18 @@ public class CrateredMesh extends IcosphereMesh {
         Random deformRng = new Random(params.getSeed() ^ 0xFACE1234);
         double deform = params.getDeformation();
 
-        for (int idx = 0; idx < vertsList.size(); idx++) {
-            float[] v = vertsList.get(idx);
-            double x = v[0], y = v[1], z = v[2];
+        int numVerts = baseVerts.length / 3;
+        double[][] centers = craters.toArray(new double[0][]);
+        CraterIndex index = new CraterIndex(centers, params.getCraterWidth() * Math.PI, numVerts);
+        for (int idx = 0; idx < numVerts; idx++) {
+            double x = baseVerts[idx * 3], y = baseVerts[idx * 3 + 1], z = baseVerts[idx * 3 + 2];
             double r = Math.sqrt(x * x + y * y + z * z);
             double vx = x / r, vy = y / r, vz = z / r;
             double maxCraterEffect = 0;
-            for (double[] crater : craters) {
+            for (int k : index.candidates(vx, vy, vz)) {
+                double[] crater = centers[k];
                 double dot = vx * crater[0] + vy * crater[1] + vz * crater[2];
+                if (dot < index.minDot) continue; // outside the cap; skip the acos
                 double angle = Math.acos(Math.max(-1, Math.min(1, dot)));
                 double normalized = angle / (params.getCraterWidth() * Math.PI);
                 if (normalized < 1.0) {
@@ -54,4 +69,104 @@ public class CrateredMesh extends IcosphereMesh {
         }
         getPoints().setAll(verts);
     }
+
+    // ----------------------------
+    // Crater bucketing
+    // ----------------------------
+
+    /**
+     * Cube-map buckets of crater indices. A crater is listed in a cell when its cap
+     * (half-angle = width) can reach any point of the cell, so no affected vertex is missed.
+     * Falls back to "every crater, no cosine filter" for inputs the bounds don't cover
+     * (non-unit centers, non-positive or hemisphere-sized widths).
+     */
+    private static final class CraterIndex {
+        final double minDot;
+        private final int n;          // cells per cube-face edge
+        private final int[][] cells;  // null => use all
+        private final int[] all;
+
+        CraterIndex(double[][] centers, double width, int numVerts) {
+            all = new int[centers.length];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+
+            boolean unit = true;
+            for (double[] c : centers) {
+                double len = Math.sqrt(c[0] * c[0] + c[1] * c[1] + c[2] * c[2]);
+                if (Math.abs(len - 1.0) > 1e-9) { unit = false; break; }
+            }
+            if (!unit || !(width > 0) || width >= Math.PI || centers.length < 2) {
+                minDot = Double.NEGATIVE_INFINITY;
+                n = 0;
+                cells = null;
+                return;
+            }
+            minDot = Math.cos(width) - FILTER_EPS;
+
+            // ~24 vertices per cell keeps the setup cost well below the per-vertex savings
+            n = Math.max(1, Math.min(32, (int) Math.sqrt(numVerts / 24.0)));
+            cells = new int[6 * n * n][];
+            double[] center = new double[3], corner = new double[3];
+            int[] hits = new int[centers.length];
+            for (int face = 0; face < 6; face++) {
+                for (int j = 0; j < n; j++) {
+                    for (int i = 0; i < n; i++) {
+                        double u0 = -1 + 2.0 * i / n, u1 = -1 + 2.0 * (i + 1) / n;
+                        double v0 = -1 + 2.0 * j / n, v1 = -1 + 2.0 * (j + 1) / n;
+                        faceDir(face, (u0 + u1) * 0.5, (v0 + v1) * 0.5, center);
+
+                        // Cell angular radius: farthest corner from the center direction
+                        double minCos = 1.0;
+                        for (int k = 0; k < 4; k++) {
+                            faceDir(face, (k & 1) == 0 ? u0 : u1, (k & 2) == 0 ? v0 : v1, corner);
+                            minCos = Math.min(minCos, dot(center, corner));
+                        }
+                        double reach = width + Math.acos(Math.max(-1, Math.min(1, minCos))) + FILTER_EPS;
+                        double reachCos = reach >= Math.PI ? Double.NEGATIVE_INFINITY : Math.cos(reach);
+
+                        int count = 0;
+                        for (int c = 0; c < centers.length; c++) {
+                            if (dot(center, centers[c]) >= reachCos) hits[count++] = c;
+                        }
+                        cells[(face * n + j) * n + i] = Arrays.copyOf(hits, count);
+                    }
+                }
+            }
+        }
+
+        /** Crater indices that may affect the given unit direction. */
+        int[] candidates(double x, double y, double z) {
+            if (cells == null) return all;
+            double ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z);
+            int face;
+            double u, v;
+            if (ax >= ay && ax >= az) { face = x >= 0 ? 0 : 1; u = y / ax; v = z / ax; }
+            else if (ay >= az)        { face = y >= 0 ? 2 : 3; u = x / ay; v = z / ay; }
+            else                      { face = z >= 0 ? 4 : 5; u = x / az; v = y / az; }
+            int i = Math.min(n - 1, Math.max(0, (int) ((u + 1) * 0.5 * n)));
+            int j = Math.min(n - 1, Math.max(0, (int) ((v + 1) * 0.5 * n)));
+            return cells[(face * n + j) * n + i];
+        }
+
+        /** Unit direction of cube-face point (u, v); inverse of the face/u/v split in candidates(). */
+        private static void faceDir(int face, double u, double v, double[] out) {
+            double x, y, z;
+            switch (face) {
+                case 0 -> { x = 1;  y = u; z = v; }
+                case 1 -> { x = -1; y = u; z = v; }
+                case 2 -> { x = u; y = 1;  z = v; }
+                case 3 -> { x = u; y = -1; z = v; }
+                case 4 -> { x = u; y = v; z = 1; }
+                default -> { x = u; y = v; z = -1; }
+            }
+            double len = Math.sqrt(x * x + y * y + z * z);
+            out[0] = x / len;
+            out[1] = y / len;
+            out[2] = z / len;
+        }
+
+        private static double dot(double[] a, double[] b) {
+            return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+        }
+    }
 }
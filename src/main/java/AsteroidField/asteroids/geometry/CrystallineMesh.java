@@ -69,7 +69,7 @@ public CrystallineMesh(double radius, int subdivisions, CrystallineAsteroidParam
         }
 
         // --- 3. Add crystal geometry (vertices, faces, and texCoords)
-        Map<Integer, Set<Integer>> adjacency = VertHelper.buildVertexAdjacency(facesList, vertsList.size());
+        VertHelper.Adjacency adjacency = topology.vertexAdjacency();
         List<CrystalBase> bases = selectCrystalBasesWithSpread(crystalCount, maxClusterSize, neighborRadius, rng, adjacency);
 
         int paletteRows = 12; // Number of palette color rows (V resolution)
@@ -89,35 +89,10 @@ public CrystallineMesh(double radius, int subdivisions, CrystallineAsteroidParam
         }
 
         // --- 4. Write mesh data (verts, texCoords, faces) to TriangleMesh
-        float[] newVerts = new float[allVerts.size() * 3];
-        for (int i = 0; i < allVerts.size(); i++) {
-            float[] v = allVerts.get(i);
-            newVerts[i * 3] = v[0];
-            newVerts[i * 3 + 1] = v[1];
-            newVerts[i * 3 + 2] = v[2];
-        }
-        float[] newTexCoords = new float[texCoordList.size() * 2];
-        for (int i = 0; i < texCoordList.size(); i++) {
-            double[] uv = texCoordList.get(i);
-            newTexCoords[i * 2] = (float)uv[0];
-            newTexCoords[i * 2 + 1] = (float)uv[1];
-        }
-        int[] newFaces = new int[allFaceRefs.size() * 6];
-        for (int i = 0; i < allFaceRefs.size(); i++) {
-            FaceRef f = allFaceRefs.get(i);
-            newFaces[i * 6 + 0] = f.vi0;
-            newFaces[i * 6 + 1] = f.ti0;
-            newFaces[i * 6 + 2] = f.vi1;
-            newFaces[i * 6 + 3] = f.ti1;
-            newFaces[i * 6 + 4] = f.vi2;
-            newFaces[i * 6 + 5] = f.ti2;
-        }
-
-        getPoints().setAll(newVerts);
-        getTexCoords().setAll(newTexCoords);
-        getFaces().setAll(newFaces);
-        getFaceSmoothingGroups().clear();
-        for (int i = 0; i < newFaces.length / 6; i++) getFaceSmoothingGroups().addAll(1);
+        MeshBuffers.publish(this,
+            MeshBuffers.flattenPoints(allVerts),
+            MeshBuffers.flattenTexCoords(texCoordList),
+            MeshBuffers.flattenFaces(allFaceRefs));
     }
 
     // Add or return texCoord index for (u,v)
@@ -347,7 +322,7 @@ for (int i = 0; i < vertsList.size(); i++) {
 
     private List<CrystalBase> selectCrystalBasesWithSpread(
             int count, int maxClusterSize, int neighborRadius, Random rng,
-            Map<Integer, Set<Integer>> adjacency) {
+            VertHelper.Adjacency adjacency) {
         List<CrystalBase> bases = new ArrayList<>();
         Set<Integer> usedSeeds = new HashSet<>();
         int nVerts = vertsList.size();
@@ -357,10 +332,10 @@ for (int i = 0; i < vertsList.size(); i++) {
             do { seedIdx = rng.nextInt(nVerts); }
             while (usedSeeds.contains(seedIdx) && maxClusterSize == 1);
             usedSeeds.add(seedIdx);
-            List<Integer> clusterVerts = VertHelper.collectNeighborVerts(seedIdx, neighborRadius, adjacency, rng);
+            int[] clusterVerts = VertHelper.collectNeighborVerts(seedIdx, neighborRadius, adjacency);
             int clusterSize = (maxClusterSize == 1) ? 1 : 1 + rng.nextInt(maxClusterSize);
             for (int k = 0; k < clusterSize && bases.size() < count; k++) {
-                int vi = clusterVerts.get(rng.nextInt(clusterVerts.size()));
+                int vi = clusterVerts[rng.nextInt(clusterVerts.length)];
                 float[] v = vertsList.get(vi);
                 double len = Math.sqrt(v[0]*v[0] + v[1]*v[1] + v[2]*v[2]);
                 float[] n = new float[]{(float)(v[0]/len), (float)(v[1]/len), (float)(v[2]/len)};
@@ -31,11 +31,6 @@ public class CubicMesh extends TriangleMesh {
         faces = mesh.facesArray;
 
         // Write to TriangleMesh
-        getPoints().setAll(verts);
-        getTexCoords().setAll(uvMap.uvArray);
-        getFaces().setAll(uvMap.faceArray);
-        getFaceSmoothingGroups().clear();
-        for (int i = 0; i < uvMap.faceArray.length / 6; i++) 
-            getFaceSmoothingGroups().addAll(1);
+        MeshBuffers.publish(this, verts, uvMap.uvArray, uvMap.faceArray);
     }
 }
\ No newline at end of file
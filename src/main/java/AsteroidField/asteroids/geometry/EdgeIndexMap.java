@@ -0,0 +1,55 @@
+package AsteroidField.asteroids.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing (linear probing) map from an undirected edge (a, b) to an int.
+ *
+ * - Keys are packed as min << 32 | max, so (a, b) and (b, a) are the same edge
+ * - No boxing, no per-entry objects; sized once for the expected edge count
+ * - Used for icosphere midpoints and the VertHelper edge tables
+ */
+final class EdgeIndexMap {
+    private static final long EMPTY = -1L; // real keys are non-negative
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    EdgeIndexMap(int expectedEdges) {
+        int cap = Integer.highestOneBit(Math.max(4, expectedEdges * 2 - 1)) << 1; // load factor <= 0.5
+        keys = new long[cap];
+        values = new int[cap];
+        mask = cap - 1;
+        clear();
+    }
+
+    void clear() { Arrays.fill(keys, EMPTY); }
+
+    /** Value stored for edge (a, b), or -1 if not present. */
+    int get(int a, int b) {
+        long key = key(a, b);
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return -1;
+        }
+    }
+
+    void put(int a, int b, int value) {
+        long key = key(a, b);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    static long key(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
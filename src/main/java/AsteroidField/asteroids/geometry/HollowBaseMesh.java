@@ -103,12 +103,7 @@ public class HollowBaseMesh extends IcosphereMesh {
         }
 
         // 6) Push to TriangleMesh
-        getPoints().setAll(pts);
-        getTexCoords().setAll(0, 0); // single UV
-        getFaces().setAll(faceBuf);
-        getFaceSmoothingGroups().clear();
-        int tris = faceBuf.length / 6;
-        for (int i = 0; i < tris; i++) getFaceSmoothingGroups().addAll(1);
+        MeshBuffers.publish(this, pts, MeshBuffers.SINGLE_UV, faceBuf);
     }
 
     private void deformExterior(HollowBaseAsteroidParameters p) {
@@ -131,7 +126,7 @@ public class HollowBaseMesh extends IcosphereMesh {
             verts[i+2] = (float)(nz * newLen);
         }
         // update outer shell points (faces remain as base for now)
-        getPoints().setAll(verts);
+        MeshBuffers.publishPoints(this, verts);
     }
 
     private static double[][] sampleDirections(int count, long seed, double jitter) {
@@ -1,9 +1,8 @@
 package AsteroidField.asteroids.geometry;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import javafx.collections.ObservableFloatArray;
 import javafx.collections.ObservableIntegerArray;
@@ -63,36 +62,36 @@ public final class HollowBaseSplitUtil {
     private static TriangleMesh buildSubmeshWithUV(ObservableFloatArray srcPts, List<int[]> faces) {
         TriangleMesh m = new TriangleMesh();
 
-        Map<Integer,Integer> remap = new HashMap<>();
-        List<Float> outPts = new ArrayList<>();
+        // Old point index -> new index (-1 = not yet used); flat output sized for the worst case
+        int[] remap = new int[srcPts.size() / 3];
+        Arrays.fill(remap, -1);
+        float[] outPts = new float[Math.min(srcPts.size(), faces.size() * 9)];
         int nextIndex = 0;
 
+        // Faces: t indices mirror p indices
         int[] remappedFaces = new int[faces.size() * 6];
         int fIdx = 0;
 
         for (int[] tri : faces) {
             for (int k = 0; k < 3; k++) {
                 int oldIndex = tri[k];
-                Integer newIndex = remap.get(oldIndex);
-                if (newIndex == null) {
-                    Point3D p = pointAt(srcPts, oldIndex);
-                    outPts.add((float) p.getX());
-                    outPts.add((float) p.getY());
-                    outPts.add((float) p.getZ());
+                int newIndex = remap[oldIndex];
+                if (newIndex < 0) {
                     newIndex = nextIndex++;
-                    remap.put(oldIndex, newIndex);
+                    remap[oldIndex] = newIndex;
+                    int o = newIndex * 3, i = oldIndex * 3;
+                    outPts[o]     = srcPts.get(i);
+                    outPts[o + 1] = srcPts.get(i + 1);
+                    outPts[o + 2] = srcPts.get(i + 2);
                 }
                 remappedFaces[fIdx++] = newIndex; // p index
-                remappedFaces[fIdx++] = 0;        // t index placeholder
+                remappedFaces[fIdx++] = newIndex; // t index
             }
         }
-
-        float[] ptsArray = new float[outPts.size()];
-        for (int i = 0; i < outPts.size(); i++) ptsArray[i] = outPts.get(i);
-        m.getPoints().setAll(ptsArray);
+        float[] ptsArray = nextIndex * 3 == outPts.length ? outPts : Arrays.copyOf(outPts, nextIndex * 3);
 
         // Equirect UVs (1 texcoord per vertex)
-        int pointCount = ptsArray.length / 3;
+        int pointCount = nextIndex;
         float[] uv = new float[pointCount * 2];
         for (int i = 0; i < pointCount; i++) {
             double x = ptsArray[i*3];
@@ -106,19 +105,9 @@ public final class HollowBaseSplitUtil {
             uv[i*2] = (float) u;
             uv[i*2 + 1] = (float) v;
         }
-        m.getTexCoords().setAll(uv);
-
-        // Faces: make t indices mirror p indices
-        for (int i = 0; i < remappedFaces.length; i += 2) {
-            int pIndex = remappedFaces[i];
-            remappedFaces[i + 1] = pIndex;
-        }
-        m.getFaces().setAll(remappedFaces);
 
         // Smoothing groups (1 per face keeps shading mellow)
-        int triCount = remappedFaces.length / 6;
-        for (int i = 0; i < triCount; i++) m.getFaceSmoothingGroups().addAll(1);
-
+        MeshBuffers.publish(m, ptsArray, uv, remappedFaces);
         return m;
     }
 
@@ -1,9 +1,7 @@
 package AsteroidField.asteroids.geometry;
 
 import AsteroidField.asteroids.parameters.HomeBaseAsteroidParameters;
-import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 
 /**
  * Deform-only Home Base mesh:
@@ -19,7 +17,7 @@ import java.util.Set;
 public class HomeBaseMesh extends IcosphereMesh {
 
     public HomeBaseMesh(double radius, int subdivisions, HomeBaseAsteroidParameters params) {
-        super(radius, subdivisions);
+        super(radius, subdivisions, false);
         build(params);
     }
 
@@ -52,12 +50,8 @@ public class HomeBaseMesh extends IcosphereMesh {
         }
 
         // 5) Commit vertex buffer; faces unchanged (smoothing groups refreshed)
-        getPoints().setAll(verts);
-        getFaceSmoothingGroups().clear();
-        int triCount = faces.length / 6;
-        for (int i = 0; i < triCount; i++) {
-            getFaceSmoothingGroups().addAll(1);
-        }
+        MeshBuffers.publishPoints(this, verts);
+        MeshBuffers.setUniformSmoothing(this, faces.length / 6);
     }
 
     /** Exterior deformation: radial noise bump with deterministic RNG. */
@@ -67,9 +61,8 @@ public class HomeBaseMesh extends IcosphereMesh {
         double R = p.getRadius();
 
         for (int i = 0; i < verts.length; i += 3) {
-            // use original normalized direction from vertsList (matches your other families)
-            float[] v = vertsList.get(i / 3);
-            double x = v[0], y = v[1], z = v[2];
+            // use original normalized direction from baseVerts (matches your other families)
+            double x = baseVerts[i], y = baseVerts[i + 1], z = baseVerts[i + 2];
             double len = Math.sqrt(x * x + y * y + z * z);
             double nx = x / len, ny = y / len, nz = z / len;
 
@@ -216,19 +209,8 @@ public class HomeBaseMesh extends IcosphereMesh {
 
         final int n = verts.length / 3;
 
-        // Build adjacency once via VertHelper
-        Map<Integer, Set<Integer>> adjMap = VertHelper.buildVertexAdjacency(facesList, n);
-        int[][] adj = new int[n][];
-        for (int i = 0; i < n; i++) {
-            Set<Integer> s = adjMap.get(i);
-            int size = (s != null) ? s.size() : 0;
-            int[] row = new int[size];
-            if (size > 0) {
-                int k = 0;
-                for (Integer v : s) row[k++] = v;
-            }
-            adj[i] = row;
-        }
+        // Shared 1-ring adjacency (CSR) for this subdivision level
+        VertHelper.Adjacency adj = topology.vertexAdjacency();
 
         // Position buffers
         double[] px = new double[n], py = new double[n], pz = new double[n];
@@ -249,14 +231,17 @@ public class HomeBaseMesh extends IcosphereMesh {
                     tx[i] = px[i]; ty[i] = py[i]; tz[i] = pz[i];
                     continue;
                 }
-                int[] nbrs = adj[i];
-                if (nbrs == null || nbrs.length == 0) {
+                int deg = adj.degree(i);
+                if (deg == 0) {
                     tx[i] = px[i]; ty[i] = py[i]; tz[i] = pz[i];
                     continue;
                 }
                 double ax = 0.0, ay = 0.0, az = 0.0;
-                for (int j : nbrs) { ax += px[j]; ay += py[j]; az += pz[j]; }
-                ax /= nbrs.length; ay /= nbrs.length; az /= nbrs.length;
+                for (int k = adj.start(i); k < adj.end(i); k++) {
+                    int j = adj.neighbor(k);
+                    ax += px[j]; ay += py[j]; az += pz[j];
+                }
+                ax /= deg; ay /= deg; az /= deg;
                 double w = influence[i];
                 tx[i] = px[i] + lam * w * (ax - px[i]);
                 ty[i] = py[i] + lam * w * (ay - py[i]);
@@ -271,14 +256,17 @@ public class HomeBaseMesh extends IcosphereMesh {
                     tx[i] = px[i]; ty[i] = py[i]; tz[i] = pz[i];
                     continue;
                 }
-                int[] nbrs = adj[i];
-                if (nbrs == null || nbrs.length == 0) {
+                int deg = adj.degree(i);
+                if (deg == 0) {
                     tx[i] = px[i]; ty[i] = py[i]; tz[i] = pz[i];
                     continue;
                 }
                 double ax = 0.0, ay = 0.0, az = 0.0;
-                for (int j : nbrs) { ax += px[j]; ay += py[j]; az += pz[j]; }
-                ax /= nbrs.length; ay /= nbrs.length; az /= nbrs.length;
+                for (int k = adj.start(i); k < adj.end(i); k++) {
+                    int j = adj.neighbor(k);
+                    ax += px[j]; ay += py[j]; az += pz[j];
+                }
+                ax /= deg; ay /= deg; az /= deg;
                 double w = influence[i];
                 tx[i] = px[i] + m * w * (ax - px[i]);
                 ty[i] = py[i] + m * w * (ay - py[i]);
@@ -0,0 +1,206 @@
+package AsteroidField.asteroids.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flat-array icosphere builder.
+ *
+ * - Buffers are pre-sized from the closed-form counts (V = 10*4^s + 2, F = 20*4^s)
+ * - Triangles are subdivided between two reused int[] buffers (no per-face arrays)
+ * - Edge midpoints are deduplicated with a primitive open-addressing long->int map
+ * - Vertex and face order are identical to the original List/HashMap construction,
+ *   so seeded deformers produce the same meshes
+ * - Unit-sphere results are memoized per level in IcosphereTopology; prefer that for meshes
+ *
+ * Stateless and thread-safe.
+ */
+public final class IcosphereBuilder {
+
+    private static final int[] BASE_FACES = {
+        0,11,5,  0,5,1,   0,1,7,   0,7,10,  0,10,11,
+        1,5,9,   5,11,4,  11,10,2, 10,7,6,  7,1,8,
+        3,9,4,   3,4,2,   3,2,6,   3,6,8,   3,8,9,
+        4,9,5,   2,4,11,  6,2,10,  8,6,7,   9,8,1
+    };
+
+    /** Above this the int-indexed buffers would overflow; nothing in the game comes close. */
+    public static final int MAX_SUBDIVISIONS = 12;
+
+    private IcosphereBuilder() {}
+
+    /** Vertex count of an icosphere with the given subdivision level. */
+    public static int vertexCount(int subdivisions) {
+        return 10 * (1 << (2 * clampSubdivisions(subdivisions))) + 2;
+    }
+
+    /** Triangle count of an icosphere with the given subdivision level. */
+    public static int faceCount(int subdivisions) {
+        return 20 << (2 * clampSubdivisions(subdivisions));
+    }
+
+    /** Flat icosphere geometry: xyz per vertex, (a, b, c) per triangle. */
+    public static final class Geometry {
+        public final float[] verts;
+        public final int[] tris;
+
+        Geometry(float[] verts, int[] tris) {
+            this.verts = verts;
+            this.tris = tris;
+        }
+
+        public int vertexCount() { return verts.length / 3; }
+        public int faceCount() { return tris.length / 3; }
+
+        /** JavaFX POINT_TEXCOORD face array (p0,t0,p1,t1,p2,t2) with every texcoord index 0. */
+        public int[] toFaceArray() { return faceArray(tris); }
+
+        /** Per-vertex copies (legacy List views used by the topology-editing families). */
+        public List<float[]> toVertsList() { return vertsList(verts); }
+
+        /** Per-face copies (legacy List views used by the topology-editing families). */
+        public List<int[]> toFacesList() { return facesList(tris); }
+    }
+
+    /** Expand (a, b, c) triangles to a POINT_TEXCOORD face array with texcoord index 0. */
+    public static int[] faceArray(int[] tris) {
+        int[] faces = new int[tris.length * 2];
+        for (int i = 0, f = 0; i < tris.length; i++, f += 2) faces[f] = tris[i];
+        return faces;
+    }
+
+    /** Flat xyz -> per-vertex float[3] copies. */
+    public static List<float[]> vertsList(float[] verts) {
+        List<float[]> out = new ArrayList<>(verts.length / 3);
+        for (int i = 0; i < verts.length; i += 3) {
+            out.add(new float[]{verts[i], verts[i + 1], verts[i + 2]});
+        }
+        return out;
+    }
+
+    /** Flat (a, b, c) triangles -> per-face int[3] copies. */
+    public static List<int[]> facesList(int[] tris) {
+        List<int[]> out = new ArrayList<>(tris.length / 3);
+        for (int i = 0; i < tris.length; i += 3) {
+            out.add(new int[]{tris[i], tris[i + 1], tris[i + 2]});
+        }
+        return out;
+    }
+
+    /** Build an icosphere of the given radius and subdivision level. */
+    public static Geometry build(double radius, int subdivisions) {
+        Raw raw = subdivide(radius, subdivisions);
+        float[] verts = new float[raw.pos.length];
+        for (int i = 0; i < verts.length; i++) verts[i] = (float) raw.pos[i];
+        return new Geometry(verts, raw.tris);
+    }
+
+    /** Double-precision positions, (a, b, c) triangles and the edge (a, b) each midpoint vertex was split from. */
+    static final class Raw {
+        final double[] pos;
+        final int[] tris;
+        final int[] parents; // 2 per vertex; -1 for the 12 base vertices
+
+        Raw(double[] pos, int[] tris, int[] parents) {
+            this.pos = pos;
+            this.tris = tris;
+            this.parents = parents;
+        }
+    }
+
+    static Raw subdivide(double radius, int subdivisions) {
+        int s = clampSubdivisions(subdivisions);
+        int vCount = vertexCount(s);
+        int fCount = faceCount(s);
+
+        // Positions stay in double until the end (matches the original precision exactly)
+        double[] pos = new double[vCount * 3];
+        basePositions(pos, radius);
+        int[] parents = new int[vCount * 2];
+        Arrays.fill(parents, 0, 24, -1);
+        int nv = 12;
+
+        int[] cur = new int[fCount * 3];
+        System.arraycopy(BASE_FACES, 0, cur, 0, BASE_FACES.length);
+        int nf = 20;
+
+        if (s > 0) {
+            int[] next = new int[fCount * 3];
+            // Each level only looks up its own edges (E = 30*4^level), so one map sized for the last level is reused
+            EdgeIndexMap midpoints = new EdgeIndexMap(30 << (2 * (s - 1)));
+            for (int level = 0; level < s; level++) {
+                midpoints.clear();
+                int o = 0;
+                for (int i = 0; i < nf * 3; i += 3) {
+                    int a = cur[i], b = cur[i + 1], c = cur[i + 2];
+                    int ab = midpoints.get(a, b);
+                    if (ab < 0) { ab = split(pos, parents, nv++, a, b, radius); midpoints.put(a, b, ab); }
+                    int bc = midpoints.get(b, c);
+                    if (bc < 0) { bc = split(pos, parents, nv++, b, c, radius); midpoints.put(b, c, bc); }
+                    int ca = midpoints.get(c, a);
+                    if (ca < 0) { ca = split(pos, parents, nv++, c, a, radius); midpoints.put(c, a, ca); }
+
+                    next[o++] = a;  next[o++] = ab; next[o++] = ca;
+                    next[o++] = b;  next[o++] = bc; next[o++] = ab;
+                    next[o++] = c;  next[o++] = ca; next[o++] = bc;
+                    next[o++] = ab; next[o++] = bc; next[o++] = ca;
+                }
+                nf *= 4;
+                int[] swap = cur; cur = next; next = swap;
+            }
+        }
+
+        return new Raw(pos, cur, parents);
+    }
+
+    /**
+     * Positions on a sphere of the given radius from a recorded split order, with the same arithmetic (and so
+     * the same bits) as subdivide(radius, ...): scaling unit positions afterwards would round differently.
+     */
+    static double[] replay(int[] parents, double radius) {
+        int vCount = parents.length / 2;
+        double[] pos = new double[vCount * 3];
+        basePositions(pos, radius);
+        for (int v = 12; v < vCount; v++) midpoint(pos, parents[v * 2], parents[v * 2 + 1], v, radius);
+        return pos;
+    }
+
+    private static void basePositions(double[] pos, double radius) {
+        double t = (1.0 + Math.sqrt(5.0)) / 2.0;
+        double[] base = {
+            -1,  t,  0,   1,  t,  0,  -1, -t,  0,   1, -t,  0,
+             0, -1,  t,   0,  1,  t,   0, -1, -t,   0,  1, -t,
+             t,  0, -1,   t,  0,  1,  -t,  0, -1,  -t,  0,  1
+        };
+        for (int i = 0; i < base.length; i += 3) {
+            double x = base[i], y = base[i + 1], z = base[i + 2];
+            double len = Math.sqrt(x*x + y*y + z*z);
+            pos[i]     = x / len * radius;
+            pos[i + 1] = y / len * radius;
+            pos[i + 2] = z / len * radius;
+        }
+    }
+
+    private static int split(double[] pos, int[] parents, int v, int a, int b, double radius) {
+        parents[v * 2] = a;
+        parents[v * 2 + 1] = b;
+        midpoint(pos, a, b, v, radius);
+        return v;
+    }
+
+    private static void midpoint(double[] pos, int a, int b, int out, double radius) {
+        int ia = a * 3, ib = b * 3, io = out * 3;
+        double x = (pos[ia]     + pos[ib])     / 2.0;
+        double y = (pos[ia + 1] + pos[ib + 1]) / 2.0;
+        double z = (pos[ia + 2] + pos[ib + 2]) / 2.0;
+        double len = Math.sqrt(x*x + y*y + z*z);
+        pos[io]     = x / len * radius;
+        pos[io + 1] = y / len * radius;
+        pos[io + 2] = z / len * radius;
+    }
+
+    static int clampSubdivisions(int s) {
+        return Math.max(0, Math.min(MAX_SUBDIVISIONS, s));
+    }
+}
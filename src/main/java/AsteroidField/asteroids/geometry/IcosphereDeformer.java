@@ -8,12 +8,12 @@ import java.util.*;
 public class IcosphereDeformer {
 
     public static TriangleMesh generate(AsteroidParameters params) {
-        // 1. Build base icosphere (vertices, faces)
-        IcosphereMesh mesh = new IcosphereMesh(params.getRadius(), params.getSubdivisions());
+        // 1. Shared base topology (subdivided once per level, not per asteroid)
+        IcosphereTopology topo = IcosphereTopology.of(params.getSubdivisions());
 
-        // 2. Deform vertices using seeded random
+        // 2. Deform the points at this radius using seeded random
         Random rng = new Random(params.getSeed());
-        float[] verts = mesh.getVertsArray();
+        float[] verts = topo.scaledPoints(params.getRadius());
         double def = params.getDeformation();
 
         for (int i = 0; i < verts.length; i += 3) {
@@ -30,17 +30,8 @@ public class IcosphereDeformer {
 
         // 3. Build TriangleMesh object
         TriangleMesh triMesh = new TriangleMesh();
-        triMesh.getPoints().setAll(verts);
-        triMesh.getTexCoords().addAll(0,0); // Flat UV for now
-
-        // Faces: int[] -> float[] for JavaFX
-        triMesh.getFaces().setAll(mesh.getFaces());
-
-        // After building mesh and setting points/faces:
-        int numFaces = triMesh.getFaces().size() / 6;
-        for (int i = 0; i < numFaces; i++) {
-            triMesh.getFaceSmoothingGroups().addAll(1); // All faces share group 1: fully smooth
-        }
+        // Flat UV for now; all faces share group 1: fully smooth
+        MeshBuffers.publish(triMesh, verts, MeshBuffers.SINGLE_UV, topo.copyFaceArray());
         return triMesh;
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package AsteroidField.asteroids.geometry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memoized unit icosphere per subdivision level.
+ *
+ * - Topology depends only on the level, so it is subdivided once per process and shared
+ * - Holds unit vertex directions (double), (a, b, c) triangle indices and the split order, so points at
+ *   any radius are rebuilt with the original per-radius arithmetic (bit-identical to a fresh subdivision)
+ * - Immutable: callers get fresh scaled/copied arrays and deform those
+ * - 1-ring vertex adjacency (CSR) is built lazily and shared too
+ * - Thread-safe (lock-free publish; a racing first build just computes the same data twice)
+ */
+public final class IcosphereTopology {
+
+    private static final AtomicReferenceArray<IcosphereTopology> CACHE =
+        new AtomicReferenceArray<>(IcosphereBuilder.MAX_SUBDIVISIONS + 1);
+
+    private final int subdivisions;
+    private final double[] dirs;   // unit xyz per vertex
+    private final int[] tris;      // a, b, c per face
+    private final int[] faceArray; // POINT_TEXCOORD layout, texcoord index 0
+    private final int[] parents;   // split edge (a, b) per vertex
+    private volatile VertHelper.Adjacency adjacency;
+
+    private IcosphereTopology(int subdivisions) {
+        IcosphereBuilder.Raw raw = IcosphereBuilder.subdivide(1.0, subdivisions);
+        this.subdivisions = subdivisions;
+        this.dirs = raw.pos;
+        this.tris = raw.tris;
+        this.faceArray = IcosphereBuilder.faceArray(raw.tris);
+        this.parents = raw.parents;
+    }
+
+    /** Shared topology for a subdivision level (clamped to 0..MAX_SUBDIVISIONS). */
+    public static IcosphereTopology of(int subdivisions) {
+        int s = IcosphereBuilder.clampSubdivisions(subdivisions);
+        IcosphereTopology t = CACHE.get(s);
+        if (t == null) {
+            CACHE.compareAndSet(s, null, new IcosphereTopology(s));
+            t = CACHE.get(s);
+        }
+        return t;
+    }
+
+    public int subdivisions() { return subdivisions; }
+    public int vertexCount() { return dirs.length / 3; }
+    public int faceCount() { return tris.length / 3; }
+
+    /** Unit direction components of vertex v. */
+    public double dirX(int v) { return dirs[v * 3]; }
+    public double dirY(int v) { return dirs[v * 3 + 1]; }
+    public double dirZ(int v) { return dirs[v * 3 + 2]; }
+
+    /**
+     * New xyz point buffer on a sphere of the given radius, bit-identical to subdividing at that radius
+     * (replays the midpoint splits; no edge map, so it is linear in the vertex count).
+     */
+    public float[] scaledPoints(double radius) {
+        double[] pos = IcosphereBuilder.replay(parents, radius);
+        float[] out = new float[pos.length];
+        for (int i = 0; i < out.length; i++) out[i] = (float) pos[i];
+        return out;
+    }
+
+    /** Copy of the unit directions (xyz per vertex). */
+    public double[] copyDirections() { return dirs.clone(); }
+
+    /** Copy of the (a, b, c) triangle indices. */
+    public int[] copyTris() { return tris.clone(); }
+
+    /** Copy of the POINT_TEXCOORD face array (p0,t0,p1,t1,p2,t2), texcoord index 0. */
+    public int[] copyFaceArray() { return faceArray.clone(); }
+
+    /** Shared 1-ring vertex adjacency (immutable; built on first use). */
+    public VertHelper.Adjacency vertexAdjacency() {
+        VertHelper.Adjacency a = adjacency;
+        if (a == null) {
+            a = VertHelper.buildVertexAdjacencyCsr(tris, vertexCount());
+            adjacency = a;
+        }
+        return a;
+    }
+}
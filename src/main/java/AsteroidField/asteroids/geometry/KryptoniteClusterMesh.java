@@ -90,35 +90,10 @@ public KryptoniteClusterMesh(KryptoniteClusterParameters params) {
 //        System.out.printf("Mesh faces: %d -> %d (added %d)\n", facesBefore, facesAfter, facesAfter - facesBefore);
 
         // Finalize mesh data as in CrystallineMesh
-        float[] newVerts = new float[allVerts.size() * 3];
-        for (int i = 0; i < allVerts.size(); i++) {
-            float[] v = allVerts.get(i);
-            newVerts[i * 3] = v[0];
-            newVerts[i * 3 + 1] = v[1];
-            newVerts[i * 3 + 2] = v[2];
-        }
-        float[] newTexCoords = new float[texCoordList.size() * 2];
-        for (int i = 0; i < texCoordList.size(); i++) {
-            double[] uv = texCoordList.get(i);
-            newTexCoords[i * 2] = (float)uv[0];
-            newTexCoords[i * 2 + 1] = (float)uv[1];
-        }
-        int[] newFaces = new int[allFaceRefs.size() * 6];
-        for (int i = 0; i < allFaceRefs.size(); i++) {
-            FaceRef f = allFaceRefs.get(i);
-            newFaces[i * 6 + 0] = f.vi0;
-            newFaces[i * 6 + 1] = f.ti0;
-            newFaces[i * 6 + 2] = f.vi1;
-            newFaces[i * 6 + 3] = f.ti1;
-            newFaces[i * 6 + 4] = f.vi2;
-            newFaces[i * 6 + 5] = f.ti2;
-        }
-
-        getPoints().setAll(newVerts);
-        getTexCoords().setAll(newTexCoords);
-        getFaces().setAll(newFaces);
-        getFaceSmoothingGroups().clear();
-        for (int i = 0; i < newFaces.length / 6; i++) getFaceSmoothingGroups().addAll(1);
+        MeshBuffers.publish(this,
+            MeshBuffers.flattenPoints(allVerts),
+            MeshBuffers.flattenTexCoords(texCoordList),
+            MeshBuffers.flattenFaces(allFaceRefs));
 //@DEBUG SMP 
         //System.out.println("KryptoniteClusterMesh: Mesh construction complete.");
     }
@@ -0,0 +1,185 @@
+package AsteroidField.asteroids.geometry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import javafx.collections.ObservableFloatArray;
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Single-shot TriangleMesh publishing from exact-size primitive arrays.
+ *
+ * - One setAll per observable array (points, texcoords, faces, smoothing groups),
+ *   so each array is allocated once and fires one change
+ * - Uniform smoothing comes from a shared grow-only array of 1s instead of addAll(1) per face
+ * - Flatten helpers turn the List-based intermediates some families still build into float[]/int[]
+ * - encode/decode move a whole mesh to/from a little-endian blob (disk cache, field snapshots)
+ *
+ * Safe to call from generator worker threads for meshes that are not yet in a live scene.
+ */
+public final class MeshBuffers {
+
+    /** Single (0, 0) texcoord for meshes whose faces all use texcoord index 0. */
+    public static final float[] SINGLE_UV = {0f, 0f};
+
+    private static volatile int[] ones = new int[0];
+
+    private MeshBuffers() {}
+
+    /** Replace all mesh arrays; every face goes in smoothing group 1. */
+    public static void publish(TriangleMesh mesh, float[] points, float[] texCoords, int[] faces) {
+        publish(mesh, points, texCoords, faces, null);
+    }
+
+    /** Replace all mesh arrays; a null smoothing array means every face in group 1. */
+    public static void publish(TriangleMesh mesh, float[] points, float[] texCoords, int[] faces, int[] smoothing) {
+        mesh.getPoints().setAll(points);
+        mesh.getTexCoords().setAll(texCoords);
+        mesh.getFaces().setAll(faces);
+        if (smoothing != null) {
+            mesh.getFaceSmoothingGroups().setAll(smoothing);
+        } else {
+            setUniformSmoothing(mesh, faces.length / 6);
+        }
+    }
+
+    /** Re-publish points only (deform passes); overwrites in place when the count is unchanged. */
+    public static void publishPoints(TriangleMesh mesh, float[] points) {
+        ObservableFloatArray p = mesh.getPoints();
+        if (p.size() == points.length) {
+            p.set(0, points, 0, points.length);
+        } else {
+            p.setAll(points);
+        }
+    }
+
+    /** Put every face in smoothing group 1 with a single setAll. */
+    public static void setUniformSmoothing(TriangleMesh mesh, int faceCount) {
+        mesh.getFaceSmoothingGroups().setAll(ones(faceCount), 0, faceCount);
+    }
+
+    // ----------------------------
+    // Flatten helpers
+    // ----------------------------
+
+    /** xyz per vertex. */
+    public static float[] flattenPoints(List<float[]> verts) {
+        float[] out = new float[verts.size() * 3];
+        for (int i = 0, o = 0; i < verts.size(); i++, o += 3) {
+            float[] v = verts.get(i);
+            out[o] = v[0]; out[o + 1] = v[1]; out[o + 2] = v[2];
+        }
+        return out;
+    }
+
+    /** uv per texcoord. */
+    public static float[] flattenTexCoords(List<double[]> uvs) {
+        float[] out = new float[uvs.size() * 2];
+        for (int i = 0, o = 0; i < uvs.size(); i++, o += 2) {
+            double[] uv = uvs.get(i);
+            out[o] = (float) uv[0]; out[o + 1] = (float) uv[1];
+        }
+        return out;
+    }
+
+    /** POINT_TEXCOORD face array from explicit point/texcoord pairs. */
+    public static int[] flattenFaces(List<FaceRef> faces) {
+        int[] out = new int[faces.size() * 6];
+        for (int i = 0, o = 0; i < faces.size(); i++, o += 6) {
+            FaceRef f = faces.get(i);
+            out[o]     = f.vi0; out[o + 1] = f.ti0;
+            out[o + 2] = f.vi1; out[o + 3] = f.ti1;
+            out[o + 4] = f.vi2; out[o + 5] = f.ti2;
+        }
+        return out;
+    }
+
+    /**
+     * POINT_TEXCOORD face array from int[3] triangles.
+     * @param texMirrorsPoint true: texcoord index = point index; false: texcoord index 0
+     */
+    public static int[] flattenTris(List<int[]> tris, boolean texMirrorsPoint) {
+        int[] out = new int[tris.size() * 6];
+        for (int i = 0, o = 0; i < tris.size(); i++, o += 6) {
+            int[] t = tris.get(i);
+            out[o]     = t[0]; out[o + 1] = texMirrorsPoint ? t[0] : 0;
+            out[o + 2] = t[1]; out[o + 3] = texMirrorsPoint ? t[1] : 0;
+            out[o + 4] = t[2]; out[o + 5] = texMirrorsPoint ? t[2] : 0;
+        }
+        return out;
+    }
+
+    // ----------------------------
+    // Binary blob: 4 int counts (points, texcoords, faces, smoothing) then the arrays
+    // ----------------------------
+
+    /** Bytes encode(mesh, ...) will write. */
+    public static int encodedSize(TriangleMesh mesh) {
+        return 4 * (4 + mesh.getPoints().size() + mesh.getTexCoords().size()
+                      + mesh.getFaces().size() + mesh.getFaceSmoothingGroups().size());
+    }
+
+    /** Append the mesh at out's position (little-endian buffer), advancing it. */
+    public static void encode(TriangleMesh mesh, ByteBuffer out) {
+        requireLittleEndian(out);
+        float[] pts = mesh.getPoints().toArray(null);
+        float[] tex = mesh.getTexCoords().toArray(null);
+        int[] faces = mesh.getFaces().toArray(null);
+        int[] smoothing = mesh.getFaceSmoothingGroups().toArray(null);
+        out.putInt(pts.length).putInt(tex.length).putInt(faces.length).putInt(smoothing.length);
+        out.asFloatBuffer().put(pts);
+        out.position(out.position() + pts.length * 4);
+        out.asFloatBuffer().put(tex);
+        out.position(out.position() + tex.length * 4);
+        out.asIntBuffer().put(faces);
+        out.position(out.position() + faces.length * 4);
+        out.asIntBuffer().put(smoothing);
+        out.position(out.position() + smoothing.length * 4);
+    }
+
+    /**
+     * Read a mesh written by encode from in's position (little-endian buffer, e.g. a mapped file),
+     * advancing it. Bulk-copies each array and publishes it with one setAll.
+     * @throws BufferUnderflowException if the blob is truncated or its counts are corrupt
+     */
+    public static TriangleMesh decode(ByteBuffer in) {
+        requireLittleEndian(in);
+        int nPts = in.getInt(), nTex = in.getInt(), nFaces = in.getInt(), nSmooth = in.getInt();
+        if (nPts < 0 || nTex < 0 || nFaces < 0 || nSmooth < 0
+            || 4L * ((long) nPts + nTex + nFaces + nSmooth) > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        float[] pts = new float[nPts];
+        float[] tex = new float[nTex];
+        int[] faces = new int[nFaces];
+        int[] smoothing = new int[nSmooth];
+        in.asFloatBuffer().get(pts);
+        in.position(in.position() + nPts * 4);
+        in.asFloatBuffer().get(tex);
+        in.position(in.position() + nTex * 4);
+        in.asIntBuffer().get(faces);
+        in.position(in.position() + nFaces * 4);
+        in.asIntBuffer().get(smoothing);
+        in.position(in.position() + nSmooth * 4);
+
+        TriangleMesh mesh = new TriangleMesh();
+        publish(mesh, pts, tex, faces, nSmooth == nFaces / 6 ? smoothing : null);
+        return mesh;
+    }
+
+    private static void requireLittleEndian(ByteBuffer b) {
+        if (b.order() != ByteOrder.LITTLE_ENDIAN) throw new IllegalArgumentException("Mesh blobs are little-endian");
+    }
+
+    /** Shared array with at least n leading 1s (never mutated once published). */
+    private static int[] ones(int n) {
+        int[] a = ones;
+        if (a.length < n) {
+            a = new int[Math.max(n, a.length * 2)];
+            java.util.Arrays.fill(a, 1);
+            ones = a;
+        }
+        return a;
+    }
+}
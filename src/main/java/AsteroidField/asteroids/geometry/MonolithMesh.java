@@ -135,31 +135,15 @@ public class MonolithMesh extends CubicMesh {
         }
 
         // --- Final: Write mesh arrays ---
-        float[] finalVerts = new float[verts.size() * 3];
-        for (int i = 0; i < verts.size(); i++) {
-            float[] v = verts.get(i);
-            finalVerts[i*3+0] = v[0];
-            finalVerts[i*3+1] = v[1];
-            finalVerts[i*3+2] = v[2];
-        }
+        float[] finalVerts = MeshBuffers.flattenPoints(verts);
         // Build final UVs: here, just copy existing for simplicity (todo: make tail UVs non-overlapping)
         // TODO: actually generate UVs for tail verts (using their stripe and local block projection)
         float[] finalUVs = new float[verts.size() * 2];
         System.arraycopy(cubeUVArray, 0, finalUVs, 0, Math.min(finalUVs.length, cubeUVArray.length));
-        int[] finalFaces = new int[faces.size() * 6];
-        for (int i = 0; i < faces.size(); i++) {
-            int[] f = faces.get(i);
-            finalFaces[i*6+0] = f[0]; finalFaces[i*6+1] = f[0];
-            finalFaces[i*6+2] = f[1]; finalFaces[i*6+3] = f[1];
-            finalFaces[i*6+4] = f[2]; finalFaces[i*6+5] = f[2];
-        }
+        int[] finalFaces = MeshBuffers.flattenTris(faces, true);
 
         // Write to mesh
-        getPoints().setAll(finalVerts);
-        getTexCoords().setAll(finalUVs);
-        getFaces().setAll(finalFaces);
-        getFaceSmoothingGroups().clear();
-        for (int i = 0; i < finalFaces.length / 6; i++) getFaceSmoothingGroups().addAll(1);
+        MeshBuffers.publish(this, finalVerts, finalUVs, finalFaces);
     }
 
     // Helper to get the center of a cube face given a normal and half-size
@@ -8,7 +8,7 @@ import java.util.Random;
 public class SpikyMesh extends IcosphereMesh {
 
     public SpikyMesh(double radius, int subdivisions, SpikyAsteroidParameters params) {
-        super(radius, subdivisions);
+        super(radius, subdivisions, false);
         deform(params);
     }
 
@@ -49,8 +49,7 @@ public class SpikyMesh extends IcosphereMesh {
         double deform = params.getDeformation();
 
         for (int i = 0; i < verts.length; i += 3) {
-            float[] v = vertsList.get(i / 3);
-            double x = v[0], y = v[1], z = v[2];
+            double x = baseVerts[i], y = baseVerts[i + 1], z = baseVerts[i + 2];
             double len = Math.sqrt(x * x + y * y + z * z);
             double vx = x / len, vy = y / len, vz = z / len;
 
@@ -1,6 +1,7 @@
 package AsteroidField.asteroids.geometry;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -14,6 +15,10 @@ import java.util.Set;
 
 /**
  * Utility class for mesh vertex and topology helpers.
+ *
+ * - Flat-array versions (Adjacency, EdgeTable, computeVertexNormals) take (a, b, c) triangle
+ *   arrays and avoid boxed collections; mesh builders should prefer these
+ * - The List/Map/Set versions remain for editor and legacy callers
  */
 public class VertHelper {
     public static void validateMesh(List<int[]> allFaces, List<float[]> allVerts) {
@@ -83,34 +88,18 @@ public class VertHelper {
      * @return List of sets; faceNeighbors.get(i) is a Set<Integer> of neighboring face indices for face i.
      */
     public static List<Set<Integer>> collectFaceNeighbors(List<int[]> faces) {
-        // Map from edge (min, max) to all faces that share it
-        Map<String, List<Integer>> edgeToFaces = new HashMap<>();
-        for (int i = 0; i < faces.size(); i++) {
-            int[] face = faces.get(i);
-            for (int j = 0; j < 3; j++) {
-                int a = face[j], b = face[(j + 1) % 3];
-                String key = edgeKey(a, b);
-                edgeToFaces.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
-            }
-        }
+        Adjacency csr = buildFaceAdjacency(EdgeTable.build(toTris(faces)));
         List<Set<Integer>> neighbors = new ArrayList<>(faces.size());
-        for (int i = 0; i < faces.size(); i++) neighbors.add(new HashSet<>());
-        for (List<Integer> faceList : edgeToFaces.values()) {
-            if (faceList.size() > 1) {
-                for (int i : faceList) {
-                    for (int j : faceList) {
-                        if (i != j) neighbors.get(i).add(j);
-                    }
-                }
+        for (int i = 0; i < faces.size(); i++) {
+            Set<Integer> set = new HashSet<>();
+            if (i < csr.size()) {
+                for (int k = csr.start(i); k < csr.end(i); k++) set.add(csr.neighbor(k));
             }
+            neighbors.add(set);
         }
         return neighbors;
     }
 
-    private static String edgeKey(int a, int b) {
-        return (Math.min(a, b)) + "_" + (Math.max(a, b));
-    }
-
     /**
      * Computes the average normal at a vertex, given all mesh faces and vertex positions.
      * @param vertexIdx The vertex index
@@ -155,26 +144,224 @@ public class VertHelper {
      * @return Set of Integer indices of border vertices
      */
     public static Set<Integer> findBorderVertices(List<int[]> faces) {
-        Map<String, List<Integer>> edgeToFaces = new HashMap<>();
-        for (int i = 0; i < faces.size(); i++) {
-            int[] face = faces.get(i);
-            for (int j = 0; j < 3; j++) {
-                int a = face[j], b = face[(j + 1) % 3];
-                String key = edgeKey(a, b);
-                edgeToFaces.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
-            }
-        }
+        EdgeTable edges = EdgeTable.build(toTris(faces));
         Set<Integer> borderVerts = new HashSet<>();
-        for (Map.Entry<String, List<Integer>> entry : edgeToFaces.entrySet()) {
-            if (entry.getValue().size() == 1) {
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            if (edges.isBorder(e)) {
                 // This edge is only in one face → border edge
-                String[] ab = entry.getKey().split("_");
-                int a = Integer.parseInt(ab[0]);
-                int b = Integer.parseInt(ab[1]);
-                borderVerts.add(a);
-                borderVerts.add(b);
+                borderVerts.add(edges.edgeA(e));
+                borderVerts.add(edges.edgeB(e));
             }
         }
         return borderVerts;
     }
+
+    // ----------------------------
+    // Flat-array topology
+    // ----------------------------
+
+    /** Flatten int[3] faces into an (a, b, c) triangle array. */
+    public static int[] toTris(List<int[]> faces) {
+        int[] tris = new int[faces.size() * 3];
+        for (int i = 0; i < faces.size(); i++) {
+            int[] f = faces.get(i);
+            tris[i * 3] = f[0]; tris[i * 3 + 1] = f[1]; tris[i * 3 + 2] = f[2];
+        }
+        return tris;
+    }
+
+    /**
+     * Compressed-sparse-row adjacency: the neighbors of i are neighbor(start(i)) .. neighbor(end(i) - 1),
+     * sorted ascending without duplicates or self-references. Immutable.
+     */
+    public static final class Adjacency {
+        private final int[] offsets;
+        private final int[] neighbors;
+
+        Adjacency(int[] offsets, int[] neighbors) {
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+        }
+
+        public int size() { return offsets.length - 1; }
+        public int start(int i) { return offsets[i]; }
+        public int end(int i) { return offsets[i + 1]; }
+        public int degree(int i) { return offsets[i + 1] - offsets[i]; }
+        public int neighbor(int k) { return neighbors[k]; }
+
+        /** Sort and dedupe each row of a raw (offsets, entries) fill, dropping self-references. */
+        static Adjacency compact(int[] offsets, int[] entries) {
+            int n = offsets.length - 1;
+            int[] out = new int[n + 1];
+            int w = 0;
+            for (int i = 0; i < n; i++) {
+                int s = offsets[i], e = offsets[i + 1];
+                Arrays.sort(entries, s, e);
+                out[i] = w;
+                for (int k = s; k < e; k++) {
+                    int v = entries[k];
+                    if (v == i || (w > out[i] && entries[w - 1] == v)) continue;
+                    entries[w++] = v; // w <= k, so compaction in place is safe
+                }
+            }
+            out[n] = w;
+            return new Adjacency(out, Arrays.copyOf(entries, w));
+        }
+    }
+
+    /** 1-ring vertex adjacency from (a, b, c) triangles, without boxing. */
+    public static Adjacency buildVertexAdjacencyCsr(int[] tris, int numVerts) {
+        int[] offsets = new int[numVerts + 1];
+        for (int v : tris) offsets[v + 1] += 2;
+        for (int i = 0; i < numVerts; i++) offsets[i + 1] += offsets[i];
+
+        int[] entries = new int[offsets[numVerts]];
+        int[] fill = Arrays.copyOf(offsets, numVerts);
+        for (int f = 0; f < tris.length; f += 3) {
+            int a = tris[f], b = tris[f + 1], c = tris[f + 2];
+            entries[fill[a]++] = b; entries[fill[a]++] = c;
+            entries[fill[b]++] = c; entries[fill[b]++] = a;
+            entries[fill[c]++] = a; entries[fill[c]++] = b;
+        }
+        return Adjacency.compact(offsets, entries);
+    }
+
+    /**
+     * Vertex indices within {@code hops} rings of {@code seed} (BFS order, seed first).
+     * Flat-array counterpart of collectNeighborVerts(int, int, Map, Random).
+     */
+    public static int[] collectNeighborVerts(int seed, int hops, Adjacency adjacency) {
+        boolean[] seen = new boolean[adjacency.size()];
+        int[] queue = new int[adjacency.size()];
+        int head = 0, tail = 0;
+        queue[tail++] = seed;
+        seen[seed] = true;
+        int layerEnd = tail, depth = 0;
+        while (head < tail && depth < hops) {
+            int curr = queue[head++];
+            for (int k = adjacency.start(curr); k < adjacency.end(curr); k++) {
+                int nbr = adjacency.neighbor(k);
+                if (!seen[nbr]) {
+                    seen[nbr] = true;
+                    queue[tail++] = nbr;
+                }
+            }
+            if (head == layerEnd) {
+                layerEnd = tail;
+                depth++;
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Undirected edge table for (a, b, c) triangles: edge ids, endpoints (a < b) and the
+     * faces on each edge (CSR). Edges are looked up by long-packed (min, max) keys.
+     */
+    public static final class EdgeTable {
+        private final EdgeIndexMap ids;
+        private final int[] edgeA, edgeB;
+        private final int[] faceOffsets, faces;
+
+        private EdgeTable(EdgeIndexMap ids, int[] edgeA, int[] edgeB, int[] faceOffsets, int[] faces) {
+            this.ids = ids;
+            this.edgeA = edgeA;
+            this.edgeB = edgeB;
+            this.faceOffsets = faceOffsets;
+            this.faces = faces;
+        }
+
+        public static EdgeTable build(int[] tris) {
+            int corners = tris.length;
+            EdgeIndexMap ids = new EdgeIndexMap(Math.max(1, corners));
+            int[] cornerEdge = new int[corners];
+            int[] ea = new int[corners], eb = new int[corners];
+            int edgeCount = 0;
+            for (int f = 0; f < corners; f += 3) {
+                for (int j = 0; j < 3; j++) {
+                    int a = tris[f + j], b = tris[f + (j + 1) % 3];
+                    int id = ids.get(a, b);
+                    if (id < 0) {
+                        id = edgeCount++;
+                        ids.put(a, b, id);
+                        ea[id] = Math.min(a, b);
+                        eb[id] = Math.max(a, b);
+                    }
+                    cornerEdge[f + j] = id;
+                }
+            }
+
+            // Faces per edge (CSR, ascending face order)
+            int[] offsets = new int[edgeCount + 1];
+            for (int id : cornerEdge) offsets[id + 1]++;
+            for (int e = 0; e < edgeCount; e++) offsets[e + 1] += offsets[e];
+            int[] faces = new int[corners];
+            int[] fill = Arrays.copyOf(offsets, edgeCount);
+            for (int k = 0; k < corners; k++) faces[fill[cornerEdge[k]]++] = k / 3;
+
+            return new EdgeTable(ids, Arrays.copyOf(ea, edgeCount), Arrays.copyOf(eb, edgeCount), offsets, faces);
+        }
+
+        public int edgeCount() { return edgeA.length; }
+        /** Edge id of (a, b) in either order, or -1. */
+        public int find(int a, int b) { return ids.get(a, b); }
+        public int edgeA(int e) { return edgeA[e]; }
+        public int edgeB(int e) { return edgeB[e]; }
+        public int faceCount(int e) { return faceOffsets[e + 1] - faceOffsets[e]; }
+        public int face(int e, int i) { return faces[faceOffsets[e] + i]; }
+        /** True when only one face uses the edge. */
+        public boolean isBorder(int e) { return faceCount(e) == 1; }
+    }
+
+    /** Face adjacency (faces sharing an edge) as CSR over face indices. */
+    public static Adjacency buildFaceAdjacency(EdgeTable edges) {
+        int faceCount = 0;
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            for (int i = 0; i < edges.faceCount(e); i++) faceCount = Math.max(faceCount, edges.face(e, i) + 1);
+        }
+        int[] offsets = new int[faceCount + 1];
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            int n = edges.faceCount(e);
+            for (int i = 0; i < n; i++) offsets[edges.face(e, i) + 1] += n - 1;
+        }
+        for (int f = 0; f < faceCount; f++) offsets[f + 1] += offsets[f];
+        int[] entries = new int[offsets[faceCount]];
+        int[] fill = Arrays.copyOf(offsets, faceCount);
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            int n = edges.faceCount(e);
+            for (int i = 0; i < n; i++) {
+                int fi = edges.face(e, i);
+                for (int j = 0; j < n; j++) if (i != j) entries[fill[fi]++] = edges.face(e, j);
+            }
+        }
+        return Adjacency.compact(offsets, entries);
+    }
+
+    /**
+     * Area-weighted vertex normals for every vertex in one pass over the faces.
+     * @param verts xyz per vertex
+     * @param tris  (a, b, c) per face
+     * @return xyz unit normal per vertex (zero for unreferenced/degenerate vertices)
+     */
+    public static float[] computeVertexNormals(float[] verts, int[] tris) {
+        double[] acc = new double[verts.length];
+        for (int f = 0; f < tris.length; f += 3) {
+            int i0 = tris[f] * 3, i1 = tris[f + 1] * 3, i2 = tris[f + 2] * 3;
+            double ux = verts[i1] - verts[i0], uy = verts[i1 + 1] - verts[i0 + 1], uz = verts[i1 + 2] - verts[i0 + 2];
+            double vx = verts[i2] - verts[i0], vy = verts[i2 + 1] - verts[i0 + 1], vz = verts[i2 + 2] - verts[i0 + 2];
+            double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+            acc[i0] += nx; acc[i0 + 1] += ny; acc[i0 + 2] += nz;
+            acc[i1] += nx; acc[i1 + 1] += ny; acc[i1 + 2] += nz;
+            acc[i2] += nx; acc[i2 + 1] += ny; acc[i2 + 2] += nz;
+        }
+        float[] out = new float[verts.length];
+        for (int i = 0; i < acc.length; i += 3) {
+            double len = Math.sqrt(acc[i] * acc[i] + acc[i + 1] * acc[i + 1] + acc[i + 2] * acc[i + 2]);
+            if (len == 0) continue;
+            out[i]     = (float) (acc[i] / len);
+            out[i + 1] = (float) (acc[i + 1] / len);
+            out[i + 2] = (float) (acc[i + 2] / len);
+        }
+        return out;
+    }
 }
@@ -0,0 +1,191 @@
+package AsteroidField.asteroids.parameters;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reflective binary codec for AsteroidParameters and all its subclasses.
+ *
+ * - Writes the concrete class name, then every instance field from AsteroidParameters down to the
+ *   concrete class (sorted by name within each class) as tagged values
+ * - Subclass fields (e.g. CrystallineAsteroidParameters) need no per-class code
+ * - Reading builds a default instance through the class's nested Builder, then overwrites each
+ *   field that is present in the stream; unknown fields are skipped, missing ones keep defaults
+ * - Supports primitives (boxed), String, enums, arrays and Lists of those
+ *
+ * The encoding is stable for a given class layout, so it also serves as a cache key source.
+ */
+public final class ParameterCodec {
+
+    private ParameterCodec() {}
+
+    public static void write(DataOutput out, AsteroidParameters params) throws IOException {
+        out.writeUTF(params.getClass().getName());
+        List<Field> fields = fields(params.getClass());
+        out.writeInt(fields.size());
+        try {
+            for (Field f : fields) {
+                out.writeUTF(f.getName());
+                writeValue(out, f.get(params));
+            }
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot read parameter fields of " + params.getClass().getName(), ex);
+        }
+    }
+
+    public static AsteroidParameters read(DataInput in) throws IOException {
+        String className = in.readUTF();
+        AsteroidParameters params = newDefault(className);
+        Map<String, Field> byName = new java.util.HashMap<>();
+        for (Field f : fields(params.getClass())) byName.put(f.getName(), f);
+
+        int n = in.readInt();
+        try {
+            for (int i = 0; i < n; i++) {
+                String name = in.readUTF();
+                Object value = readValue(in);
+                Field f = byName.get(name);
+                if (f != null) f.set(params, value);
+            }
+        } catch (IllegalAccessException | IllegalArgumentException ex) {
+            throw new IOException("Cannot restore parameter fields of " + className, ex);
+        }
+        return params;
+    }
+
+    // ----------------------------
+    // Internals
+    // ----------------------------
+
+    /** Instance fields, AsteroidParameters first, sorted by name within each class. */
+    private static List<Field> fields(Class<?> type) {
+        List<Class<?>> chain = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) chain.add(0, c);
+        List<Field> out = new ArrayList<>();
+        for (Class<?> c : chain) {
+            Field[] declared = c.getDeclaredFields();
+            Arrays.sort(declared, Comparator.comparing(Field::getName));
+            for (Field f : declared) {
+                int mod = f.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || f.isSynthetic()) continue;
+                f.setAccessible(true);
+                out.add(f);
+            }
+        }
+        return out;
+    }
+
+    private static AsteroidParameters newDefault(String className) throws IOException {
+        try {
+            Class<?> type = Class.forName(className);
+            if (!AsteroidParameters.class.isAssignableFrom(type)) throw new IOException(className + " is not AsteroidParameters");
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                if (!nested.getSimpleName().equals("Builder")) continue;
+                var ctor = nested.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                Object builder = ctor.newInstance();
+                var build = nested.getMethod("build");
+                return (AsteroidParameters) build.invoke(builder);
+            }
+            throw new IOException(className + " has no nested Builder");
+        } catch (ReflectiveOperationException ex) {
+            throw new IOException("Cannot instantiate " + className, ex);
+        }
+    }
+
+    private static void writeValue(DataOutput out, Object v) throws IOException {
+        if (v == null) { out.writeByte('N'); return; }
+        if (v instanceof Double d) { out.writeByte('D'); out.writeDouble(d); return; }
+        if (v instanceof Float f) { out.writeByte('F'); out.writeFloat(f); return; }
+        if (v instanceof Long l) { out.writeByte('J'); out.writeLong(l); return; }
+        if (v instanceof Integer i) { out.writeByte('I'); out.writeInt(i); return; }
+        if (v instanceof Short s) { out.writeByte('S'); out.writeShort(s); return; }
+        if (v instanceof Byte b) { out.writeByte('B'); out.writeByte(b); return; }
+        if (v instanceof Boolean b) { out.writeByte('Z'); out.writeBoolean(b); return; }
+        if (v instanceof Character c) { out.writeByte('C'); out.writeChar(c); return; }
+        if (v instanceof String s) { out.writeByte('T'); out.writeUTF(s); return; }
+        if (v instanceof Enum<?> e) {
+            out.writeByte('E'); out.writeUTF(e.getDeclaringClass().getName()); out.writeUTF(e.name()); return;
+        }
+        if (v.getClass().isArray()) {
+            int n = Array.getLength(v);
+            out.writeByte('['); out.writeUTF(v.getClass().getComponentType().getName()); out.writeInt(n);
+            for (int i = 0; i < n; i++) writeValue(out, Array.get(v, i));
+            return;
+        }
+        if (v instanceof List<?> list) {
+            out.writeByte('L'); out.writeInt(list.size());
+            for (Object o : list) writeValue(out, o);
+            return;
+        }
+        throw new IllegalArgumentException("Unsupported parameter field type " + v.getClass().getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readValue(DataInput in) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case 'N': return null;
+            case 'D': return in.readDouble();
+            case 'F': return in.readFloat();
+            case 'J': return in.readLong();
+            case 'I': return in.readInt();
+            case 'S': return in.readShort();
+            case 'B': return in.readByte();
+            case 'Z': return in.readBoolean();
+            case 'C': return in.readChar();
+            case 'T': return in.readUTF();
+            case 'E': {
+                String type = in.readUTF(), name = in.readUTF();
+                try {
+                    return Enum.valueOf((Class<Enum>) Class.forName(type), name);
+                } catch (ClassNotFoundException ex) {
+                    throw new IOException("Unknown enum " + type, ex);
+                }
+            }
+            case '[': {
+                Class<?> component = componentType(in.readUTF());
+                int n = in.readInt();
+                Object arr = Array.newInstance(component, n);
+                for (int i = 0; i < n; i++) Array.set(arr, i, readValue(in));
+                return arr;
+            }
+            case 'L': {
+                int n = in.readInt();
+                List<Object> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) list.add(readValue(in));
+                return list;
+            }
+            default:
+                throw new IOException("Bad parameter value tag " + tag);
+        }
+    }
+
+    private static Class<?> componentType(String name) throws IOException {
+        switch (name) {
+            case "double": return double.class;
+            case "float": return float.class;
+            case "long": return long.class;
+            case "int": return int.class;
+            case "short": return short.class;
+            case "byte": return byte.class;
+            case "boolean": return boolean.class;
+            case "char": return char.class;
+            default:
+                try {
+                    return Class.forName(name);
+                } catch (ClassNotFoundException ex) {
+                    throw new IOException("Unknown array component " + name, ex);
+                }
+        }
+    }
+}
@@ -25,6 +25,12 @@ public interface AsteroidMeshProvider {
     
     // For convenience, override so a display name can be supplied via a method 
     default String getDisplayName() { return getClass().getSimpleName(); }
+
+    /**
+     * Bump whenever generateMesh output changes for the same parameters,
+     * so stale MeshDiskCache entries for this family are ignored.
+     */
+    default int getGeneratorVersion() { return 1; }
     
     // Default implementation: deformed icosphere
     public static class Default implements AsteroidMeshProvider {
@@ -229,7 +229,7 @@ public class CapsuleAsteroidMeshProvider implements AsteroidMeshProvider, Astero
 
     @Override
     public AsteroidParameters buildDefaultParamsFrom(AsteroidParameters previous) {
-        long now = System.nanoTime();
+        long now = previous.getSeed();
         double width = (previous instanceof CapsuleAsteroidParameters) ? ((CapsuleAsteroidParameters) previous).getWidth() : 60;
         double length = (previous instanceof CapsuleAsteroidParameters) ? ((CapsuleAsteroidParameters) previous).getLength() : 200;
         int craterCount = (previous instanceof CapsuleAsteroidParameters) ? ((CapsuleAsteroidParameters) previous).getCraterCount() : 5;
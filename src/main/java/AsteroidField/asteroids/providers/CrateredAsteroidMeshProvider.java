@@ -148,7 +148,7 @@ public class CrateredAsteroidMeshProvider implements AsteroidMeshProvider, Aster
 
     @Override
     public AsteroidParameters buildDefaultParamsFrom(AsteroidParameters previous) {
-        long now = System.nanoTime();
+        long now = previous.getSeed();
         int craterCount = (previous instanceof CrateredAsteroidParameters)
                 ? ((CrateredAsteroidParameters) previous).getCraterCount()
                 : 5;
@@ -301,7 +301,7 @@ public class CrystallineAsteroidMeshProvider implements AsteroidMeshProvider, As
             .radius(previous.getRadius())
             .subdivisions(previous.getSubdivisions())
             .deformation(previous.getDeformation())
-            .seed(System.nanoTime())
+            .seed(previous.getSeed())
             .familyName("Crystalline")
             .crystalCount(12)
             .prismSides(6)
@@ -112,7 +112,7 @@ private CubicAsteroidParameters buildUpdatedParamsFromControls() {
             .radius(previous.getRadius())
             .subdivisions(1)
             .deformation(0.12)
-            .seed(System.nanoTime())
+            .seed(previous.getSeed())
             .familyName("Cubic")
             .build();
     }
@@ -128,7 +128,7 @@ public class HollowBaseAsteroidMeshProvider implements AsteroidMeshProvider, Ast
                 .radius(previous.getRadius())
                 .subdivisions(previous.getSubdivisions())
                 .deformation(previous.getDeformation())
-                .seed(System.nanoTime())
+                .seed(previous.getSeed())
                 .familyName("Hollow Base")
                 .mouthCount(1).mouthApertureDeg(55).mouthJitter(0.15)
                 .innerRadiusRatio(0.6).innerNoiseAmp(0.05).innerNoiseFreq(1.0)
@@ -194,7 +194,7 @@ public class HomeBaseAsteroidMeshProvider implements AsteroidMeshProvider, Aster
                 .radius(previous.getRadius())
                 .subdivisions(previous.getSubdivisions())
                 .deformation(previous.getDeformation())
-                .seed(System.nanoTime())
+                .seed(previous.getSeed())
                 .familyName("Home Base")
                 .mouthCount(1).mouthMajorDeg(90.0).mouthMinorDeg(60.0).mouthJitter(0.15)
                 .cavityRadiusRatio(0.45).cavityBlendScale(2.2).rimLift(0.06).rimSharpness(1.1)
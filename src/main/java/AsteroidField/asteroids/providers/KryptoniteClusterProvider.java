@@ -344,7 +344,7 @@ public TriangleMesh generateMesh(AsteroidParameters baseParams) {
             .radius(previous.getRadius())
             .subdivisions(previous.getSubdivisions())
             .deformation(previous.getDeformation())
-            .seed(System.nanoTime())
+            .seed(previous.getSeed())
             .familyName("Kryptonite")
             .crystalCount(24)
             .prismSides(6)
@@ -0,0 +1,320 @@
+package AsteroidField.asteroids.providers;
+
+import AsteroidField.asteroids.geometry.MeshBuffers;
+import AsteroidField.asteroids.parameters.AsteroidParameters;
+import AsteroidField.asteroids.parameters.ParameterCodec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.shape.VertexFormat;
+
+/**
+ * Content-addressed on-disk cache for generated asteroid meshes.
+ *
+ * - Key = SHA-256 over format version, provider class + generator version and the
+ *   ParameterCodec encoding of the params (every field, subclass fields included)
+ * - Entry = one little-endian file: header + MeshBuffers blob (points, texcoords, faces, smoothing)
+ * - Reads are memory-mapped (FileChannel.map) and bulk-copied by MeshBuffers.decode
+ * - Writes go to a temp file and are moved into place, so readers never see partial entries
+ * - Any I/O or format problem falls back to generating (and the broken entry is rewritten)
+ * - Size is bounded by a byte budget: hits refresh an entry's mtime, and the least recently used entries
+ *   are deleted on first use (startup) and whenever writes push the total over the budget
+ * - Meant for meshes that recur (prototypes, LOD levels, snapshot prototypes); one-off per-instance meshes
+ *   with random seeds should bypass it, their entries would never be read again
+ *
+ * Lives under the user cache dir (XDG_CACHE_HOME, ~/Library/Caches, %LOCALAPPDATA%) in
+ * AsteroidField/meshes; -Dasteroidfield.meshcache=false disables it, -Dasteroidfield.cachedir relocates it,
+ * -Dasteroidfield.meshcache.maxmb sets the budget (default 512 MB).
+ * Thread-safe; generator workers call it concurrently.
+ */
+public final class MeshDiskCache {
+
+    /** Bump when the entry layout or key derivation changes, or shared geometry code changes output. */
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = 0x414D4331; // "AMC1"
+    private static final int HEADER_BYTES = 4 * 2 + 32;
+    private static final String EXT = ".afmesh";
+
+    public static final long DEFAULT_BUDGET_BYTES = 512L * 1024 * 1024;
+
+    private static final System.Logger LOG = System.getLogger(MeshDiskCache.class.getName());
+
+    private static volatile boolean enabled =
+        !"false".equalsIgnoreCase(System.getProperty("asteroidfield.meshcache", "true"));
+    private static volatile Path dir = defaultDir();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong writeFailures = new AtomicLong();
+
+    private static volatile long budgetBytes = budgetFromProperty();
+    private static final AtomicLong bytes = new AtomicLong(-1); // -1: directory not scanned yet
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private MeshDiskCache() {}
+
+    // ----------------------------
+    // Configuration
+    // ----------------------------
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    public static Path getDirectory() { return dir; }
+    public static void setDirectory(Path directory) {
+        dir = directory;
+        bytes.set(-1); // rescan (and trim) on next use
+    }
+
+    public static long getBudgetBytes() { return budgetBytes; }
+
+    /** New byte budget; shrinking it trims immediately. */
+    public static void setBudgetBytes(long budget) {
+        budgetBytes = Math.max(0, budget);
+        trim();
+    }
+
+    private static long budgetFromProperty() {
+        try {
+            return Long.parseLong(System.getProperty("asteroidfield.meshcache.maxmb", "")) * 1024 * 1024;
+        } catch (NumberFormatException ex) {
+            return DEFAULT_BUDGET_BYTES;
+        }
+    }
+
+    /** Base per-user cache directory for AsteroidField (meshes live in its "meshes" child). */
+    public static Path userCacheRoot() {
+        String override = System.getProperty("asteroidfield.cachedir");
+        if (override != null && !override.isBlank()) return Paths.get(override);
+
+        String os = System.getProperty("os.name", "").toLowerCase();
+        String home = System.getProperty("user.home", ".");
+        if (os.contains("win")) {
+            String local = System.getenv("LOCALAPPDATA");
+            return Paths.get(local != null ? local : home, "AsteroidField", "cache");
+        }
+        if (os.contains("mac")) return Paths.get(home, "Library", "Caches", "AsteroidField");
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        return Paths.get(xdg != null && !xdg.isBlank() ? xdg : Paths.get(home, ".cache").toString(), "AsteroidField");
+    }
+
+    private static Path defaultDir() { return userCacheRoot().resolve("meshes"); }
+
+    public static long hits() { return hits.get(); }
+    public static long misses() { return misses.get(); }
+
+    public static String stats() {
+        return "MeshDiskCache hits=" + hits.get() + " misses=" + misses.get()
+            + " writeFailures=" + writeFailures.get() + " evictions=" + evictions.get()
+            + " bytes=" + Math.max(0, bytes.get()) + "/" + budgetBytes + " dir=" + dir;
+    }
+
+    /** Delete every cached entry (e.g. from a debug action). */
+    public static void clear() {
+        Path d = dir;
+        if (!Files.isDirectory(d)) return;
+        try (var files = Files.list(d)) {
+            files.filter(p -> p.getFileName().toString().endsWith(EXT)).forEach(p -> {
+                try { Files.deleteIfExists(p); } catch (IOException ignored) {}
+            });
+        } catch (IOException ex) {
+            LOG.log(System.Logger.Level.WARNING, "MeshDiskCache: clear failed: " + ex.getMessage());
+        }
+        bytes.set(-1);
+    }
+
+    // ----------------------------
+    // Budget
+    // ----------------------------
+
+    /**
+     * Delete least recently used entries (oldest mtime first) until the directory fits the budget.
+     * Runs on first lookup and after writes that cross the budget; cheap when already within it.
+     */
+    public static synchronized void trim() {
+        Path d = dir;
+        if (!Files.isDirectory(d)) {
+            bytes.set(0);
+            return;
+        }
+        record Item(Path path, long size, long mtime) {}
+        List<Item> items = new ArrayList<>();
+        long total = 0;
+        try (var files = Files.list(d)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (!p.getFileName().toString().endsWith(EXT)) continue;
+                try {
+                    BasicFileAttributes a = Files.readAttributes(p, BasicFileAttributes.class);
+                    items.add(new Item(p, a.size(), a.lastModifiedTime().toMillis()));
+                    total += a.size();
+                } catch (IOException ignored) {
+                    // Vanished or unreadable; skip
+                }
+            }
+        } catch (IOException ex) {
+            LOG.log(System.Logger.Level.WARNING, "MeshDiskCache: cannot scan " + d + " (" + ex.getMessage() + ")");
+            return;
+        }
+        if (total > budgetBytes) {
+            items.sort(Comparator.comparingLong(Item::mtime));
+            for (Item it : items) {
+                if (total <= budgetBytes) break;
+                try {
+                    if (Files.deleteIfExists(it.path())) {
+                        total -= it.size();
+                        evictions.incrementAndGet();
+                    }
+                } catch (IOException ignored) {
+                    // In use elsewhere; try the next one
+                }
+            }
+        }
+        bytes.set(total);
+    }
+
+    private static void ensureScanned() {
+        if (bytes.get() < 0) trim();
+    }
+
+    // ----------------------------
+    // Lookup
+    // ----------------------------
+
+    /**
+     * Cached mesh for (provider, params), generating and storing it on a miss.
+     * Always returns a fresh TriangleMesh the caller owns.
+     */
+    public static TriangleMesh getOrGenerate(AsteroidMeshProvider provider, AsteroidParameters params) {
+        if (!enabled || params == null) return provider.generateMesh(params);
+        ensureScanned();
+
+        byte[] key;
+        try {
+            key = key(provider, params);
+        } catch (RuntimeException ex) {
+            // Unhashable params (exotic field type / inaccessible): just generate
+            return provider.generateMesh(params);
+        }
+        Path file = dir.resolve(hex(key) + EXT);
+
+        TriangleMesh cached = read(file, key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            touch(file);
+            return cached;
+        }
+        misses.incrementAndGet();
+        TriangleMesh mesh = provider.generateMesh(params);
+        if (mesh != null && mesh.getVertexFormat() == VertexFormat.POINT_TEXCOORD) write(file, key, mesh);
+        return mesh;
+    }
+
+    // ----------------------------
+    // Key
+    // ----------------------------
+
+    static byte[] key(AsteroidMeshProvider provider, AsteroidParameters params) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(provider.getClass().getName());
+            out.writeInt(provider.getGeneratorVersion());
+            ParameterCodec.write(out, params); // class name + every field, subclass fields included
+            out.flush();
+            return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot hash parameters " + params.getClass().getName(), ex);
+        }
+    }
+
+    // ----------------------------
+    // Entry I/O
+    // ----------------------------
+
+    private static TriangleMesh read(Path file, byte[] key) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) return null;
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != FORMAT_VERSION) return null;
+            byte[] stored = new byte[32];
+            map.get(stored);
+            if (!MessageDigest.isEqual(stored, key)) return null;
+            TriangleMesh mesh = MeshBuffers.decode(map);
+            return map.hasRemaining() ? null : mesh;
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(System.Logger.Level.WARNING,
+                "MeshDiskCache: unreadable entry " + file.getFileName() + " (" + ex.getMessage() + ")");
+            return null;
+        }
+    }
+
+    private static void write(Path file, byte[] key, TriangleMesh mesh) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + MeshBuffers.encodedSize(mesh))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).put(key);
+        MeshBuffers.encode(mesh, buf);
+        buf.flip();
+
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), "mesh", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (bytes.get() >= 0 && bytes.addAndGet(buf.limit()) > budgetBytes) trim();
+        } catch (IOException ex) {
+            // Read-only home, full disk, a concurrent writer holding the target, ...: stay uncached
+            if (writeFailures.getAndIncrement() == 0) {
+                LOG.log(System.Logger.Level.WARNING, "MeshDiskCache: cannot write " + file + " (" + ex.getMessage() + ")");
+            }
+            if (tmp != null) {
+                try { Files.deleteIfExists(tmp); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    // Mark as recently used for trim()
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Read-only cache: recency is only a hint
+        }
+    }
+
+    private static String hex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) sb.append(Character.forDigit((x >> 4) & 0xF, 16)).append(Character.forDigit(x & 0xF, 16));
+        return sb.toString();
+    }
+}
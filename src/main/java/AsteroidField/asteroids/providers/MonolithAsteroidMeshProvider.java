@@ -192,7 +192,7 @@ public class MonolithAsteroidMeshProvider implements AsteroidMeshProvider, Aster
             .radius(previous.getRadius())
             .subdivisions(1)
             .deformation(0.13)
-            .seed(System.nanoTime())
+            .seed(previous.getSeed())
             .familyName("Monolith")
             .tailFaces(new boolean[]{true, false, false, false, false, false})
             .tailSegments(4)
@@ -128,7 +128,7 @@ public class SpikyAsteroidMeshProvider implements AsteroidMeshProvider, Asteroid
                 .radius(previous.getRadius())
                 .subdivisions(previous.getSubdivisions())
                 .deformation(previous.getDeformation())
-                .seed(System.nanoTime())
+                .seed(previous.getSeed())
                 .familyName("Spiky")
                 .spikeCount(4).spikeLength(1.5).spikeWidth(0.25).randomness(0.4).spikeSpacingJitter(0.1)
                 .build();
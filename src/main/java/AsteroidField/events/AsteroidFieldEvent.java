@@ -14,6 +14,8 @@ import javafx.scene.shape.DrawMode;
  * Types:
  *  - ATTACHED:            field created & attached (payload: AsteroidField)
  *  - DETACHED:            field fully removed
+ *  - SECTOR_ATTACHED:     one streamed sector attached to a live field (payload: AsteroidField for the sector)
+ *  - SECTOR_DETACHED:     one streamed sector retired (payload: AsteroidField for the sector)
  *  - REGENERATE_REQUEST:  request to (re)build & attach a field (payload: Config)
  *  - CLEAR_REQUEST:       request to remove the current field
  *  - RENDER_MODE_REQUEST: request to set MeshView draw mode (payload: DrawMode)
@@ -33,6 +35,12 @@ public final class AsteroidFieldEvent extends Event {
     public static final EventType<AsteroidFieldEvent> DETACHED =
             new EventType<>(ANY, "ASTEROID_FIELD_DETACHED");
 
+    // Lifecycle (streaming, incremental)
+    public static final EventType<AsteroidFieldEvent> SECTOR_ATTACHED =
+            new EventType<>(ANY, "ASTEROID_FIELD_SECTOR_ATTACHED");
+    public static final EventType<AsteroidFieldEvent> SECTOR_DETACHED =
+            new EventType<>(ANY, "ASTEROID_FIELD_SECTOR_DETACHED");
+
     // Requests (field lifecycle)
     public static final EventType<AsteroidFieldEvent> REGENERATE_REQUEST =
             new EventType<>(ANY, "ASTEROID_FIELD_REGENERATE_REQUEST");
@@ -46,7 +54,7 @@ public final class AsteroidFieldEvent extends Event {
             new EventType<>(ANY, "ASTEROID_FIELD_CULLFACE_REQUEST");
 
     // Optional payloads
-    private final AsteroidField field;                       // ATTACHED only
+    private final AsteroidField field;                       // ATTACHED, SECTOR_* only
     private final AsteroidFieldGenerator.Config config;      // REGENERATE_REQUEST only
     private final DrawMode drawMode;                         // RENDER_MODE_REQUEST only
     private final CullFace cullFace;                         // CULLFACE_REQUEST only
@@ -73,6 +81,14 @@ public final class AsteroidFieldEvent extends Event {
         return new AsteroidFieldEvent(source, target, DETACHED, null, null, null, null);
     }
 
+    public static AsteroidFieldEvent sectorAttached(Object source, EventTarget target, AsteroidField sector) {
+        return new AsteroidFieldEvent(source, target, SECTOR_ATTACHED, sector, null, null, null);
+    }
+
+    public static AsteroidFieldEvent sectorDetached(Object source, EventTarget target, AsteroidField sector) {
+        return new AsteroidFieldEvent(source, target, SECTOR_DETACHED, sector, null, null, null);
+    }
+
     public static AsteroidFieldEvent regenerateRequest(Object source, EventTarget target,
                                                        AsteroidFieldGenerator.Config cfg) {
         return new AsteroidFieldEvent(source, target, REGENERATE_REQUEST, null, cfg, null, null);
@@ -92,7 +108,7 @@ public final class AsteroidFieldEvent extends Event {
     }
 
     // ----- Accessors -----
-    /** Present only for ATTACHED; null otherwise. */
+    /** Present only for ATTACHED and SECTOR_ATTACHED/SECTOR_DETACHED; null otherwise. */
     public AsteroidField getField() { return field; }
 
     /** Present only for REGENERATE_REQUEST; null otherwise. */
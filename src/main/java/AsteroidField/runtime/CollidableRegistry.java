@@ -10,32 +10,39 @@ import javafx.scene.Node;
 /** Runtime-owned list of collidable scene nodes (FX thread usage). */
 public final class CollidableRegistry implements CollidableSource {
     private final List<Node> nodes = new ArrayList<>();
+    private long version;
 
     @Override
     public List<Node> getCollidables() {
         return Collections.unmodifiableList(nodes);
     }
 
+    @Override
+    public long getVersion() { return version; }
+
     public void add(Node n) {
         if (n == null) return;
         assertFx();
         nodes.add(n);
+        version++;
     }
 
     public void addAll(List<? extends Node> ns) {
         if (ns == null) return;
         assertFx();
         nodes.addAll(ns);
+        version++;
     }
 
     public void remove(Node n) {
         assertFx();
-        nodes.remove(n);
+        if (nodes.remove(n)) version++;
     }
 
     public void clear() {
         assertFx();
         nodes.clear();
+        version++;
     }
 
     private static void assertFx() {
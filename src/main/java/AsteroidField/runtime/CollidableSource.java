@@ -5,4 +5,7 @@ import javafx.scene.Node;
 
 public interface CollidableSource {
     List<Node> getCollidables();
+
+    /** Incremented on every change to the collidable set, so caches (e.g. RaycastWorld) rebuild lazily. */
+    long getVersion();
 }
\ No newline at end of file
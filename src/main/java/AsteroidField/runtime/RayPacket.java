@@ -0,0 +1,129 @@
+package AsteroidField.runtime;
+
+import java.util.Arrays;
+import javafx.geometry.Point3D;
+import javafx.scene.Node;
+
+/**
+ * Batch of segment queries for RaycastWorld.segmentFirstHits, in structure-of-arrays form.
+ *
+ * - Inputs: segment endpoints a -> b per ray, in the RaycastWorld's space coordinates
+ * - Outputs: nearest hit per ray; node(i) is null on a miss, point(i) = a + (b - a) * t(i)
+ * - Reusable: clear() and add() every frame; the arrays grow geometrically and are never shrunk
+ *
+ * FX thread only, like RaycastWorld.
+ */
+public final class RayPacket {
+    private int size;
+    private double[] seg;    // ax, ay, az, dx, dy, dz per ray
+
+    private Node[] node;
+    private int[] faceIndex;
+    private double[] t;
+    private double[] normal; // unit, 3 per ray; NaN for bounds hits
+
+    public RayPacket(int capacity) {
+        int cap = Math.max(1, capacity);
+        seg = new double[cap * 6];
+        node = new Node[cap];
+        faceIndex = new int[cap];
+        t = new double[cap];
+        normal = new double[cap * 3];
+    }
+
+    public int size() { return size; }
+
+    public void clear() {
+        Arrays.fill(node, 0, size, null);
+        size = 0;
+    }
+
+    /** Append segment a -> b; returns its index. */
+    public int add(double ax, double ay, double az, double bx, double by, double bz) {
+        if (size == t.length) grow(size * 2);
+        int o = size * 6;
+        seg[o] = ax; seg[o + 1] = ay; seg[o + 2] = az;
+        seg[o + 3] = bx - ax; seg[o + 4] = by - ay; seg[o + 5] = bz - az;
+        node[size] = null;
+        faceIndex[size] = -1;
+        t[size] = Double.NaN;
+        return size++;
+    }
+
+    public int add(Point3D a, Point3D b) {
+        return add(a.getX(), a.getY(), a.getZ(), b.getX(), b.getY(), b.getZ());
+    }
+
+    /** Append origin + dir * [0, maxDistance] (dir need not be unit length). */
+    public int addRay(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance) {
+        double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double s = (len > 0) ? maxDistance / len : 0;
+        return add(ox, oy, oz, ox + dx * s, oy + dy * s, oz + dz * s);
+    }
+
+    private void grow(int cap) {
+        seg = Arrays.copyOf(seg, cap * 6);
+        node = Arrays.copyOf(node, cap);
+        faceIndex = Arrays.copyOf(faceIndex, cap);
+        t = Arrays.copyOf(t, cap);
+        normal = Arrays.copyOf(normal, cap * 3);
+    }
+
+    // ----------------------------
+    // Results
+    // ----------------------------
+
+    public boolean hit(int i) { return node[i] != null; }
+    public Node node(int i) { return node[i]; }
+    /** Triangle index within the hit mesh, -1 for bounds hits and misses. */
+    public int faceIndex(int i) { return faceIndex[i]; }
+    /** Param along the segment, 0..1 (NaN on a miss). */
+    public double t(int i) { return t[i]; }
+    public double distance(int i) { return t[i] * length(i); }
+
+    public double pointX(int i) { return seg[i * 6] + seg[i * 6 + 3] * t[i]; }
+    public double pointY(int i) { return seg[i * 6 + 1] + seg[i * 6 + 4] * t[i]; }
+    public double pointZ(int i) { return seg[i * 6 + 2] + seg[i * 6 + 5] * t[i]; }
+    public Point3D point(int i) { return hit(i) ? new Point3D(pointX(i), pointY(i), pointZ(i)) : null; }
+
+    public boolean hasNormal(int i) { return hit(i) && faceIndex[i] >= 0; }
+    public double normalX(int i) { return normal[i * 3]; }
+    public double normalY(int i) { return normal[i * 3 + 1]; }
+    public double normalZ(int i) { return normal[i * 3 + 2]; }
+    /** Unit geometric normal, null for bounds hits and misses. */
+    public Point3D normal(int i) { return hasNormal(i) ? new Point3D(normalX(i), normalY(i), normalZ(i)) : null; }
+
+    public double length(int i) {
+        int o = i * 6;
+        return Math.sqrt(seg[o + 3] * seg[o + 3] + seg[o + 4] * seg[o + 4] + seg[o + 5] * seg[o + 5]);
+    }
+
+    // ----------------------------
+    // RaycastWorld access
+    // ----------------------------
+
+    double ax(int i) { return seg[i * 6]; }
+    double ay(int i) { return seg[i * 6 + 1]; }
+    double az(int i) { return seg[i * 6 + 2]; }
+    double dx(int i) { return seg[i * 6 + 3]; }
+    double dy(int i) { return seg[i * 6 + 4]; }
+    double dz(int i) { return seg[i * 6 + 5]; }
+
+    /** Best t so far (+inf before any hit). */
+    double best(int i) { return node[i] != null ? t[i] : Double.POSITIVE_INFINITY; }
+
+    void resetResults() {
+        for (int i = 0; i < size; i++) {
+            node[i] = null;
+            faceIndex[i] = -1;
+            t[i] = Double.NaN;
+        }
+    }
+
+    void set(int i, Node n, int face, double tHit, double nx, double ny, double nz) {
+        node[i] = n;
+        faceIndex[i] = face;
+        t[i] = tHit;
+        normal[i * 3] = nx; normal[i * 3 + 1] = ny; normal[i * 3 + 2] = nz;
+    }
+}
@@ -0,0 +1,573 @@
+package AsteroidField.runtime;
+
+import AsteroidField.spacecraft.collision.MeshBVH;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point3D;
+import javafx.scene.Node;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.NonInvertibleTransformException;
+import javafx.scene.transform.Transform;
+
+/**
+ * Shared segment/ray queries against the collidable set (tethers, pick rays, future weapons).
+ *
+ * - Top level: BVH over every collidable's bounds in the space node's LOCAL coordinates (the world root),
+ *   rebuilt lazily on the first query after the CollidableSource version changes
+ * - Moving nodes: a boundsInParent listener flags the node and the next query refits only its path to
+ *   the root (motion of intermediate parent groups is picked up on the next rebuild)
+ * - Bottom level: MeshViews with a TriangleMesh are tested against the shared per-mesh MeshBVH in mesh
+ *   local space; other nodes are hit on their (inflated) bounds
+ * - Query cost is O(log N) in the number of collidables instead of a scan with per-node scene transforms
+ * - Packets (RayPacket): many segments walk both tree levels together, each node filtering the list of
+ *   rays still alive in it; a mesh's transform is inverted once per packet instead of once per ray
+ *
+ * FX thread only, like CollidableRegistry.
+ */
+public final class RaycastWorld {
+
+    /** Triangle facing rule for mesh hits. FRONT_THEN_BOTH takes a mesh's both-sided hit if no front face is hit. */
+    public enum FaceMode { FRONT, BOTH, FRONT_THEN_BOTH }
+
+    /** Nearest hit; point/normal in the space node's local coordinates. */
+    public static final class Hit {
+        public final Node node;
+        public final int faceIndex;     // -1 for bounds hits
+        public final double t;          // param along the query segment, 0..1
+        public final double distance;   // t * segment length
+        public final Point3D point;
+        public final Point3D normal;    // unit geometric normal, null for bounds hits
+
+        Hit(Node node, int faceIndex, double t, double distance, Point3D point, Point3D normal) {
+            this.node = node;
+            this.faceIndex = faceIndex;
+            this.t = t;
+            this.distance = distance;
+            this.point = point;
+            this.normal = normal;
+        }
+    }
+
+    private static final int LEAF_ITEMS = 2;
+
+    private final Node space;
+    private final CollidableSource source;
+    private long builtVersion = Long.MIN_VALUE;
+
+    // Items (collidable nodes) and their boxes: minX, minY, minZ, maxX, maxY, maxZ
+    private Node[] items = new Node[0];
+    private double[] itemBox = new double[0];
+    private final Map<Node, Integer> indexOf = new IdentityHashMap<>();
+
+    // Tree: node boxes (6 per node), children (-1 for leaves), leaf item ranges into 'order'
+    private double[] nodeBox = new double[0];
+    private int[] left = new int[0], right = new int[0], first = new int[0], count = new int[0], parent = new int[0];
+    private int[] order = new int[0];
+    private int[] leafOf = new int[0];
+    private int nodes;
+
+    // Moved items waiting for a refit
+    private boolean[] moved = new boolean[0];
+    private int[] movedList = new int[0];
+    private int movedCount;
+
+    // Query scratch (FX thread only)
+    private final int[] stack = new int[64];
+    private final MeshBVH.Hit tri = new MeshBVH.Hit();
+
+    // Packet scratch: per-ray inverse directions, stacked active-ray lists, per-item ray subset
+    private double[] rayInv = new double[0];
+    private int[] lists = new int[0];
+    private final int[] packetNode = new int[64], packetStart = new int[64], packetCount = new int[64];
+    private int[] sub = new int[0];
+    private double[] subT = new double[0];
+    private final double[] inv = new double[12];
+    private final MeshBVH.Packet meshPacket = new MeshBVH.Packet();
+
+    private final InvalidationListener boundsListener = obs -> {
+        Object bean = ((ReadOnlyProperty<?>) obs).getBean();
+        Integer i = indexOf.get(bean);
+        if (i != null && !moved[i]) {
+            moved[i] = true;
+            movedList[movedCount++] = i;
+        }
+    };
+
+    public RaycastWorld(Node space, CollidableSource source) {
+        this.space = space;
+        this.source = source;
+    }
+
+    public Node getSpace() { return space; }
+
+    /** Number of indexed collidables (as of the last rebuild). */
+    public int size() { return items.length; }
+
+    /** Force a full rebuild on the next query (e.g. after reparenting collidables). */
+    public void invalidate() { builtVersion = Long.MIN_VALUE; }
+
+    // ----------------------------
+    // Queries
+    // ----------------------------
+
+    /** Nearest hit along a -> b (space coordinates), front faces preferred, no bounds inflation. */
+    public Optional<Hit> segmentFirstHit(Point3D a, Point3D b) {
+        return segmentFirstHit(a, b, FaceMode.FRONT_THEN_BOTH, 0.0, false);
+    }
+
+    /** Nearest hit along origin + dir * [0, maxDistance] (space coordinates). */
+    public Optional<Hit> rayFirstHit(Point3D origin, Point3D dir, double maxDistance, FaceMode mode) {
+        Point3D d = dir.normalize();
+        return segmentFirstHit(origin, origin.add(d.multiply(maxDistance)), mode, 0.0, false);
+    }
+
+    /**
+     * Nearest hit along a -> b (space coordinates).
+     *
+     * @param inflation             grows every bounds box by this much on each side (gate and bounds hits)
+     * @param boundsFallbackOnMiss  if a mesh's bounds are crossed but no triangle is hit, report the bounds hit
+     */
+    public Optional<Hit> segmentFirstHit(Point3D a, Point3D b, FaceMode mode, double inflation,
+                                         boolean boundsFallbackOnMiss) {
+        ensureCurrent();
+        if (items.length == 0) return Optional.empty();
+
+        double ax = a.getX(), ay = a.getY(), az = a.getZ();
+        double dx = b.getX() - ax, dy = b.getY() - ay, dz = b.getZ() - az;
+        double ix = 1.0 / dx, iy = 1.0 / dy, iz = 1.0 / dz;
+        double pad = Math.max(0.0, inflation);
+
+        double bestT = Double.POSITIVE_INFINITY;
+        Node bestNode = null;
+        int bestFace = -1;
+        Point3D bestNormal = null;
+        MeshBVH.Hit tri = this.tri;
+
+        int[] stack = this.stack;
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            double tn = slab(nodeBox, node, pad, ax, ay, az, ix, iy, iz, Math.min(1.0, bestT));
+            if (Double.isNaN(tn)) continue;
+            if (left[node] >= 0) {
+                int l = left[node], r = right[node];
+                double tl = slab(nodeBox, l, pad, ax, ay, az, ix, iy, iz, Math.min(1.0, bestT));
+                double tr = slab(nodeBox, r, pad, ax, ay, az, ix, iy, iz, Math.min(1.0, bestT));
+                boolean hl = !Double.isNaN(tl), hr = !Double.isNaN(tr);
+                if (hl && hr) {
+                    if (tl <= tr) { stack[sp++] = r; stack[sp++] = l; } else { stack[sp++] = l; stack[sp++] = r; }
+                } else if (hl) stack[sp++] = l;
+                else if (hr) stack[sp++] = r;
+                continue;
+            }
+
+            for (int k = first[node], end = first[node] + count[node]; k < end; k++) {
+                int it = order[k];
+                double tBox = slab(itemBox, it, pad, ax, ay, az, ix, iy, iz, Math.min(1.0, bestT));
+                if (Double.isNaN(tBox)) continue;
+                Node n = items[it];
+
+                if (n instanceof MeshView mv) {
+                    boolean hit = false;
+                    if (mv.getMesh() instanceof TriangleMesh tm) {
+                        Transform toSpace = toSpace(n);
+                        hit = toSpace != null && meshHit(tm, toSpace, a, b, mode, tri);
+                        if (hit && tri.t < bestT) {
+                            bestT = tri.t;
+                            bestNode = n;
+                            bestFace = tri.faceIndex;
+                            bestNormal = normalize(toSpace.deltaTransform(tri.nx, tri.ny, tri.nz));
+                        }
+                    }
+                    if (hit || !boundsFallbackOnMiss) continue;
+                }
+                if (tBox < bestT) {
+                    bestT = tBox;
+                    bestNode = n;
+                    bestFace = -1;
+                    bestNormal = null;
+                }
+            }
+        }
+
+        if (bestNode == null) return Optional.empty();
+        Point3D point = new Point3D(ax + dx * bestT, ay + dy * bestT, az + dz * bestT);
+        double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        return Optional.of(new Hit(bestNode, bestFace, bestT, bestT * len, point, bestNormal));
+    }
+
+    /**
+     * Nearest hit for every ray of the packet (space coordinates), with the same rules as the
+     * single-segment query. Each tree level is walked once per packet: a node is visited with the list of
+     * rays that reach its box before their current best hit, and children receive filtered sub-lists.
+     */
+    public void segmentFirstHits(RayPacket p, FaceMode mode, double inflation, boolean boundsFallbackOnMiss) {
+        ensureCurrent();
+        p.resetResults();
+        int m = p.size();
+        if (items.length == 0 || m == 0) return;
+        double pad = Math.max(0.0, inflation);
+
+        if (rayInv.length < m * 3) rayInv = new double[m * 3];
+        if (lists.length < m * 4) lists = new int[m * 4];
+        if (sub.length < m) { sub = new int[m]; subT = new double[m]; }
+        for (int r = 0; r < m; r++) {
+            rayInv[r * 3] = 1.0 / p.dx(r); rayInv[r * 3 + 1] = 1.0 / p.dy(r); rayInv[r * 3 + 2] = 1.0 / p.dz(r);
+        }
+
+        int top = 0;
+        for (int r = 0; r < m; r++) {
+            if (!Double.isNaN(slab(nodeBox, 0, pad, p, r))) lists[top++] = r;
+        }
+        if (top == 0) return;
+        int sp = 0;
+        packetNode[sp] = 0; packetStart[sp] = 0; packetCount[sp] = top; sp++;
+
+        while (sp > 0) {
+            sp--;
+            int node = packetNode[sp], start = packetStart[sp], live = packetCount[sp];
+            if (left[node] < 0) {
+                for (int k = first[node], end = first[node] + count[node]; k < end; k++) {
+                    packetItem(order[k], p, start, live, mode, pad, boundsFallbackOnMiss);
+                }
+                continue;
+            }
+            // Children's lists go above this node's list. The child popped first must own the topmost list,
+            // since its own children are written right after it
+            int base = start + live;
+            if (lists.length < base + 3 * live) lists = Arrays.copyOf(lists, Math.max(lists.length * 2, base + 3 * live));
+            int l = left[node], r = right[node];
+            int nl = 0, nr = 0;
+            double minL = Double.POSITIVE_INFINITY, minR = Double.POSITIVE_INFINITY;
+            for (int k = start; k < start + live; k++) {
+                int ray = lists[k];
+                double tl = slab(nodeBox, l, pad, p, ray), tr = slab(nodeBox, r, pad, p, ray);
+                if (!Double.isNaN(tl)) { lists[base + nl++] = ray; minL = Math.min(minL, tl); }
+                if (!Double.isNaN(tr)) { lists[base + live + nr++] = ray; minR = Math.min(minR, tr); }
+            }
+            if (nl > 0 && nr > 0 && minL <= minR) {
+                // Left is nearer: move its list above right's so it is popped first
+                packetNode[sp] = r; packetStart[sp] = base + live; packetCount[sp] = nr; sp++;
+                System.arraycopy(lists, base, lists, base + live + nr, nl);
+                packetNode[sp] = l; packetStart[sp] = base + live + nr; packetCount[sp] = nl; sp++;
+            } else {
+                if (nl > 0) { packetNode[sp] = l; packetStart[sp] = base;        packetCount[sp] = nl; sp++; }
+                if (nr > 0) { packetNode[sp] = r; packetStart[sp] = base + live; packetCount[sp] = nr; sp++; }
+            }
+        }
+    }
+
+    /** Rays lists[start, start + live) against item it; the mesh tree is walked once for all of them. */
+    private void packetItem(int it, RayPacket p, int start, int live, FaceMode mode, double pad,
+                            boolean boundsFallbackOnMiss) {
+        int m = 0;
+        for (int k = start; k < start + live; k++) {
+            int r = lists[k];
+            double tBox = slab(itemBox, it, pad, p, r);
+            if (Double.isNaN(tBox)) continue;
+            sub[m] = r; subT[m] = tBox; m++;
+        }
+        if (m == 0) return;
+        Node n = items[it];
+
+        if (n instanceof MeshView mv) {
+            Transform toSpace = (mv.getMesh() instanceof TriangleMesh) ? toSpace(n) : null;
+            if (toSpace != null && invert(toSpace, inv)) {
+                MeshBVH.Packet mp = meshPacket;
+                mp.clear();
+                for (int j = 0; j < m; j++) {
+                    int r = sub[j];
+                    double ax = p.ax(r), ay = p.ay(r), az = p.az(r);
+                    double bx = ax + p.dx(r), by = ay + p.dy(r), bz = az + p.dz(r);
+                    mp.add(inv[0] * ax + inv[1] * ay + inv[2] * az + inv[3],
+                           inv[4] * ax + inv[5] * ay + inv[6] * az + inv[7],
+                           inv[8] * ax + inv[9] * ay + inv[10] * az + inv[11],
+                           inv[0] * bx + inv[1] * by + inv[2] * bz + inv[3],
+                           inv[4] * bx + inv[5] * by + inv[6] * bz + inv[7],
+                           inv[8] * bx + inv[9] * by + inv[10] * bz + inv[11]);
+                }
+                MeshBVH.forMesh((TriangleMesh) mv.getMesh()).segmentsFirstHit(mp, mode != FaceMode.BOTH);
+                for (int j = 0; j < m; j++) {
+                    int r = sub[j];
+                    boolean hit = switch (mode) {
+                        case FRONT -> mp.frontHit(j) && mp.preferFront(j);
+                        case FRONT_THEN_BOTH -> mp.preferFront(j);
+                        case BOTH -> mp.hit(j);
+                    };
+                    if (hit) {
+                        if (mp.t[j] < p.best(r)) {
+                            double lx = mp.n[j * 3], ly = mp.n[j * 3 + 1], lz = mp.n[j * 3 + 2];
+                            double nx = toSpace.getMxx() * lx + toSpace.getMxy() * ly + toSpace.getMxz() * lz;
+                            double ny = toSpace.getMyx() * lx + toSpace.getMyy() * ly + toSpace.getMyz() * lz;
+                            double nz = toSpace.getMzx() * lx + toSpace.getMzy() * ly + toSpace.getMzz() * lz;
+                            double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                            if (len < 1e-12) { nx = 0; ny = 1; nz = 0; len = 1; }
+                            p.set(r, n, mp.faceIndex[j], mp.t[j], nx / len, ny / len, nz / len);
+                        }
+                    } else if (boundsFallbackOnMiss && subT[j] < p.best(r)) {
+                        p.set(r, n, -1, subT[j], Double.NaN, Double.NaN, Double.NaN);
+                    }
+                }
+                return;
+            }
+            if (!boundsFallbackOnMiss) return;
+        }
+        for (int j = 0; j < m; j++) {
+            int r = sub[j];
+            if (subT[j] < p.best(r)) p.set(r, n, -1, subT[j], Double.NaN, Double.NaN, Double.NaN);
+        }
+    }
+
+    /** Packet ray r vs box i of 'boxes' grown by pad, clipped to its best hit so far. */
+    private double slab(double[] boxes, int i, double pad, RayPacket p, int r) {
+        return slab(boxes, i, pad, p.ax(r), p.ay(r), p.az(r),
+                rayInv[r * 3], rayInv[r * 3 + 1], rayInv[r * 3 + 2], Math.min(1.0, p.best(r)));
+    }
+
+    /** Row-major 3x4 inverse of an affine transform into out; false if singular. */
+    private static boolean invert(Transform m, double[] out) {
+        double a = m.getMxx(), b = m.getMxy(), c = m.getMxz();
+        double d = m.getMyx(), e = m.getMyy(), f = m.getMyz();
+        double g = m.getMzx(), h = m.getMzy(), k = m.getMzz();
+        double c00 = e * k - f * h, c01 = c * h - b * k, c02 = b * f - c * e;
+        double c10 = f * g - d * k, c11 = a * k - c * g, c12 = c * d - a * f;
+        double c20 = d * h - e * g, c21 = b * g - a * h, c22 = a * e - b * d;
+        double det = a * c00 + b * c10 + c * c20;
+        if (det == 0 || !Double.isFinite(det)) return false;
+        double s = 1.0 / det;
+        double tx = m.getTx(), ty = m.getTy(), tz = m.getTz();
+        out[0] = c00 * s; out[1] = c01 * s; out[2]  = c02 * s;
+        out[4] = c10 * s; out[5] = c11 * s; out[6]  = c12 * s;
+        out[8] = c20 * s; out[9] = c21 * s; out[10] = c22 * s;
+        out[3]  = -(out[0] * tx + out[1] * ty + out[2] * tz);
+        out[7]  = -(out[4] * tx + out[5] * ty + out[6] * tz);
+        out[11] = -(out[8] * tx + out[9] * ty + out[10] * tz);
+        return true;
+    }
+
+    /**
+     * Segment in mesh local space; the local parameter equals the space parameter (affine map).
+     * One tree pass serves every FaceMode: the chosen hit is left in out.t/faceIndex/n.
+     */
+    private static boolean meshHit(TriangleMesh tm, Transform toSpace, Point3D a, Point3D b,
+                                   FaceMode mode, MeshBVH.Hit out) {
+        Point3D la, lb;
+        try {
+            la = toSpace.inverseTransform(a);
+            lb = toSpace.inverseTransform(b);
+        } catch (NonInvertibleTransformException ex) {
+            return false;
+        }
+        MeshBVH bvh = MeshBVH.forMesh(tm);
+        bvh.segmentFirstHit(la.getX(), la.getY(), la.getZ(), lb.getX(), lb.getY(), lb.getZ(),
+                mode != FaceMode.BOTH, out);
+        return switch (mode) {
+            case FRONT -> out.frontHit() && out.preferFront();
+            case FRONT_THEN_BOTH -> out.preferFront();
+            case BOTH -> out.hit();
+        };
+    }
+
+    /** Local -> space transform of a collidable (its own transform when it is a direct child). */
+    private Transform toSpace(Node n) {
+        if (n.getParent() == space) return n.getLocalToParentTransform();
+        try {
+            return space.getLocalToSceneTransform().createInverse().createConcatenation(n.getLocalToSceneTransform());
+        } catch (NonInvertibleTransformException ex) {
+            return null;
+        }
+    }
+
+    /** Segment [0, tMax] vs box i of 'boxes' grown by pad; entry t or NaN. */
+    private static double slab(double[] boxes, int i, double pad, double ax, double ay, double az,
+                               double ix, double iy, double iz, double tMax) {
+        int o = i * 6;
+        double t0 = 0.0, t1 = tMax;
+        double p = (boxes[o] - pad - ax) * ix, q = (boxes[o + 3] + pad - ax) * ix;
+        t0 = Math.max(t0, Math.min(p, q)); t1 = Math.min(t1, Math.max(p, q));
+        p = (boxes[o + 1] - pad - ay) * iy; q = (boxes[o + 4] + pad - ay) * iy;
+        t0 = Math.max(t0, Math.min(p, q)); t1 = Math.min(t1, Math.max(p, q));
+        p = (boxes[o + 2] - pad - az) * iz; q = (boxes[o + 5] + pad - az) * iz;
+        t0 = Math.max(t0, Math.min(p, q)); t1 = Math.min(t1, Math.max(p, q));
+        return (t0 <= t1) ? t0 : Double.NaN;
+    }
+
+    private static Point3D normalize(Point3D v) {
+        double m = v.magnitude();
+        return (m < 1e-12) ? new Point3D(0, 1, 0) : new Point3D(v.getX() / m, v.getY() / m, v.getZ() / m);
+    }
+
+    // ----------------------------
+    // Build / refit
+    // ----------------------------
+
+    private void ensureCurrent() {
+        long v = source.getVersion();
+        if (v != builtVersion) {
+            rebuild(source.getCollidables());
+            builtVersion = v;
+        } else if (movedCount > 0) {
+            refitMoved();
+        }
+    }
+
+    private void rebuild(List<Node> nodesIn) {
+        for (Node n : items) n.boundsInParentProperty().removeListener(boundsListener);
+        indexOf.clear();
+
+        int n = nodesIn.size();
+        items = nodesIn.toArray(new Node[0]);
+        itemBox = new double[n * 6];
+        double[] cx = new double[n], cy = new double[n], cz = new double[n];
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexOf.put(items[i], i);
+            readBounds(i);
+            int o = i * 6;
+            cx[i] = (itemBox[o] + itemBox[o + 3]) * 0.5;
+            cy[i] = (itemBox[o + 1] + itemBox[o + 4]) * 0.5;
+            cz[i] = (itemBox[o + 2] + itemBox[o + 5]) * 0.5;
+            if (!Double.isFinite(cx[i] + cy[i] + cz[i])) { cx[i] = 0; cy[i] = 0; cz[i] = 0; } // unbounded item
+            order[i] = i;
+            items[i].boundsInParentProperty().addListener(boundsListener);
+        }
+        moved = new boolean[n];
+        movedList = new int[n];
+        movedCount = 0;
+
+        int cap = Math.max(1, 2 * n);
+        nodeBox = new double[cap * 6];
+        left = new int[cap]; right = new int[cap]; first = new int[cap]; count = new int[cap]; parent = new int[cap];
+        leafOf = new int[n];
+        nodes = 1;
+        parent[0] = -1;
+
+        // Iterative top-down build: median split on the widest centroid axis
+        int[] stackNode = new int[128], stackLo = new int[128], stackHi = new int[128];
+        int sp = 0;
+        stackNode[sp] = 0; stackLo[sp] = 0; stackHi[sp] = n; sp++;
+        while (sp > 0) {
+            sp--;
+            int node = stackNode[sp], lo = stackLo[sp], hi = stackHi[sp];
+            double qx0 = Double.POSITIVE_INFINITY, qy0 = qx0, qz0 = qx0, qx1 = Double.NEGATIVE_INFINITY, qy1 = qx1, qz1 = qx1;
+            for (int k = lo; k < hi; k++) {
+                int i = order[k];
+                qx0 = Math.min(qx0, cx[i]); qx1 = Math.max(qx1, cx[i]);
+                qy0 = Math.min(qy0, cy[i]); qy1 = Math.max(qy1, cy[i]);
+                qz0 = Math.min(qz0, cz[i]); qz1 = Math.max(qz1, cz[i]);
+            }
+            double ex = qx1 - qx0, ey = qy1 - qy0, ez = qz1 - qz0;
+            if (hi - lo <= LEAF_ITEMS || !(Math.max(ex, Math.max(ey, ez)) > 0) || sp + 2 > stackNode.length) {
+                left[node] = right[node] = -1;
+                first[node] = lo; count[node] = hi - lo;
+                for (int k = lo; k < hi; k++) leafOf[order[k]] = node;
+                continue;
+            }
+            double[] key = (ex >= ey && ex >= ez) ? cx : (ey >= ez ? cy : cz);
+            int mid = (lo + hi) >>> 1;
+            select(order, key, lo, hi - 1, mid);
+
+            int a = nodes++, b = nodes++;
+            left[node] = a; right[node] = b; count[node] = 0;
+            parent[a] = node; parent[b] = node;
+            stackNode[sp] = a; stackLo[sp] = lo; stackHi[sp] = mid; sp++;
+            stackNode[sp] = b; stackLo[sp] = mid; stackHi[sp] = hi; sp++;
+        }
+        if (n == 0) { left[0] = right[0] = -1; count[0] = 0; }
+
+        // Bottom-up boxes: children always have higher indices than their parent
+        for (int node = nodes - 1; node >= 0; node--) fitNode(node);
+    }
+
+    private void refitMoved() {
+        for (int k = 0; k < movedCount; k++) {
+            int i = movedList[k];
+            moved[i] = false;
+            readBounds(i);
+            for (int node = leafOf[i]; node >= 0; node = parent[node]) fitNode(node);
+        }
+        movedCount = 0;
+    }
+
+    /** Item box in space coordinates (bounds in parent for direct children). */
+    private void readBounds(int i) {
+        Node n = items[i];
+        Bounds b = (n.getParent() == space)
+                ? n.getBoundsInParent()
+                : space.sceneToLocal(n.localToScene(n.getBoundsInLocal()));
+        int o = i * 6;
+        itemBox[o] = b.getMinX(); itemBox[o + 1] = b.getMinY(); itemBox[o + 2] = b.getMinZ();
+        itemBox[o + 3] = b.getMaxX(); itemBox[o + 4] = b.getMaxY(); itemBox[o + 5] = b.getMaxZ();
+        if (Double.isNaN(b.getMinX() + b.getMinY() + b.getMinZ() + b.getMaxX() + b.getMaxY() + b.getMaxZ())) {
+            meshFallbackBounds(n, o);
+        }
+    }
+
+    /**
+     * JavaFX bounds turn NaN when a single mesh point is NaN. Use the mesh tree's root box (which skips
+     * non-finite triangles) instead, or an unbounded box for anything else so it is always tested.
+     */
+    private void meshFallbackBounds(Node n, int o) {
+        Transform toSpace = toSpace(n);
+        if (n instanceof MeshView mv && mv.getMesh() instanceof TriangleMesh tm && toSpace != null) {
+            MeshBVH bvh = MeshBVH.forMesh(tm);
+            if (bvh.triangleCount() > 0) {
+                double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0, x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+                for (int c = 0; c < 8; c++) {
+                    Point3D p = toSpace.transform((c & 1) == 0 ? bvh.minX[0] : bvh.maxX[0],
+                                                  (c & 2) == 0 ? bvh.minY[0] : bvh.maxY[0],
+                                                  (c & 4) == 0 ? bvh.minZ[0] : bvh.maxZ[0]);
+                    x0 = Math.min(x0, p.getX()); y0 = Math.min(y0, p.getY()); z0 = Math.min(z0, p.getZ());
+                    x1 = Math.max(x1, p.getX()); y1 = Math.max(y1, p.getY()); z1 = Math.max(z1, p.getZ());
+                }
+                itemBox[o] = x0; itemBox[o + 1] = y0; itemBox[o + 2] = z0;
+                itemBox[o + 3] = x1; itemBox[o + 4] = y1; itemBox[o + 5] = z1;
+                return;
+            }
+        }
+        double inf = Double.POSITIVE_INFINITY;
+        itemBox[o] = -inf; itemBox[o + 1] = -inf; itemBox[o + 2] = -inf;
+        itemBox[o + 3] = inf; itemBox[o + 4] = inf; itemBox[o + 5] = inf;
+    }
+
+    private void fitNode(int node) {
+        int o = node * 6;
+        double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0, x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+        if (left[node] < 0) {
+            for (int k = first[node], end = first[node] + count[node]; k < end; k++) {
+                int b = order[k] * 6;
+                x0 = Math.min(x0, itemBox[b]); y0 = Math.min(y0, itemBox[b + 1]); z0 = Math.min(z0, itemBox[b + 2]);
+                x1 = Math.max(x1, itemBox[b + 3]); y1 = Math.max(y1, itemBox[b + 4]); z1 = Math.max(z1, itemBox[b + 5]);
+            }
+        } else {
+            int l = left[node] * 6, r = right[node] * 6;
+            x0 = Math.min(nodeBox[l], nodeBox[r]);         y0 = Math.min(nodeBox[l + 1], nodeBox[r + 1]);
+            z0 = Math.min(nodeBox[l + 2], nodeBox[r + 2]); x1 = Math.max(nodeBox[l + 3], nodeBox[r + 3]);
+            y1 = Math.max(nodeBox[l + 4], nodeBox[r + 4]); z1 = Math.max(nodeBox[l + 5], nodeBox[r + 5]);
+        }
+        nodeBox[o] = x0; nodeBox[o + 1] = y0; nodeBox[o + 2] = z0;
+        nodeBox[o + 3] = x1; nodeBox[o + 4] = y1; nodeBox[o + 5] = z1;
+    }
+
+    /** Quickselect: order[lo..hi] partially sorted so key[order[k]] is the k-th smallest. */
+    private static void select(int[] order, double[] key, int lo, int hi, int k) {
+        while (hi > lo) {
+            double pivot = key[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[order[i]] < pivot) i++;
+                while (key[order[j]] > pivot) j--;
+                if (i <= j) { int t = order[i]; order[i] = order[j]; order[j] = t; i++; j--; }
+            }
+            if (k <= j) hi = j; else if (k >= i) lo = i; else return;
+        }
+    }
+}
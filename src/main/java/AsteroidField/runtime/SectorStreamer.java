@@ -0,0 +1,388 @@
+package AsteroidField.runtime;
+
+import AsteroidField.Game3DView;
+import AsteroidField.asteroids.field.AsteroidField;
+import AsteroidField.asteroids.field.AsteroidFieldGenerator;
+import AsteroidField.asteroids.field.AsteroidInstance;
+import AsteroidField.asteroids.field.FieldSnapshot;
+import AsteroidField.asteroids.field.families.FamilyPool;
+import AsteroidField.asteroids.field.placement.PlacementBuffer;
+import AsteroidField.asteroids.field.placement.PlacementStrategy;
+import AsteroidField.asteroids.field.placement.SectorPlacement;
+import AsteroidField.events.AsteroidFieldEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point3D;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+
+/**
+ * Streaming, sector-based asteroid field around the camera.
+ *
+ * - Space is divided into cubic sectors; each sector's placements come from
+ *   SectorPlacement.generateSector(...) with a Random seeded from (cfg.seed, sector coords),
+ *   so a sector always looks the same no matter when or in which order it is loaded
+ * - Sectors within 'loadRadius' of the camera are generated on background threads (nearest first),
+ *   then attached on the FX thread a few per frame
+ * - Sectors beyond 'unloadRadius' are retired (detached, collidables removed)
+ * - Each sector is its own AsteroidField; SECTOR_ATTACHED / SECTOR_DETACHED events let the LOD manager
+ *   (and anything else) update incrementally
+ * - Prototype meshes are generated once and shared by all sectors
+ * - Optionally pages a pre-baked FieldSnapshot instead of generating (useSnapshot)
+ *
+ * Memory and startup cost depend on the load radius, not on the total belt size.
+ * cfg.count is the expected number of asteroids in the whole belt (it sets the density).
+ *
+ * Usage (FX thread):
+ *   SectorStreamer s = new SectorStreamer(gameView, families, beltPlacement, cfg);
+ *   s.setSectorSize(4000);
+ *   s.setRadii(12000, 16000);
+ *   s.start();
+ *   // later: s.stop();  // retires every sector
+ */
+public final class SectorStreamer {
+
+    private static final class Sector {
+        final long key;
+        final int ix, iy, iz;
+        AsteroidField field;            // null until attached
+        List<MeshView> registered;
+        volatile boolean retired;       // set if dropped while generation was still running
+
+        Sector(long key, int ix, int iy, int iz) {
+            this.key = key;
+            this.ix = ix;
+            this.iy = iy;
+            this.iz = iz;
+        }
+    }
+
+    /** Background result handed back to the FX thread. */
+    private record Ready(Sector sector, AsteroidField field) {}
+
+    private final Game3DView view;
+    private final SectorPlacement sectorPlacement;
+    private final AsteroidFieldGenerator generator;
+    private final AsteroidFieldGenerator.Config cfg;
+
+    // Tuning
+    private double sectorSize = 4_000;
+    private double loadRadius = 12_000;
+    private double unloadRadius = 16_000;
+    private int maxAttachPerFrame = 2;
+    private int maxPending;
+
+    // State
+    private final Map<Long, Sector> sectors = new HashMap<>();
+    private final ConcurrentLinkedQueue<Ready> ready = new ConcurrentLinkedQueue<>();
+    private final List<long[]> backlog = new ArrayList<>(); // {ix, iy, iz} nearest first
+    private long lastCameraSector = Long.MIN_VALUE;
+    private int pending = 0;
+    private int attachedCount = 0;
+
+    private final ExecutorService executor;
+    private CompletableFuture<AsteroidFieldGenerator.Prototypes> prototypes;
+    private volatile FieldSnapshot.Reader snapshot;
+    private PhongMaterial sharedMat;
+    private final AnimationTimer timer;
+    private boolean running = false;
+
+    public SectorStreamer(Game3DView view,
+                          FamilyPool families,
+                          PlacementStrategy placement,
+                          AsteroidFieldGenerator.Config cfg) {
+        this.view = Objects.requireNonNull(view, "view");
+        Objects.requireNonNull(families, "families");
+        Objects.requireNonNull(placement, "placement");
+        if (!(placement instanceof SectorPlacement sp)) {
+            throw new IllegalArgumentException(placement.getName() + " does not support sector sampling");
+        }
+        this.sectorPlacement = sp;
+        this.cfg = Objects.requireNonNull(cfg, "cfg");
+        this.generator = new AsteroidFieldGenerator(families, placement);
+
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.maxPending = workers * 2;
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "sector-streamer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer = new AnimationTimer() {
+            @Override public void handle(long now) { tick(); }
+        };
+    }
+
+    // ----------------------------
+    // Lifecycle
+    // ----------------------------
+
+    /** Begin streaming around the camera. FX thread. */
+    public void start() {
+        if (running) return;
+        running = true;
+        sharedMat = new PhongMaterial(cfg.baseColor);
+        ensurePrototypes();
+        lastCameraSector = Long.MIN_VALUE;
+        timer.start();
+    }
+
+    /** Shared prototypes for generated sectors (none while streaming a snapshot). */
+    private void ensurePrototypes() {
+        if (prototypes != null) return;
+        prototypes = (cfg.usePrototypes && snapshot == null)
+                ? CompletableFuture.supplyAsync(
+                    () -> generator.buildPrototypes(cfg, Math.max(1, cfg.prototypeCount), new Random(cfg.seed)),
+                    executor)
+                : CompletableFuture.completedFuture(null);
+    }
+
+    /** Stop streaming and retire every sector. FX thread. */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        timer.stop();
+        retireAll();
+        // In-flight results still arrive in 'ready'; they are recognised as retired and dropped
+    }
+
+    /** Stop and release the worker threads; the streamer can't be restarted afterwards. */
+    public void dispose() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    public boolean isRunning() { return running; }
+
+    // ----------------------------
+    // Tuning
+    // ----------------------------
+
+    /**
+     * Sector edge length (world units). Retires all loaded sectors; they reload at the new size.
+     * Ignored while streaming a snapshot (its sector grid is baked in).
+     */
+    public void setSectorSize(double size) {
+        if (snapshot != null) return;
+        size = Math.max(500, size);
+        if (size == sectorSize) return;
+        retireAll(); // sector keys depend on the size
+        this.sectorSize = size;
+        lastCameraSector = Long.MIN_VALUE;
+    }
+    public double getSectorSize() { return sectorSize; }
+
+    /** Load sectors whose center is within 'load'; retire them beyond 'unload' (>= load). */
+    public void setRadii(double load, double unload) {
+        this.loadRadius = Math.max(sectorSize, load);
+        this.unloadRadius = Math.max(this.loadRadius, unload);
+        lastCameraSector = Long.MIN_VALUE;
+    }
+    public double getLoadRadius() { return loadRadius; }
+    public double getUnloadRadius() { return unloadRadius; }
+
+    /** Sectors attached per frame (each attach adds its MeshViews and collidables). */
+    public void setMaxAttachPerFrame(int n) { this.maxAttachPerFrame = Math.max(1, n); }
+    public int getMaxAttachPerFrame() { return maxAttachPerFrame; }
+
+    /**
+     * Stream sectors from a pre-baked snapshot instead of generating them (null = generate again).
+     * The sector size switches to the snapshot's; loaded sectors are retired and reload from the new source.
+     */
+    public void useSnapshot(FieldSnapshot.Reader reader) {
+        retireAll();
+        if (reader == null && snapshot != null && prototypes != null && prototypes.isDone()
+                && prototypes.getNow(null) == null) {
+            prototypes = null; // skipped while streaming the snapshot; generating needs them
+        }
+        this.snapshot = reader;
+        if (running) ensurePrototypes();
+        if (reader != null) this.sectorSize = reader.sectorSize();
+        this.loadRadius = Math.max(sectorSize, loadRadius);
+        this.unloadRadius = Math.max(loadRadius, unloadRadius);
+        lastCameraSector = Long.MIN_VALUE;
+    }
+    public FieldSnapshot.Reader getSnapshot() { return snapshot; }
+
+    public int getLoadedSectorCount() { return attachedCount; }
+    public int getPendingSectorCount() { return pending; }
+
+    // ----------------------------
+    // Internals
+    // ----------------------------
+
+    private void tick() {
+        Point3D cam = view.getCamera().localToScene(Point3D.ZERO);
+        int cx = cell(cam.getX()), cy = cell(cam.getY()), cz = cell(cam.getZ());
+        long camKey = key(cx, cy, cz);
+
+        if (camKey != lastCameraSector) {
+            lastCameraSector = camKey;
+            retireFar(cam);
+            rebuildBacklog(cam, cx, cy, cz);
+        }
+        submitBacklog();
+        attachReady();
+    }
+
+    /** All missing sectors within the load radius, nearest first. */
+    private void rebuildBacklog(Point3D cam, int cx, int cy, int cz) {
+        backlog.clear();
+        int reach = (int) Math.ceil(loadRadius / sectorSize);
+        double load2 = loadRadius * loadRadius;
+        List<double[]> found = new ArrayList<>();
+        for (int ix = cx - reach; ix <= cx + reach; ix++) {
+            for (int iy = cy - reach; iy <= cy + reach; iy++) {
+                for (int iz = cz - reach; iz <= cz + reach; iz++) {
+                    if (sectors.containsKey(key(ix, iy, iz))) continue;
+                    double d2 = centerDistance2(ix, iy, iz, cam);
+                    if (d2 <= load2) found.add(new double[] { d2, ix, iy, iz });
+                }
+            }
+        }
+        found.sort((a, b) -> Double.compare(a[0], b[0]));
+        for (double[] f : found) backlog.add(new long[] { (long) f[1], (long) f[2], (long) f[3] });
+    }
+
+    private void submitBacklog() {
+        if (prototypes == null) return;
+        Iterator<long[]> it = backlog.iterator();
+        while (pending < maxPending && it.hasNext()) {
+            long[] c = it.next();
+            it.remove();
+            int ix = (int) c[0], iy = (int) c[1], iz = (int) c[2];
+            long k = key(ix, iy, iz);
+            if (sectors.containsKey(k)) continue;
+
+            Sector s = new Sector(k, ix, iy, iz);
+            sectors.put(k, s);
+            pending++;
+            double size = sectorSize;
+            PhongMaterial mat = sharedMat;
+            prototypes.thenApplyAsync(protos -> generate(s, size, protos, mat), executor)
+                      .whenComplete((field, err) -> {
+                          if (err != null) {
+                              System.out.println("[SectorStreamer] Sector " + s.ix + "," + s.iy + "," + s.iz
+                                      + " failed: " + err);
+                          }
+                          ready.add(new Ready(s, field));
+                      });
+        }
+    }
+
+    /** Worker thread: deterministic placements and meshes for one sector. */
+    private AsteroidField generate(Sector s, double size, AsteroidFieldGenerator.Prototypes protos,
+                                   PhongMaterial mat) {
+        if (s.retired) return null;
+        FieldSnapshot.Reader snap = snapshot;
+        if (snap != null) return snap.loadSector(s.ix, s.iy, s.iz, mat);
+        Random rng = new Random(sectorSeed(cfg.seed, s.ix, s.iy, s.iz));
+        PlacementBuffer places = new PlacementBuffer(64);
+        sectorPlacement.generateSector(cfg.count, s.ix * size, s.iy * size, s.iz * size, size, rng, places);
+        if (places.size() == 0) return null;
+        return generator.buildFromPlacements(cfg, places, protos, mat, rng);
+    }
+
+    /** FX thread: attach a bounded number of finished sectors. */
+    private void attachReady() {
+        for (int n = 0; n < maxAttachPerFrame; ) {
+            Ready r = ready.poll();
+            if (r == null) break;
+            pending--;
+            Sector s = r.sector();
+            if (s.retired || sectors.get(s.key) != s) continue; // dropped while generating
+            if (r.field() == null) continue;                     // empty sector: stays loaded, nothing to show
+
+            AsteroidField field = r.field();
+            view.getWorldRoot().getChildren().add(field.root);
+            List<MeshView> registered = new ArrayList<>(field.instances.size());
+            for (AsteroidInstance inst : field.instances) {
+                MeshView mv = inst.node();
+                view.addCollidable(mv);
+                registered.add(mv);
+            }
+            s.field = field;
+            s.registered = registered;
+            attachedCount++;
+            fire(AsteroidFieldEvent.SECTOR_ATTACHED, field);
+            n++;
+        }
+    }
+
+    private void retireFar(Point3D cam) {
+        double unload2 = unloadRadius * unloadRadius;
+        for (Iterator<Sector> it = sectors.values().iterator(); it.hasNext(); ) {
+            Sector s = it.next();
+            if (centerDistance2(s.ix, s.iy, s.iz, cam) > unload2) {
+                retire(s);
+                it.remove();
+            }
+        }
+    }
+
+    private void retireAll() {
+        for (Sector s : sectors.values()) retire(s);
+        sectors.clear();
+        backlog.clear();
+    }
+
+    private void retire(Sector s) {
+        s.retired = true;
+        if (s.field == null) return;
+        view.getWorldRoot().getChildren().remove(s.field.root);
+        for (MeshView mv : s.registered) {
+            view.removeCollidable(mv);
+        }
+        s.registered.clear();
+        attachedCount--;
+        fire(AsteroidFieldEvent.SECTOR_DETACHED, s.field);
+        s.field = null;
+    }
+
+    private void fire(javafx.event.EventType<AsteroidFieldEvent> type, AsteroidField field) {
+        var scene = view.getScene();
+        var target = (scene != null && scene.getRoot() != null) ? scene.getRoot() : view;
+        AsteroidFieldEvent ev = (type == AsteroidFieldEvent.SECTOR_ATTACHED)
+                ? AsteroidFieldEvent.sectorAttached(this, target, field)
+                : AsteroidFieldEvent.sectorDetached(this, target, field);
+        target.fireEvent(ev);
+    }
+
+    private int cell(double v) { return (int) Math.floor(v / sectorSize); }
+
+    private double centerDistance2(int ix, int iy, int iz, Point3D cam) {
+        double dx = (ix + 0.5) * sectorSize - cam.getX();
+        double dy = (iy + 0.5) * sectorSize - cam.getY();
+        double dz = (iz + 0.5) * sectorSize - cam.getZ();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long key(int ix, int iy, int iz) {
+        return (((long) ix & 0x1FFFFF) << 42) | (((long) iy & 0x1FFFFF) << 21) | ((long) iz & 0x1FFFFF);
+    }
+
+    /** SplitMix64-style mix of the field seed and sector coordinates. */
+    static long sectorSeed(long seed, int ix, int iy, int iz) {
+        long h = seed;
+        h = mix(h + 0x9E3779B97F4A7C15L * (ix + 1));
+        h = mix(h + 0xC2B2AE3D27D4EB4FL * (iy + 1));
+        h = mix(h + 0x165667B19E3779F9L * (iz + 1));
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
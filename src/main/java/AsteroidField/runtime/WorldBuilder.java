@@ -4,12 +4,25 @@ import AsteroidField.Game3DView;
 import AsteroidField.asteroids.field.AsteroidField;
 import AsteroidField.asteroids.field.AsteroidFieldGenerator;
 import AsteroidField.asteroids.field.AsteroidInstance;
+import AsteroidField.asteroids.field.FieldSnapshot;
 import AsteroidField.asteroids.field.families.FamilyPool;
 import AsteroidField.asteroids.field.placement.PlacementStrategy;
+import AsteroidField.asteroids.providers.MeshDiskCache;
 import AsteroidField.events.AsteroidFieldEvent;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.shape.MeshView;
 
@@ -17,12 +30,24 @@ import javafx.scene.shape.MeshView;
  * Thin adapter around AsteroidFieldGenerator that:
  *  1) builds a field (synchronously),
  *  2) attaches its root to the Game3DView world,
- *  3) registers each MeshView as a collidable with the runtime (tethers & ship collisions).
+ *  3) registers each MeshView as a collidable with the runtime (tethers & ship collisions),
+ *  4) fires AsteroidFieldEvent.ATTACHED so runtime systems (e.g. LOD/batching) pick the field up.
+ *
+ * Async variant: buildAndAttachAsync(...) generates on a worker thread, streams progress
+ * (placements, prototypes, instances, attach) to ProgressListeners on the FX thread, supports
+ * cancellation via the returned future (or cancelActiveBuild()), and attaches the meshes in
+ * batches across several pulses instead of all in one frame.
+ *
+ * Snapshots: saveSnapshot(...) writes an attached field as a FieldSnapshot, which
+ * SectorStreamer.useSnapshot(FieldSnapshot.open(file)) pages back in around the camera.
  *
  * Usage (FX thread):
  *   WorldBuilder wb = new WorldBuilder(gameView);
  *   WorldBuilder.Handle h = wb.buildAndAttach(families, placement, defaultHighCountConfig());
  *   // later: h.detach();
+ *
+ *   wb.buildAndAttachAsync(families, placement, cfg, (phase, done, total) -> ...)
+ *     .thenAccept(handle -> fieldHandle = handle);   // completes on the FX thread
  */
 public final class WorldBuilder {
 
@@ -64,15 +89,47 @@ public final class WorldBuilder {
         public AsteroidField getField() { return field; }
     }
 
+    /** Receives build progress on the FX thread. */
+    public interface ProgressListener {
+        void onProgress(AsteroidFieldGenerator.Phase phase, int done, int total);
+    }
+
     private final Game3DView view;
 
+    // Async builds
+    private final List<ProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "world-builder");
+        t.setDaemon(true);
+        return t;
+    });
+    private int attachBatchSize = 64;
+    private CompletableFuture<Handle> activeBuild;
+
     public WorldBuilder(Game3DView view) {
         this.view = Objects.requireNonNull(view, "view");
     }
 
+    /** Listen to progress of every async build (e.g. an overlay progress bar). */
+    public void addProgressListener(ProgressListener l) { if (l != null) progressListeners.add(l); }
+    public void removeProgressListener(ProgressListener l) { progressListeners.remove(l); }
+
+    /** MeshViews attached per pulse by buildAndAttachAsync. Default 64. */
+    public void setAttachBatchSize(int n) { this.attachBatchSize = Math.max(1, n); }
+    public int getAttachBatchSize() { return attachBatchSize; }
+
+    /** True while an async build is generating or attaching. */
+    public boolean isBuilding() { return activeBuild != null && !activeBuild.isDone(); }
+
+    /** Cancel the running async build, if any (partially attached meshes are removed). */
+    public boolean cancelActiveBuild() {
+        CompletableFuture<Handle> f = activeBuild;
+        return f != null && f.cancel(false);
+    }
+
     /**
      * Build a field synchronously, attach it to the Game3DView world root, and register all meshes as collidables.
-     * Call on FX thread for now (generator is synchronous; we attach immediately).
+     * Call on FX thread. Blocks until generation finishes; see buildAndAttachAsync for the non-blocking path.
      */
     public Handle buildAndAttach(FamilyPool families,
                                  PlacementStrategy placement,
@@ -99,9 +156,173 @@ public final class WorldBuilder {
             }
         }
 
+        // 4) Announce (LOD manager, collision, render settings listen for ATTACHED)
+        fireAttached(field);
+
         return new Handle(view, field, registered);
     }
 
+    /**
+     * Build a field on a worker thread and attach it in batches across pulses. Call on FX thread.
+     * The future completes on the FX thread once every mesh is attached and ATTACHED has fired;
+     * cancelling it stops generation (or rolls back a partial attach).
+     */
+    public CompletableFuture<Handle> buildAndAttachAsync(FamilyPool families,
+                                                         PlacementStrategy placement,
+                                                         AsteroidFieldGenerator.Config cfg) {
+        return buildAndAttachAsync(families, placement, cfg, null);
+    }
+
+    /** As above, with an extra per-build progress listener (called on the FX thread). */
+    public CompletableFuture<Handle> buildAndAttachAsync(FamilyPool families,
+                                                         PlacementStrategy placement,
+                                                         AsteroidFieldGenerator.Config cfg,
+                                                         ProgressListener listener) {
+        Objects.requireNonNull(families, "families");
+        Objects.requireNonNull(placement, "placement");
+        Objects.requireNonNull(cfg, "cfg");
+
+        CompletableFuture<Handle> result = new CompletableFuture<>();
+        ProgressRelay relay = new ProgressRelay(result, listener);
+        activeBuild = result;
+
+        System.out.println("Generating " + cfg.count + " asteroids using "
+            + cfg.prototypeCount + " prototypes (async).");
+        AsteroidFieldGenerator gen = new AsteroidFieldGenerator(families, placement);
+        CompletableFuture.supplyAsync(() -> {
+            AsteroidField field = gen.build(cfg, relay);
+            // Not live yet, so this is safe off-thread; views are attached to the world in batches
+            field.root.getChildren().clear();
+            return field;
+        }, buildExecutor).whenComplete((field, err) -> Platform.runLater(() -> {
+            if (result.isDone()) return; // cancelled while generating
+            if (err != null) {
+                Throwable cause = (err instanceof CompletionException && err.getCause() != null) ? err.getCause() : err;
+                if (cause instanceof CancellationException) result.cancel(false);
+                else result.completeExceptionally(cause);
+                return;
+            }
+            new BatchedAttach(field, result, relay).start();
+        }));
+        return result;
+    }
+
+    /** FX-thread attach of a generated field, a batch of MeshViews per pulse. */
+    private final class BatchedAttach extends AnimationTimer {
+        private final AsteroidField field;
+        private final CompletableFuture<Handle> result;
+        private final ProgressRelay relay;
+        private final List<MeshView> registered;
+        private int next = 0;
+
+        BatchedAttach(AsteroidField field, CompletableFuture<Handle> result, ProgressRelay relay) {
+            this.field = field;
+            this.result = result;
+            this.relay = relay;
+            this.registered = new ArrayList<>(field.instances.size());
+        }
+
+        @Override
+        public void start() {
+            view.getWorldRoot().getChildren().add(field.root);
+            super.start();
+        }
+
+        @Override
+        public void handle(long now) {
+            if (result.isDone()) { // cancelled mid-attach: roll back
+                stop();
+                view.getWorldRoot().getChildren().remove(field.root);
+                for (MeshView mv : registered) view.removeCollidable(mv);
+                registered.clear();
+                return;
+            }
+
+            int total = field.instances.size();
+            int end = Math.min(total, next + attachBatchSize);
+            for (; next < end; next++) {
+                if (field.instances.get(next).node() instanceof MeshView mv) {
+                    view.addCollidable(mv);
+                    registered.add(mv);
+                }
+            }
+            relay.progress(AsteroidFieldGenerator.Phase.ATTACH, next, total);
+
+            if (next >= total) {
+                stop();
+                fireAttached(field);
+                result.complete(new Handle(view, field, registered));
+            }
+        }
+    }
+
+    /**
+     * BuildMonitor that forwards the latest progress to listeners on the FX thread
+     * (coalesced: at most one pending runLater) and maps cancellation to the future.
+     */
+    private final class ProgressRelay implements AsteroidFieldGenerator.BuildMonitor {
+        private record Snapshot(AsteroidFieldGenerator.Phase phase, int done, int total) {}
+
+        private final CompletableFuture<Handle> result;
+        private final ProgressListener listener;
+        private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        ProgressRelay(CompletableFuture<Handle> result, ProgressListener listener) {
+            this.result = result;
+            this.listener = listener;
+        }
+
+        @Override public boolean isCancelled() { return result.isCancelled(); }
+
+        @Override
+        public void progress(AsteroidFieldGenerator.Phase phase, int done, int total) {
+            Snapshot n = new Snapshot(phase, done, total);
+            // Parallel workers may report out of order; never move backwards
+            latest.accumulateAndGet(n, (old, cur) -> (old != null
+                    && (old.phase().ordinal() > cur.phase().ordinal()
+                        || (old.phase() == cur.phase() && old.done() > cur.done()))) ? old : cur);
+            if (Platform.isFxApplicationThread()) {
+                dispatch();
+            } else if (scheduled.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    scheduled.set(false);
+                    dispatch();
+                });
+            }
+        }
+
+        private void dispatch() {
+            Snapshot s = latest.get();
+            if (s == null) return;
+            if (listener != null) listener.onProgress(s.phase(), s.done(), s.total());
+            for (ProgressListener l : progressListeners) l.onProgress(s.phase(), s.done(), s.total());
+        }
+    }
+
+    private void fireAttached(AsteroidField field) {
+        var scene = view.getScene();
+        if (scene != null && scene.getRoot() != null) {
+            scene.getRoot().fireEvent(AsteroidFieldEvent.attached(this, scene.getRoot(), field));
+        } else {
+            view.fireEvent(AsteroidFieldEvent.attached(this, view, field));
+        }
+    }
+
+    /** Default snapshot file, under the user cache dir next to the mesh cache. */
+    public static Path defaultSnapshotFile() {
+        return MeshDiskCache.userCacheRoot().resolve("snapshots").resolve("field.afs");
+    }
+
+    /**
+     * Write an attached field as a FieldSnapshot with embedded prototype meshes, grouped into sectors of
+     * 'sectorSize' (use the streamer's sector size to page it back in). FX thread: reads node transforms.
+     */
+    public static void saveSnapshot(Handle handle, Path file, double sectorSize) throws IOException {
+        Objects.requireNonNull(handle, "handle");
+        FieldSnapshot.write(file, handle.getField(), sectorSize, true);
+    }
+
     /**
      * A convenient high-count default for demos and stress tests.
      * Uses prototype reuse for performance while still showing variety.
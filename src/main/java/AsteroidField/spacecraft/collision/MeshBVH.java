@@ -1,22 +1,453 @@
-package AsteroidField.spacecraft.collision;
-
-/**
- * Per-mesh BVH placeholder. Flat arrays are cache-friendly and refittable.
- * We’ll wire traversal later; for now it’s an optional field in ColliderBundle.
- */
-public final class MeshBVH {
-    // Minimal stub for now; real implementation will fill these.
-    public final float[] minX, minY, minZ, maxX, maxY, maxZ;
-    public final int[] left, right, firstTri, triCount;
-
-    public MeshBVH(float[] minX, float[] minY, float[] minZ,
-                   float[] maxX, float[] maxY, float[] maxZ,
-                   int[] left, int[] right, int[] firstTri, int[] triCount) {
-        this.minX = minX; this.minY = minY; this.minZ = minZ;
-        this.maxX = maxX; this.maxY = maxY; this.maxZ = maxZ;
-        this.left = left; this.right = right;
-        this.firstTri = firstTri; this.triCount = triCount;
-    }
-
-    public int nodeCount() { return (minX == null) ? 0 : minX.length; }
-}
+package AsteroidField.spacecraft.collision;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javafx.collections.ArrayChangeListener;
+import javafx.collections.ObservableFloatArray;
+import javafx.collections.ObservableIntegerArray;
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Per-mesh triangle BVH over flat arrays (cache-friendly and refittable).
+ *
+ * - Built once per TriangleMesh and shared by every MeshView that renders it (see forMesh)
+ * - Nodes: float boxes rounded outward, leaves reference a contiguous range of reordered triangles
+ * - Segment queries run in mesh LOCAL space on a float[] of precomputed v0/e1/e2/normal per triangle
+ *   (leaf order, no Point3D, no per-query allocation when the Hit record is reused)
+ * - One pass yields both the nearest front-facing and the nearest either-sided hit
+ * - Packets: segmentsFirstHit walks the tree once for many segments, each node filtering the list of
+ *   segments still alive in it (coherent sweeps share every node visit)
+ * - A cached tree is dropped when its mesh's points or faces are edited (one listener pair per mesh,
+ *   registered on its first build and kept across rebuilds)
+ * - Triangles with non-finite vertices are left out, so one bad point cannot poison every box
+ */
+public final class MeshBVH {
+    private static final int LEAF_TRIS = 4;
+    private static final double EPS = 1e-8;
+
+    public final float[] minX, minY, minZ, maxX, maxY, maxZ;
+    public final int[] left, right, firstTri, triCount;
+
+    /** Per triangle in leaf order: v0 (xyz), e1 = v1 - v0, e2 = v2 - v0, n = e1 x e2. */
+    private static final int TRI_STRIDE = 12;
+    private final float[] tri;
+    /** Original TriangleMesh face index per reordered triangle. */
+    private final int[] faceOf;
+    private final int nodeCount;
+
+    private static final Map<TriangleMesh, MeshBVH> CACHE = new WeakHashMap<>();
+    private static final Set<TriangleMesh> HOOKED = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private MeshBVH(float[] minX, float[] minY, float[] minZ,
+                    float[] maxX, float[] maxY, float[] maxZ,
+                    int[] left, int[] right, int[] firstTri, int[] triCount,
+                    int nodeCount, float[] tri, int[] faceOf) {
+        this.minX = minX; this.minY = minY; this.minZ = minZ;
+        this.maxX = maxX; this.maxY = maxY; this.maxZ = maxZ;
+        this.left = left; this.right = right;
+        this.firstTri = firstTri; this.triCount = triCount;
+        this.nodeCount = nodeCount;
+        this.tri = tri;
+        this.faceOf = faceOf;
+    }
+
+    public int nodeCount() { return nodeCount; }
+    public int triangleCount() { return faceOf.length; }
+
+    /** Shared tree for a mesh, built on first use (FX thread or any single thread at a time). */
+    public static synchronized MeshBVH forMesh(TriangleMesh tm) {
+        MeshBVH bvh = CACHE.get(tm);
+        if (bvh == null) {
+            bvh = build(tm);
+            CACHE.put(tm, bvh);
+            if (HOOKED.add(tm)) {
+                ArrayChangeListener<ObservableFloatArray> dropP = (arr, sizeChanged, from, to) -> evict(tm);
+                ArrayChangeListener<ObservableIntegerArray> dropF = (arr, sizeChanged, from, to) -> evict(tm);
+                tm.getPoints().addListener(dropP);
+                tm.getFaces().addListener(dropF);
+            }
+        }
+        return bvh;
+    }
+
+    private static synchronized void evict(TriangleMesh tm) { CACHE.remove(tm); }
+
+    public static MeshBVH build(TriangleMesh tm) {
+        float[] pts = tm.getPoints().toArray(null);
+        ObservableIntegerArray faces = tm.getFaces();
+        int stride = tm.getFaceElementSize();
+        int n = faces.size() / stride;
+        int[] raw = faces.toArray(null);
+
+        int[] order = new int[n];
+        float[] cx = new float[n], cy = new float[n], cz = new float[n];
+        int valid = 0;
+        for (int f = 0; f < n; f++) {
+            int a = raw[f * stride] * 3, b = raw[f * stride + stride / 3] * 3, c = raw[f * stride + 2 * stride / 3] * 3;
+            cx[f] = (pts[a] + pts[b] + pts[c]) / 3f;
+            cy[f] = (pts[a + 1] + pts[b + 1] + pts[c + 1]) / 3f;
+            cz[f] = (pts[a + 2] + pts[b + 2] + pts[c + 2]) / 3f;
+            if (Float.isFinite(cx[f]) && Float.isFinite(cy[f]) && Float.isFinite(cz[f])) order[valid++] = f;
+        }
+        if (valid < n) order = Arrays.copyOf(order, valid);
+        n = valid;
+
+        int cap = Math.max(1, 2 * n);
+        float[] mnx = new float[cap], mny = new float[cap], mnz = new float[cap];
+        float[] mxx = new float[cap], mxy = new float[cap], mxz = new float[cap];
+        int[] l = new int[cap], r = new int[cap], ft = new int[cap], tc = new int[cap];
+
+        // Iterative top-down build: median split on the widest centroid axis
+        int[] stackNode = new int[128], stackLo = new int[128], stackHi = new int[128];
+        int sp = 0, nodes = 1;
+        stackNode[sp] = 0; stackLo[sp] = 0; stackHi[sp] = n; sp++;
+        while (sp > 0) {
+            sp--;
+            int node = stackNode[sp], lo = stackLo[sp], hi = stackHi[sp];
+            float bx0 = Float.POSITIVE_INFINITY, by0 = bx0, bz0 = bx0, bx1 = Float.NEGATIVE_INFINITY, by1 = bx1, bz1 = bx1;
+            float qx0 = bx0, qy0 = bx0, qz0 = bx0, qx1 = bx1, qy1 = bx1, qz1 = bx1;
+            for (int i = lo; i < hi; i++) {
+                int f = order[i];
+                for (int k = 0; k < 3; k++) {
+                    int v = raw[f * stride + k * (stride / 3)] * 3;
+                    bx0 = Math.min(bx0, pts[v]); bx1 = Math.max(bx1, pts[v]);
+                    by0 = Math.min(by0, pts[v + 1]); by1 = Math.max(by1, pts[v + 1]);
+                    bz0 = Math.min(bz0, pts[v + 2]); bz1 = Math.max(bz1, pts[v + 2]);
+                }
+                qx0 = Math.min(qx0, cx[f]); qx1 = Math.max(qx1, cx[f]);
+                qy0 = Math.min(qy0, cy[f]); qy1 = Math.max(qy1, cy[f]);
+                qz0 = Math.min(qz0, cz[f]); qz1 = Math.max(qz1, cz[f]);
+            }
+            mnx[node] = Math.nextDown(bx0); mny[node] = Math.nextDown(by0); mnz[node] = Math.nextDown(bz0);
+            mxx[node] = Math.nextUp(bx1);   mxy[node] = Math.nextUp(by1);   mxz[node] = Math.nextUp(bz1);
+
+            float ex = qx1 - qx0, ey = qy1 - qy0, ez = qz1 - qz0;
+            if (hi - lo <= LEAF_TRIS || Math.max(ex, Math.max(ey, ez)) <= 0f || sp + 2 > stackNode.length) {
+                l[node] = r[node] = -1;
+                ft[node] = lo; tc[node] = hi - lo;
+                continue;
+            }
+            float[] key = (ex >= ey && ex >= ez) ? cx : (ey >= ez ? cy : cz);
+            int mid = (lo + hi) >>> 1;
+            select(order, key, lo, hi - 1, mid);
+
+            int a = nodes++, b = nodes++;
+            l[node] = a; r[node] = b; tc[node] = 0;
+            stackNode[sp] = a; stackLo[sp] = lo; stackHi[sp] = mid; sp++;
+            stackNode[sp] = b; stackLo[sp] = mid; stackHi[sp] = hi; sp++;
+        }
+        if (n == 0) { l[0] = r[0] = -1; tc[0] = 0; }
+
+        float[] tri = new float[n * TRI_STRIDE];
+        for (int i = 0; i < n; i++) {
+            int f = order[i], o = i * TRI_STRIDE;
+            int a = raw[f * stride] * 3, b = raw[f * stride + stride / 3] * 3, c = raw[f * stride + 2 * stride / 3] * 3;
+            float e1x = pts[b] - pts[a], e1y = pts[b + 1] - pts[a + 1], e1z = pts[b + 2] - pts[a + 2];
+            float e2x = pts[c] - pts[a], e2y = pts[c + 1] - pts[a + 1], e2z = pts[c + 2] - pts[a + 2];
+            tri[o]     = pts[a]; tri[o + 1]  = pts[a + 1]; tri[o + 2]  = pts[a + 2];
+            tri[o + 3] = e1x;    tri[o + 4]  = e1y;        tri[o + 5]  = e1z;
+            tri[o + 6] = e2x;    tri[o + 7]  = e2y;        tri[o + 8]  = e2z;
+            tri[o + 9]  = (float) ((double) e1y * e2z - (double) e1z * e2y);
+            tri[o + 10] = (float) ((double) e1z * e2x - (double) e1x * e2z);
+            tri[o + 11] = (float) ((double) e1x * e2y - (double) e1y * e2x);
+        }
+        return new MeshBVH(mnx, mny, mnz, mxx, mxy, mxz, l, r, ft, tc, nodes, tri, order);
+    }
+
+    /** Quickselect: order[lo..hi] partially sorted so key[order[k]] is the k-th smallest. */
+    private static void select(int[] order, float[] key, int lo, int hi, int k) {
+        while (hi > lo) {
+            float pivot = key[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[order[i]] < pivot) i++;
+                while (key[order[j]] > pivot) j--;
+                if (i <= j) { int t = order[i]; order[i] = order[j]; order[j] = t; i++; j--; }
+            }
+            if (k <= j) hi = j; else if (k >= i) lo = i; else return;
+        }
+    }
+
+    // ----------------------------
+    // Queries
+    // ----------------------------
+
+    /**
+     * Nearest hits of a local-space segment, gathered in one pass: the nearest hit on either side and the
+     * nearest front-facing hit (geometric normal against the segment). Reusable; not thread-safe.
+     */
+    public static final class Hit {
+        /** Nearest hit on either side. */
+        public double t = Double.POSITIVE_INFINITY;
+        public int faceIndex = -1;
+        public double nx, ny, nz;       // unnormalized geometric normal (e1 x e2), local space
+        /** Nearest front-facing hit. */
+        public double frontT = Double.POSITIVE_INFINITY;
+        public int frontFaceIndex = -1;
+        public double fnx, fny, fnz;
+
+        private final int[] stack = new int[64];
+
+        public boolean hit() { return faceIndex >= 0; }
+        public boolean frontHit() { return frontFaceIndex >= 0; }
+
+        public void reset() {
+            t = frontT = Double.POSITIVE_INFINITY;
+            faceIndex = frontFaceIndex = -1;
+        }
+
+        /** Copy the front hit (if any) into t/faceIndex/n; returns hit(). */
+        public boolean preferFront() {
+            if (frontFaceIndex >= 0) {
+                t = frontT; faceIndex = frontFaceIndex;
+                nx = fnx; ny = fny; nz = fnz;
+            }
+            return faceIndex >= 0;
+        }
+    }
+
+    /**
+     * Nearest hits along a -> b (mesh local). Returns t in [0, 1] of the requested hit, or NaN.
+     *
+     * @param frontFaceOnly if true, traversal is pruned by the nearest FRONT hit and the return value is
+     *                      out.frontT; the either-sided fields then hold the nearest hit of any facing up to
+     *                      it (so a "front, else both" query needs only this one pass). If false, pruning
+     *                      is by the nearest hit of any facing and only the either-sided fields are complete.
+     */
+    public double segmentFirstHit(double ax, double ay, double az, double bx, double by, double bz,
+                                  boolean frontFaceOnly, Hit out) {
+        out.reset();
+        double dx = bx - ax, dy = by - ay, dz = bz - az;
+        double ix = 1.0 / dx, iy = 1.0 / dy, iz = 1.0 / dz;
+        int[] stack = out.stack;
+        int sp = 0;
+        stack[sp++] = 0;
+        double best = 1.0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            double tn = slab(node, ax, ay, az, ix, iy, iz, best);
+            if (Double.isNaN(tn)) continue;
+            if (left[node] < 0) {
+                int end = firstTri[node] + triCount[node];
+                for (int i = firstTri[node]; i < end; i++) {
+                    double t = triangle(i, ax, ay, az, dx, dy, dz, best, out.t, out.frontT);
+                    if (!Double.isNaN(t)) record(i, t, dx, dy, dz, out);
+                }
+                best = Math.min(1.0, frontFaceOnly ? out.frontT : out.t);
+                continue;
+            }
+            // Push far child first so the near one is popped next
+            int a = left[node], b = right[node];
+            double ta = slab(a, ax, ay, az, ix, iy, iz, best), tb = slab(b, ax, ay, az, ix, iy, iz, best);
+            if (!Double.isNaN(ta) && !Double.isNaN(tb)) {
+                if (ta <= tb) { stack[sp++] = b; stack[sp++] = a; } else { stack[sp++] = a; stack[sp++] = b; }
+            } else if (!Double.isNaN(ta)) stack[sp++] = a;
+            else if (!Double.isNaN(tb)) stack[sp++] = b;
+        }
+        if (frontFaceOnly) return out.frontHit() ? out.frontT : Double.NaN;
+        return out.hit() ? out.t : Double.NaN;
+    }
+
+    /** Segment [0, tMax] vs node box; entry t or NaN. */
+    private double slab(int node, double ax, double ay, double az, double ix, double iy, double iz, double tMax) {
+        double t0 = 0.0, t1 = tMax;
+        double a = (minX[node] - ax) * ix, b = (maxX[node] - ax) * ix;
+        t0 = Math.max(t0, Math.min(a, b)); t1 = Math.min(t1, Math.max(a, b));
+        a = (minY[node] - ay) * iy; b = (maxY[node] - ay) * iy;
+        t0 = Math.max(t0, Math.min(a, b)); t1 = Math.min(t1, Math.max(a, b));
+        a = (minZ[node] - az) * iz; b = (maxZ[node] - az) * iz;
+        t0 = Math.max(t0, Math.min(a, b)); t1 = Math.min(t1, Math.max(a, b));
+        return (t0 <= t1) ? t0 : Double.NaN;
+    }
+
+    /**
+     * Möller–Trumbore on triangle i, rewritten around the stored normal n = e1 x e2:
+     * det = -n.d, t = n.s / det, u = e2.(s x d) / det, v = -e1.(s x d) / det with s = a - v0.
+     * The plane distance is tested before the edge terms, which rejects most candidates after 6 products.
+     * det > 0 means the face looks back along the segment (front face).
+     *
+     * @return t of a hit in [0, tMax] that beats tAny (or tFront for a front face), else NaN
+     */
+    private double triangle(int i, double ax, double ay, double az, double dx, double dy, double dz,
+                            double tMax, double tAny, double tFront) {
+        final float[] tr = tri;
+        int o = i * TRI_STRIDE;
+        double nx = tr[o + 9], ny = tr[o + 10], nz = tr[o + 11];
+        double det = -(dx * nx + dy * ny + dz * nz);
+        if (det > -EPS && det < EPS) return Double.NaN;
+        double inv = 1.0 / det;
+
+        double sx = ax - tr[o], sy = ay - tr[o + 1], sz = az - tr[o + 2];
+        double t = (sx * nx + sy * ny + sz * nz) * inv;
+        if (!(t >= 0.0 && t <= tMax)) return Double.NaN;
+        if (t >= tAny && !(det > 0 && t < tFront)) return Double.NaN;
+
+        double cx = sy * dz - sz * dy, cy = sz * dx - sx * dz, cz = sx * dy - sy * dx;
+        double u = (tr[o + 6] * cx + tr[o + 7] * cy + tr[o + 8] * cz) * inv;
+        if (u < 0.0 || u > 1.0) return Double.NaN;
+        double v = -(tr[o + 3] * cx + tr[o + 4] * cy + tr[o + 5] * cz) * inv;
+        if (v < 0.0 || u + v > 1.0) return Double.NaN;
+        return t;
+    }
+
+    /** Store a kernel hit on triangle i into the either-sided and/or front slots it improves. */
+    private void record(int i, double t, double dx, double dy, double dz, Hit out) {
+        int o = i * TRI_STRIDE;
+        double nx = tri[o + 9], ny = tri[o + 10], nz = tri[o + 11];
+        if (t < out.t) {
+            out.t = t;
+            out.faceIndex = faceOf[i];
+            out.nx = nx; out.ny = ny; out.nz = nz;
+        }
+        if (dx * nx + dy * ny + dz * nz < 0 && t < out.frontT) {
+            out.frontT = t;
+            out.frontFaceIndex = faceOf[i];
+            out.fnx = nx; out.fny = ny; out.fnz = nz;
+        }
+    }
+
+    // ----------------------------
+    // Packets
+    // ----------------------------
+
+    /**
+     * Batch of mesh-local segments for segmentsFirstHit. Results use the same fields as Hit, one slot per
+     * segment (normals are 3 per segment). Reusable: clear() and add() each query; arrays only grow.
+     */
+    public static final class Packet {
+        private int size;
+        private double[] seg = new double[0]; // ax, ay, az, dx, dy, dz, 1/dx, 1/dy, 1/dz per segment
+
+        public double[] t = new double[0], frontT = new double[0];
+        public int[] faceIndex = new int[0], frontFaceIndex = new int[0];
+        public double[] n = new double[0], fn = new double[0];
+
+        // Traversal scratch: active segment lists (stacked) and node stack entries
+        private int[] lists = new int[0];
+        private final int[] stackNode = new int[64], stackStart = new int[64], stackCount = new int[64];
+
+        public int size() { return size; }
+        public void clear() { size = 0; }
+
+        /** Append segment a -> b; returns its slot. */
+        public int add(double ax, double ay, double az, double bx, double by, double bz) {
+            if (size == t.length) grow(Math.max(8, size * 2));
+            double dx = bx - ax, dy = by - ay, dz = bz - az;
+            int o = size * 9;
+            seg[o] = ax; seg[o + 1] = ay; seg[o + 2] = az;
+            seg[o + 3] = dx; seg[o + 4] = dy; seg[o + 5] = dz;
+            seg[o + 6] = 1.0 / dx; seg[o + 7] = 1.0 / dy; seg[o + 8] = 1.0 / dz;
+            return size++;
+        }
+
+        public boolean hit(int i) { return faceIndex[i] >= 0; }
+        public boolean frontHit(int i) { return frontFaceIndex[i] >= 0; }
+
+        /** Copy slot i's front hit (if any) into its either-sided fields; returns hit(i). */
+        public boolean preferFront(int i) {
+            if (frontFaceIndex[i] >= 0) {
+                t[i] = frontT[i]; faceIndex[i] = frontFaceIndex[i];
+                n[i * 3] = fn[i * 3]; n[i * 3 + 1] = fn[i * 3 + 1]; n[i * 3 + 2] = fn[i * 3 + 2];
+            }
+            return faceIndex[i] >= 0;
+        }
+
+        private void grow(int cap) {
+            seg = Arrays.copyOf(seg, cap * 9);
+            t = Arrays.copyOf(t, cap); frontT = Arrays.copyOf(frontT, cap);
+            faceIndex = Arrays.copyOf(faceIndex, cap); frontFaceIndex = Arrays.copyOf(frontFaceIndex, cap);
+            n = Arrays.copyOf(n, cap * 3); fn = Arrays.copyOf(fn, cap * 3);
+        }
+
+        private double bound(int i, boolean frontFaceOnly) {
+            return Math.min(1.0, frontFaceOnly ? frontT[i] : t[i]);
+        }
+    }
+
+    /**
+     * Nearest hits for every segment of the packet (same per-segment semantics as segmentFirstHit).
+     * The tree is walked once: each visited node carries the list of segments that reach its box before
+     * their current best hit, so segments sharing a region share the node visits.
+     */
+    public void segmentsFirstHit(Packet p, boolean frontFaceOnly) {
+        int m = p.size;
+        for (int i = 0; i < m; i++) {
+            p.t[i] = p.frontT[i] = Double.POSITIVE_INFINITY;
+            p.faceIndex[i] = p.frontFaceIndex[i] = -1;
+        }
+        if (m == 0) return;
+        if (p.lists.length < m * 4) p.lists = new int[m * 4];
+
+        int top = 0;
+        for (int i = 0; i < m; i++) {
+            if (!Double.isNaN(slab(0, p, i, 1.0))) p.lists[top++] = i;
+        }
+        if (top == 0) return;
+        int sp = 0;
+        p.stackNode[sp] = 0; p.stackStart[sp] = 0; p.stackCount[sp] = top; sp++;
+
+        while (sp > 0) {
+            sp--;
+            int node = p.stackNode[sp], start = p.stackStart[sp], count = p.stackCount[sp];
+            if (left[node] < 0) {
+                int end = firstTri[node] + triCount[node];
+                for (int k = start; k < start + count; k++) {
+                    int r = p.lists[k], o = r * 9;
+                    double ax = p.seg[o], ay = p.seg[o + 1], az = p.seg[o + 2];
+                    double dx = p.seg[o + 3], dy = p.seg[o + 4], dz = p.seg[o + 5];
+                    for (int i = firstTri[node]; i < end; i++) {
+                        double t = triangle(i, ax, ay, az, dx, dy, dz, p.bound(r, frontFaceOnly), p.t[r], p.frontT[r]);
+                        if (!Double.isNaN(t)) record(i, t, dx, dy, dz, p, r);
+                    }
+                }
+                continue;
+            }
+            // Filter this node's list into one list per child, written above it. The child popped first must
+            // own the topmost list, since its own children are written right after it
+            int base = start + count;
+            int a = left[node], b = right[node];
+            if (p.lists.length < base + 3 * count) p.lists = Arrays.copyOf(p.lists, Math.max(p.lists.length * 2, base + 3 * count));
+            int na = 0, nb = 0;
+            double minA = Double.POSITIVE_INFINITY, minB = Double.POSITIVE_INFINITY;
+            for (int k = start; k < start + count; k++) {
+                int r = p.lists[k];
+                double best = p.bound(r, frontFaceOnly);
+                double ta = slab(a, p, r, best), tb = slab(b, p, r, best);
+                if (!Double.isNaN(ta)) { p.lists[base + na++] = r; minA = Math.min(minA, ta); }
+                if (!Double.isNaN(tb)) { p.lists[base + count + nb++] = r; minB = Math.min(minB, tb); }
+            }
+            if (na > 0 && nb > 0 && minA <= minB) {
+                // a is nearer: move its list above b's so it is popped first
+                p.stackNode[sp] = b; p.stackStart[sp] = base + count; p.stackCount[sp] = nb; sp++;
+                System.arraycopy(p.lists, base, p.lists, base + count + nb, na);
+                p.stackNode[sp] = a; p.stackStart[sp] = base + count + nb; p.stackCount[sp] = na; sp++;
+            } else {
+                if (na > 0) { p.stackNode[sp] = a; p.stackStart[sp] = base;         p.stackCount[sp] = na; sp++; }
+                if (nb > 0) { p.stackNode[sp] = b; p.stackStart[sp] = base + count; p.stackCount[sp] = nb; sp++; }
+            }
+        }
+    }
+
+    private double slab(int node, Packet p, int r, double tMax) {
+        int o = r * 9;
+        return slab(node, p.seg[o], p.seg[o + 1], p.seg[o + 2], p.seg[o + 6], p.seg[o + 7], p.seg[o + 8], tMax);
+    }
+
+    private void record(int i, double t, double dx, double dy, double dz, Packet p, int r) {
+        int o = i * TRI_STRIDE;
+        double nx = tri[o + 9], ny = tri[o + 10], nz = tri[o + 11];
+        if (t < p.t[r]) {
+            p.t[r] = t;
+            p.faceIndex[r] = faceOf[i];
+            p.n[r * 3] = nx; p.n[r * 3 + 1] = ny; p.n[r * 3 + 2] = nz;
+        }
+        if (dx * nx + dy * ny + dz * nz < 0 && t < p.frontT[r]) {
+            p.frontT[r] = t;
+            p.frontFaceIndex[r] = faceOf[i];
+            p.fn[r * 3] = nx; p.fn[r * 3 + 1] = ny; p.fn[r * 3 + 2] = nz;
+        }
+    }
+}
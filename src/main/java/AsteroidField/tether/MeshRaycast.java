@@ -2,8 +2,7 @@ package AsteroidField.tether;
 
 import java.util.Optional;
 
-import javafx.collections.ObservableFloatArray;
-import javafx.collections.ObservableIntegerArray;
+import AsteroidField.spacecraft.collision.MeshBVH;
 import javafx.geometry.Point3D;
 import javafx.scene.shape.MeshView;
 import javafx.scene.shape.TriangleMesh;
@@ -12,6 +11,10 @@ import javafx.scene.transform.Transform;
 /**
  * Triangle-level ray/segment tests for JavaFX TriangleMesh.
  * Uses Möller–Trumbore with an optional FRONT-FACE rule.
+ *
+ * - Runs on the mesh's shared MeshBVH: float[] of precomputed v0/e1/e2/normal per triangle, no Point3D per face
+ * - One pass yields the nearest front-facing AND the nearest either-sided hit (no second scan for fallbacks)
+ * - segmentMeshHits is the allocation-free core (local space, caller-owned MeshBVH.Hit record)
  */
 public final class MeshRaycast {
 
@@ -35,6 +38,21 @@ public final class MeshRaycast {
 
     private static final double EPS = 1e-8;
 
+    /**
+     * Nearest front-facing and nearest either-sided hits of a mesh-LOCAL segment a -> b, in one pass.
+     * Allocation-free; read out.frontHit()/out.frontT for the front rule, out.hit()/out.t for both sides
+     * (or out.preferFront() for "front, else both").
+     *
+     * @return true if any triangle was hit
+     */
+    public static boolean segmentMeshHits(TriangleMesh tm,
+                                          double ax, double ay, double az,
+                                          double bx, double by, double bz,
+                                          MeshBVH.Hit out) {
+        MeshBVH.forMesh(tm).segmentFirstHit(ax, ay, az, bx, by, bz, true, out);
+        return out.hit();
+    }
+
     /**
      * Return the nearest intersection against a TriangleMesh contained in the MeshView.
      * The segment endpoints (aWorld,bWorld) are given in SCENE space.
@@ -50,84 +68,20 @@ public final class MeshRaycast {
         // Work in mesh LOCAL space
         Point3D aLocal = meshView.sceneToLocal(aWorld);
         Point3D bLocal = meshView.sceneToLocal(bWorld);
-        Point3D dirLocal = bLocal.subtract(aLocal);
-
-        ObservableFloatArray pts = tm.getPoints();
-        ObservableIntegerArray faces = tm.getFaces();
 
-        double bestT = Double.POSITIVE_INFINITY;
-        int bestFace = -1;
-        Point3D bestNLocal = null;
-
-        for (int fi = 0, faceIndex = 0; fi < faces.size(); fi += 6, faceIndex++) {
-            int p0 = faces.get(fi);
-            int p1 = faces.get(fi + 2);
-            int p2 = faces.get(fi + 4);
-
-            int i0 = p0 * 3, i1 = p1 * 3, i2 = p2 * 3;
-
-            Point3D v0 = new Point3D(pts.get(i0), pts.get(i0 + 1), pts.get(i0 + 2));
-            Point3D v1 = new Point3D(pts.get(i1), pts.get(i1 + 1), pts.get(i1 + 2));
-            Point3D v2 = new Point3D(pts.get(i2), pts.get(i2 + 1), pts.get(i2 + 2));
-
-            // Optional early cull by front-face rule
-            if (frontFaceOnly) {
-                Point3D n = v1.subtract(v0).crossProduct(v2.subtract(v0));
-                if (n.dotProduct(dirLocal) >= 0.0) continue;
-            }
-
-            double t = segmentTriangleT(aLocal, bLocal, v0, v1, v2, frontFaceOnly);
-            if (!Double.isNaN(t) && t < bestT) {
-                bestT = t;
-                bestFace = faceIndex;
-                Point3D nLocal = v1.subtract(v0).crossProduct(v2.subtract(v0));
-                bestNLocal = normalizeSafe(nLocal);
-            }
-        }
-
-        if (bestFace >= 0) {
-            Point3D hitLocal = aLocal.add(dirLocal.multiply(bestT));
-            Point3D hitWorld = meshView.localToScene(hitLocal);
-
-            Transform l2s = meshView.getLocalToSceneTransform();
-            Point3D nWorld = normalizeSafe(l2s.deltaTransform(bestNLocal));
-
-            return Optional.of(new TriHit(meshView, bestFace, bestT, hitWorld, nWorld));
-        }
-        return Optional.empty();
-    }
-
-    /**
-     * Möller–Trumbore segment-triangle; returns t in [0,1] or NaN if no hit.
-     */
-    private static double segmentTriangleT(Point3D a, Point3D b,
-                                           Point3D v0, Point3D v1, Point3D v2,
-                                           boolean frontFaceOnly) {
-        Point3D dir = b.subtract(a);
-        Point3D e1 = v1.subtract(v0);
-        Point3D e2 = v2.subtract(v0);
-
-        // det = (e1 x e2) · dir = n · dir
-        Point3D pvec = dir.crossProduct(e2);
-        double det = e1.dotProduct(pvec);
-
-        if (frontFaceOnly) {
-            if (det > -EPS) return Double.NaN; // reject backfaces and nearly parallel
-        } else {
-            if (Math.abs(det) < EPS) return Double.NaN;
-        }
-        double invDet = 1.0 / det;
+        MeshBVH.Hit h = new MeshBVH.Hit();
+        MeshBVH.forMesh(tm).segmentFirstHit(aLocal.getX(), aLocal.getY(), aLocal.getZ(),
+                bLocal.getX(), bLocal.getY(), bLocal.getZ(), frontFaceOnly, h);
+        if (frontFaceOnly && !(h.frontHit() && h.preferFront())) return Optional.empty();
+        if (!h.hit()) return Optional.empty();
 
-        Point3D tvec = a.subtract(v0);
-        double u = tvec.dotProduct(pvec) * invDet;
-        if (u < 0.0 || u > 1.0) return Double.NaN;
+        Point3D hitLocal = aLocal.add(bLocal.subtract(aLocal).multiply(h.t));
+        Point3D hitWorld = meshView.localToScene(hitLocal);
 
-        Point3D qvec = tvec.crossProduct(e1);
-        double v = dir.dotProduct(qvec) * invDet;
-        if (v < 0.0 || u + v > 1.0) return Double.NaN;
+        Transform l2s = meshView.getLocalToSceneTransform();
+        Point3D nWorld = normalizeSafe(l2s.deltaTransform(h.nx, h.ny, h.nz));
 
-        double t = e2.dotProduct(qvec) * invDet;
-        return (t >= 0.0 && t <= 1.0) ? t : Double.NaN;
+        return Optional.of(new TriHit(meshView, h.faceIndex, h.t, hitWorld, nWorld));
     }
 
     private static Point3D normalizeSafe(Point3D v) {
@@ -1,251 +1,223 @@
 package AsteroidField.tether.materials;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.PhongMaterial;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
- * High-performance procedural material:
- *  - DiffuseMap  : grayscale banding (cached per radius-bucket). Color comes from diffuseColor.
- *  - BumpMap     : grayscale height ribs (cached per radius-bucket).
- *  - EmissiveMap : small tinted masks at discrete strengths (cached per strength bucket).
+ * Procedural tether look for TetherRenderer's texture atlases (all tethers share one material; each slot owns
+ * a block of the atlases, u around the tube, v along it):
+ *  - Diffuse : grayscale banding with radial center emphasis; the slot color is baked in per block
+ *  - Bump    : grayscale height ribs along V, the same for every slot (painted once per renderer)
+ *  - Emissive: tinted core+band glow at a per-slot strength
  *
- * NO per-frame image painting. We just:
- *   - set material.diffuseColor for tint changes,
- *   - swap a cached selfIlluminationMap for emissive strength steps.
+ * Source maps are generated into int[] ARGB buffers by row-parallel workers (per-row seeded noise,
+ * precomputed column factors and emissive mask) once per process. Block painters resample them once per
+ * block size and cache the result, so a color or emission change (the per-frame path) is a tint multiply.
  */
 public final class ProceduralTetherMaterial {
 
-    private final PhongMaterial mat = new PhongMaterial();
-
-    // Public knobs (fast setters)
-    private Color baseColor = Color.CYAN;         // Applied via diffuseColor (fast)
-    private Color lockTint  = Color.LIMEGREEN;    // Tints emissive maps at creation time (cached variants)
-    private double emissiveStrength = 0.0;        // 0..1, discretized to a small bucket set
-
-    // Cache sizing
+    // Source map sizing
     private static final int DIFF_W = 512; // around U
     private static final int DIFF_H = 512; // along V (grayscale banding; tile-safe)
     private static final int BUMP_W = 512;
     private static final int BUMP_H = 512;
 
-    // Radius “buckets” to avoid over-caching
-    private static final double RADIUS_BUCKET = 5.0; // 5 unit buckets
-
-    // Emissive strengths we support (discrete)
-    private static final double[] EMISSIVE_STEPS = {0.0, 0.25, 0.5, 0.75, 1.0};
-    private static final int EMIS_W = 128, EMIS_H = 256; // small
+    // Base seed for the diffuse noise (mixed per row)
+    private static final long NOISE_SEED = 1337L;
 
-    // Caches (static so all tethers share)
-    private static final Map<DiffKey, Image> DIFFUSE_CACHE = new HashMap<>();
-    private static final Map<DiffKey, Image> BUMP_CACHE    = new HashMap<>();
-    private static final Map<EmKey,  Image> EMISSIVE_CACHE = new HashMap<>();
+    private static int[] bumpGray;
+    private static volatile Blocks blocks;
 
-    // Last applied keys
-    private DiffKey lastDiffKey = null;
-    private DiffKey lastBumpKey = null;
-    private EmKey  lastEmKey    = null;
+    /** Source maps box-filtered to one block size: diffuse gray and emissive mask in 0..1. */
+    private record Blocks(int w, int h, float[] diffuse, float[] emissive) {}
 
-    // Random for diffuse noise generation
-    private final Random rng = new Random(1337);
-
-    public ProceduralTetherMaterial() {
-        mat.setSpecularColor(Color.WHITE);
-        mat.setSpecularPower(64);
-        mat.setDiffuseColor(baseColor); // tint applied here (not baked into diffuse map)
-    }
+    private ProceduralTetherMaterial() {}
 
-    public PhongMaterial material() { return mat; }
-
-    // --------- public setters (fast) ---------
-
-    /** Fast tint. Does not rebuild textures. */
-    public void setBaseColor(Color c) {
-        if (c == null) return;
-        baseColor = c;
-        mat.setDiffuseColor(baseColor);
-    }
-
-    /** Changes the emissive tint for the cached images. Only rebuilt lazily if a new tint is requested. */
-    public void setLockTint(Color c) {
-        if (c == null) return;
-        if (!colorsClose(lockTint, c)) {
-            lockTint = c;
-            // We do NOT invalidate caches aggressively. Only new EmKey (tint+strength) will be built on demand.
-            lastEmKey = null; // force a refresh next time setEmissiveStrength runs
-        }
-    }
-
-    /**
-     * Set emissive strength in 0..1. We pick the nearest cached bucket and swap the image.
-     * No image painting here.
-     */
-    public void setEmissiveStrength(double s) {
-        emissiveStrength = clamp01(s);
-        EmKey key = new EmKey(nearestStep(emissiveStrength), quantizeColor(lockTint));
-        if (!key.equals(lastEmKey)) {
-            Image em = EMISSIVE_CACHE.computeIfAbsent(key, k -> buildEmissive(EMIS_W, EMIS_H, k.tint, k.step));
-            mat.setSelfIlluminationMap(em);
-            lastEmKey = key;
-        }
-    }
-
-    /**
-     * Ensure diffuse/bump maps are applied for the current radius bucket.
-     * Call this when radius changes (or once in constructor).
-     */
-    public void ensureStaticMaps(double radius) {
-        DiffKey key = new DiffKey(quantize(radius));
-        if (!key.equals(lastDiffKey)) {
-            Image diff = DIFFUSE_CACHE.computeIfAbsent(key, k -> buildDiffuseGray(DIFF_W, DIFF_H));
-            mat.setDiffuseMap(diff);
-            lastDiffKey = key;
-        }
-        if (!key.equals(lastBumpKey)) {
-            Image bump = BUMP_CACHE.computeIfAbsent(key, k -> buildBumpGray(BUMP_W, BUMP_H));
-            mat.setBumpMap(bump);
-            lastBumpKey = key;
-        }
-        // diffuseColor already set via setBaseColor
-        // emissive set via setEmissiveStrength
-    }
-
-    // --------- image builders (one-time per key) ---------
+    // --------- source maps (one-time) ---------
+    // Each builder fills an int[] of opaque gray ARGB with row-parallel workers (rows are independent and
+    // write disjoint slices).
 
     // Grayscale diffuse with radial center emphasis + longitudinal bands
-    private Image buildDiffuseGray(int w, int h) {
-        WritableImage img = new WritableImage(w, h);
-        var pw = img.getPixelWriter();
-
+    private static int[] buildDiffuseGray(int w, int h) {
         int bands = 6;
         double[] bandY = new double[bands];
         for (int r = 0; r < bands; r++) bandY[r] = (r + 0.5) * (h / (double)bands);
 
-        for (int y = 0; y < h; y++) {
+        // radial center emphasis (brighter center), per column
+        double[] radial = new double[w];
+        for (int x = 0; x < w; x++) {
+            double du = Math.abs(x / (double)(w - 1) - 0.5) / 0.5;
+            radial[x] = 1.0 - Math.pow(du, 1.2);
+        }
+
+        int[] argb = new int[w * h];
+        IntStream.range(0, h).parallel().forEach(y -> {
             double bandAccum = 0.0;
             for (int r = 0; r < bands; r++) {
                 double dy = (y - bandY[r]) / 14.0;
                 bandAccum += Math.exp(-dy * dy) * (0.06 - r * 0.007);
             }
+            // subtle noise, seeded per row so the map is identical whatever the thread schedule
+            SplittableRandom rnd = new SplittableRandom(mix(NOISE_SEED, y));
+            double base = 0.55 - bandAccum;
+            int row = y * w;
             for (int x = 0; x < w; x++) {
-                double u = x / (double)(w - 1);
-                // radial center emphasis (brighter center)
-                double du = Math.abs(u - 0.5) / 0.5;
-                double radial = 1.0 - Math.pow(du, 1.2);
-                // subtle noise
-                double n = (rng.nextDouble() - 0.5) * 0.03;
-                double g = clamp01(0.55 - 0.35 * radial - bandAccum + n); // grayscale
-                pw.setColor(x, y, new Color(g, g, g, 1.0));
+                double n = (rnd.nextDouble() - 0.5) * 0.03;
+                argb[row + x] = gray(base - 0.35 * radial[x] + n);
             }
-        }
-        return img;
+        });
+        return argb;
     }
 
     // Grayscale bump: faint ribs along V; edge falls off near U edges
-    private Image buildBumpGray(int w, int h) {
-        WritableImage img = new WritableImage(w, h);
-        PixelWriter pw = img.getPixelWriter();
+    private static int[] buildBumpGray(int w, int h) {
         int repeats = 8; // fixed -> no rebuild with length
         double freq = repeats * 2.0 * Math.PI;
 
-        for (int y = 0; y < h; y++) {
+        double[] edge = new double[w];
+        for (int x = 0; x < w; x++) {
+            edge[x] = 1.0 - Math.pow(Math.abs(x / (double)(w - 1) - 0.5) / 0.5, 1.6);
+        }
+
+        int[] argb = new int[w * h];
+        IntStream.range(0, h).parallel().forEach(y -> {
             double v = y / (double)(h - 1);
             double rib = 0.5 + 0.15 * Math.sin(v * freq); // 0.35..0.65
-            for (int x = 0; x < w; x++) {
-                double u = x / (double)(w - 1);
-                double edge = 1.0 - Math.pow(Math.abs(u - 0.5) / 0.5, 1.6);
-                double g = clamp01(rib * edge);
-                pw.setColor(x, y, new Color(g, g, g, 1.0));
-            }
-        }
-        return img;
+            int row = y * w;
+            for (int x = 0; x < w; x++) argb[row + x] = gray(rib * edge[x]);
+        });
+        return argb;
     }
 
-    // Emissive: tinted core+band at a given discrete strength
-    private Image buildEmissive(int w, int h, Color tint, double strength) {
-        WritableImage img = new WritableImage(w, h);
-        PixelWriter pw = img.getPixelWriter();
+    private static float[] emissiveMask;
+
+    private static synchronized float[] emissiveMask(int w, int h) {
+        if (emissiveMask != null && emissiveMask.length == w * h) return emissiveMask;
 
         // Fixed band location/width; we’re not animating it per-frame anymore
         double bandCenter = 0.55;
         double bandWidth  = 0.12;
 
-        for (int y = 0; y < h; y++) {
-            double v = y / (double)(h - 1);
-            double dv = Math.abs(v - bandCenter) / bandWidth;
+        double[] radial = new double[w];
+        for (int x = 0; x < w; x++) {
+            double du = Math.abs(x / (double)(w - 1) - 0.5) / 0.5;
+            radial[x] = Math.exp(-du * du * 3.0);
+        }
+        float[] mask = new float[w * h];
+        IntStream.range(0, h).parallel().forEach(y -> {
+            double dv = Math.abs(y / (double)(h - 1) - bandCenter) / bandWidth;
             double band = Math.exp(-dv * dv * 3.0);
+            for (int x = 0; x < w; x++) mask[y * w + x] = (float) (0.55 * radial[x] + 0.70 * band);
+        });
+        emissiveMask = mask;
+        return mask;
+    }
+
+    private static int gray(double g) {
+        int v = (int) Math.round(clamp01(g) * 255);
+        return 0xFF000000 | (v << 16) | (v << 8) | v;
+    }
 
+    /** SplitMix64 finalizer: decorrelated per-row seeds from one base seed. */
+    private static long mix(long seed, int t) {
+        long z = seed + 0x9E3779B97F4A7C15L * (t + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --------- atlas blocks (shared-material batching) ---------
+
+    /**
+     * The diffuse look with the tint baked in, as a w x h premultiplied-ARGB block written to
+     * out[offset + y * stride + x]. For TetherRenderer, where all tethers share one material and each
+     * owns a block of its texture atlas (u runs around the tube, v along it).
+     */
+    public static void paintDiffuseBlock(int[] out, int offset, int stride, int w, int h, Color tint) {
+        float[] g = blocks(w, h).diffuse;
+        double r = tint.getRed(), gr = tint.getGreen(), b = tint.getBlue();
+        for (int y = 0; y < h; y++) {
             for (int x = 0; x < w; x++) {
-                double u = x / (double)(w - 1);
-                double du = Math.abs(u - 0.5) / 0.5;
-                double radial = Math.exp(-du * du * 3.0);
-
-                double e = clamp01(strength * (0.55 * radial + 0.70 * band));
-                // bake tint
-                Color c = new Color(
-                        clamp01(tint.getRed()),
-                        clamp01(tint.getGreen()),
-                        clamp01(tint.getBlue()),
-                        e);
-                pw.setColor(x, y, c);
+                double v = g[y * w + x];
+                out[offset + y * stride + x] = argbPre(r * v, gr * v, b * v, 1.0);
             }
         }
-        return img;
     }
 
-    // --------- helpers & keys ---------
+    /** Emissive counterpart of paintDiffuseBlock (tint at 'strength' over the core+band mask). */
+    public static void paintEmissiveBlock(int[] out, int offset, int stride, int w, int h, Color tint, double strength) {
+        float[] m = blocks(w, h).emissive;
+        double k = clamp01(strength), r = tint.getRed(), g = tint.getGreen(), b = tint.getBlue();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                double e = clamp01(k * m[y * w + x]);
+                out[offset + y * stride + x] = argbPre(r * e, g * e, b * e, 1.0);
+            }
+        }
+    }
 
-    private static boolean colorsClose(Color a, Color b) {
-        return Math.abs(a.getRed()-b.getRed())<1e-3 &&
-               Math.abs(a.getGreen()-b.getGreen())<1e-3 &&
-               Math.abs(a.getBlue()-b.getBlue())<1e-3;
+    /** Build the source maps and their w x h reductions now, so the first slot repaint is a tint multiply. */
+    public static void prepareBlocks(int w, int h) {
+        blocks(w, h);
     }
-    private static double clamp01(double v){ return Math.max(0, Math.min(1, v)); }
-    private static double quantize(double v){ return Math.round(v / RADIUS_BUCKET) * RADIUS_BUCKET; }
-
-    private static Color quantizeColor(Color c) {
-        // Quantize RGB to 32 steps to maximize cache hits
-        double r = Math.round(c.getRed()*31.0)/31.0;
-        double g = Math.round(c.getGreen()*31.0)/31.0;
-        double b = Math.round(c.getBlue()*31.0)/31.0;
-        return new Color(r,g,b,1.0);
+
+    /** The rib bump map box-filtered into a w x h block (opaque gray) at out[offset + y * stride + x]. */
+    public static void paintBumpBlock(int[] out, int offset, int stride, int w, int h) {
+        float[] g = boxFilter(grayLevels(bumpGray()), BUMP_W, BUMP_H, w, h);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) out[offset + y * stride + x] = gray(g[y * w + x]);
+        }
+    }
+
+    private static synchronized int[] bumpGray() {
+        if (bumpGray == null) bumpGray = buildBumpGray(BUMP_W, BUMP_H);
+        return bumpGray;
     }
 
-    private static double nearestStep(double s) {
-        double best = EMISSIVE_STEPS[0];
-        double bestD = Math.abs(s - best);
-        for (double v : EMISSIVE_STEPS) {
-            double d = Math.abs(s - v);
-            if (d < bestD) { bestD = d; best = v; }
+    /** Reduced maps for one block size; rebuilt only when a renderer asks for a different size. */
+    private static Blocks blocks(int w, int h) {
+        Blocks b = blocks;
+        if (b != null && b.w == w && b.h == h) return b;
+        synchronized (ProceduralTetherMaterial.class) {
+            b = blocks;
+            if (b == null || b.w != w || b.h != h) {
+                float[] diffuse = boxFilter(grayLevels(buildDiffuseGray(DIFF_W, DIFF_H)), DIFF_W, DIFF_H, w, h);
+                float[] emissive = boxFilter(emissiveMask(DIFF_W, DIFF_H), DIFF_W, DIFF_H, w, h);
+                blocks = b = new Blocks(w, h, diffuse, emissive);
+            }
+            return b;
         }
-        return best;
     }
 
-    private static final class DiffKey {
-        final double radiusQ;
-        DiffKey(double r){ this.radiusQ = r; }
-        @Override public boolean equals(Object o){ return (o instanceof DiffKey dk) && dk.radiusQ==radiusQ; }
-        @Override public int hashCode(){ return Objects.hash(radiusQ); }
+    private static float[] grayLevels(int[] argb) {
+        float[] g = new float[argb.length];
+        for (int i = 0; i < argb.length; i++) g[i] = (argb[i] & 0xFF) / 255f;
+        return g;
     }
 
-    private static final class EmKey {
-        final double step;
-        final Color  tint;
-        EmKey(double s, Color t){ this.step=s; this.tint=t; }
-        @Override public boolean equals(Object o){
-            if (!(o instanceof EmKey k)) return false;
-            return k.step==step &&
-                   Math.abs(k.tint.getRed()-tint.getRed())<1e-6 &&
-                   Math.abs(k.tint.getGreen()-tint.getGreen())<1e-6 &&
-                   Math.abs(k.tint.getBlue()-tint.getBlue())<1e-6;
+    /** Box-filter an sw x sh map down to w x h (each output texel averages the source texels it covers). */
+    private static float[] boxFilter(float[] src, int sw, int sh, int w, int h) {
+        float[] out = new float[w * h];
+        for (int y = 0; y < h; y++) {
+            int sy0 = y * sh / h, sy1 = Math.max(sy0 + 1, (y + 1) * sh / h);
+            for (int x = 0; x < w; x++) {
+                int sx0 = x * sw / w, sx1 = Math.max(sx0 + 1, (x + 1) * sw / w);
+                double sum = 0;
+                for (int sy = sy0; sy < sy1; sy++) {
+                    for (int sx = sx0; sx < sx1; sx++) sum += src[sy * sw + sx];
+                }
+                out[y * w + x] = (float) (sum / ((sy1 - sy0) * (sx1 - sx0)));
+            }
         }
-        @Override public int hashCode(){ return Objects.hash(step, tint.getRed(), tint.getGreen(), tint.getBlue()); }
+        return out;
     }
+
+    private static int argbPre(double r, double g, double b, double a) {
+        return ((int) Math.round(clamp01(a) * 255) << 24) | ((int) Math.round(clamp01(r) * 255) << 16)
+             | ((int) Math.round(clamp01(g) * 255) << 8) | (int) Math.round(clamp01(b) * 255);
+    }
+
+    private static double clamp01(double v){ return Math.max(0, Math.min(1, v)); }
 }
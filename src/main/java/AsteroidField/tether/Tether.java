@@ -1,22 +1,22 @@
 package AsteroidField.tether;
 
+import AsteroidField.runtime.RayPacket;
+import AsteroidField.runtime.RaycastWorld;
 import AsteroidField.tether.vfx.AnchorSparkVFX;
-import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point3D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.MeshView;
 import javafx.util.Duration;
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalDouble;
-import java.util.function.Supplier;
 
 /**
  * Tether with scene-robust anchoring and triangle-precise ray hits.
  * Diagnostic-tolerant: can test both face modes and optionally fall back to AABB for MeshViews.
+ * Flight segments are answered by the shared RaycastWorld, so their cost does not grow with field size.
+ * A controller may batch several tethers' flight segments into one RayPacket (queue / query / complete).
+ * Rope mode (needs a TetherRopeSystem): once attached, the line is a Verlet rope that wraps asteroids;
+ * the spring then acts on the rope's path length and pulls toward the first rope particle.
  */
 public class Tether {
 
@@ -33,7 +33,7 @@ public class Tether {
     private final int id;
     private final Group parent3D;
     private final TetherView tetherView;
-    private final Supplier<List<Node>> collidablesSupplier;
+    private final RaycastWorld raycastWorld;
     private final SpacecraftAdapter craft;
 
     private final Color baseColor;
@@ -81,17 +81,26 @@ public class Tether {
 
     private boolean wasAttached = false;
 
-    public Tether(int id, Group parent3D, Supplier<List<Node>> collidablesSupplier,
-                  SpacecraftAdapter craft, Color color) {
+    private final RayPacket ownRay = new RayPacket(1);
+    private Point3D firingTip = null; // parent3D space, tip of the queued flight segment
+
+    // Rope mode
+    private TetherRopeSystem ropeSystem = null;
+    private TetherRope rope = null;
+    private boolean ropeEnabled = false;
+    private int ropeSegments = 24;
+    private final double[] ropePull = new double[3];
+
+    /** parent3D is the tether's coordinate space (and VFX parent); renderer must draw in that same space. */
+    public Tether(int id, Group parent3D, RaycastWorld raycastWorld,
+                  SpacecraftAdapter craft, TetherRenderer renderer, Color color) {
         this.id = id;
         this.parent3D = parent3D;
-        this.collidablesSupplier = collidablesSupplier;
+        this.raycastWorld = raycastWorld;
         this.craft = craft;
 
         this.baseColor = (color != null) ? color : Color.CYAN;
-        this.tetherView = new TetherView(0, 3.0f, this.baseColor);
-        this.tetherView.setBeamColor(this.baseColor);
-        parent3D.getChildren().add(tetherView);
+        this.tetherView = new TetherView(renderer, 3.0f, this.baseColor);
         setVisible(false);
     }
 
@@ -132,6 +141,7 @@ public class Tether {
         persistActive = false;
         persistDir = null;
         wasAttached = false;
+        stopRope();
         tetherView.setBeamColor(baseColor);
         setVisible(false);
     }
@@ -145,6 +155,10 @@ public class Tether {
             case ATTACHED -> updateAttached(dt);
             case DETACHED -> {}
         }
+        updatePersistedBeam();
+    }
+
+    void updatePersistedBeam() {
         if (persistActive && state == TetherState.DETACHED && persistDir != null) {
             Point3D start = craft.getWorldPosition().add(emitterOffsetParent);
             Point3D end = start.add(persistDir.multiply(maxRange));
@@ -155,6 +169,19 @@ public class Tether {
     }
 
     private void updateFiring(double dt) {
+        ownRay.clear();
+        int ray = queueFiringRay(dt, ownRay);
+        if (ray >= 0) queryFiringRays(ownRay);
+        completeFiringRay(ownRay, ray);
+    }
+
+    public boolean isFiring() { return state == TetherState.FIRING; }
+
+    /**
+     * FIRING step, part 1: advance the tip and append this step's flight segment (RaycastWorld space)
+     * to the packet. Returns its index, or -1 when the shot ended at max range instead.
+     */
+    int queueFiringRay(double dt, RayPacket packet) {
         prevTipDist = tipDist;
         tipDist += projectileSpeed * dt;
 
@@ -163,82 +190,48 @@ public class Tether {
                 persistActive = true;
                 persistDir = fireDir;
                 state = TetherState.DETACHED;
-                return;
-            } else { release(); return; }
+                return -1;
+            } else { release(); return -1; }
         }
 
         // Segment in parent3D space
         Point3D tipPrev = fireOrigin.add(fireDir.multiply(prevTipDist));
-        Point3D tipNow  = fireOrigin.add(fireDir.multiply(tipDist));
+        firingTip = fireOrigin.add(fireDir.multiply(tipDist));
+        return packet.add(toRaycastSpace(tipPrev), toRaycastSpace(firingTip));
+    }
 
-        // Same segment in SCENE space
-        Point3D tipPrevScene = parent3D.localToScene(tipPrev);
-        Point3D tipNowScene  = parent3D.localToScene(tipNow);
+    /** FIRING step, part 2: run a packet of queued segments with this tether's face rule and AABB settings. */
+    void queryFiringRays(RayPacket packet) {
+        // Front-face rule with a both-sides fallback per mesh when rayFrontFaceOnly is set
+        RaycastWorld.FaceMode mode = rayFrontFaceOnly
+                ? RaycastWorld.FaceMode.FRONT_THEN_BOTH
+                : RaycastWorld.FaceMode.BOTH;
+        raycastWorld.segmentFirstHits(packet, mode, aabbInflation, allowAabbFallbackOnMeshMiss);
+    }
 
-        List<Node> collidables = collidablesSupplier.get();
+    /** True if queryFiringRays on one tether answers the other's queued segment exactly as its own would. */
+    boolean sharesRaySettings(Tether other) {
+        return other.raycastWorld == raycastWorld
+                && other.rayFrontFaceOnly == rayFrontFaceOnly
+                && other.aabbInflation == aabbInflation
+                && other.allowAabbFallbackOnMeshMiss == allowAabbFallbackOnMeshMiss;
+    }
 
-        double nearestT = Double.POSITIVE_INFINITY;
-        Node   nearestNode = null;
+    /** FIRING step, part 3: attach on the queued segment's hit, else extend the beam. No-op for ray -1. */
+    void completeFiringRay(RayPacket packet, int ray) {
+        if (ray < 0 || state != TetherState.FIRING) return;
+        Point3D tipNow = firingTip;
+
+        Node nearestNode = null;
         Point3D nearestHitWorld = null;   // parent3D space
         Point3D nearestNormalWorld = null;
-
-        for (Node n : collidables) {
-            // AABB gate in SCENE space
-            Bounds bScene = n.localToScene(n.getBoundsInLocal());
-            Bounds ibScene = inflateBounds(bScene, aabbInflation);
-
-            OptionalDouble tAabb = segmentAabbFirstHitScene(tipPrevScene, tipNowScene, ibScene);
-            if (tAabb.isEmpty()) continue;
-
-            if (n instanceof MeshView mv) {
-                // 1) Try strict front-face (if requested)
-                Optional<MeshRaycast.TriHit> tri = MeshRaycast.segmentMeshFirstHit(
-                        mv, tipPrevScene, tipNowScene, rayFrontFaceOnly);
-
-                // 2) If strict failed and we care about robustness, try both-sides
-                if ((!tri.isPresent()) && rayFrontFaceOnly) {
-                    tri = MeshRaycast.segmentMeshFirstHit(mv, tipPrevScene, tipNowScene, false);
-                }
-
-                if (tri.isPresent()) {
-                    MeshRaycast.TriHit h = tri.get();
-                    if (h.t < nearestT) {
-                        nearestT = h.t;
-                        nearestNode = mv;
-
-                        // Scene → parent3D
-                        Point3D hitWorldRoot = parent3D.sceneToLocal(h.pointWorld);
-                        Point3D nWorldRootVec = sceneVectorToParentLocalAt(h.normalWorld, h.pointWorld);
-                        Point3D nWorldRoot = normalizeSafe(nWorldRootVec);
-
-                        nearestHitWorld = hitWorldRoot;
-                        nearestNormalWorld = nWorldRoot;
-                    }
-                } else if (allowAabbFallbackOnMeshMiss) {
-                    // Fallback attach on the AABB intersection point (approximate but useful in bring-up)
-                    double t = tAabb.getAsDouble();
-                    if (t < nearestT) {
-                        nearestT = t;
-                        nearestNode = mv;
-                        Point3D segScene = tipNowScene.subtract(tipPrevScene);
-                        Point3D hitScene = tipPrevScene.add(segScene.multiply(t));
-                        nearestHitWorld = parent3D.sceneToLocal(hitScene);
-                        nearestNormalWorld = estimateOutwardNormalWorld(n, nearestHitWorld, fireDir);
-                    }
-                }
-
-            } else {
-                // Non-mesh collidable: use AABB intersection
-                double t = tAabb.getAsDouble();
-                if (t < nearestT) {
-                    nearestT = t;
-                    nearestNode = n;
-                    Point3D segScene = tipNowScene.subtract(tipPrevScene);
-                    Point3D hitScene = tipPrevScene.add(segScene.multiply(t));
-                    nearestHitWorld = parent3D.sceneToLocal(hitScene);
-                    nearestNormalWorld = estimateOutwardNormalWorld(n, nearestHitWorld, fireDir);
-                }
-            }
+        if (packet.hit(ray)) {
+            Point3D point = packet.point(ray);
+            nearestNode = packet.node(ray);
+            nearestHitWorld = fromRaycastSpace(point);
+            nearestNormalWorld = packet.hasNormal(ray)
+                    ? normalizeSafe(raycastVectorToParentLocalAt(packet.normal(ray), point))
+                    : estimateOutwardNormalWorld(nearestNode, nearestHitWorld, fireDir);
         }
 
         Point3D craftPos = craft.getWorldPosition();
@@ -261,6 +254,7 @@ public class Tether {
 
             restLength = Math.max(minRestLength, start.distance(anchorWorld));
             state = TetherState.ATTACHED;
+            if (ropeEnabled) startRope(start, anchorWorld);
 
             tetherView.setStartAndEnd(startBase, anchorWorld);
             return;
@@ -288,16 +282,31 @@ public class Tether {
 
         if (pulling) restLength = Math.max(minRestLength, restLength - reelRate * dt);
 
-        Point3D toAnchor = anchorWorld.subtract(start);
-        double dist = toAnchor.magnitude();
-        if (dist < 1e-6) {
-            tetherView.setStartAndEnd(start, anchorWorld);
-            return;
-        }
+        if (ropeEnabled && (rope == null || !rope.isActive())) startRope(start, anchorWorld);
+
+        Point3D dir;
+        double dist;
+        if (rope != null && rope.isActive()) {
+            // Rope: pinned ends follow emitter and anchor; tension from the (possibly wrapped) path length
+            rope.setEnds(start.getX(), start.getY(), start.getZ(),
+                         anchorWorld.getX(), anchorWorld.getY(), anchorWorld.getZ());
+            rope.setRestLength(restLength);
+            tetherView.setRopePath(rope);
+            dist = rope.pathLength();
+            if (dist < 1e-6 || !rope.pullDirection(ropePull)) return;
+            dir = new Point3D(ropePull[0], ropePull[1], ropePull[2]);
+        } else {
+            Point3D toAnchor = anchorWorld.subtract(start);
+            dist = toAnchor.magnitude();
+            if (dist < 1e-6) {
+                tetherView.setStartAndEnd(start, anchorWorld);
+                return;
+            }
 
-        Point3D dir = toAnchor.normalize();
-        Point3D startBase = start.add(dir.multiply(viewStartOffset));
-        tetherView.setStartAndEnd(startBase, anchorWorld);
+            dir = toAnchor.normalize();
+            Point3D startBase = start.add(dir.multiply(viewStartOffset));
+            tetherView.setStartAndEnd(startBase, anchorWorld);
+        }
 
         double stretch = dist - restLength;
         if (stretch > slackEps) {
@@ -345,13 +354,63 @@ public class Tether {
                 : new Point3D(0, 0, 1);
     }
 
+    // --- Rope mode ---
+
+    /** Rope simulation shared by a controller's tethers (also enables rope collisions). */
+    public void setRopeSystem(TetherRopeSystem system) {
+        stopRope();
+        if (ropeSystem != null && rope != null) ropeSystem.remove(rope);
+        ropeSystem = system;
+        rope = null;
+    }
+
+    public void setRopeEnabled(boolean enabled) {
+        ropeEnabled = enabled;
+        if (!enabled) stopRope();
+    }
+    public boolean isRopeEnabled() { return ropeEnabled; }
+
+    /** Segments for the next rope (takes effect on the next attach). */
+    public void setRopeSegments(int n) { ropeSegments = Math.max(2, n); }
+    public int getRopeSegments() { return ropeSegments; }
+
+    /** The live rope while attached in rope mode, else null. */
+    public TetherRope getRope() { return (rope != null && rope.isActive()) ? rope : null; }
+
+    private void startRope(Point3D start, Point3D anchor) {
+        if (ropeSystem == null || anchor == null) return;
+        if (rope == null || rope.segmentCount() != ropeSegments) {
+            if (rope != null) ropeSystem.remove(rope);
+            rope = new TetherRope(ropeSegments);
+            ropeSystem.add(rope);
+        }
+        rope.setCollide(raycastWorld.getSpace() == parent3D);
+        rope.reset(start.getX(), start.getY(), start.getZ(), anchor.getX(), anchor.getY(), anchor.getZ());
+        rope.setRestLength(restLength);
+        rope.setActive(true);
+    }
+
+    private void stopRope() {
+        if (rope != null) rope.setActive(false);
+    }
+
     // --- geometry helpers ---
 
-    /** Convert a SCENE-space direction vector into parent3D-local at a given scene position. */
-    private Point3D sceneVectorToParentLocalAt(Point3D vecScene, Point3D atScene) {
-        Point3D p0 = parent3D.sceneToLocal(atScene);
-        Point3D p1 = parent3D.sceneToLocal(atScene.add(vecScene));
-        return p1.subtract(p0);
+    /** parent3D-local point -> RaycastWorld space (identity when the world indexes parent3D). */
+    private Point3D toRaycastSpace(Point3D p) {
+        Node space = raycastWorld.getSpace();
+        return (space == parent3D) ? p : space.sceneToLocal(parent3D.localToScene(p));
+    }
+
+    private Point3D fromRaycastSpace(Point3D p) {
+        Node space = raycastWorld.getSpace();
+        return (space == parent3D) ? p : parent3D.sceneToLocal(space.localToScene(p));
+    }
+
+    /** Convert a RaycastWorld-space direction vector into parent3D-local at a given position. */
+    private Point3D raycastVectorToParentLocalAt(Point3D vec, Point3D at) {
+        if (raycastWorld.getSpace() == parent3D) return vec;
+        return fromRaycastSpace(at.add(vec)).subtract(fromRaycastSpace(at));
     }
     // --- Setters ---
     public void setProjectileSpeed(double v){ projectileSpeed = v; }
@@ -391,7 +450,7 @@ public class Tether {
     public boolean isDebugPersistOnMiss() { return debugPersistOnMiss; }
     public boolean isRayFrontFaceOnly() { return rayFrontFaceOnly; }
     public boolean isAllowAabbFallbackOnMeshMiss() { return allowAabbFallbackOnMeshMiss; }
-    /** Mirrors setVisible(...). Delegates to the underlying Node visibility. */
+    /** Mirrors setVisible(...). Delegates to the renderer slot's visibility. */
     public boolean isVisible() { return tetherView.isVisible(); }
     /** Mirrors setShowStartMarker(...). */
     public boolean isShowStartMarker() { return showStartMarker; }
@@ -400,36 +459,6 @@ public class Tether {
     public boolean isAttached(){ return state == TetherState.ATTACHED; }
     public TetherState getState(){ return state; }
     
-    private static Bounds inflateBounds(Bounds b, double amount) {
-        if (amount <= 0) return b;
-        return new BoundingBox(
-                b.getMinX() - amount, b.getMinY() - amount, b.getMinZ() - amount,
-                b.getWidth() + amount * 2.0, b.getHeight() + amount * 2.0, b.getDepth() + amount * 2.0);
-    }
-
-    /** Slab test for segment vs AABB in SCENE space. Returns t in [0,1] if hit. */
-    private static OptionalDouble segmentAabbFirstHitScene(Point3D a, Point3D b, Bounds box) {
-        double tmin = 0.0, tmax = 1.0;
-
-        double[] bbMin = { box.getMinX(), box.getMinY(), box.getMinZ() };
-        double[] bbMax = { box.getMaxX(), box.getMaxY(), box.getMaxZ() };
-        double[] A = { a.getX(), a.getY(), a.getZ() };
-        double[] B = { b.getX(), b.getY(), b.getZ() };
-        double[] d = { B[0] - A[0], B[1] - A[1], B[2] - A[2] };
-
-        for (int i = 0; i < 3; i++) {
-            double inv = (Math.abs(d[i]) < 1e-12) ? Double.POSITIVE_INFINITY : 1.0 / d[i];
-            double t1 = (bbMin[i] - A[i]) * inv;
-            double t2 = (bbMax[i] - A[i]) * inv;
-            double tNear = Math.min(t1, t2);
-            double tFar  = Math.max(t1, t2);
-            tmin = Math.max(tmin, tNear);
-            tmax = Math.min(tmax, tFar);
-            if (tmin > tmax) return OptionalDouble.empty();
-        }
-        return OptionalDouble.of(tmin);
-    }
-
     private static Point3D normalizeSafe(Point3D v) {
         if (v == null) return null;
         double m = Math.sqrt(v.getX()*v.getX() + v.getY()*v.getY() + v.getZ()*v.getZ());
@@ -2,9 +2,10 @@ package AsteroidField.tether;
 
 import AsteroidField.util.RayUtil;
 import AsteroidField.physics.PhysicsContributor;
+import AsteroidField.runtime.RayPacket;
+import AsteroidField.runtime.RaycastWorld;
 import javafx.geometry.Point3D;
 import javafx.scene.Group;
-import javafx.scene.Node;
 import javafx.scene.PerspectiveCamera;
 import javafx.scene.SubScene;
 import javafx.scene.input.KeyCode;
@@ -14,20 +15,27 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.transform.Affine;
 
-import java.util.List;
-import java.util.function.Supplier;
-
 /** Owns tethers + input. Stepped by PhysicsSystem via PhysicsContributor.step(dt). */
 public final class TetherController implements PhysicsContributor {
 
     private final SubScene subScene;
     private final PerspectiveCamera camera;
     private final Group worldRoot3D;
-    private final Supplier<List<Node>> collidablesSupplier;
+    private final RaycastWorld raycastWorld;
     private final Tether.SpacecraftAdapter craft;
 
     private final Tether[] tethers;
 
+    // All tethers draw into one batched mesh (register with the PhysicsSystem: POST phase)
+    private final TetherRenderer renderer;
+
+    // Verlet ropes for tethers in rope mode (register with the PhysicsSystem, runs before this controller)
+    private final TetherRopeSystem ropes;
+
+    // Flight segments of tethers firing in the same step, answered by one packet query
+    private final RayPacket firingRays = new RayPacket(2);
+    private final int[] firingRay;
+
     // input gating (what your toggle flips)
     private boolean tetherInputEnabled = false;
 
@@ -37,19 +45,24 @@ public final class TetherController implements PhysicsContributor {
     public TetherController(SubScene subScene,
                             PerspectiveCamera camera,
                             Group worldRoot3D,
-                            Supplier<List<Node>> collidablesSupplier,
+                            RaycastWorld raycastWorld,
                             Tether.SpacecraftAdapter craft) {
         this.subScene = subScene;
         this.camera = camera;
         this.worldRoot3D = worldRoot3D;
-        this.collidablesSupplier = collidablesSupplier;
+        this.raycastWorld = raycastWorld;
         this.craft = craft;
 
+        this.renderer = new TetherRenderer(2, 25); // 25 rings: a default 24-segment rope, one ring per particle
+        worldRoot3D.getChildren().add(renderer);
         this.tethers = new Tether[] {
-                new Tether(0, worldRoot3D, collidablesSupplier, craft, Color.CYAN),
-                new Tether(1, worldRoot3D, collidablesSupplier, craft, Color.ORANGE)
+                new Tether(0, worldRoot3D, raycastWorld, craft, renderer, Color.CYAN),
+                new Tether(1, worldRoot3D, raycastWorld, craft, renderer, Color.ORANGE)
         };
+        this.firingRay = new int[tethers.length];
+        this.ropes = new TetherRopeSystem(raycastWorld);
         for (Tether t : tethers) {
+            t.setRopeSystem(ropes);
             t.setViewStartOffset(0.5);
             t.setRayFrontFaceOnly(true);
             t.setAllowAabbFallbackOnMeshMiss(false);
@@ -65,7 +78,25 @@ public final class TetherController implements PhysicsContributor {
     @Override
     public void step(double dt) {
         // update tethers even if input is disabled (so attached ones keep acting), OR gate this if you prefer:
-        for (Tether t : tethers) t.update(dt);
+        // Firing tethers with matching ray settings share one RaycastWorld packet; the rest update alone
+        firingRays.clear();
+        Tether lead = null;
+        for (int i = 0; i < tethers.length; i++) {
+            Tether t = tethers[i];
+            firingRay[i] = -1;
+            if (t.isFiring() && (lead == null || lead.sharesRaySettings(t))) {
+                if (lead == null) lead = t;
+                firingRay[i] = t.queueFiringRay(dt, firingRays);
+                if (firingRay[i] < 0) t.updatePersistedBeam(); // shot ended at max range this step
+            } else {
+                t.update(dt);
+            }
+        }
+        if (lead == null) return;
+        if (firingRays.size() > 0) lead.queryFiringRays(firingRays);
+        for (int i = 0; i < tethers.length; i++) {
+            if (firingRay[i] >= 0) tethers[i].completeFiringRay(firingRays, firingRay[i]);
+        }
     }
 
     // ---- API you already use from the view ----
@@ -87,6 +118,12 @@ public final class TetherController implements PhysicsContributor {
         if (offsets.length >= 2) emitterOffsetLocal[1] = (offsets[1] != null) ? offsets[1] : Point3D.ZERO;
     }
 
+    public TetherRopeSystem getRopeSystem() { return ropes; }
+    public TetherRenderer getRenderer() { return renderer; }
+
+    /** Rope mode for all tethers: attached lines bend around asteroids instead of passing through. */
+    public void setRopeEnabled(boolean enabled) { for (Tether t : tethers) t.setRopeEnabled(enabled); }
+
     public void releaseAll() { for (Tether t : tethers) t.release(); }
     public Tether getTether(int i) { return (i>=0 && i<tethers.length) ? tethers[i] : null; }
 
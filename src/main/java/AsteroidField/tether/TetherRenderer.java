@@ -0,0 +1,407 @@
+package AsteroidField.tether;
+
+import AsteroidField.physics.PhysicsContributor;
+import AsteroidField.physics.PhysicsPhase;
+import AsteroidField.tether.materials.ProceduralTetherMaterial;
+import java.util.Arrays;
+import javafx.scene.Group;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Draws every tether with one MeshView: each tether owns a fixed slot (a tube of 'rings' rings plus two
+ * marker diamonds) in a single TriangleMesh.
+ *
+ * - Tethers only record their path (segment or rope particles) while they update in FORCE; step() (POST)
+ *   rebuilds the dirty slots and pushes each one with a single ObservableFloatArray.set(...) range
+ * - Color fades, thickness pulses and emission are per-slot parameters advanced in step() (no Timelines)
+ * - Per-slot color lives in a small texture atlas (one block per slot), repainted only when it changes
+ * - The rib bump map is a parallel atlas with the same UV layout at BUMP_BLOCK texels per block, painted once
+ * - Hidden slots collapse to a point (degenerate triangles), so the node count never depends on tether count
+ */
+public final class TetherRenderer extends Group implements PhysicsContributor {
+
+    public static final int RADIAL = 8;
+    private static final int BLOCK = 8;             // atlas texels per slot block (square)
+    private static final int BUMP_BLOCK = 32;       // bump atlas texels per block (ribs need more than 8)
+    private static final int MARKER_VERTS = 6;      // octahedron: +-X, +-Y, +-Z
+    private static final int[][] OCTA_FACES = {
+            {0, 2, 4}, {2, 1, 4}, {1, 3, 4}, {3, 0, 4},
+            {2, 0, 5}, {1, 2, 5}, {3, 1, 5}, {0, 3, 5}
+    };
+    private static final float START_MARKER_SCALE = 1.8f, END_MARKER_SCALE = 2.2f; // x tube radius
+
+    private final int capacity;
+    private final int rings;
+    private final int vertsPerSlot;
+    private final float[] cos = new float[RADIAL], sin = new float[RADIAL];
+
+    private final TriangleMesh mesh = new TriangleMesh();
+    private final MeshView view = new MeshView(mesh);
+    private final PhongMaterial material = new PhongMaterial();
+    private final WritableImage diffuseAtlas, emissiveAtlas, bumpAtlas;
+    private final int[] block = new int[BLOCK * BLOCK];
+    private final float[] points;                   // mirror of the mesh point buffer
+
+    // ---- per-slot state (SoA) ----
+    private final boolean[] used, visible, showStart, showEnd;
+    private final boolean[] geometryDirty, paintDirty;
+    private final double[] pathX, pathY, pathZ;     // 'rings' entries per slot
+    private final int[] pathCount;
+    private final float[] radius;
+
+    private final Color[] color, fadeFrom, fadeTo;
+    private final double[] fadeT, fadeDuration;     // fadeDuration <= 0: no fade running
+
+    private final double[] pulsePeak, pulseT, pulseDuration;
+
+    private final Color[] emissionTint;
+    private final double[] emission;
+
+    public TetherRenderer(int capacity, int rings) {
+        this.capacity = Math.max(1, capacity);
+        this.rings = Math.max(2, rings);
+        this.vertsPerSlot = this.rings * RADIAL + 2 * MARKER_VERTS;
+        for (int i = 0; i < RADIAL; i++) {
+            double theta = 2.0 * Math.PI * i / RADIAL;
+            cos[i] = (float) Math.cos(theta);
+            sin[i] = (float) Math.sin(theta);
+        }
+
+        int n = this.capacity;
+        used = new boolean[n]; visible = new boolean[n]; showStart = new boolean[n]; showEnd = new boolean[n];
+        geometryDirty = new boolean[n]; paintDirty = new boolean[n];
+        pathX = new double[n * this.rings]; pathY = new double[n * this.rings]; pathZ = new double[n * this.rings];
+        pathCount = new int[n];
+        radius = new float[n];
+        color = new Color[n]; fadeFrom = new Color[n]; fadeTo = new Color[n];
+        fadeT = new double[n]; fadeDuration = new double[n];
+        pulsePeak = new double[n]; pulseT = new double[n]; pulseDuration = new double[n];
+        emissionTint = new Color[n]; emission = new double[n];
+
+        // Atlas: block 0 holds the marker colors, block s + 1 belongs to slot s
+        diffuseAtlas = new WritableImage((n + 1) * BLOCK, BLOCK);
+        emissiveAtlas = new WritableImage((n + 1) * BLOCK, BLOCK);
+        paintMarkerBlock();
+        ProceduralTetherMaterial.prepareBlocks(BLOCK, BLOCK);
+        bumpAtlas = new WritableImage((n + 1) * BUMP_BLOCK, BUMP_BLOCK);
+        paintBumpAtlas(n);
+
+        points = new float[n * vertsPerSlot * 3];
+        buildTopology();
+
+        material.setDiffuseMap(diffuseAtlas);
+        material.setSelfIlluminationMap(emissiveAtlas);
+        material.setBumpMap(bumpAtlas);
+        material.setSpecularColor(Color.WHITE);
+        material.setSpecularPower(64);
+        view.setMaterial(material);
+        view.setCullFace(CullFace.NONE);
+        view.setMouseTransparent(true);
+        getChildren().add(view);
+        setMouseTransparent(true);
+    }
+
+    public int getCapacity() { return capacity; }
+    public int getRings() { return rings; }
+
+    // ----------------------------
+    // Slots
+    // ----------------------------
+
+    /** Claim a slot (hidden until a path is set and it is made visible); -1 if all slots are in use. */
+    public int acquire(float tubeRadius, Color c) {
+        for (int s = 0; s < capacity; s++) {
+            if (used[s]) continue;
+            used[s] = true;
+            visible[s] = false;
+            showStart[s] = showEnd[s] = false;
+            radius[s] = tubeRadius;
+            pathCount[s] = 0;
+            color[s] = (c != null) ? c : Color.CYAN;
+            fadeDuration[s] = 0;
+            pulseDuration[s] = 0;
+            emissionTint[s] = Color.LIMEGREEN;
+            emission[s] = 0;
+            paintDirty[s] = true;
+            geometryDirty[s] = true;
+            return s;
+        }
+        return -1;
+    }
+
+    public void release(int slot) {
+        if (!valid(slot)) return;
+        used[slot] = false;
+        visible[slot] = false;
+        geometryDirty[slot] = true;
+    }
+
+    public void setVisible(int slot, boolean v) {
+        if (!valid(slot) || visible[slot] == v) return;
+        visible[slot] = v;
+        geometryDirty[slot] = true;
+    }
+    public boolean isVisible(int slot) { return valid(slot) && visible[slot]; }
+
+    public void setMarkers(int slot, boolean start, boolean end) {
+        if (!valid(slot)) return;
+        showStart[slot] = start;
+        showEnd[slot] = end;
+        geometryDirty[slot] = true;
+    }
+
+    // ----------------------------
+    // Geometry (recorded here, written in step)
+    // ----------------------------
+
+    /** Straight tube from a to b. */
+    public void setSegment(int slot, double ax, double ay, double az, double bx, double by, double bz) {
+        if (!valid(slot)) return;
+        int o = slot * rings;
+        pathX[o] = ax; pathY[o] = ay; pathZ[o] = az;
+        pathX[o + 1] = bx; pathY[o + 1] = by; pathZ[o + 1] = bz;
+        pathCount[slot] = 2;
+        geometryDirty[slot] = true;
+    }
+
+    /** Tube through (xs[i], ys[i], zs[i]), i < count; longer paths are resampled to the slot's ring count. */
+    public void setPath(int slot, double[] xs, double[] ys, double[] zs, int count) {
+        if (!valid(slot) || count < 1) return;
+        int o = slot * rings;
+        if (count <= rings) {
+            System.arraycopy(xs, 0, pathX, o, count);
+            System.arraycopy(ys, 0, pathY, o, count);
+            System.arraycopy(zs, 0, pathZ, o, count);
+            pathCount[slot] = count;
+        } else {
+            for (int k = 0; k < rings; k++) {
+                int i = (int) Math.round((double) k * (count - 1) / (rings - 1));
+                pathX[o + k] = xs[i]; pathY[o + k] = ys[i]; pathZ[o + k] = zs[i];
+            }
+            pathCount[slot] = rings;
+        }
+        geometryDirty[slot] = true;
+    }
+
+    // ----------------------------
+    // Style and animation parameters
+    // ----------------------------
+
+    /** Set the tint now (cancels a running fade). */
+    public void setColor(int slot, Color c) {
+        if (!valid(slot) || c == null) return;
+        fadeDuration[slot] = 0;
+        if (!c.equals(color[slot])) { color[slot] = c; paintDirty[slot] = true; }
+    }
+    public Color getColor(int slot) { return valid(slot) ? color[slot] : null; }
+
+    /** Fade from the current tint to c over 'seconds' of physics time. */
+    public void fadeColor(int slot, Color c, double seconds) {
+        if (!valid(slot) || c == null) return;
+        if (!(seconds > 0)) { setColor(slot, c); return; }
+        fadeFrom[slot] = color[slot];
+        fadeTo[slot] = c;
+        fadeT[slot] = 0;
+        fadeDuration[slot] = seconds;
+    }
+
+    /** Grow the tube radius to 'peak' times and back over 'seconds'. */
+    public void pulse(int slot, double peak, double seconds) {
+        if (!valid(slot) || !(seconds > 0)) return;
+        pulsePeak[slot] = Math.max(1.0, peak);
+        pulseT[slot] = 0;
+        pulseDuration[slot] = seconds;
+    }
+
+    /** Emissive strength (0..1) and tint. */
+    public void setEmission(int slot, double strength01, Color tint) {
+        if (!valid(slot)) return;
+        double s = Math.max(0, Math.min(1, strength01));
+        Color t = (tint != null) ? tint : emissionTint[slot];
+        if (s != emission[slot] || !t.equals(emissionTint[slot])) {
+            emission[slot] = s;
+            emissionTint[slot] = t;
+            paintDirty[slot] = true;
+        }
+    }
+
+    // ----------------------------
+    // PhysicsContributor (POST): advance animations, push changed slots
+    // ----------------------------
+
+    @Override
+    public void step(double dt) {
+        for (int s = 0; s < capacity; s++) {
+            if (fadeDuration[s] > 0) {
+                fadeT[s] += dt;
+                double t = Math.min(1.0, fadeT[s] / fadeDuration[s]);
+                color[s] = fadeFrom[s].interpolate(fadeTo[s], t);
+                if (t >= 1.0) fadeDuration[s] = 0;
+                paintDirty[s] = true;
+            }
+            if (pulseDuration[s] > 0) {
+                pulseT[s] += dt;
+                if (pulseT[s] >= pulseDuration[s]) pulseDuration[s] = 0;
+                if (visible[s]) geometryDirty[s] = true;
+            }
+            if (paintDirty[s]) {
+                paintDirty[s] = false;
+                paintSlot(s);
+            }
+            if (geometryDirty[s]) {
+                geometryDirty[s] = false;
+                writeSlot(s);
+                int o = s * vertsPerSlot * 3;
+                mesh.getPoints().set(o, points, o, vertsPerSlot * 3);
+            }
+        }
+    }
+
+    @Override
+    public PhysicsPhase getPhase() { return PhysicsPhase.POST; }
+
+    // ----------------------------
+    // Internals
+    // ----------------------------
+
+    private boolean valid(int slot) { return slot >= 0 && slot < capacity && used[slot]; }
+
+    /** Current radius scale from the pulse (ease out to the peak at half time, ease in back). */
+    private double pulseScale(int s) {
+        if (pulseDuration[s] <= 0) return 1.0;
+        double x = pulseT[s] / pulseDuration[s];
+        double w = (x < 0.5) ? 1.0 - (1.0 - 2 * x) * (1.0 - 2 * x) : 1.0 - (2 * x - 1.0) * (2 * x - 1.0);
+        return 1.0 + (pulsePeak[s] - 1.0) * w;
+    }
+
+    private void writeSlot(int s) {
+        int base = s * vertsPerSlot * 3;
+        int tubeEnd = base + rings * RADIAL * 3;
+        int o = s * rings, m = pathCount[s];
+        if (!visible[s] || m < 1) {
+            Arrays.fill(points, base, base + vertsPerSlot * 3, 0f);
+            return;
+        }
+        float r = (float) (radius[s] * pulseScale(s));
+        if (m == 1) {
+            pathX[o + 1] = pathX[o]; pathY[o + 1] = pathY[o]; pathZ[o + 1] = pathZ[o];
+            m = 2;
+        }
+        TubeMesh.writeRings(pathX, pathY, pathZ, o, m, rings, cos, sin, r, points, base);
+
+        int last = o + m - 1;
+        writeMarker(tubeEnd, showStart[s], pathX[o], pathY[o], pathZ[o], radius[s] * START_MARKER_SCALE);
+        writeMarker(tubeEnd + MARKER_VERTS * 3, showEnd[s], pathX[last], pathY[last], pathZ[last],
+                radius[s] * END_MARKER_SCALE);
+    }
+
+    private void writeMarker(int o, boolean show, double x, double y, double z, float size) {
+        float h = show ? size : 0f;
+        float cx = (float) x, cy = (float) y, cz = (float) z;
+        points[o]      = cx + h; points[o + 1]  = cy;     points[o + 2]  = cz;
+        points[o + 3]  = cx - h; points[o + 4]  = cy;     points[o + 5]  = cz;
+        points[o + 6]  = cx;     points[o + 7]  = cy + h; points[o + 8]  = cz;
+        points[o + 9]  = cx;     points[o + 10] = cy - h; points[o + 11] = cz;
+        points[o + 12] = cx;     points[o + 13] = cy;     points[o + 14] = cz + h;
+        points[o + 15] = cx;     points[o + 16] = cy;     points[o + 17] = cz - h;
+    }
+
+    private void paintSlot(int s) {
+        int x0 = (s + 1) * BLOCK;
+        ProceduralTetherMaterial.paintDiffuseBlock(block, 0, BLOCK, BLOCK, BLOCK, color[s]);
+        diffuseAtlas.getPixelWriter().setPixels(x0, 0, BLOCK, BLOCK, PixelFormat.getIntArgbPreInstance(), block, 0, BLOCK);
+        ProceduralTetherMaterial.paintEmissiveBlock(block, 0, BLOCK, BLOCK, BLOCK, emissionTint[s], emission[s]);
+        emissiveAtlas.getPixelWriter().setPixels(x0, 0, BLOCK, BLOCK, PixelFormat.getIntArgbPreInstance(), block, 0, BLOCK);
+    }
+
+    /** Block 0: left half start-marker green, right half end-marker red; no emission. */
+    private void paintMarkerBlock() {
+        int green = 0xFF32CD32, red = 0xFFFF0000;
+        for (int y = 0; y < BLOCK; y++) {
+            for (int x = 0; x < BLOCK; x++) block[y * BLOCK + x] = (x < BLOCK / 2) ? green : red;
+        }
+        diffuseAtlas.getPixelWriter().setPixels(0, 0, BLOCK, BLOCK, PixelFormat.getIntArgbPreInstance(), block, 0, BLOCK);
+        Arrays.fill(block, 0xFF000000);
+        emissiveAtlas.getPixelWriter().setPixels(0, 0, BLOCK, BLOCK, PixelFormat.getIntArgbPreInstance(), block, 0, BLOCK);
+    }
+
+    /** Every slot block gets the same ribs; block 0 (markers) stays flat. */
+    private void paintBumpAtlas(int slots) {
+        int w = (slots + 1) * BUMP_BLOCK;
+        int[] px = new int[w * BUMP_BLOCK];
+        Arrays.fill(px, 0xFF808080);
+        ProceduralTetherMaterial.paintBumpBlock(px, BUMP_BLOCK, w, BUMP_BLOCK, BUMP_BLOCK);
+        for (int s = 2; s <= slots; s++) {
+            for (int y = 0; y < BUMP_BLOCK; y++) {
+                System.arraycopy(px, y * w + BUMP_BLOCK, px, y * w + s * BUMP_BLOCK, BUMP_BLOCK);
+            }
+        }
+        bumpAtlas.getPixelWriter().setPixels(0, 0, w, BUMP_BLOCK, PixelFormat.getIntArgbInstance(), px, 0, w);
+    }
+
+    /** Faces, texture coordinates and smoothing groups are fixed; only points change afterwards. */
+    private void buildTopology() {
+        float atlasW = (capacity + 1) * BLOCK;
+        int texPerSlot = rings * (RADIAL + 1);
+
+        // Tex coords: per slot a (RADIAL + 1) x rings grid over its block (seam column duplicated), then 2 markers
+        float[] tex = new float[(capacity * texPerSlot + 2) * 2];
+        int t = 0;
+        for (int s = 0; s < capacity; s++) {
+            float u0 = (s + 1) * BLOCK + 0.5f;
+            for (int k = 0; k < rings; k++) {
+                float v = (0.5f + (BLOCK - 1) * (float) k / (rings - 1)) / BLOCK;
+                for (int i = 0; i <= RADIAL; i++) {
+                    tex[t++] = (u0 + (BLOCK - 1) * (float) i / RADIAL) / atlasW;
+                    tex[t++] = v;
+                }
+            }
+        }
+        int startTex = capacity * texPerSlot, endTex = startTex + 1;
+        tex[t++] = (BLOCK * 0.25f) / atlasW; tex[t++] = 0.5f;
+        tex[t++] = (BLOCK * 0.75f) / atlasW; tex[t] = 0.5f;
+
+        int tubeFaces = (rings - 1) * RADIAL * 2, facesPerSlot = tubeFaces + 2 * OCTA_FACES.length;
+        int[] faces = new int[capacity * facesPerSlot * 6];
+        int f = 0;
+        for (int s = 0; s < capacity; s++) {
+            int p = s * vertsPerSlot, tb = s * texPerSlot;
+            for (int q = 0; q < (rings - 1) * RADIAL; q++) {
+                int k = q / RADIAL, i = q % RADIAL, j = (i + 1) % RADIAL;
+                int p0 = p + k * RADIAL + i, p1 = p + k * RADIAL + j;
+                int p2 = p + (k + 1) * RADIAL + i, p3 = p + (k + 1) * RADIAL + j;
+                int t0 = tb + k * (RADIAL + 1) + i, t1 = t0 + 1;
+                int t2 = t0 + RADIAL + 1, t3 = t2 + 1;
+                // Same winding as TubeMesh
+                faces[f++] = p0; faces[f++] = t0; faces[f++] = p2; faces[f++] = t2; faces[f++] = p1; faces[f++] = t1;
+                faces[f++] = p1; faces[f++] = t1; faces[f++] = p2; faces[f++] = t2; faces[f++] = p3; faces[f++] = t3;
+            }
+            int m0 = p + rings * RADIAL;
+            for (int[] tri : OCTA_FACES) {
+                for (int v : tri) { faces[f++] = m0 + v; faces[f++] = startTex; }
+            }
+            int m1 = m0 + MARKER_VERTS;
+            for (int[] tri : OCTA_FACES) {
+                for (int v : tri) { faces[f++] = m1 + v; faces[f++] = endTex; }
+            }
+        }
+
+        int[] smoothing = new int[capacity * facesPerSlot];
+        for (int s = 0; s < capacity; s++) {
+            int o = s * facesPerSlot;
+            Arrays.fill(smoothing, o, o + tubeFaces, 1);            // smooth tube
+            Arrays.fill(smoothing, o + tubeFaces, o + facesPerSlot, 0); // faceted markers
+        }
+
+        mesh.getPoints().setAll(points);
+        mesh.getTexCoords().setAll(tex);
+        mesh.getFaces().setAll(faces);
+        mesh.getFaceSmoothingGroups().setAll(smoothing);
+    }
+}
@@ -0,0 +1,144 @@
+package AsteroidField.tether;
+
+import java.util.Arrays;
+
+/**
+ * Position-based rope: N segments of Verlet particles held by distance constraints.
+ *
+ * - Particles live in flat SoA arrays (x/y/z current, px/py/pz previous); stepping allocates nothing
+ * - Particle 0 is pinned to the emitter and the last one to the anchor; both are moved kinematically
+ * - Constraints are one-sided (rope, not rod): a segment only pulls when longer than its rest length
+ * - The rope carries shape, not tension: when the tether is stretched past its rest length the constraint
+ *   length only shrinks a little per step toward it, so a taut rope tightens onto obstacles instead of
+ *   being dragged through them by the pinned ends (the tether's spring acts on pathLength())
+ * - Collision against the field is resolved by TetherRopeSystem, which batches every rope's particle
+ *   motion into one RaycastWorld packet per step and the chords between neighbouring particles into a
+ *   second one (chords cutting through a rock are lifted off it, particles found inside are pushed out)
+ *
+ * Coordinates are those of the owning tether's parent (the RaycastWorld space in Game3DView).
+ */
+public final class TetherRope {
+
+    final int count;                    // particles = segments + 1
+    final double[] x, y, z;
+    final double[] px, py, pz;
+    final double[] w;                   // inverse mass, 0 = pinned
+    final int[] movedPass;              // TetherRopeSystem chord pass that last moved each particle
+
+    private double restLength = 1.0;
+    private boolean active = false;
+    private boolean collide = true;
+
+    public TetherRope(int segments) {
+        this.count = Math.max(2, segments) + 1;
+        x = new double[count]; y = new double[count]; z = new double[count];
+        px = new double[count]; py = new double[count]; pz = new double[count];
+        w = new double[count];
+        movedPass = new int[count];
+        Arrays.fill(w, 1.0);
+        w[0] = 0.0;
+        w[count - 1] = 0.0;
+    }
+
+    public int particleCount() { return count; }
+    public int segmentCount() { return count - 1; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    /** Whether particles collide with the RaycastWorld (requires rope coordinates == world space). */
+    public boolean isCollide() { return collide; }
+    public void setCollide(boolean collide) { this.collide = collide; }
+
+    /** Lay the rope straight from a to b at rest (both previous and current positions). */
+    public void reset(double ax, double ay, double az, double bx, double by, double bz) {
+        int last = count - 1;
+        for (int i = 0; i < count; i++) {
+            double s = (double) i / last;
+            x[i] = px[i] = ax + (bx - ax) * s;
+            y[i] = py[i] = ay + (by - ay) * s;
+            z[i] = pz[i] = az + (bz - az) * s;
+        }
+    }
+
+    /** Move the pinned ends (emitter, anchor). */
+    public void setEnds(double ax, double ay, double az, double bx, double by, double bz) {
+        int last = count - 1;
+        x[0] = px[0] = ax; y[0] = py[0] = ay; z[0] = pz[0] = az;
+        x[last] = px[last] = bx; y[last] = py[last] = by; z[last] = pz[last] = bz;
+    }
+
+    /** Total rest length, spread evenly over the segments. */
+    public void setRestLength(double length) { restLength = Math.max(1e-6, length); }
+    public double getRestLength() { return restLength; }
+
+    // ----------------------------
+    // Simulation (called by TetherRopeSystem)
+    // ----------------------------
+
+    /** Verlet step without external forces; damping is the per-step velocity retention (0..1). */
+    void integrate(double damping) {
+        for (int i = 0; i < count; i++) {
+            if (w[i] == 0.0) continue;
+            double vx = (x[i] - px[i]) * damping, vy = (y[i] - py[i]) * damping, vz = (z[i] - pz[i]) * damping;
+            px[i] = x[i]; py[i] = y[i]; pz[i] = z[i];
+            x[i] += vx; y[i] += vy; z[i] += vz;
+        }
+    }
+
+    /**
+     * Gauss-Seidel passes over the one-sided distance constraints. tighten (0..1] is the fraction of the
+     * current path length the constraints may shrink to in this step when the rope is stretched.
+     */
+    void solve(int iterations, double tighten) {
+        double rest = Math.max(restLength, pathLength() * tighten) / (count - 1);
+        for (int it = 0; it < iterations; it++) {
+            for (int i = 0; i < count - 1; i++) {
+                int j = i + 1;
+                double wi = w[i], wj = w[j], ws = wi + wj;
+                if (ws == 0.0) continue;
+                double dx = x[j] - x[i], dy = y[j] - y[i], dz = z[j] - z[i];
+                double d2 = dx * dx + dy * dy + dz * dz;
+                if (d2 <= rest * rest) continue;
+                double d = Math.sqrt(d2);
+                double k = (d - rest) / (d * ws);
+                x[i] += dx * k * wi; y[i] += dy * k * wi; z[i] += dz * k * wi;
+                x[j] -= dx * k * wj; y[j] -= dy * k * wj; z[j] -= dz * k * wj;
+            }
+        }
+    }
+
+    // ----------------------------
+    // Queries
+    // ----------------------------
+
+    /** Length along the particles (>= the straight emitter-anchor distance when wrapped). */
+    public double pathLength() {
+        double len = 0;
+        for (int i = 0; i < count - 1; i++) {
+            double dx = x[i + 1] - x[i], dy = y[i + 1] - y[i], dz = z[i + 1] - z[i];
+            len += Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        return len;
+    }
+
+    /**
+     * Writes the unit direction from the emitter toward the first particle that is not on top of it into
+     * out[0..2] (the direction the rope pulls the craft). Returns false if the rope is collapsed.
+     */
+    public boolean pullDirection(double[] out) {
+        for (int i = 1; i < count; i++) {
+            double dx = x[i] - x[0], dy = y[i] - y[0], dz = z[i] - z[0];
+            double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (d > 1e-6) {
+                out[0] = dx / d; out[1] = dy / d; out[2] = dz / d;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double x(int i) { return x[i]; }
+    public double y(int i) { return y[i]; }
+    public double z(int i) { return z[i]; }
+}
@@ -0,0 +1,221 @@
+package AsteroidField.tether;
+
+import AsteroidField.physics.PhysicsContributor;
+import AsteroidField.physics.PhysicsPhase;
+import AsteroidField.runtime.RayPacket;
+import AsteroidField.runtime.RaycastWorld;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Steps every active TetherRope once per physics step (FORCE phase, before the tethers read them).
+ *
+ * - Verlet integrate, then a few constraint passes per rope
+ * - Collision: each free particle's motion this step (previous -> current position) goes into one shared
+ *   RayPacket; a front-face hit puts the particle back on the surface (plus skin) and keeps only its
+ *   tangential velocity, so ropes slide around and wrap asteroids instead of cutting through them
+ * - Chords: every segment is then cast both ways (both faces) in a second packet. A back face seen first
+ *   from one end means that particle is inside a rock: it is moved to the exit point plus skin. Front faces
+ *   from both ends mean the chord cuts through a rock between two outside particles: the free ends move
+ *   out along the mean surface normal by the depth of that cut (exact for a sphere). A lift moves the
+ *   neighbouring chords too, so 'chordPasses' passes run per step; later passes re-cast only the chords
+ *   next to a particle the previous pass moved
+ * - No allocation per step: ropes keep SoA arrays, the packet and index scratch are reused
+ */
+public final class TetherRopeSystem implements PhysicsContributor {
+
+    private final RaycastWorld raycastWorld;
+    private final List<TetherRope> ropes = new ArrayList<>();
+
+    // Tuning
+    private int iterations = 8;
+    private double damping = 0.98;     // velocity retained per step
+    private double tighten = 0.98;     // a stretched rope shortens by at most 2% per step
+    private double skin = 1.5;         // surface offset for collided particles (rope radius + margin)
+    private double friction = 0.1;     // tangential velocity lost on contact
+    private double minMove = 1e-4;     // particles moving less than this skip the collision query
+    private int chordPasses = 3;       // segment-vs-world passes per step
+
+    // Collision scratch: packet ray -> rope index / particle index
+    private final RayPacket packet = new RayPacket(64);
+    private int[] rayRope = new int[64];
+    private int[] rayParticle = new int[64];
+    private int chordPass = 0;         // running pass stamp, compared with TetherRope.movedPass
+
+    public TetherRopeSystem(RaycastWorld raycastWorld) {
+        this.raycastWorld = raycastWorld;
+    }
+
+    public void add(TetherRope rope) { if (rope != null && !ropes.contains(rope)) ropes.add(rope); }
+    public void remove(TetherRope rope) { ropes.remove(rope); }
+    public int size() { return ropes.size(); }
+
+    public void setIterations(int n) { iterations = Math.max(1, n); }
+    public void setDamping(double d) { damping = Math.max(0, Math.min(1, d)); }
+    public void setSkin(double s) { skin = Math.max(0, s); }
+    public void setFriction(double f) { friction = Math.max(0, Math.min(1, f)); }
+    public void setTighten(double f) { tighten = Math.max(0.5, Math.min(1, f)); }
+    public void setChordPasses(int n) { chordPasses = Math.max(0, n); }
+    public int getIterations() { return iterations; }
+    public double getDamping() { return damping; }
+    public double getSkin() { return skin; }
+    public double getFriction() { return friction; }
+    public double getTighten() { return tighten; }
+    public int getChordPasses() { return chordPasses; }
+
+    @Override
+    public void step(double dt) {
+        sweepParticles();
+        for (int pass = 0; pass < chordPasses; pass++) resolveChords(pass == 0);
+    }
+
+    /** Particle motion this step vs the world; front-face hits put the particle back on the surface. */
+    private void sweepParticles() {
+        packet.clear();
+        double min2 = minMove * minMove;
+        for (int r = 0; r < ropes.size(); r++) {
+            TetherRope rope = ropes.get(r);
+            if (!rope.isActive()) continue;
+            rope.integrate(damping);
+            rope.solve(iterations, tighten);
+            if (!rope.isCollide()) continue;
+            for (int i = 0; i < rope.count; i++) {
+                if (rope.w[i] == 0.0) continue;
+                double dx = rope.x[i] - rope.px[i], dy = rope.y[i] - rope.py[i], dz = rope.z[i] - rope.pz[i];
+                if (dx * dx + dy * dy + dz * dz < min2) continue;
+                int k = packet.add(rope.px[i], rope.py[i], rope.pz[i], rope.x[i], rope.y[i], rope.z[i]);
+                if (k >= rayRope.length) {
+                    rayRope = Arrays.copyOf(rayRope, k * 2);
+                    rayParticle = Arrays.copyOf(rayParticle, k * 2);
+                }
+                rayRope[k] = r;
+                rayParticle[k] = i;
+            }
+        }
+        if (packet.size() == 0) return;
+
+        raycastWorld.segmentFirstHits(packet, RaycastWorld.FaceMode.FRONT, 0.0, false);
+        for (int k = 0; k < packet.size(); k++) {
+            if (!packet.hasNormal(k)) continue;
+            TetherRope rope = ropes.get(rayRope[k]);
+            int i = rayParticle[k];
+            double nx = packet.normalX(k), ny = packet.normalY(k), nz = packet.normalZ(k);
+
+            // Velocity this step, minus its normal component (and some friction)
+            double vx = rope.x[i] - rope.px[i], vy = rope.y[i] - rope.py[i], vz = rope.z[i] - rope.pz[i];
+            double vn = vx * nx + vy * ny + vz * nz;
+            double keep = 1.0 - friction;
+            vx = (vx - vn * nx) * keep; vy = (vy - vn * ny) * keep; vz = (vz - vn * nz) * keep;
+
+            rope.x[i] = packet.pointX(k) + nx * skin;
+            rope.y[i] = packet.pointY(k) + ny * skin;
+            rope.z[i] = packet.pointZ(k) + nz * skin;
+            rope.px[i] = rope.x[i] - vx;
+            rope.py[i] = rope.y[i] - vy;
+            rope.pz[i] = rope.z[i] - vz;
+        }
+    }
+
+    /**
+     * Segment pass: rays 2k (i -> i + 1) and 2k + 1 (i + 1 -> i) for segment k, see the class notes. Unless
+     * all is set, only chords with an end moved by the previous pass are cast.
+     */
+    private void resolveChords(boolean all) {
+        int prev = chordPass++;
+        packet.clear();
+        double min2 = minMove * minMove;
+        for (int r = 0; r < ropes.size(); r++) {
+            TetherRope rope = ropes.get(r);
+            if (!rope.isActive() || !rope.isCollide()) continue;
+            for (int i = 0; i < rope.count - 1; i++) {
+                int j = i + 1;
+                if (rope.w[i] == 0.0 && rope.w[j] == 0.0) continue;
+                if (!all && rope.movedPass[i] != prev && rope.movedPass[j] != prev) continue;
+                double dx = rope.x[j] - rope.x[i], dy = rope.y[j] - rope.y[i], dz = rope.z[j] - rope.z[i];
+                if (dx * dx + dy * dy + dz * dz < min2) continue;
+                int k = packet.add(rope.x[i], rope.y[i], rope.z[i], rope.x[j], rope.y[j], rope.z[j]);
+                packet.add(rope.x[j], rope.y[j], rope.z[j], rope.x[i], rope.y[i], rope.z[i]);
+                if (k + 1 >= rayRope.length) {
+                    rayRope = Arrays.copyOf(rayRope, (k + 1) * 2);
+                    rayParticle = Arrays.copyOf(rayParticle, (k + 1) * 2);
+                }
+                rayRope[k] = r;
+                rayParticle[k] = i;
+            }
+        }
+        if (packet.size() == 0) return;
+
+        raycastWorld.segmentFirstHits(packet, RaycastWorld.FaceMode.BOTH, 0.0, false);
+        for (int k = 0; k < packet.size(); k += 2) {
+            boolean fwd = packet.hasNormal(k), back = packet.hasNormal(k + 1);
+            if (!fwd && !back) continue;
+            TetherRope rope = ropes.get(rayRope[k]);
+            int i = rayParticle[k], j = i + 1;
+            double cx = rope.x[j] - rope.x[i], cy = rope.y[j] - rope.y[i], cz = rope.z[j] - rope.z[i];
+
+            // First surface is a back face: that end is inside
+            boolean insideI = fwd && packet.normalX(k) * cx + packet.normalY(k) * cy + packet.normalZ(k) * cz > 0;
+            boolean insideJ = back && packet.normalX(k + 1) * cx + packet.normalY(k + 1) * cy + packet.normalZ(k + 1) * cz < 0;
+            if (insideI) pushOut(rope, i, k);
+            if (insideJ) pushOut(rope, j, k + 1);
+            if (insideI || insideJ || !fwd || !back) continue;
+
+            liftChord(rope, i, j, k, cx, cy, cz);
+        }
+    }
+
+    /** Move particle i to the surface hit of packet ray k plus skin, keeping its velocity. */
+    private void pushOut(TetherRope rope, int i, int k) {
+        if (rope.w[i] == 0.0) return;
+        double mx = packet.pointX(k) + packet.normalX(k) * skin - rope.x[i];
+        double my = packet.pointY(k) + packet.normalY(k) * skin - rope.y[i];
+        double mz = packet.pointZ(k) + packet.normalZ(k) * skin - rope.z[i];
+        translate(rope, i, mx, my, mz);
+    }
+
+    /**
+     * Chord i -> j enters a rock at ray k's hit and leaves at ray k + 1's. Both free ends move along the mean
+     * of the two normals (made perpendicular to the chord) by the cut depth: for a sphere, with theta the angle
+     * between an entry normal and that direction, depth = half the inside length * tan(theta / 2).
+     */
+    private void liftChord(TetherRope rope, int i, int j, int k, double cx, double cy, double cz) {
+        double c2 = cx * cx + cy * cy + cz * cz;
+        double ax = packet.normalX(k), ay = packet.normalY(k), az = packet.normalZ(k);
+        double nx = ax + packet.normalX(k + 1), ny = ay + packet.normalY(k + 1), nz = az + packet.normalZ(k + 1);
+        double along = (nx * cx + ny * cy + nz * cz) / c2;
+        nx -= cx * along; ny -= cy * along; nz -= cz * along;
+        double n = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (n < 1e-9) {
+            // Straight through the middle: any direction perpendicular to the chord
+            if (Math.abs(cx) < Math.abs(cy)) { nx = 0; ny = cz; nz = -cy; } else { nx = cz; ny = 0; nz = -cx; }
+            n = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (n < 1e-9) return;
+        }
+        nx /= n; ny /= n; nz /= n;
+
+        double ix = packet.pointX(k + 1) - packet.pointX(k);
+        double iy = packet.pointY(k + 1) - packet.pointY(k);
+        double iz = packet.pointZ(k + 1) - packet.pointZ(k);
+        double cos = Math.max(0.0, Math.min(1.0, ax * nx + ay * ny + az * nz));
+        double theta = Math.acos(cos);
+        double lift = 0.5 * Math.sqrt(ix * ix + iy * iy + iz * iz) * Math.tan(theta * 0.5) + skin;
+        translate(rope, i, nx * lift, ny * lift, nz * lift);
+        translate(rope, j, nx * lift, ny * lift, nz * lift);
+    }
+
+    /** Position correction without a velocity change (previous position moves along). */
+    private void translate(TetherRope rope, int i, double mx, double my, double mz) {
+        if (rope.w[i] == 0.0) return;
+        rope.movedPass[i] = chordPass;
+        rope.x[i] += mx; rope.y[i] += my; rope.z[i] += mz;
+        rope.px[i] += mx; rope.py[i] += my; rope.pz[i] += mz;
+    }
+
+    @Override
+    public PhysicsPhase getPhase() { return PhysicsPhase.FORCE; }
+
+    /** Before TetherController (10), which reads rope length and pull direction. */
+    @Override
+    public int getPriority() { return 9; }
+}
@@ -1,6 +1,7 @@
 package AsteroidField.tether;
 
 import javafx.geometry.Insets;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
@@ -35,6 +36,9 @@ public final class TetherTuningUI {
         Spinner<Double> spSlack = dblSpinner(0.0,  0.2,   slack0,0.005);
         Spinner<Double> spZPerp = dblSpinner(0.0,  1.0,   zPerp0,0.01);
 
+        CheckBox cbRope = new CheckBox("Rope (wraps asteroids)");
+        cbRope.setSelected(t0 != null && t0.isRopeEnabled());
+
         box.getChildren().addAll(
             new Label("Tethers — Physics"),
             labeled("Stiffness k (N/m)", spK),
@@ -42,7 +46,8 @@ public final class TetherTuningUI {
             labeled("Reel rate (units/s)", spReel),
             labeled("Max force (N)", spFmax),
             labeled("Slack epsilon", spSlack),
-            labeled("Perp damping ζ⊥", spZPerp)
+            labeled("Perp damping ζ⊥", spZPerp),
+            cbRope
         );
 
         // Apply changes to ALL tethers
@@ -52,6 +57,7 @@ public final class TetherTuningUI {
         spFmax.valueProperty().addListener((o, ov, nv) -> forAll(controller, t -> t.setMaxForce(          safe(nv, 900))));
         spSlack.valueProperty().addListener((o, ov, nv) -> forAll(controller, t -> t.setSlackEps(   clamp(safe(nv, 0.02), 0, 1))));
         spZPerp.valueProperty().addListener((o, ov, nv) -> forAll(controller, t -> t.setPerpDampingRatio( clamp(safe(nv, 0.15), 0, 1))));
+        cbRope.selectedProperty().addListener((o, ov, nv) -> controller.setRopeEnabled(nv));
 
         return box;
     }
@@ -5,33 +5,58 @@ import javafx.scene.shape.TriangleMesh;
 /**
  * A simple tube (cylinder without caps) oriented along +Y.
  * Base at y=0, top at y=1. Scale Y to set length.
+ *
+ * With more than two rings it is a polyline tube: setPath(...) bends it through a list of points
+ * (parallel-transport ring frames), rewriting the point buffer in place with no allocation.
  */
 public class TubeMesh extends TriangleMesh {
 
+    private final int radial;
+    private final int rings;
+    private float radius;
+
+    // setPath scratch: ring trig table and the point buffer written with one set(...) call
+    private final float[] cos, sin;
+    private final float[] scratch;
+
     public TubeMesh(int radialDivisions, float radius) {
+        this(radialDivisions, radius, 2);
+    }
+
+    /** Tube with 'rings' rings (>= 2), laid straight along +Y until setPath is called. */
+    public TubeMesh(int radialDivisions, float radius, int rings) {
         super();
         if (radialDivisions < 3) radialDivisions = 3;
-        build(radialDivisions, radius);
+        this.radial = radialDivisions;
+        this.rings = Math.max(2, rings);
+        this.radius = radius;
+        this.cos = new float[radial];
+        this.sin = new float[radial];
+        for (int i = 0; i < radial; i++) {
+            double theta = 2.0 * Math.PI * i / radial;
+            cos[i] = (float) Math.cos(theta);
+            sin[i] = (float) Math.sin(theta);
+        }
+        this.scratch = new float[radial * this.rings * 3];
+        build(radial, radius, this.rings);
     }
 
-    private void build(int n, float r) {
-        float y0 = 0f, y1 = 1f;
-
-        // Points: bottom ring (y0), top ring (y1)
-        float[] points = new float[n * 3 * 2];
-        for (int i = 0; i < n; i++) {
-            double theta = 2.0 * Math.PI * i / n;
-            float x = (float) (r * Math.cos(theta));
-            float z = (float) (r * Math.sin(theta));
-            // bottom
-            points[i * 3 + 0] = x;
-            points[i * 3 + 1] = y0;
-            points[i * 3 + 2] = z;
-            // top
-            int ti = n + i;
-            points[ti * 3 + 0] = x;
-            points[ti * 3 + 1] = y1;
-            points[ti * 3 + 2] = z;
+    public int getRings() { return rings; }
+    public float getRadius() { return radius; }
+    /** Takes effect on the next setPath. */
+    public void setRadius(float radius) { this.radius = radius; }
+
+    private void build(int n, float r, int ringCount) {
+        // Points: ring k at y = k / (ringCount - 1)
+        float[] points = new float[n * 3 * ringCount];
+        for (int k = 0; k < ringCount; k++) {
+            float y = (float) k / (ringCount - 1);
+            for (int i = 0; i < n; i++) {
+                int pi = (k * n + i) * 3;
+                points[pi + 0] = r * cos[i];
+                points[pi + 1] = y;
+                points[pi + 2] = r * sin[i];
+            }
         }
         getPoints().setAll(points);
 
@@ -39,14 +64,15 @@ public class TubeMesh extends TriangleMesh {
         getTexCoords().addAll(0, 0);
 
         // Faces (two triangles per quad)
-        int[] faces = new int[n * 2 * 6];
+        int[] faces = new int[n * 2 * 6 * (ringCount - 1)];
         int f = 0;
-        for (int i = 0; i < n; i++) {
+        for (int q = 0; q < n * (ringCount - 1); q++) {
+            int k = q / n, i = q % n;
             int j = (i + 1) % n;
-            int p0 = i;
-            int p1 = j;
-            int p2 = n + i;
-            int p3 = n + j;
+            int p0 = k * n + i;
+            int p1 = k * n + j;
+            int p2 = (k + 1) * n + i;
+            int p3 = (k + 1) * n + j;
 
             // tri 1: p0, p2, p1
             faces[f++] = p0; faces[f++] = 0;
@@ -61,8 +87,65 @@ public class TubeMesh extends TriangleMesh {
         getFaces().setAll(faces);
 
         // Smoothing groups
-        int[] sm = new int[n * 2];
+        int[] sm = new int[n * 2 * (ringCount - 1)];
         for (int i = 0; i < sm.length; i++) sm[i] = 1;
         getFaceSmoothingGroups().setAll(sm);
     }
-}
\ No newline at end of file
+
+    /**
+     * Bend the tube through points (xs[i], ys[i], zs[i]), i < count. Rings past count collapse onto the
+     * last point; points past the ring count are ignored. Ring frames are parallel-transported along the
+     * path, so the tube does not twist.
+     */
+    public void setPath(double[] xs, double[] ys, double[] zs, int count) {
+        writeRings(xs, ys, zs, 0, count, rings, cos, sin, radius, scratch, 0);
+        getPoints().set(0, scratch, 0, scratch.length);
+    }
+
+    /**
+     * Ring points for the path xs/ys/zs[from, from + count) (see setPath) into out[offset...]:
+     * rings * cos.length points, ring-major. Shared with TetherRenderer, which packs many tubes into one buffer.
+     */
+    static void writeRings(double[] xs, double[] ys, double[] zs, int from, int count, int rings,
+                           float[] cos, float[] sin, float r, float[] out, int offset) {
+        int radial = cos.length;
+        int m = Math.max(1, Math.min(count, rings));
+        // Initial normal: any unit vector perpendicular to the first tangent
+        double ux = 0, uy = 0, uz = 0;
+        boolean haveU = false;
+        for (int k = 0; k < rings; k++) {
+            int c = Math.min(k, m - 1);
+            int a = from + Math.max(0, c - 1), b = from + Math.min(m - 1, c + 1);
+            c += from;
+            double tx = xs[b] - xs[a], ty = ys[b] - ys[a], tz = zs[b] - zs[a];
+            double tl = Math.sqrt(tx * tx + ty * ty + tz * tz);
+            if (tl > 1e-12) { tx /= tl; ty /= tl; tz /= tl; } else { tx = 0; ty = 1; tz = 0; }
+
+            if (!haveU) {
+                // Seed with the axis least aligned with the tangent
+                if (Math.abs(tx) < 0.9) { ux = 1; uy = 0; uz = 0; } else { ux = 0; uy = 1; uz = 0; }
+                haveU = true;
+            }
+            // Transport: remove the tangent component of the previous normal
+            double d = ux * tx + uy * ty + uz * tz;
+            ux -= d * tx; uy -= d * ty; uz -= d * tz;
+            double ul = Math.sqrt(ux * ux + uy * uy + uz * uz);
+            if (ul < 1e-9) {
+                if (Math.abs(tx) < 0.9) { ux = 0; uy = -tz; uz = ty; } else { ux = -tz; uy = 0; uz = tx; }
+                ul = Math.sqrt(ux * ux + uy * uy + uz * uz);
+            }
+            ux /= ul; uy /= ul; uz /= ul;
+            // v = u x t keeps (u, t, v) oriented like the straight tube's (X, Y, Z)
+            double vx = uy * tz - uz * ty, vy = uz * tx - ux * tz, vz = ux * ty - uy * tx;
+
+            double px = xs[c], py = ys[c], pz = zs[c];
+            int o = offset + k * radial * 3;
+            for (int i = 0; i < radial; i++) {
+                double cs = r * cos[i], sn = r * sin[i];
+                out[o++] = (float) (px + ux * cs + vx * sn);
+                out[o++] = (float) (py + uy * cs + vy * sn);
+                out[o++] = (float) (pz + uz * cs + vz * sn);
+            }
+        }
+    }
+}
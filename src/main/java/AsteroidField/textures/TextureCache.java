@@ -0,0 +1,147 @@
+package AsteroidField.textures;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shared, memory-bounded cache for generated images (procedural material maps, star atlases, cube faces).
+ *
+ * - Entries are charged width x height x 4 bytes (what the texture costs as 32-bit pixels)
+ * - Least-recently-used entries are dropped once the total exceeds the budget; the entry just produced is
+ *   always kept, so one image larger than the whole budget still works (it is simply evicted next)
+ * - Keys are value objects (records, List.of(...)) chosen by each producer; prefix them per producer so two
+ *   producers never collide
+ * - Producers run outside the lock: a slow atlas build does not block lookups from other threads; if two
+ *   threads miss the same key concurrently, the first result stored wins
+ * - Eviction only drops the cache's reference. An image still set on a material stays alive until that
+ *   material lets go of it, so the budget bounds what the cache retains, not every live texture
+ * - Images that are edited in place (the editor's DiffuseMapPainter targets) are owned by their material and
+ *   never go through the cache; sharing them would leak one material's strokes into another
+ *
+ * Producers use shared(); hits/misses/evictions and the byte total are exposed for tuning via stats().
+ */
+public final class TextureCache {
+
+    public static final long DEFAULT_BUDGET_BYTES = 256L * 1024 * 1024;
+
+    private static final TextureCache SHARED = new TextureCache(DEFAULT_BUDGET_BYTES);
+
+    /** The process-wide cache every procedural image producer routes through. */
+    public static TextureCache shared() { return SHARED; }
+
+    /** Snapshot of the counters. */
+    public record Stats(long hits, long misses, long evictions, long bytes, long budgetBytes, int entries) {
+        public double hitRate() {
+            long n = hits + misses;
+            return (n == 0) ? 0.0 : hits / (double) n;
+        }
+        @Override public String toString() {
+            return String.format("TextureCache[%d entries, %.1f/%.1f MB, hits=%d misses=%d evictions=%d (%.0f%% hit)]",
+                    entries, bytes / 1048576.0, budgetBytes / 1048576.0, hits, misses, evictions, hitRate() * 100);
+        }
+    }
+
+    private static final class Entry {
+        final Image image;
+        final long bytes;
+        Entry(Image image, long bytes) { this.image = image; this.bytes = bytes; }
+    }
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long budgetBytes;
+    private long bytes;
+    private long hits, misses, evictions;
+
+    public TextureCache(long budgetBytes) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+    }
+
+    /**
+     * The image cached under key, or producer's result (stored, then over-budget LRU entries evicted).
+     * A null result is returned but not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Image> T get(Object key, Supplier<T> producer) {
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                hits++;
+                return (T) e.image;
+            }
+            misses++;
+        }
+        T img = producer.get();
+        if (img == null) return null;
+        synchronized (this) {
+            Entry raced = entries.get(key);
+            if (raced != null) return (T) raced.image;
+            Entry e = new Entry(img, bytesOf(img));
+            entries.put(key, e);
+            bytes += e.bytes;
+            trim();
+        }
+        return img;
+    }
+
+    /** The cached image for key (counts as a use, not as a hit), or null; never produces. */
+    public synchronized Image peek(Object key) {
+        Entry e = entries.get(key);
+        return (e == null) ? null : e.image;
+    }
+
+    public synchronized boolean contains(Object key) { return entries.containsKey(key); }
+
+    /** Drop one entry (e.g. after the producer's inputs changed in place). */
+    public synchronized void invalidate(Object key) {
+        Entry e = entries.remove(key);
+        if (e != null) bytes -= e.bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /** New budget in bytes; shrinking it evicts immediately. */
+    public synchronized void setBudgetBytes(long budget) {
+        budgetBytes = Math.max(0, budget);
+        trim();
+    }
+
+    public synchronized long getBudgetBytes() { return budgetBytes; }
+    public synchronized long getBytes() { return bytes; }
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, bytes, budgetBytes, entries.size());
+    }
+
+    public synchronized void resetStats() {
+        hits = misses = evictions = 0;
+    }
+
+    /** Bytes an image is charged: width x height x 4. */
+    public static long bytesOf(Image img) {
+        return (long) Math.ceil(img.getWidth()) * (long) Math.ceil(img.getHeight()) * 4L;
+    }
+
+    // Evict LRU entries until within budget, keeping at least the most recent one
+    private void trim() {
+        Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+        while (bytes > budgetBytes && entries.size() > 1 && it.hasNext()) {
+            Entry e = it.next().getValue();
+            it.remove();
+            bytes -= e.bytes;
+            evictions++;
+        }
+    }
+}
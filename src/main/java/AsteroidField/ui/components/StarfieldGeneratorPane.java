@@ -1,6 +1,7 @@
 package AsteroidField.ui.components;
 
 import AsteroidField.ui.scene3d.StarAtlasGenerator;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -12,6 +13,9 @@ import javafx.scene.paint.Color;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleConsumer;
 
 public class StarfieldGeneratorPane extends BorderPane {
@@ -20,6 +24,14 @@ public class StarfieldGeneratorPane extends BorderPane {
     private final ImageView preview = new ImageView();
     private final Random rng = new Random();
 
+    // RASTER renders run here, off the FX thread; only the newest request is rendered and shown
+    private final ExecutorService renderExec = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "star-atlas-render");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong renderGen = new AtomicLong();
+
     private CheckBox autoToggle;
 
     // ----- 4:3 Presets up to 8K (8192×6144) -----
@@ -122,8 +134,22 @@ public StarfieldGeneratorPane() {
     public StarAtlasGenerator.Faces getFaces() { return StarAtlasGenerator.generateFaces(params); }
 
     public void regenerate() {
-        WritableImage atlas = StarAtlasGenerator.generate(params);
-        preview.setImage(atlas);
+        if (params.backend != StarAtlasGenerator.Backend.RASTER) {
+            preview.setImage(StarAtlasGenerator.generate(params)); // Canvas backend: FX thread
+            return;
+        }
+        // Raster backend: render a snapshot of the params in the background; a newer request supersedes it
+        long gen = renderGen.incrementAndGet();
+        StarAtlasGenerator.Params snap = params.copy();
+        renderExec.submit(() -> {
+            if (gen != renderGen.get()) return;
+            try {
+                WritableImage atlas = StarAtlasGenerator.generate(snap);
+                Platform.runLater(() -> { if (gen == renderGen.get()) preview.setImage(atlas); });
+            } catch (RuntimeException ex) {
+                Platform.runLater(() -> showError("Star atlas generation failed: " + ex.getMessage()));
+            }
+        });
         // Sizing handled by bindings
     }
 
@@ -289,6 +315,21 @@ public StarfieldGeneratorPane() {
         cbStrict.selectedProperty().addListener((o,ov,nv)-> { params.strictCrossMask = nv; regenIfAuto(); });
         g.add(cbStrict, 0, row++, 5, 1);
 
+        // --- Renderer ---
+        CheckBox cbRaster = new CheckBox("CPU raster renderer (parallel, off the UI thread)");
+        cbRaster.setSelected(params.backend == StarAtlasGenerator.Backend.RASTER);
+        cbRaster.selectedProperty().addListener((o,ov,nv)-> {
+            params.backend = nv ? StarAtlasGenerator.Backend.RASTER : StarAtlasGenerator.Backend.CANVAS;
+            regenIfAuto();
+        });
+        g.add(cbRaster, 0, row++, 5, 1);
+
+        // Faces only: the preview atlas is unaffected, so no regen
+        CheckBox cbDirect = new CheckBox("Direct faces (sample each face by direction; export streams to PNG)");
+        cbDirect.setSelected(params.directFaces);
+        cbDirect.selectedProperty().addListener((o,ov,nv)-> params.directFaces = nv);
+        g.add(cbDirect, 0, row++, 5, 1);
+
         // --- Zoom control (preview only) ---
         Label zoomLabel = new Label("Zoom:");
         Slider zoomSlider = new Slider(0.25, 3.0, 1.0);
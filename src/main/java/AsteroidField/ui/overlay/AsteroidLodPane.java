@@ -14,7 +14,8 @@ import java.util.function.Supplier;
 /**
  * Floating LOD debug/tuning pane for asteroids.
  * - Extends LitPathPane so it can live in your overlay "desktop".
- * - Exposes the usual knobs: enable, near/mid distances, hysteresis, budget, forward cone, tint-by-tier.
+ * - Exposes the usual knobs: enable, near/mid/far distances, hysteresis, budget, forward cone, tint-by-tier,
+ *   the impostor tier (LOD3) toggles and static cell batching.
  * - Displays a live stats string supplied by the caller (keeps this class decoupled from manager internals).
  *
  * Usage:
@@ -28,14 +29,19 @@ public class AsteroidLodPane extends LitPathPane {
     private final CheckBox enabledChk = new CheckBox("Enable LOD");
     private final Slider nearS = new Slider(200, 12000, 2000);
     private final Slider midS  = new Slider(500, 20000, 6000);
+    private final Slider farS  = new Slider(1000, 60000, 12000);
     private final Slider hystS = new Slider(0.0, 0.6, 0.20);
     private final Slider budgetS = new Slider(10, 1000, 240);
     private final Slider coneS = new Slider(0, 180, 160);
     private final CheckBox tintChk = new CheckBox("Tint by tier (debug)");
     private final CheckBox onScreenOnlyChk = new CheckBox("On-screen only");
+    private final CheckBox impostorChk = new CheckBox("Impostors (LOD3)");
+    private final CheckBox impostorBatchChk = new CheckBox("Batch impostors");
+    private final CheckBox cellBatchChk = new CheckBox("Batch far cells");
 
     private final Label nearLbl = new Label();
     private final Label midLbl = new Label();
+    private final Label farLbl = new Label();
     private final Label hystLbl = new Label();
     private final Label budgetLbl = new Label();
     private final Label coneLbl = new Label();
@@ -46,7 +52,7 @@ public class AsteroidLodPane extends LitPathPane {
 
     // Pane sizing
     private static final int PANE_WIDTH = 420;
-    private static final int PANE_HEIGHT = 420;
+    private static final int PANE_HEIGHT = 480;
 
     public AsteroidLodPane(Scene scene, Pane overlayDesktop, AsteroidLodManager lod) {
         super(scene, overlayDesktop,
@@ -61,11 +67,15 @@ public class AsteroidLodPane extends LitPathPane {
         trySet(() -> enabledChk.setSelected(lod.isEnabled()));
         trySet(() -> nearS.setValue(lod.getNearDistance()));
         trySet(() -> midS.setValue(lod.getMidDistance()));
+        trySet(() -> farS.setValue(lod.getFarDistance()));
         trySet(() -> hystS.setValue(lod.getHysteresis()));
         trySet(() -> budgetS.setValue(lod.getBudgetPerFrame()));
         trySet(() -> coneS.setValue(lod.getForwardConeDegrees()));
         trySet(() -> tintChk.setSelected(lod.isTintByTierEnabled()));
         trySet(() -> onScreenOnlyChk.setSelected(lod.isOnScreenOnly()));
+        trySet(() -> impostorChk.setSelected(lod.isImpostorsEnabled()));
+        trySet(() -> impostorBatchChk.setSelected(lod.isImpostorBatchingEnabled()));
+        trySet(() -> cellBatchChk.setSelected(lod.isCellBatchingEnabled()));
 
         // Labels
         refreshValueLabels();
@@ -88,10 +98,24 @@ public class AsteroidLodPane extends LitPathPane {
                 midS.setValue(nearS.getValue() + 100);
                 return;
             }
+            // Keep far >= mid + 100
+            if (farS.getValue() < nv.doubleValue() + 100) {
+                farS.setValue(nv.doubleValue() + 100);
+            }
             refreshValueLabels();
             trySet(() -> lod.setMidDistance(midS.getValue()));
         });
 
+        farS.valueProperty().addListener((o, ov, nv) -> {
+            // Ensure far >= mid + 100
+            if (nv.doubleValue() < midS.getValue() + 100) {
+                farS.setValue(midS.getValue() + 100);
+                return;
+            }
+            refreshValueLabels();
+            trySet(() -> lod.setFarDistance(farS.getValue()));
+        });
+
         hystS.valueProperty().addListener((o, ov, nv) -> {
             refreshValueLabels();
             trySet(() -> lod.setHysteresis(hystS.getValue()));
@@ -109,6 +133,9 @@ public class AsteroidLodPane extends LitPathPane {
 
         tintChk.selectedProperty().addListener((o, ov, nv) -> trySet(() -> lod.setTintByTierEnabled(nv)));
         onScreenOnlyChk.selectedProperty().addListener((o, ov, nv) -> trySet(() -> lod.setOnScreenOnly(nv)));
+        impostorChk.selectedProperty().addListener((o, ov, nv) -> trySet(() -> lod.setImpostorsEnabled(nv)));
+        impostorBatchChk.selectedProperty().addListener((o, ov, nv) -> trySet(() -> lod.setImpostorBatchingEnabled(nv)));
+        cellBatchChk.selectedProperty().addListener((o, ov, nv) -> trySet(() -> lod.setCellBatchingEnabled(nv)));
 
         // Stats area setup
         statsArea.setEditable(false);
@@ -147,6 +174,7 @@ public class AsteroidLodPane extends LitPathPane {
         // Sliders styling
         nearS.setShowTickMarks(true); nearS.setShowTickLabels(true); nearS.setBlockIncrement(100);
         midS.setShowTickMarks(true);  midS.setShowTickLabels(true);  midS.setBlockIncrement(200);
+        farS.setShowTickMarks(true);  farS.setShowTickLabels(true);  farS.setBlockIncrement(500);
         hystS.setShowTickMarks(true); hystS.setShowTickLabels(true); hystS.setBlockIncrement(0.05);
         budgetS.setShowTickMarks(true); budgetS.setShowTickLabels(true); budgetS.setBlockIncrement(10);
         coneS.setShowTickMarks(true); coneS.setShowTickLabels(true); coneS.setBlockIncrement(10);
@@ -167,27 +195,38 @@ public class AsteroidLodPane extends LitPathPane {
         g.add(midS, 1, 2);
         g.add(midLbl, 2, 2);
 
-        // Row 3: Hysteresis
-        g.add(new Label("Hysteresis:"), 0, 3);
-        g.add(hystS, 1, 3);
-        g.add(hystLbl, 2, 3);
-
-        // Row 4: Budget/frame
-        g.add(new Label("Checks/frame:"), 0, 4);
-        g.add(budgetS, 1, 4);
-        g.add(budgetLbl, 2, 4);
-
-        // Row 5: Forward cone (deg)
-        g.add(new Label("Forward cone (°):"), 0, 5);
-        g.add(coneS, 1, 5);
-        g.add(coneLbl, 2, 5);
-
-        // Row 6: Buttons
+        // Row 3: Far (impostor threshold)
+        g.add(new Label("Far distance:"), 0, 3);
+        g.add(farS, 1, 3);
+        g.add(farLbl, 2, 3);
+
+        // Row 4: Hysteresis
+        g.add(new Label("Hysteresis:"), 0, 4);
+        g.add(hystS, 1, 4);
+        g.add(hystLbl, 2, 4);
+
+        // Row 5: Budget/frame
+        g.add(new Label("Checks/frame:"), 0, 5);
+        g.add(budgetS, 1, 5);
+        g.add(budgetLbl, 2, 5);
+
+        // Row 6: Forward cone (deg)
+        g.add(new Label("Forward cone (°):"), 0, 6);
+        g.add(coneS, 1, 6);
+        g.add(coneLbl, 2, 6);
+
+        // Row 7: Impostor tier
+        HBox impostorToggles = new HBox(12, impostorChk, impostorBatchChk, cellBatchChk);
+        impostorToggles.setAlignment(Pos.CENTER_LEFT);
+        g.add(new Label("Far tier:"), 0, 7);
+        g.add(impostorToggles, 1, 7);
+
+        // Row 8: Buttons
         Button resetBtn = new Button("Reset Defaults");
         resetBtn.setOnAction(e -> resetToDefaults());
         HBox btns = new HBox(10, resetBtn);
         btns.setAlignment(Pos.CENTER_LEFT);
-        g.add(btns, 1, 6);
+        g.add(btns, 1, 8);
 
         // Stats (bottom)
         VBox box = new VBox(10, g, new Label("Stats:"), statsArea);
@@ -199,16 +238,21 @@ public class AsteroidLodPane extends LitPathPane {
         enabledChk.setSelected(true);
         nearS.setValue(2000);
         midS.setValue(6000);
+        farS.setValue(12000);
         hystS.setValue(0.20);
         budgetS.setValue(240);
         coneS.setValue(160);
         tintChk.setSelected(false);
         onScreenOnlyChk.setSelected(true);
+        impostorChk.setSelected(true);
+        impostorBatchChk.setSelected(true);
+        cellBatchChk.setSelected(true);
     }
 
     private void refreshValueLabels() {
         nearLbl.setText(String.format("%.0f", nearS.getValue()));
         midLbl.setText(String.format("%.0f", midS.getValue()));
+        farLbl.setText(String.format("%.0f", farS.getValue()));
         hystLbl.setText(String.format("%.2f", hystS.getValue()));
         budgetLbl.setText(String.format("%.0f", budgetS.getValue()));
         coneLbl.setText(String.format("%.0f°", coneS.getValue()));
@@ -6,6 +6,7 @@ import AsteroidField.asteroids.field.families.WeightedFamilyEntry;
 import AsteroidField.asteroids.field.placement.BeltPlacementStrategy;
 import AsteroidField.asteroids.field.placement.PlacementStrategy;
 import AsteroidField.events.AsteroidFieldEvent;
+import AsteroidField.runtime.WorldBuilder;
 
 import java.util.List;
 
@@ -20,6 +21,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
 import javafx.scene.control.Slider;
@@ -39,6 +41,7 @@ import javafx.scene.shape.DrawMode;
  * - Binds directly to BeltPlacementStrategy properties.
  * - Controls enable/weight for FamilyPool entries.
  * - "Regenerate Field" / "Clear Field" buttons fire AsteroidFieldEvent requests.
+ * - Build progress row (phase, count, Cancel) tracks async WorldBuilder builds.
  * - Render toolbar publishes RENDER_MODE_REQUEST and CULLFACE_REQUEST.
  * - Content is wrapped in a ScrollPane; sliders grow to full width.
  */
@@ -218,9 +221,13 @@ public class FieldDebugPane extends LitPathPane {
         famBox.getChildren().add(new Label("Families"));
         famBox.getChildren().add(familyControls(families.entries()));
 
+        // --- Build progress (async WorldBuilder) ---
+        HBox progressRow = buildProgressRow();
+
         // Glue
         root.getChildren().addAll(
             toolbar,
+            progressRow,
             new Separator(),
             drawToolbar,    
             new Separator(),
@@ -238,6 +245,43 @@ public class FieldDebugPane extends LitPathPane {
 
     // ---------- helpers ----------
 
+    /** Progress bar + status + Cancel, fed by WorldBuilder progress (already on the FX thread). */
+    private static HBox buildProgressRow() {
+        ProgressBar bar = new ProgressBar(0);
+        bar.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(bar, Priority.ALWAYS);
+        Label status = new Label("Idle");
+        status.setMinWidth(150);
+        Button btnCancel = new Button("Cancel");
+        btnCancel.setDisable(true);
+
+        WorldBuilder wb = OverlayController.getGlobalService(WorldBuilder.class);
+        if (wb != null) {
+            btnCancel.setOnAction(ev -> {
+                if (wb.cancelActiveBuild()) {
+                    status.setText("Cancelled");
+                    bar.setProgress(0);
+                    btnCancel.setDisable(true);
+                }
+            });
+            wb.addProgressListener((phase, done, total) -> {
+                // Phases weigh equally in the bar; the label shows the exact count
+                int phases = AsteroidFieldGenerator.Phase.values().length;
+                double inPhase = total > 0 ? (double) done / total : 1.0;
+                bar.setProgress((phase.ordinal() + inPhase) / phases);
+                boolean finished = phase == AsteroidFieldGenerator.Phase.ATTACH && done >= total;
+                status.setText(finished ? "Done (" + total + ")" : phase + " " + done + "/" + total);
+                btnCancel.setDisable(finished);
+            });
+        } else {
+            status.setText("No WorldBuilder");
+        }
+
+        HBox row = new HBox(8, new Label("Build:"), bar, status, btnCancel);
+        row.setAlignment(Pos.CENTER_LEFT);
+        return row;
+    }
+
     private static HBox row(String label, javafx.scene.Node control) {
         Label l = new Label(label);
         l.setMinWidth(140);
@@ -321,6 +365,11 @@ public class FieldDebugPane extends LitPathPane {
         add.accept("Center Y", cy);
         add.accept("Center Z", cz);
 
+        CheckBox parallelPoisson = new CheckBox("Parallel Poisson (tiled)");
+        parallelPoisson.setSelected(b.isParallelSampling());
+        b.parallelSamplingProperty().bind(parallelPoisson.selectedProperty());
+        gp.add(parallelPoisson, 0, gp.getRowCount(), 2, 1);
+
         return gp;
     }
 
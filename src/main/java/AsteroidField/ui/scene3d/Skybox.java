@@ -225,6 +225,26 @@ private void orientFace(ImageView face, Vec3 normal, Vec3 up, double half, doubl
         debugFaceCenters();
     }
 
+    /** Swap all six faces in place (MULTIPLE only), e.g. when a different mip level has loaded. */
+    public void setFaceImages(Image topImg, Image bottomImg, Image leftImg, Image rightImg,
+                              Image frontImg, Image backImg) {
+        if (imageType != SkyboxImageType.MULTIPLE) {
+            throw new IllegalStateException("setFaceImages needs a MULTIPLE skybox");
+        }
+        this.topImg = topImg;
+        this.bottomImg = bottomImg;
+        this.leftImg = leftImg;
+        this.rightImg = rightImg;
+        this.frontImg = frontImg;
+        this.backImg = backImg;
+        front.setImage(frontImg);
+        back.setImage(backImg);
+        top.setImage(topImg);
+        bottom.setImage(bottomImg);
+        left.setImage(leftImg);
+        right.setImage(rightImg);
+    }
+
     // ---------------------------------------------------------------------
     // Follow camera
     // ---------------------------------------------------------------------
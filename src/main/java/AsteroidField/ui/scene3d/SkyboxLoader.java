@@ -0,0 +1,367 @@
+package AsteroidField.ui.scene3d;
+
+import AsteroidField.asteroids.providers.MeshDiskCache;
+import AsteroidField.textures.TextureCache;
+import AsteroidField.textures.TextureResourceProvider;
+import AsteroidField.util.PngRowWriter;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.util.Duration;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds a Skybox from a 4x3 cross atlas resource through a per-face mip pyramid, at the level the view needs.
+ *
+ * - Levels halve the atlas cell size down to MIN_FACE (a 4096x3072 atlas gives 1024, 512, 256, 128, 64)
+ * - The level is the smallest whose face texels cover detailBias x the subscene's pixels at the camera FOV;
+ *   it is re-picked (debounced) when the subscene is resized or the FOV changes, and swapped in asynchronously
+ * - detailBias defaults to 0.5: up to 2x magnification at the view center, where the star sprites are already
+ *   box-filtered. For a 4k atlas an 800x600 view at 45 degrees still needs the full 1024 level (about 725 texels);
+ *   512 is picked below roughly 420 px along the FOV axis. What a normal window saves is the decoded atlas
+ *   (48 MB at 4k, never held after the first run) and the decode itself on later runs
+ * - The pyramid is built once off the FX thread (decode atlas, slice, 2x2 box filter) and written as PNGs under
+ *   the user cache dir (MeshDiskCache.userCacheRoot()/skybox); later runs read only the level they show
+ * - Startup shows the coarsest cached level at once (six tiny PNGs read on the FX thread), then upgrades.
+ *   On a cache miss the level is published as soon as the pyramid is in memory, before any PNG is written
+ * - Loaded levels go through the shared TextureCache; only the level on screen is referenced by the Skybox
+ *
+ * The cache directory is keyed on the atlas name, its resource size and timestamp, and FORMAT_VERSION.
+ */
+public final class SkyboxLoader {
+
+    /** Bump when the pyramid files or the filter change. */
+    public static final int FORMAT_VERSION = 1;
+
+    /** Smallest face size built. */
+    public static final int MIN_FACE = 64;
+
+    private static final System.Logger LOG = System.getLogger(SkyboxLoader.class.getName());
+
+    // Skybox constructor order
+    private static final String[] FACES = {"top", "bottom", "left", "right", "front", "back"};
+    // Atlas cells (cx, cy) per face, see CubeAtlas
+    private static final int[][] CELLS = {{1, 0}, {1, 2}, {0, 1}, {2, 1}, {1, 1}, {3, 1}};
+
+    private final String atlasName;
+    private final Skybox skybox;
+    private final SubScene subScene;
+    private final PerspectiveCamera camera;
+    private final int[] levels;      // face sizes, largest first
+    private final Path dir;
+
+    // One loader thread; a newer request supersedes older ones
+    private final ExecutorService exec = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "skybox-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong loadGen = new AtomicLong();
+    private final PauseTransition settle = new PauseTransition(Duration.millis(250));
+    private final InvalidationListener viewChanged = obs -> settle.playFromStart();
+
+    // FX thread only
+    private int shownSize;
+    private double detailBias = 0.5;
+
+    /**
+     * Build the Skybox for atlasName (a texture resource without ".png"), show what is cached right away and
+     * start loading the level for the current view.
+     *
+     * @throws IOException if the atlas resource is missing or not a PNG
+     */
+    public SkyboxLoader(String atlasName, double skySize, SubScene subScene, PerspectiveCamera camera) throws IOException {
+        this.atlasName = atlasName;
+        this.subScene = subScene;
+        this.camera = camera;
+
+        URL url = TextureResourceProvider.getResource(atlasName + ".png");
+        if (url == null) throw new IOException("Failed to open " + atlasName + ".png");
+        int cell = atlasCell(url);
+        int n = 1;
+        while ((cell >> n) >= MIN_FACE) n++;
+        this.levels = new int[n];
+        for (int i = 0; i < n; i++) levels[i] = cell >> i;
+        this.dir = cacheDir(url);
+
+        // Coarsest level from disk if a previous run built it (else the sky stays empty until the first load)
+        Image[] coarse = loadCached(levels[n - 1]);
+        this.skybox = (coarse != null)
+                ? new Skybox(coarse[0], coarse[1], coarse[2], coarse[3], coarse[4], coarse[5], skySize, camera)
+                : new Skybox(null, null, null, null, null, null, skySize, camera);
+        if (coarse != null) shownSize = levels[n - 1];
+
+        settle.setOnFinished(e -> requestLevel());
+        subScene.widthProperty().addListener(viewChanged);
+        subScene.heightProperty().addListener(viewChanged);
+        camera.fieldOfViewProperty().addListener(viewChanged);
+        requestLevel();
+    }
+
+    public Skybox getSkybox() { return skybox; }
+
+    /** Face sizes available, largest first. */
+    public int[] getLevels() { return levels.clone(); }
+
+    /** Face size currently on screen (0 until the first level arrives). */
+    public int getShownFaceSize() { return shownSize; }
+
+    public double getDetailBias() { return detailBias; }
+
+    /** Multiplier on the required texel density (> 1 sharper, < 1 cheaper); re-picks the level. */
+    public void setDetailBias(double bias) {
+        detailBias = Math.max(0.05, bias);
+        requestLevel();
+    }
+
+    /** Stop following the view and drop the loader thread (the Skybox keeps its current faces). */
+    public void dispose() {
+        settle.stop();
+        subScene.widthProperty().removeListener(viewChanged);
+        subScene.heightProperty().removeListener(viewChanged);
+        camera.fieldOfViewProperty().removeListener(viewChanged);
+        loadGen.incrementAndGet();
+        exec.shutdownNow();
+    }
+
+    // ----------------------------
+    // Level choice
+    // ----------------------------
+
+    /**
+     * Face size whose texels match the screen at the view center: a face spans tan(angle) in [-1, 1], the
+     * screen spans [-tan(fov/2), tan(fov/2)] over its pixels along the FOV axis.
+     */
+    public static int requiredFaceSize(double viewWidth, double viewHeight, double fovDegrees, boolean verticalFov) {
+        double px = verticalFov ? viewHeight : viewWidth;
+        if (px <= 0 || fovDegrees <= 0) return 0;
+        return (int) Math.ceil(px / Math.tan(Math.toRadians(Math.min(fovDegrees, 179.0)) * 0.5));
+    }
+
+    /** Smallest level covering required, or the largest level. */
+    int pickLevel(int required) {
+        for (int i = levels.length - 1; i >= 0; i--) {
+            if (levels[i] >= required) return levels[i];
+        }
+        return levels[0];
+    }
+
+    /** Re-pick the level for the current view and load it if it is not the one shown. */
+    public void requestLevel() {
+        int required = requiredFaceSize(subScene.getWidth(), subScene.getHeight(),
+                camera.getFieldOfView(), camera.isVerticalFieldOfView());
+        int size = pickLevel((int) Math.ceil(required * detailBias));
+        if (size == shownSize) {
+            loadGen.incrementAndGet(); // cancel a pending switch away from it
+            return;
+        }
+        long gen = loadGen.incrementAndGet();
+        exec.submit(() -> {
+            if (gen != loadGen.get()) return;
+            try {
+                Image[] faces = loadCached(size);
+                if (faces != null) {
+                    show(gen, size, faces);
+                    return;
+                }
+                int[][][] pyramid = buildPyramid();
+                show(gen, size, publish(pyramid, size));
+                if (!writePyramid(pyramid)) LOG.log(System.Logger.Level.WARNING, "Skybox cache not writable: " + dir);
+            } catch (IOException | RuntimeException ex) {
+                LOG.log(System.Logger.Level.ERROR, "Skybox level " + size + " failed for " + atlasName, ex);
+            }
+        });
+    }
+
+    private void show(long gen, int size, Image[] f) {
+        Platform.runLater(() -> {
+            if (gen != loadGen.get()) return;
+            skybox.setFaceImages(f[0], f[1], f[2], f[3], f[4], f[5]);
+            shownSize = size;
+        });
+    }
+
+    // ----------------------------
+    // Disk cache
+    // ----------------------------
+
+    private Path faceFile(String face, int size) { return dir.resolve(face + "_" + size + ".png"); }
+
+    /** The six faces of a level from TextureCache or disk, or null if any is missing. */
+    private Image[] loadCached(int size) {
+        Image[] faces = new Image[FACES.length];
+        for (int i = 0; i < FACES.length; i++) {
+            Path file = faceFile(FACES[i], size);
+            faces[i] = TextureCache.shared().get(List.of("skybox.face", atlasName, size, FACES[i]), () -> readPng(file));
+            if (faces[i] == null) return null;
+        }
+        return faces;
+    }
+
+    private static Image readPng(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try (InputStream in = Files.newInputStream(file)) {
+            Image img = new Image(in);
+            return img.isError() ? null : img;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Decode the atlas and build every level in memory: pyramid[face][level] is a levels[level]-square ARGB face.
+     * Slicing and halving are cheap next to the decode; PNG encoding is left to writePyramid.
+     */
+    private int[][][] buildPyramid() throws IOException {
+        Image atlas;
+        try (InputStream in = TextureResourceProvider.getResourceAsStream(atlasName + ".png")) {
+            if (in == null) throw new IOException("Failed to open " + atlasName + ".png");
+            atlas = new Image(in);
+        }
+        if (atlas.isError()) throw new IOException("Failed to decode " + atlasName + ".png", atlas.getException());
+        int cell = levels[0];
+        if ((int) atlas.getWidth() != cell * 4 || (int) atlas.getHeight() != cell * 3) {
+            throw new IOException("Atlas must be a 4x3 grid of equal squares. Got: "
+                    + (int) atlas.getWidth() + "x" + (int) atlas.getHeight());
+        }
+        PixelReader pr = atlas.getPixelReader();
+
+        int[][][] pyramid = new int[FACES.length][levels.length][];
+        for (int i = 0; i < FACES.length; i++) {
+            int[] px = new int[cell * cell];
+            pr.getPixels(CELLS[i][0] * cell, CELLS[i][1] * cell, cell, cell, PixelFormat.getIntArgbInstance(), px, 0, cell);
+            pyramid[i][0] = px;
+            for (int level = 1; level < levels.length; level++) {
+                pyramid[i][level] = halve(pyramid[i][level - 1], levels[level - 1]);
+            }
+        }
+        return pyramid;
+    }
+
+    /** The six faces of level size from an in-memory pyramid, through TextureCache. */
+    private Image[] publish(int[][][] pyramid, int size) {
+        int level = 0;
+        while (levels[level] != size) level++;
+        Image[] faces = new Image[FACES.length];
+        for (int i = 0; i < FACES.length; i++) faces[i] = publish(pyramid[i][level], size, i);
+        return faces;
+    }
+
+    private Image publish(int[] px, int s, int face) {
+        return TextureCache.shared().get(List.of("skybox.face", atlasName, s, FACES[face]), () -> {
+            WritableImage img = new WritableImage(s, s);
+            img.getPixelWriter().setPixels(0, 0, s, s, PixelFormat.getIntArgbInstance(), px, 0, s);
+            return img;
+        });
+    }
+
+    /**
+     * Write every level, coarsest first. Failures are reported, not thrown: the levels are rebuilt the next
+     * time one is needed.
+     */
+    private boolean writePyramid(int[][][] pyramid) {
+        boolean written = true;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            for (int i = 0; i < FACES.length; i++) {
+                written &= writePng(faceFile(FACES[i], levels[level]), pyramid[i][level], levels[level]);
+            }
+        }
+        return written;
+    }
+
+    // Temp file + move, so a reader never sees a partial PNG
+    private static boolean writePng(Path file, int[] px, int s) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "face", ".tmp");
+            try {
+                try (PngRowWriter png = new PngRowWriter(new BufferedOutputStream(Files.newOutputStream(tmp)), s, s, false)) {
+                    for (int y = 0; y < s; y++) png.writeRow(px, y * s);
+                }
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /** 2x2 box filter of an s x s ARGB face. */
+    static int[] halve(int[] src, int s) {
+        int h = s >> 1;
+        int[] dst = new int[h * h];
+        for (int y = 0; y < h; y++) {
+            int r0 = (2 * y) * s, r1 = r0 + s;
+            for (int x = 0; x < h; x++) {
+                int p = src[r0 + 2 * x], q = src[r0 + 2 * x + 1], r = src[r1 + 2 * x], t = src[r1 + 2 * x + 1];
+                int a = ((p >>> 24) + (q >>> 24) + (r >>> 24) + (t >>> 24) + 2) >> 2;
+                int rr = (((p >> 16) & 0xFF) + ((q >> 16) & 0xFF) + ((r >> 16) & 0xFF) + ((t >> 16) & 0xFF) + 2) >> 2;
+                int g = (((p >> 8) & 0xFF) + ((q >> 8) & 0xFF) + ((r >> 8) & 0xFF) + ((t >> 8) & 0xFF) + 2) >> 2;
+                int b = ((p & 0xFF) + (q & 0xFF) + (r & 0xFF) + (t & 0xFF) + 2) >> 2;
+                dst[y * h + x] = (a << 24) | (rr << 16) | (g << 8) | b;
+            }
+        }
+        return dst;
+    }
+
+    // ----------------------------
+    // Atlas header / cache key
+    // ----------------------------
+
+    /** Cell size from the PNG header (signature + IHDR), without decoding the image. */
+    private static int atlasCell(URL url) throws IOException {
+        try (DataInputStream in = new DataInputStream(url.openStream())) {
+            byte[] head = new byte[16];
+            in.readFully(head);
+            if (head[1] != 'P' || head[2] != 'N' || head[3] != 'G' || head[12] != 'I' || head[13] != 'H') {
+                throw new IOException("Not a PNG: " + url);
+            }
+            int w = in.readInt(), h = in.readInt();
+            int cell = w / 4;
+            if (cell <= 0 || w != cell * 4 || h != cell * 3) {
+                throw new IOException("Atlas must be a 4x3 grid of equal squares. Got: " + w + "x" + h);
+            }
+            return cell;
+        }
+    }
+
+    private Path cacheDir(URL url) {
+        long length = -1, modified = 0;
+        try {
+            URLConnection c = url.openConnection();
+            length = c.getContentLengthLong();
+            modified = c.getLastModified();
+            c.getInputStream().close();
+        } catch (IOException ignored) {
+            // Key on the name alone
+        }
+        String key = atlasName + "-v" + FORMAT_VERSION + "-" + Long.toHexString(length) + "-" + Long.toHexString(modified);
+        return MeshDiskCache.userCacheRoot().resolve("skybox").resolve(key);
+    }
+}
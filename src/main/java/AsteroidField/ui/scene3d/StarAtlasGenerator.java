@@ -1,24 +1,35 @@
 package AsteroidField.ui.scene3d;
 
-import javafx.embed.swing.SwingFXUtils;
+import AsteroidField.textures.TextureCache;
+import AsteroidField.util.PngRowWriter;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.transform.Transform;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 
 public final class StarAtlasGenerator {
 
+    /**
+     * CANVAS draws through a JavaFX Canvas and snapshot (FX thread only, single-threaded).
+     * RASTER is StarAtlasRaster: tiled, parallel, callable from any thread; same params, its own RNG streams.
+     */
+    public enum Backend { CANVAS, RASTER }
+
     // ----- Faces container -----
     public static final class Faces {
         public final WritableImage top, bottom, left, right, front, back;
@@ -35,6 +46,9 @@ public final class StarAtlasGenerator {
         public int height = 3072;   // multiple of 3
         public long seed  = 12345L;
 
+        public Backend backend = Backend.RASTER;
+        public int threads = 0;     // RASTER workers, 0 = common pool (does not change the image)
+
         // stars
         public double starDensity  = 0.00022;
         public double colorBias    = 0.65;
@@ -70,18 +84,59 @@ public final class StarAtlasGenerator {
 
         // render only into the six cross cells (leave corners blank)
         public boolean strictCrossMask = true;
+
+        // generateFaces / generateAndSaveFaces: sample each face by direction (face = width / 4), no atlas
+        public boolean directFaces = false;
+
+        /** Value key of every field that affects the image (TextureCache key: equal params share one atlas). */
+        public Object cacheKey() {
+            return List.of(width, height, seed, backend,
+                    starDensity, colorBias, radiusMean, radiusSigma, radiusMax, brightChance, brightMul,
+                    nebulaBlobs, nebulaAlpha, nebulaMinR, nebulaMaxR, internalBleedPx,
+                    mwEnabled, mwIntensity, mwOpacity, mwThickness, mwHue, mwSaturation, mwTiltDeg, mwVOffset, mwNoise,
+                    debugGrid, debugAlpha, strictCrossMask);
+        }
+
+        /** Field-by-field copy (hand a snapshot to a background render while the UI keeps editing). */
+        public Params copy() {
+            Params q = new Params();
+            q.width = width; q.height = height; q.seed = seed;
+            q.backend = backend; q.threads = threads;
+            q.starDensity = starDensity; q.colorBias = colorBias;
+            q.radiusMean = radiusMean; q.radiusSigma = radiusSigma; q.radiusMax = radiusMax;
+            q.brightChance = brightChance; q.brightMul = brightMul;
+            q.nebulaBlobs = nebulaBlobs; q.nebulaAlpha = nebulaAlpha; q.nebulaMinR = nebulaMinR; q.nebulaMaxR = nebulaMaxR;
+            q.internalBleedPx = internalBleedPx;
+            q.mwEnabled = mwEnabled; q.mwIntensity = mwIntensity; q.mwOpacity = mwOpacity; q.mwThickness = mwThickness;
+            q.mwHue = mwHue; q.mwSaturation = mwSaturation; q.mwTiltDeg = mwTiltDeg; q.mwVOffset = mwVOffset; q.mwNoise = mwNoise;
+            q.debugGrid = debugGrid; q.debugAlpha = debugAlpha;
+            q.strictCrossMask = strictCrossMask;
+            q.directFaces = directFaces;
+            return q;
+        }
     }
 
     private StarAtlasGenerator() {}
 
     // ----- public API -----
+
+    /**
+     * The atlas for p, shared through TextureCache: regenerating with unchanged params (or flipping back to
+     * earlier ones) returns the cached image. Treat the result as read-only.
+     * The CANVAS backend must be called on the FX thread; RASTER may be called from any thread.
+     */
     public static WritableImage generate(Params p) {
         if (p.width % 4 != 0 || p.height % 3 != 0)
             throw new IllegalArgumentException("width%4==0, height%3==0 required");
+        if (p.width / 4 != p.height / 3)
+            throw new IllegalArgumentException("Cells must be square: width/4 == height/3.");
+        return TextureCache.shared().get(List.of("stars.atlas", p.cacheKey()),
+                () -> (p.backend == Backend.RASTER) ? StarAtlasRaster.render(p) : renderCanvas(p));
+    }
+
+    private static WritableImage renderCanvas(Params p) {
         final int W = p.width, H = p.height;
         final int cell = W / 4;
-        if (cell != H / 3)
-            throw new IllegalArgumentException("Cells must be square: width/4 == height/3.");
 
         Canvas canvas = new Canvas(W, H);
         GraphicsContext g = canvas.getGraphicsContext2D();
@@ -146,36 +201,111 @@ public final class StarAtlasGenerator {
         return new Faces(top, bottom, left, right, front, back);
     }
 
+    /**
+     * Faces sliced from generate(p), cached in TextureCache under p.cacheKey() (a value key: keying on the
+     * atlas Image would pin the whole atlas behind its faces, outside the cache budget). The atlas is only
+     * generated or fetched on a face miss.
+     */
+    private static Faces sliceFacesCached(Params p) {
+        final int cell = p.width / 4;
+        WritableImage[] atlas = new WritableImage[1];
+        WritableImage[] out = new WritableImage[6];
+        String[] names = { "top", "left", "front", "right", "back", "bottom" };
+        int[][] cells = { {1, 0}, {0, 1}, {1, 1}, {2, 1}, {3, 1}, {1, 2} };
+        for (int i = 0; i < names.length; i++) {
+            int cx = cells[i][0], cy = cells[i][1];
+            out[i] = TextureCache.shared().get(List.of("stars.face", p.cacheKey(), names[i]), () -> {
+                if (atlas[0] == null) atlas[0] = generate(p);
+                return new WritableImage(atlas[0].getPixelReader(), cx * cell, cy * cell, cell, cell);
+            });
+        }
+        return new Faces(out[0], out[5], out[1], out[3], out[2], out[4]);
+    }
+
     public static Faces generateFaces(Params p) {
-        return sliceFaces(generate(p));
+        return p.directFaces ? generateFacesDirect(p) : sliceFacesCached(p);
+    }
+
+    /**
+     * Six faces sampled by direction (StarCubemapRaster): seamless, no atlas and no corner cells. Each face is
+     * width / 4 pixels square and cached in TextureCache; any thread.
+     */
+    public static Faces generateFacesDirect(Params p) {
+        StarCubemapRaster[] raster = new StarCubemapRaster[1];   // built on the first cache miss only
+        WritableImage[] out = new WritableImage[StarCubemapRaster.Face.values().length];
+        for (StarCubemapRaster.Face f : StarCubemapRaster.Face.values()) {
+            out[f.ordinal()] = TextureCache.shared().get(List.of("stars.cubeface", p.cacheKey(), f), () -> {
+                if (raster[0] == null) raster[0] = new StarCubemapRaster(p);
+                int n = raster[0].faceSize();
+                WritableImage img = new WritableImage(n, n);
+                try {
+                    raster[0].renderFace(f, (y0, rows, argb) -> img.getPixelWriter()
+                            .setPixels(0, y0, n, rows, PixelFormat.getIntArgbPreInstance(), argb, 0, n));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex); // the image sink does no I/O
+                }
+                return img;
+            });
+        }
+        return new Faces(out[StarCubemapRaster.Face.TOP.ordinal()], out[StarCubemapRaster.Face.BOTTOM.ordinal()],
+                         out[StarCubemapRaster.Face.LEFT.ordinal()], out[StarCubemapRaster.Face.RIGHT.ordinal()],
+                         out[StarCubemapRaster.Face.FRONT.ordinal()], out[StarCubemapRaster.Face.BACK.ordinal()]);
+    }
+
+    /**
+     * Direct faces streamed to basename_top.png ... basename_back.png: rendered a strip of rows at a time into
+     * a PngRowWriter, so peak memory is one strip (plus the star list), whatever the face size.
+     */
+    public static void exportFacesDirect(Params p, File dir, String basename) throws IOException {
+        if (dir == null) throw new IllegalArgumentException("Directory is null");
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory: " + dir.getAbsolutePath());
+        }
+        StarCubemapRaster raster = new StarCubemapRaster(p);
+        int n = raster.faceSize();
+        for (StarCubemapRaster.Face f : StarCubemapRaster.Face.values()) {
+            File file = new File(dir, basename + "_" + f.name().toLowerCase(Locale.ROOT) + ".png");
+            try (PngRowWriter png = new PngRowWriter(new BufferedOutputStream(new FileOutputStream(file), 1 << 16), n, n, false)) {
+                raster.renderFace(f, (y0, rows, argb) -> {
+                    for (int r = 0; r < rows; r++) png.writeRow(argb, r * n);
+                });
+            }
+        }
     }
 
     public static void savePng(WritableImage img, File file) throws IOException {
-        ImageIO.write(SwingFXUtils.fromFXImage(img, null), "PNG", file);
+        writePng(img, file, false);
     }
 
     /** Always flattens onto opaque black (no transparency in the saved file). */
     public static void savePngFlattened(WritableImage img, File file) throws IOException {
-        BufferedImage src = SwingFXUtils.fromFXImage(img, null);
-        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        // Composite over black
-        for (int y = 0; y < src.getHeight(); y++) {
-            for (int x = 0; x < src.getWidth(); x++) {
-                int argb = src.getRGB(x, y);
-                // simple alpha-over black: keep RGB if alpha=255, else multiply by alpha
-                int a = (argb >>> 24) & 0xFF;
-                int r = (argb >>> 16) & 0xFF;
-                int g = (argb >>> 8)  & 0xFF;
-                int b = (argb)        & 0xFF;
-                if (a < 255) { // premultiply onto black
-                    r = (r * a) / 255;
-                    g = (g * a) / 255;
-                    b = (b * a) / 255;
+        writePng(img, file, true);
+    }
+
+    /** Streams the image row by row through PngRowWriter (no BufferedImage copy of the whole image). */
+    private static void writePng(Image img, File file, boolean flatten) throws IOException {
+        final int w = (int) Math.round(img.getWidth()), h = (int) Math.round(img.getHeight());
+        PixelReader pr = img.getPixelReader();
+        int[] row = new int[w];
+        try (PngRowWriter png = new PngRowWriter(new BufferedOutputStream(new FileOutputStream(file), 1 << 16), w, h, !flatten)) {
+            for (int y = 0; y < h; y++) {
+                pr.getPixels(0, y, w, 1, PixelFormat.getIntArgbInstance(), row, 0, w);
+                if (flatten) {
+                    for (int x = 0; x < w; x++) {
+                        int argb = row[x];
+                        // simple alpha-over black: keep RGB if alpha=255, else multiply by alpha
+                        int a = (argb >>> 24) & 0xFF;
+                        if (a < 255) { // premultiply onto black
+                            int r = (((argb >>> 16) & 0xFF) * a) / 255;
+                            int g = (((argb >>> 8)  & 0xFF) * a) / 255;
+                            int b = (( argb         & 0xFF) * a) / 255;
+                            row[x] = (0xFF << 24) | (r << 16) | (g << 8) | b;
+                        }
+                    }
                 }
-                dst.setRGB(x, y, (0xFF << 24) | (r << 16) | (g << 8) | b);
+                png.writeRow(row, 0);
             }
         }
-        ImageIO.write(dst, "PNG", file);
     }
 /** Save the 6 cube faces as PNG files in the given directory with the given basename.
  *  Files will be named: basename_top.png, _bottom.png, _left.png, _right.png, _front.png, _back.png
@@ -209,8 +339,12 @@ private static void saveOneFace(WritableImage img, File file, boolean flatten) t
     }
 }
 
-/** Convenience: generate (with current params) and immediately save the faces. */
+/** Convenience: generate (with current params) and immediately save the faces (streamed when p.directFaces). */
 public static void generateAndSaveFaces(Params p, File dir, String basename) throws IOException {
+    if (p.directFaces) {
+        exportFacesDirect(p, dir, basename);
+        return;
+    }
     Faces f = generateFaces(p);
     saveFaces(f, dir, basename);
 }
@@ -411,7 +545,7 @@ public static void generateAndSaveFaces(Params p, File dir, String basename) thr
     }
 
     // ----- color & math -----
-    private static Color pickStarColor(Random rng, double colorBias) {
+    static Color pickStarColor(Random rng, double colorBias) {
         if (rng.nextDouble() >= colorBias) return Color.WHITE;
         switch (rng.nextInt(4)) {
             case 0: return Color.rgb(255,236,210);
@@ -420,7 +554,7 @@ public static void generateAndSaveFaces(Params p, File dir, String basename) thr
             default:return Color.rgb(205,255,235);
         }
     }
-    private static Color pickNebulaColor(Random rng) {
+    static Color pickNebulaColor(Random rng) {
         switch (rng.nextInt(4)) {
             case 0: return Color.rgb( 80,120,255);
             case 1: return Color.rgb(255,110,150);
@@ -428,19 +562,19 @@ public static void generateAndSaveFaces(Params p, File dir, String basename) thr
             default:return Color.rgb(100,255,190);
         }
     }
-    private static double gaussian(Random r, double mean, double sigma) {
+    static double gaussian(Random r, double mean, double sigma) {
         double u1 = 1.0 - r.nextDouble();
         double u2 = 1.0 - r.nextDouble();
         double z = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2*Math.PI*u2);
         return mean + z * sigma;
     }
-    private static double clamp(double v, double lo, double hi) {
+    static double clamp(double v, double lo, double hi) {
         return (v < lo) ? lo : (v > hi ? hi : v);
     }
-    private static double clamp01(double v) {
+    static double clamp01(double v) {
         return (v < 0) ? 0 : (v > 1 ? 1 : v);
     }
-    private static double lerp(double a, double b, double t) {
+    static double lerp(double a, double b, double t) {
         return a + (b - a) * t;
     }
 }
@@ -0,0 +1,416 @@
+package AsteroidField.ui.scene3d;
+
+import AsteroidField.ui.scene3d.StarAtlasGenerator.Params;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.awt.BasicStroke;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * CPU raster backend of StarAtlasGenerator (Backend.RASTER): draws the atlas into an int[] without a
+ * Canvas, so it can run on any thread.
+ *
+ * - The atlas is cut into TILE x TILE tiles rendered in parallel on a ForkJoinPool (Params.threads, 0 = common pool)
+ * - Stars are generated per tile from the tile's own RNG stream (seed mixed with the tile index), so the image
+ *   is identical for any thread count or schedule
+ * - Stars and nebula blobs are analytic Gaussian splats and the Milky Way band is evaluated per pixel, all
+ *   composited "over" in float per tile; a tile also draws the splats of neighbouring tiles' stars that reach
+ *   across its edge
+ * - The finished buffer becomes a WritableImage with one setPixels call
+ */
+final class StarAtlasRaster {
+
+    static final int TILE = 256;
+
+    // Shared with StarCubemapRaster
+    static final double INV_SQRT2 = 1.0 / Math.sqrt(2.0);
+    static final double MIN_SPLAT = 1.0 / 512.0;   // splat alpha below this is not drawn
+
+    // Per worker: tile color accumulator (r, g, b interleaved)
+    static final ThreadLocal<float[]> SCRATCH = ThreadLocal.withInitial(() -> new float[TILE * TILE * 3]);
+
+    private StarAtlasRaster() {}
+
+    static WritableImage render(Params p) {
+        int[] argb = renderArgb(p);
+        WritableImage out = new WritableImage(p.width, p.height);
+        out.getPixelWriter().setPixels(0, 0, p.width, p.height, PixelFormat.getIntArgbPreInstance(), argb, 0, p.width);
+        return out;
+    }
+
+    /** Opaque ARGB pixels of the atlas (row-major, width p.width). */
+    static int[] renderArgb(Params p) {
+        final int W = p.width, H = p.height, cell = W / 4;
+        final int[][] clips = p.strictCrossMask ? faceRects(cell) : new int[][]{{0, 0, W, H}};
+        final int tilesX = (W + TILE - 1) / TILE, tilesY = (H + TILE - 1) / TILE;
+
+        final Stars[] stars = new Stars[tilesX * tilesY];
+        final List<Blob> blobs = (p.nebulaBlobs > 0 && p.nebulaAlpha > 0) ? nebula(p, clips) : List.of();
+        final Band band = p.mwEnabled ? new Band(p, cell) : null;
+        final int[] argb = new int[W * H];
+
+        ForkJoinPool pool = (p.threads > 0) ? new ForkJoinPool(p.threads) : ForkJoinPool.commonPool();
+        try {
+            runAll(pool, stars.length, t -> stars[t] = Stars.generate(p, clips,
+                    (t % tilesX) * TILE, (t / tilesX) * TILE, W, H, new Random(mix(p.seed, t))));
+            runAll(pool, stars.length, t -> renderTile(p, t % tilesX, t / tilesX, tilesX, tilesY,
+                    clips, stars, blobs, band, argb));
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+
+        if (p.internalBleedPx > 0) addInternalBleed(argb, W, cell, p.internalBleedPx);
+        if (p.debugGrid) renderDebugGrid(argb, W, H, cell, p);
+        return argb;
+    }
+
+    // ----------------------------
+    // Tiles
+    // ----------------------------
+
+    private static void renderTile(Params p, int tx, int ty, int tilesX, int tilesY, int[][] clips,
+                                   Stars[] stars, List<Blob> blobs, Band band, int[] argb) {
+        final int W = p.width, H = p.height;
+        final int x0 = tx * TILE, y0 = ty * TILE;
+        final int x1 = Math.min(W, x0 + TILE), y1 = Math.min(H, y0 + TILE);
+        final int tw = x1 - x0;
+
+        boolean active = false;
+        for (int[] c : clips) active |= c[0] < x1 && c[2] > x0 && c[1] < y1 && c[3] > y0;
+        if (!active) {
+            for (int y = y0; y < y1; y++) Arrays.fill(argb, y * W + x0, y * W + x1, 0xFF000000);
+            return;
+        }
+
+        float[] buf = SCRATCH.get();
+        Arrays.fill(buf, 0, tw * (y1 - y0) * 3, 0f);
+
+        // 1) Stars of this tile and its neighbours (fixed order -> deterministic overlaps)
+        for (int ny = Math.max(0, ty - 1); ny <= Math.min(tilesY - 1, ty + 1); ny++) {
+            for (int nx = Math.max(0, tx - 1); nx <= Math.min(tilesX - 1, tx + 1); nx++) {
+                Stars s = stars[ny * tilesX + nx];
+                for (int i = 0; i < s.n; i++) {
+                    int[] c = clips[s.clip[i]];
+                    splat(buf, x0, y0, tw, Math.max(x0, c[0]), Math.max(y0, c[1]), Math.min(x1, c[2]), Math.min(y1, c[3]),
+                          s.x[i], s.y[i], s.sigma[i], 1.0, 3.0, s.r[i], s.g[i], s.b[i]);
+                }
+            }
+        }
+
+        // 2) Milky Way (middle row)
+        if (band != null) band.render(buf, x0, y0, x1, y1, tw);
+
+        // 3) Nebula
+        for (Blob bl : blobs) {
+            int[] c = clips[bl.clip];
+            splat(buf, x0, y0, tw, Math.max(x0, c[0]), Math.max(y0, c[1]), Math.min(x1, c[2]), Math.min(y1, c[3]),
+                  bl.cx, bl.cy, bl.sigma, bl.peak, Blob.EXTENT, bl.r, bl.g, bl.b);
+        }
+
+        // Pack (opaque)
+        for (int y = y0; y < y1; y++) {
+            int o = (y - y0) * tw * 3, row = y * W;
+            for (int x = x0; x < x1; x++, o += 3) {
+                argb[row + x] = 0xFF000000 | (to8(buf[o]) << 16) | (to8(buf[o + 1]) << 8) | to8(buf[o + 2]);
+            }
+        }
+    }
+
+    /**
+     * Gaussian splat composited over the tile buffer: alpha = peak * exp(-d^2 / (2 sigma^2)) out to
+     * extent * sigma, limited to the clip rectangle [cx0, cx1) x [cy0, cy1) (already intersected with the tile).
+     */
+    private static void splat(float[] buf, int x0, int y0, int tw, int cx0, int cy0, int cx1, int cy1,
+                              double px, double py, double sigma, double peak, double extent,
+                              float r, float g, float b) {
+        double e = extent * sigma;
+        int bx0 = Math.max(cx0, (int) Math.floor(px - e)), bx1 = Math.min(cx1, (int) Math.ceil(px + e));
+        int by0 = Math.max(cy0, (int) Math.floor(py - e)), by1 = Math.min(cy1, (int) Math.ceil(py + e));
+        if (bx0 >= bx1 || by0 >= by1) return;
+        double inv2s2 = 1.0 / (2.0 * sigma * sigma), e2 = e * e;
+        for (int y = by0; y < by1; y++) {
+            double dy = y + 0.5 - py;
+            int o = ((y - y0) * tw + (bx0 - x0)) * 3;
+            for (int x = bx0; x < bx1; x++, o += 3) {
+                double dx = x + 0.5 - px;
+                double d2 = dx * dx + dy * dy;
+                if (d2 > e2) continue;
+                double a = Math.min(1.0, peak * Math.exp(-d2 * inv2s2));
+                if (a < MIN_SPLAT) continue;
+                float fa = (float) a, k = 1f - fa;
+                buf[o]     = r * fa + buf[o] * k;
+                buf[o + 1] = g * fa + buf[o + 1] * k;
+                buf[o + 2] = b * fa + buf[o + 2] * k;
+            }
+        }
+    }
+
+    // ----------------------------
+    // Stars (per tile)
+    // ----------------------------
+
+    private static final class Stars {
+        int n;
+        float[] x = new float[16], y = new float[16], sigma = new float[16];
+        float[] r = new float[16], g = new float[16], b = new float[16];
+        int[] clip = new int[16];
+
+        /** Stars of one tile: for each clip rect it overlaps, area * density stars at uniform positions. */
+        static Stars generate(Params p, int[][] clips, int x0, int y0, int W, int H, Random rng) {
+            Stars s = new Stars();
+            int x1 = Math.min(W, x0 + TILE), y1 = Math.min(H, y0 + TILE);
+            for (int ci = 0; ci < clips.length; ci++) {
+                int[] c = clips[ci];
+                int ix0 = Math.max(x0, c[0]), iy0 = Math.max(y0, c[1]);
+                int iw = Math.min(x1, c[2]) - ix0, ih = Math.min(y1, c[3]) - iy0;
+                if (iw <= 0 || ih <= 0) continue;
+                // floor(mean + u): unbiased, so the atlas total matches the Canvas backend on average
+                int count = (int) (iw * (double) ih * p.starDensity + rng.nextDouble());
+                for (int i = 0; i < count; i++) {
+                    int px = ix0 + rng.nextInt(iw);
+                    int py = iy0 + rng.nextInt(ih);
+                    Color col = StarAtlasGenerator.pickStarColor(rng, p.colorBias);
+                    if (rng.nextDouble() < p.brightChance) col = col.deriveColor(0, 1, p.brightMul, 1.0);
+                    double rad = StarAtlasGenerator.clamp(StarAtlasGenerator.gaussian(rng, p.radiusMean, p.radiusSigma), 0.0, p.radiusMax);
+                    // same flux as a disk of radius rad; sub-0.4 px stars become one full pixel as in the Canvas path
+                    s.add(px + 0.5f, py + 0.5f, (float) (Math.max(rad, 0.4) * INV_SQRT2), col, ci);
+                }
+            }
+            return s;
+        }
+
+        void add(float px, float py, float sg, Color c, int ci) {
+            if (n == x.length) {
+                int m = n * 2;
+                x = Arrays.copyOf(x, m); y = Arrays.copyOf(y, m); sigma = Arrays.copyOf(sigma, m);
+                r = Arrays.copyOf(r, m); g = Arrays.copyOf(g, m); b = Arrays.copyOf(b, m);
+                clip = Arrays.copyOf(clip, m);
+            }
+            x[n] = px; y[n] = py; sigma[n] = sg;
+            r[n] = (float) c.getRed(); g[n] = (float) c.getGreen(); b[n] = (float) c.getBlue();
+            clip[n] = ci;
+            n++;
+        }
+    }
+
+    // ----------------------------
+    // Nebula
+    // ----------------------------
+
+    /**
+     * A blob's alpha falls off as a Gaussian fitted to the Canvas path's six stacked rings: the peak is the
+     * sum of the ring alphas (0.8 * nebulaAlpha * 3.5) and sigma = radius / 2.
+     */
+    private static final class Blob {
+        static final double EXTENT = 3.0;   // sigmas = 1.5 radii
+        final double cx, cy, sigma, peak;
+        final float r, g, b;
+        final int clip;
+        Blob(double cx, double cy, double radius, double peak, Color c, int clip) {
+            this.cx = cx; this.cy = cy; this.sigma = radius * 0.5; this.peak = peak;
+            this.r = (float) c.getRed(); this.g = (float) c.getGreen(); this.b = (float) c.getBlue();
+            this.clip = clip;
+        }
+    }
+
+    /** Blobs are few and large: one serial stream (independent of tiling), same per-face split as the Canvas path. */
+    private static List<Blob> nebula(Params p, int[][] clips) {
+        Random rng = new Random(mix(p.seed, -1));
+        double peak = 0.8 * p.nebulaAlpha * 3.5;
+        List<Blob> out = new ArrayList<>(p.nebulaBlobs);
+        int perFace = (clips.length > 1) ? Math.max(1, p.nebulaBlobs / clips.length) : p.nebulaBlobs;
+        int rem = p.nebulaBlobs - perFace * clips.length;
+        for (int ci = 0; ci < clips.length; ci++) {
+            int[] c = clips[ci];
+            int blobs = perFace + (ci < rem ? 1 : 0);
+            for (int i = 0; i < blobs; i++) {
+                double cx = c[0] + rng.nextDouble() * (c[2] - c[0]);
+                double cy = c[1] + rng.nextDouble() * (c[3] - c[1]);
+                double r = StarAtlasGenerator.lerp(p.nebulaMinR, p.nebulaMaxR, rng.nextDouble());
+                out.add(new Blob(cx, cy, r, peak, StarAtlasGenerator.pickNebulaColor(rng), ci));
+            }
+        }
+        return out;
+    }
+
+    // ----------------------------
+    // Milky Way
+    // ----------------------------
+
+    /** The Canvas path's band strip (4 cells x 1 cell across the middle row), optionally tilted about its center. */
+    private static final class Band {
+        final int cell, stripW, stripH;
+        final double centerY, twoSigma2, alpha, noiseAmt;
+        final double cos, sin;
+        final boolean tilted;
+        final float r, g, b;
+
+        Band(Params p, int cell) {
+            this.cell = cell;
+            this.stripW = 4 * cell;
+            this.stripH = cell;
+            this.centerY = stripH * (0.5 + p.mwVOffset);
+            double sigma = Math.max(1.0, p.mwThickness);
+            this.twoSigma2 = 2.0 * sigma * sigma;
+            this.alpha = StarAtlasGenerator.clamp01(p.mwOpacity) * Math.max(0.0, p.mwIntensity);
+            this.noiseAmt = StarAtlasGenerator.clamp01(p.mwNoise);
+            this.tilted = Math.abs(p.mwTiltDeg) > 0.01;
+            double t = Math.toRadians(p.mwTiltDeg);
+            this.cos = Math.cos(t);
+            this.sin = Math.sin(t);
+            Color c = Color.hsb(p.mwHue, StarAtlasGenerator.clamp01(p.mwSaturation), 1.0);
+            this.r = (float) c.getRed(); this.g = (float) c.getGreen(); this.b = (float) c.getBlue();
+        }
+
+        void render(float[] buf, int x0, int y0, int x1, int y1, int tw) {
+            int ry0 = Math.max(y0, cell), ry1 = Math.min(y1, 2 * cell);
+            int rx1 = Math.min(x1, stripW);
+            for (int y = ry0; y < ry1; y++) {
+                int o = ((y - y0) * tw) * 3;
+                // Untilted: separable (row Gaussian x column noise)
+                double rowA = tilted ? 0.0 : alpha * gauss(y - cell);
+                if (!tilted && rowA < 0.01) continue;
+                for (int x = x0; x < rx1; x++, o += 3) {
+                    double a = tilted ? alphaAt(x, y - cell) : rowA * noise(x);
+                    if (a < 0.01) continue;
+                    float fa = (float) Math.min(1.0, a), k = 1f - fa;
+                    buf[o]     = r * fa + buf[o] * k;
+                    buf[o + 1] = g * fa + buf[o + 1] * k;
+                    buf[o + 2] = b * fa + buf[o + 2] * k;
+                }
+            }
+        }
+
+        /** Alpha at strip pixel (lx, ly); with tilt, sampled at the inverse-rotated position. */
+        private double alphaAt(int lx, int ly) {
+            double sx = lx, sy = ly;
+            if (tilted) {
+                double ux = lx + 0.5 - stripW * 0.5, uy = ly + 0.5 - stripH * 0.5;
+                sx = cos * ux + sin * uy + stripW * 0.5 - 0.5;
+                sy = -sin * ux + cos * uy + stripH * 0.5 - 0.5;
+                if (sx < -0.5 || sy < -0.5 || sx >= stripW - 0.5 || sy >= stripH - 0.5) return 0.0;
+            }
+            return alpha * gauss(sy) * noise(sx);
+        }
+
+        private double gauss(double sy) {
+            double dy = sy - centerY;
+            return Math.exp(-(dy * dy) / twoSigma2);
+        }
+
+        private double noise(double sx) {
+            double nx = Math.sin((sx / 64.0) * Math.PI * 2.0) * 0.5 + 0.5;
+            return (1.0 - noiseAmt) + noiseAmt * nx;
+        }
+    }
+
+    // ----------------------------
+    // Post passes
+    // ----------------------------
+
+    /** Same as the Canvas path's bleed: copy the pixels 'bleed' in from each face edge out to the edge. */
+    private static void addInternalBleed(int[] argb, int W, int cell, int bleed) {
+        for (int[] c : faceRects(cell)) {
+            int cx = c[0], cy = c[1];
+            for (int y = 0; y < cell; y++) {
+                int row = (cy + y) * W + cx;
+                Arrays.fill(argb, row, row + bleed, argb[row + bleed]);
+                Arrays.fill(argb, row + cell - bleed, row + cell, argb[row + cell - bleed - 1]);
+            }
+            for (int y = 0; y < bleed; y++) {
+                System.arraycopy(argb, (cy + bleed) * W + cx, argb, (cy + y) * W + cx, cell);
+                System.arraycopy(argb, (cy + cell - bleed - 1) * W + cx, argb, (cy + cell - 1 - y) * W + cx, cell);
+            }
+        }
+    }
+
+    /** Debug grid and face labels (debug only, so drawn through Java2D on a copy of the buffer). */
+    private static void renderDebugGrid(int[] argb, int W, int H, int cell, Params p) {
+        BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_INT_ARGB);
+        img.setRGB(0, 0, W, H, argb, 0, W);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            float a = (float) StarAtlasGenerator.clamp01(p.debugAlpha);
+            g.setColor(new java.awt.Color(0.3f, 1.0f, 0.3f, a * a));
+            g.setStroke(new BasicStroke(2f));
+            for (int c = 0; c <= 4; c++) g.drawLine(c * cell, 0, c * cell, H);
+            for (int r = 0; r <= 3; r++) g.drawLine(0, r * cell, W, r * cell);
+
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 24));
+            String[] names = {"TOP", "LEFT", "FRONT", "RIGHT", "BACK", "BOTTOM"};
+            int[][] rects = faceRects(cell);
+            for (int i = 0; i < names.length; i++) {
+                int cx = rects[i][0] + cell / 2, cy = rects[i][1] + cell / 2;
+                g.setColor(new java.awt.Color(0f, 0f, 0f, 0.8f * 0.9f));
+                g.drawString(names[i], cx - 40 + 1, cy + 1);
+                g.setColor(new java.awt.Color(0.2f, 1.0f, 0.2f, 0.9f * 0.9f));
+                g.drawString(names[i], cx - 40, cy);
+            }
+        } finally {
+            g.dispose();
+        }
+        img.getRGB(0, 0, W, H, argb, 0, W);
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+
+    /** Face cells of the horizontal cross as {x0, y0, x1, y1}: top, left, front, right, back, bottom. */
+    static int[][] faceRects(int cell) {
+        int[][] cells = {{1, 0}, {0, 1}, {1, 1}, {2, 1}, {3, 1}, {1, 2}};
+        int[][] out = new int[cells.length][];
+        for (int i = 0; i < cells.length; i++) {
+            int x = cells[i][0] * cell, y = cells[i][1] * cell;
+            out[i] = new int[]{x, y, x + cell, y + cell};
+        }
+        return out;
+    }
+
+    /** Run task(0..n-1) on pool and wait, rethrowing the first failure. */
+    static void runAll(ForkJoinPool pool, int n, IntConsumer task) {
+        List<Callable<Void>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int t = i;
+            tasks.add(() -> { task.accept(t); return null; });
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Star rendering interrupted", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException("Star rendering failed", cause);
+        }
+    }
+
+    static int to8(float v) {
+        return (v <= 0f) ? 0 : (v >= 1f) ? 255 : (int) (v * 255f + 0.5f);
+    }
+
+    /** SplitMix64 finalizer: decorrelated per-tile (or per-chunk) seeds from one base seed. */
+    static long mix(long seed, int t) {
+        long z = seed + 0x9E3779B97F4A7C15L * (t + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,395 @@
+package AsteroidField.ui.scene3d;
+
+import AsteroidField.ui.scene3d.StarAtlasGenerator.Params;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Renders cube faces directly by direction (StarAtlasGenerator's direct-faces mode) instead of drawing a 4x3
+ * atlas and slicing it.
+ *
+ * - Stars and nebula blobs are points on the unit sphere; every pixel evaluates their splats by angular
+ *   distance to its own direction, so a splat crossing an edge continues on the neighbouring face and the
+ *   faces are seamless by construction (no corner cells, no bleed pass)
+ * - Stars come from CHUNKS fixed RNG streams (seed mixed with the chunk index), so the sky is identical for
+ *   any thread count; counts and sizes follow Params as if each face were one atlas cell (face = width / 4)
+ * - The Milky Way is a great circle (mwTiltDeg rolls it about the front axis, mwVOffset moves it in
+ *   elevation), the band profile and noise matching the atlas strip at the face center
+ * - A face is produced in strips of TILE rows (tiles of a strip render in parallel) handed to a RowSink,
+ *   so a face can stream to PNG without ever being in memory whole
+ *
+ * Face orientation matches the horizontal cross (and Skybox): front +Z, right +X, back -Z, left -X,
+ * top +Y (its top edge toward -Z), bottom -Y (its top edge toward +Z).
+ */
+final class StarCubemapRaster {
+
+    static final int TILE = StarAtlasRaster.TILE;
+    private static final int CHUNKS = 64;
+    private static final double STAR_EXTENT = 3.0, BLOB_EXTENT = 3.0;
+    private static final double FACE_HALF_ANGLE = Math.atan(Math.sqrt(2.0));   // normal to corner
+
+    private static final ThreadLocal<float[]> DIRS = ThreadLocal.withInitial(() -> new float[TILE * TILE * 3]);
+
+    /** Face basis: pixel (u, v) in [-1, 1] (v down) looks along N + u * U + v * V. */
+    enum Face {
+        TOP   ( 1, 0, 0,   0, 0, 1,   0, 1, 0),
+        BOTTOM( 1, 0, 0,   0, 0,-1,   0,-1, 0),
+        LEFT  ( 0, 0, 1,   0,-1, 0,  -1, 0, 0),
+        RIGHT ( 0, 0,-1,   0,-1, 0,   1, 0, 0),
+        FRONT ( 1, 0, 0,   0,-1, 0,   0, 0, 1),
+        BACK  (-1, 0, 0,   0,-1, 0,   0, 0,-1);
+
+        final double ux, uy, uz, vx, vy, vz, nx, ny, nz;
+
+        Face(double ux, double uy, double uz, double vx, double vy, double vz, double nx, double ny, double nz) {
+            this.ux = ux; this.uy = uy; this.uz = uz;
+            this.vx = vx; this.vy = vy; this.vz = vz;
+            this.nx = nx; this.ny = ny; this.nz = nz;
+        }
+    }
+
+    /** Receives a face strip: rows [y0, y0 + rows) as opaque ARGB, row-major with stride = face size. */
+    @FunctionalInterface
+    interface RowSink {
+        void rows(int y0, int rows, int[] argb) throws IOException;
+    }
+
+    private final Params p;
+    private final int n;                 // face size in pixels
+    private final double pxAngle;        // radians per pixel at a face center
+
+    // Stars (SoA): unit direction, angular sigma, color
+    private int starCount;
+    private float[] sx, sy, sz, sSigma, sr, sg, sb;
+
+    private final List<Blob> blobs;
+    private final Band band;
+
+    StarCubemapRaster(Params p) {
+        if (p.width % 4 != 0 || p.width / 4 <= 0) throw new IllegalArgumentException("width must be a positive multiple of 4");
+        this.p = p;
+        this.n = p.width / 4;
+        this.pxAngle = 2.0 / n;
+        generateStars();
+        this.blobs = (p.nebulaBlobs > 0 && p.nebulaAlpha > 0) ? generateBlobs() : List.of();
+        this.band = p.mwEnabled ? new Band() : null;
+    }
+
+    int faceSize() { return n; }
+
+    // ----------------------------
+    // Rendering
+    // ----------------------------
+
+    /** Render one face strip by strip into sink (strips arrive in order, the buffer is reused). */
+    void renderFace(Face f, RowSink sink) throws IOException {
+        final int tiles = (n + TILE - 1) / TILE;
+        final int[][] buckets = bucketStars(f, tiles);
+        final int[] strip = new int[n * Math.min(TILE, n)];
+
+        ForkJoinPool pool = (p.threads > 0) ? new ForkJoinPool(p.threads) : ForkJoinPool.commonPool();
+        try {
+            for (int ty = 0; ty < tiles; ty++) {
+                final int row = ty;
+                StarAtlasRaster.runAll(pool, tiles, tx -> renderTile(f, tx, row, buckets[row * tiles + tx], strip));
+                int y0 = ty * TILE;
+                sink.rows(y0, Math.min(TILE, n - y0), strip);
+            }
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+    }
+
+    private void renderTile(Face f, int tx, int ty, int[] stars, int[] strip) {
+        final int x0 = tx * TILE, y0 = ty * TILE;
+        final int x1 = Math.min(n, x0 + TILE), y1 = Math.min(n, y0 + TILE);
+        final int tw = x1 - x0;
+        float[] buf = StarAtlasRaster.SCRATCH.get();
+        Arrays.fill(buf, 0, tw * (y1 - y0) * 3, 0f);
+
+        // 1) Stars (bucketed per tile; fixed order -> deterministic overlaps)
+        for (int k = 1; k <= stars[0]; k++) {
+            int i = stars[k];
+            splat(f, buf, x0, y0, x1, y1, tw, sx[i], sy[i], sz[i], sSigma[i], 1.0, STAR_EXTENT, sr[i], sg[i], sb[i]);
+        }
+
+        // Unit pixel directions, shared by the band and the blobs
+        float[] dirs = null;
+        if (band != null || !blobs.isEmpty()) {
+            dirs = DIRS.get();
+            for (int y = y0, o = 0; y < y1; y++) {
+                double pv = (y + 0.5) * pxAngle - 1.0;
+                for (int x = x0; x < x1; x++, o += 3) {
+                    double pu = (x + 0.5) * pxAngle - 1.0;
+                    double qx = f.nx + pu * f.ux + pv * f.vx;
+                    double qy = f.ny + pu * f.uy + pv * f.vy;
+                    double qz = f.nz + pu * f.uz + pv * f.vz;
+                    double inv = 1.0 / Math.sqrt(qx * qx + qy * qy + qz * qz);
+                    dirs[o] = (float) (qx * inv); dirs[o + 1] = (float) (qy * inv); dirs[o + 2] = (float) (qz * inv);
+                }
+            }
+        }
+
+        // 2) Milky Way
+        if (band != null) band.render(f, buf, dirs, x0, y0, x1, y1, tw);
+
+        // 3) Nebula
+        for (Blob b : blobs) splatBlob(f, buf, dirs, x0, y0, x1, y1, tw, b);
+
+        for (int y = y0; y < y1; y++) {
+            int o = (y - y0) * tw * 3, dst = (y - y0) * n;
+            for (int x = x0; x < x1; x++, o += 3) {
+                strip[dst + x] = 0xFF000000 | (StarAtlasRaster.to8(buf[o]) << 16)
+                               | (StarAtlasRaster.to8(buf[o + 1]) << 8) | StarAtlasRaster.to8(buf[o + 2]);
+            }
+        }
+    }
+
+    /**
+     * Angular Gaussian splat: alpha = peak * exp(-chord^2 / (2 sigma^2)) out to extent * sigma, over the
+     * pixels of the tile the direction's cone can reach on face f.
+     */
+    private void splat(Face f, float[] buf, int x0, int y0, int x1, int y1, int tw,
+                       double dx, double dy, double dz, double sigma, double peak, double extent,
+                       float r, float g, float b) {
+        double c = dx * f.nx + dy * f.ny + dz * f.nz;
+        double ext = extent * sigma;
+        if (c <= 0.0 || Math.acos(Math.min(1.0, c)) > FACE_HALF_ANGLE + ext) return;
+        double u = (dx * f.ux + dy * f.uy + dz * f.uz) / c;
+        double v = (dx * f.vx + dy * f.vy + dz * f.vz) / c;
+        // |d(uv)/d(angle)| <= 1 + u^2 + v^2; extra margin where the cone is wide
+        double rp = ext * (1.0 + u * u + v * v) * (1.0 + ext) * n * 0.5 + 1.0;
+        double pcx = (u + 1.0) * 0.5 * n, pcy = (v + 1.0) * 0.5 * n;
+        int bx0 = Math.max(x0, (int) Math.floor(pcx - rp)), bx1 = Math.min(x1, (int) Math.ceil(pcx + rp));
+        int by0 = Math.max(y0, (int) Math.floor(pcy - rp)), by1 = Math.min(y1, (int) Math.ceil(pcy + rp));
+        if (bx0 >= bx1 || by0 >= by1) return;
+
+        double inv2s2 = 1.0 / (2.0 * sigma * sigma);
+        double ext2 = 4.0 * Math.sin(ext * 0.5) * Math.sin(ext * 0.5);   // chord^2 at the extent angle
+        for (int y = by0; y < by1; y++) {
+            double pv = (y + 0.5) * pxAngle - 1.0;
+            int o = ((y - y0) * tw + (bx0 - x0)) * 3;
+            for (int x = bx0; x < bx1; x++, o += 3) {
+                double pu = (x + 0.5) * pxAngle - 1.0;
+                double qx = f.nx + pu * f.ux + pv * f.vx;
+                double qy = f.ny + pu * f.uy + pv * f.vy;
+                double qz = f.nz + pu * f.uz + pv * f.vz;
+                double inv = 1.0 / Math.sqrt(qx * qx + qy * qy + qz * qz);
+                double ex = qx * inv - dx, ey = qy * inv - dy, ez = qz * inv - dz;
+                double d2 = ex * ex + ey * ey + ez * ez;
+                if (d2 > ext2) continue;
+                double a = Math.min(1.0, peak * Math.exp(-d2 * inv2s2));
+                if (a < StarAtlasRaster.MIN_SPLAT) continue;
+                float fa = (float) a, k = 1f - fa;
+                buf[o]     = r * fa + buf[o] * k;
+                buf[o + 1] = g * fa + buf[o + 1] * k;
+                buf[o + 2] = b * fa + buf[o + 2] * k;
+            }
+        }
+    }
+
+    /**
+     * A nebula blob over the tile: same Gaussian as splat(), but blobs are wide, so the pixel range is the
+     * projection of the blob's cone (sampled around its rim) and pixel directions come from the tile cache.
+     */
+    private void splatBlob(Face f, float[] buf, float[] dirs, int x0, int y0, int x1, int y1, int tw, Blob b) {
+        double ext = BLOB_EXTENT * b.sigma;
+        double c = b.x * f.nx + b.y * f.ny + b.z * f.nz;
+        if (Math.acos(Math.max(-1.0, Math.min(1.0, c))) > FACE_HALF_ANGLE + ext) return;
+
+        int bx0 = x0, bx1 = x1, by0 = y0, by1 = y1;
+        if (Math.acos(Math.max(-1.0, Math.min(1.0, c))) + ext < Math.PI / 2 - 0.05) {
+            // Whole cone in front of the face plane: bound its projection by 16 rim points (+ margin)
+            double[] t1 = new double[3], t2 = new double[3];
+            tangents(b.x, b.y, b.z, t1, t2);
+            double minU = Double.MAX_VALUE, maxU = -Double.MAX_VALUE, minV = Double.MAX_VALUE, maxV = -Double.MAX_VALUE;
+            double ce = Math.cos(ext), se = Math.sin(ext);
+            for (int k = 0; k < 16; k++) {
+                double a = k * (Math.PI / 8), ca = Math.cos(a) * se, sa = Math.sin(a) * se;
+                double qx = b.x * ce + t1[0] * ca + t2[0] * sa;
+                double qy = b.y * ce + t1[1] * ca + t2[1] * sa;
+                double qz = b.z * ce + t1[2] * ca + t2[2] * sa;
+                double qc = qx * f.nx + qy * f.ny + qz * f.nz;
+                double u = (qx * f.ux + qy * f.uy + qz * f.uz) / qc, v = (qx * f.vx + qy * f.vy + qz * f.vz) / qc;
+                minU = Math.min(minU, u); maxU = Math.max(maxU, u);
+                minV = Math.min(minV, v); maxV = Math.max(maxV, v);
+            }
+            double padU = (maxU - minU) * 0.03, padV = (maxV - minV) * 0.03;
+            bx0 = Math.max(x0, (int) Math.floor((minU - padU + 1.0) * 0.5 * n) - 1);
+            bx1 = Math.min(x1, (int) Math.ceil((maxU + padU + 1.0) * 0.5 * n) + 1);
+            by0 = Math.max(y0, (int) Math.floor((minV - padV + 1.0) * 0.5 * n) - 1);
+            by1 = Math.min(y1, (int) Math.ceil((maxV + padV + 1.0) * 0.5 * n) + 1);
+            if (bx0 >= bx1 || by0 >= by1) return;
+        }
+
+        double inv2s2 = 1.0 / (2.0 * b.sigma * b.sigma);
+        double ext2 = 4.0 * Math.sin(ext * 0.5) * Math.sin(ext * 0.5);
+        float br = b.r, bg = b.g, bb = b.b;
+        for (int y = by0; y < by1; y++) {
+            int o = ((y - y0) * tw + (bx0 - x0)) * 3;
+            for (int x = bx0; x < bx1; x++, o += 3) {
+                double ex = dirs[o] - b.x, ey = dirs[o + 1] - b.y, ez = dirs[o + 2] - b.z;
+                double d2 = ex * ex + ey * ey + ez * ez;
+                if (d2 > ext2) continue;
+                double a = Math.min(1.0, b.peak * Math.exp(-d2 * inv2s2));
+                if (a < StarAtlasRaster.MIN_SPLAT) continue;
+                float fa = (float) a, k = 1f - fa;
+                buf[o]     = br * fa + buf[o] * k;
+                buf[o + 1] = bg * fa + buf[o + 1] * k;
+                buf[o + 2] = bb * fa + buf[o + 2] * k;
+            }
+        }
+    }
+
+    /** Two unit vectors perpendicular to unit (x, y, z) and to each other. */
+    private static void tangents(double x, double y, double z, double[] t1, double[] t2) {
+        double ax = (Math.abs(x) < 0.9) ? 1 : 0, ay = 1 - ax;   // helper axis (X or Y) not parallel to d
+        double cx = -z * ay, cy = z * ax, cz = x * ay - y * ax;   // d x helper
+        double inv = 1.0 / Math.sqrt(cx * cx + cy * cy + cz * cz);
+        t1[0] = cx * inv; t1[1] = cy * inv; t1[2] = cz * inv;
+        t2[0] = y * t1[2] - z * t1[1];
+        t2[1] = z * t1[0] - x * t1[2];
+        t2[2] = x * t1[1] - y * t1[0];
+    }
+
+    /** Per tile of face f: {count, star indices...} of the stars whose splat can reach it. */
+    private int[][] bucketStars(Face f, int tiles) {
+        int[][] buckets = new int[tiles * tiles][];
+        int[] fill = new int[tiles * tiles];
+        for (int t = 0; t < buckets.length; t++) buckets[t] = new int[8];
+        for (int i = 0; i < starCount; i++) {
+            double c = sx[i] * f.nx + sy[i] * f.ny + sz[i] * f.nz;
+            if (c < 0.5) continue;   // more than 60 degrees off the face normal: not on this face (stars are tiny)
+            double u = (sx[i] * f.ux + sy[i] * f.uy + sz[i] * f.uz) / c;
+            double v = (sx[i] * f.vx + sy[i] * f.vy + sz[i] * f.vz) / c;
+            double rp = STAR_EXTENT * sSigma[i] * (1.0 + u * u + v * v) * n * 0.5 + 1.0;
+            double pcx = (u + 1.0) * 0.5 * n, pcy = (v + 1.0) * 0.5 * n;
+            int tx0 = Math.max(0, (int) Math.floor((pcx - rp) / TILE)), tx1 = Math.min(tiles - 1, (int) Math.floor((pcx + rp) / TILE));
+            int ty0 = Math.max(0, (int) Math.floor((pcy - rp) / TILE)), ty1 = Math.min(tiles - 1, (int) Math.floor((pcy + rp) / TILE));
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    int t = ty * tiles + tx;
+                    int[] bk = buckets[t];
+                    if (fill[t] + 1 == bk.length) buckets[t] = bk = Arrays.copyOf(bk, bk.length * 2);
+                    bk[++fill[t]] = i;
+                }
+            }
+        }
+        for (int t = 0; t < buckets.length; t++) buckets[t][0] = fill[t];
+        return buckets;
+    }
+
+    // ----------------------------
+    // Sky content
+    // ----------------------------
+
+    /** Same expected count as the six atlas cells, uniform over the sphere. */
+    private void generateStars() {
+        int total = (int) Math.round(6.0 * n * (double) n * p.starDensity);
+        int per = total / CHUNKS, rem = total - per * CHUNKS;
+        int[] start = new int[CHUNKS + 1];
+        for (int c = 0; c < CHUNKS; c++) start[c + 1] = start[c] + per + (c < rem ? 1 : 0);
+        starCount = total;
+        sx = new float[total]; sy = new float[total]; sz = new float[total];
+        sSigma = new float[total]; sr = new float[total]; sg = new float[total]; sb = new float[total];
+
+        ForkJoinPool pool = (p.threads > 0) ? new ForkJoinPool(p.threads) : ForkJoinPool.commonPool();
+        try {
+            StarAtlasRaster.runAll(pool, CHUNKS, c -> {
+                Random rng = new Random(StarAtlasRaster.mix(p.seed, c));
+                for (int i = start[c]; i < start[c + 1]; i++) {
+                    double z = 2.0 * rng.nextDouble() - 1.0, phi = 2.0 * Math.PI * rng.nextDouble();
+                    double s = Math.sqrt(Math.max(0.0, 1.0 - z * z));
+                    sx[i] = (float) (s * Math.cos(phi)); sy[i] = (float) (s * Math.sin(phi)); sz[i] = (float) z;
+                    Color col = StarAtlasGenerator.pickStarColor(rng, p.colorBias);
+                    if (rng.nextDouble() < p.brightChance) col = col.deriveColor(0, 1, p.brightMul, 1.0);
+                    double rad = StarAtlasGenerator.clamp(StarAtlasGenerator.gaussian(rng, p.radiusMean, p.radiusSigma), 0.0, p.radiusMax);
+                    sSigma[i] = (float) (Math.max(rad, 0.4) * StarAtlasRaster.INV_SQRT2 * pxAngle);
+                    sr[i] = (float) col.getRed(); sg[i] = (float) col.getGreen(); sb[i] = (float) col.getBlue();
+                }
+            });
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+    }
+
+    private static final class Blob {
+        final double x, y, z, sigma, peak;
+        final float r, g, b;
+        Blob(double x, double y, double z, double sigma, double peak, Color c) {
+            this.x = x; this.y = y; this.z = z; this.sigma = sigma; this.peak = peak;
+            this.r = (float) c.getRed(); this.g = (float) c.getGreen(); this.b = (float) c.getBlue();
+        }
+    }
+
+    /** Same fit as the atlas raster (peak = sum of the six ring alphas, sigma = radius / 2), in angle. */
+    private List<Blob> generateBlobs() {
+        Random rng = new Random(StarAtlasRaster.mix(p.seed, -1));
+        double peak = 0.8 * p.nebulaAlpha * 3.5;
+        List<Blob> out = new ArrayList<>(p.nebulaBlobs);
+        for (int i = 0; i < p.nebulaBlobs; i++) {
+            double z = 2.0 * rng.nextDouble() - 1.0, phi = 2.0 * Math.PI * rng.nextDouble();
+            double s = Math.sqrt(Math.max(0.0, 1.0 - z * z));
+            double r = StarAtlasGenerator.lerp(p.nebulaMinR, p.nebulaMaxR, rng.nextDouble());
+            out.add(new Blob(s * Math.cos(phi), s * Math.sin(phi), z, r * 0.5 * pxAngle, peak,
+                    StarAtlasGenerator.pickNebulaColor(rng)));
+        }
+        return out;
+    }
+
+    /** Great-circle band: Gaussian in elevation from the band plane, sinusoidal noise along it. */
+    private final class Band {
+        final double nx, ny, nz;         // plane normal (up, rolled by the tilt about +Z)
+        final double ax, ay;             // in-plane axis for the azimuth (+X rolled); the other is +Z
+        final double center, twoSigma2, alpha, noiseAmt, periods, reach;
+        final float r, g, b;
+
+        Band() {
+            double t = Math.toRadians(p.mwTiltDeg);
+            nx = Math.sin(t); ny = Math.cos(t); nz = 0;
+            ax = Math.cos(t); ay = -Math.sin(t);
+            center = -Math.atan(2.0 * p.mwVOffset);                   // atlas offsets downward for +vOffset
+            double sigma = Math.max(1.0, p.mwThickness) * pxAngle;
+            twoSigma2 = 2.0 * sigma * sigma;
+            alpha = StarAtlasGenerator.clamp01(p.mwOpacity) * Math.max(0.0, p.mwIntensity);
+            noiseAmt = StarAtlasGenerator.clamp01(p.mwNoise);
+            reach = (alpha > 0.01) ? Math.sqrt(twoSigma2 * Math.log(alpha / 0.01)) : 0.0;   // |elevation| where alpha hits 0.01
+            periods = 4.0 * n / 64.0;                                  // atlas: one period per 64 px of the strip
+            Color c = Color.hsb(p.mwHue, StarAtlasGenerator.clamp01(p.mwSaturation), 1.0);
+            r = (float) c.getRed(); g = (float) c.getGreen(); b = (float) c.getBlue();
+        }
+
+        void render(Face f, float[] buf, float[] dirs, int x0, int y0, int x1, int y1, int tw) {
+            // Whole tile out of reach? (tile center elevation +- its angular half-diagonal)
+            double cu = (x0 + x1) * 0.5 * pxAngle - 1.0, cv = (y0 + y1) * 0.5 * pxAngle - 1.0;
+            double cx = f.nx + cu * f.ux + cv * f.vx, cy = f.ny + cu * f.uy + cv * f.vy, cz = f.nz + cu * f.uz + cv * f.vz;
+            double e = Math.asin(Math.max(-1.0, Math.min(1.0, (cx * nx + cy * ny + cz * nz) / Math.sqrt(cx * cx + cy * cy + cz * cz))));
+            double half = Math.hypot(x1 - x0, y1 - y0) * 0.5 * pxAngle;
+            if (Math.abs(e - center) - half > reach) return;
+
+            for (int y = y0; y < y1; y++) {
+                int o = (y - y0) * tw * 3;
+                for (int x = x0; x < x1; x++, o += 3) {
+                    double qx = dirs[o], qy = dirs[o + 1], qz = dirs[o + 2];
+                    double de = Math.asin(Math.max(-1.0, Math.min(1.0, qx * nx + qy * ny + qz * nz))) - center;
+                    double gauss = Math.exp(-(de * de) / twoSigma2);
+                    if (alpha * gauss < 0.01) continue;
+                    double az = Math.atan2(qz, qx * ax + qy * ay);
+                    double nxs = Math.sin(az * periods) * 0.5 + 0.5;
+                    double a = alpha * gauss * ((1.0 - noiseAmt) + noiseAmt * nxs);
+                    if (a < 0.01) continue;
+                    float fa = (float) Math.min(1.0, a), k = 1f - fa;
+                    buf[o]     = r * fa + buf[o] * k;
+                    buf[o + 1] = g * fa + buf[o + 1] * k;
+                    buf[o + 2] = b * fa + buf[o + 2] * k;
+                }
+            }
+        }
+    }
+}
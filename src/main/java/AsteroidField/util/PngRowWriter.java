@@ -0,0 +1,156 @@
+package AsteroidField.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal streaming PNG encoder: rows go in one at a time, so an image never has to exist in memory whole
+ * (ImageIO needs a complete RenderedImage; a BufferedImage copy of an 8k face is 256 MB).
+ *
+ * - 8-bit RGB, or RGBA when alpha is requested; input rows are non-premultiplied ARGB ints
+ * - Each row uses the Sub filter (cheap, and good on dark skies with smooth gradients)
+ * - IDAT is emitted in chunks of at most CHUNK bytes as the deflater produces them
+ */
+public final class PngRowWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final int CHUNK = 1 << 16;
+
+    private final OutputStream out;
+    private final int width, height, bpp;
+    private final byte[] row;
+    private final DeflaterOutputStream idat;
+    private final Deflater deflater;
+    private int rowsWritten;
+    private boolean closed;
+
+    public PngRowWriter(OutputStream out, int width, int height, boolean alpha) throws IOException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Invalid PNG size " + width + "x" + height);
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.bpp = alpha ? 4 : 3;
+        this.row = new byte[1 + width * bpp];
+
+        out.write(SIGNATURE);
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream(13);
+        writeInt(ihdr, width);
+        writeInt(ihdr, height);
+        ihdr.write(8);                   // bit depth
+        ihdr.write(alpha ? 6 : 2);       // color type: RGBA / RGB
+        ihdr.write(0);                   // deflate
+        ihdr.write(0);                   // adaptive filtering
+        ihdr.write(0);                   // no interlace
+        writeChunk(out, "IHDR", ihdr.toByteArray(), ihdr.size());
+
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.idat = new DeflaterOutputStream(new IdatStream(out), deflater, CHUNK);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** Next row: width ARGB pixels from argb[offset]. */
+    public void writeRow(int[] argb, int offset) throws IOException {
+        if (rowsWritten >= height) throw new IllegalStateException("All " + height + " rows already written");
+        row[0] = 1; // Sub
+        int prevR = 0, prevG = 0, prevB = 0, prevA = 0;
+        for (int x = 0, o = 1; x < width; x++) {
+            int p = argb[offset + x];
+            int r = (p >>> 16) & 0xFF, g = (p >>> 8) & 0xFF, b = p & 0xFF;
+            row[o++] = (byte) (r - prevR);
+            row[o++] = (byte) (g - prevG);
+            row[o++] = (byte) (b - prevB);
+            prevR = r; prevG = g; prevB = b;
+            if (bpp == 4) {
+                int a = p >>> 24;
+                row[o++] = (byte) (a - prevA);
+                prevA = a;
+            }
+        }
+        idat.write(row);
+        rowsWritten++;
+    }
+
+    /** Finish the image (all rows must have been written) and close the underlying stream. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (rowsWritten != height) {
+                throw new IOException("PNG incomplete: " + rowsWritten + " of " + height + " rows written");
+            }
+            idat.finish();
+            idat.flush();
+            writeChunk(out, "IEND", new byte[0], 0);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    // ----------------------------
+    // Chunks
+    // ----------------------------
+
+    /** Buffers deflated bytes and writes them out as IDAT chunks. */
+    private static final class IdatStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buf = new byte[CHUNK];
+        private int n;
+
+        IdatStream(OutputStream out) { this.out = out; }
+
+        @Override public void write(int b) throws IOException {
+            if (n == buf.length) flushChunk();
+            buf[n++] = (byte) b;
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (n == buf.length) flushChunk();
+                int k = Math.min(len, buf.length - n);
+                System.arraycopy(b, off, buf, n, k);
+                n += k; off += k; len -= k;
+            }
+        }
+
+        @Override public void flush() throws IOException {
+            if (n > 0) flushChunk();
+            out.flush();
+        }
+
+        // Closing is PngRowWriter's job (IEND comes after the last IDAT)
+        @Override public void close() throws IOException { flush(); }
+
+        private void flushChunk() throws IOException {
+            writeChunk(out, "IDAT", buf, n);
+            n = 0;
+        }
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data, int len) throws IOException {
+        byte[] t = type.getBytes(StandardCharsets.US_ASCII);
+        writeInt(out, len);
+        out.write(t);
+        out.write(data, 0, len);
+        CRC32 crc = new CRC32();
+        crc.update(t);
+        crc.update(data, 0, len);
+        writeInt(out, (int) crc.getValue());
+    }
+
+    private static void writeInt(OutputStream out, int v) throws IOException {
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+}
@@ -0,0 +1,221 @@
+package AsteroidField.asteroids.field;
+
+import AsteroidField.asteroids.field.families.FamilyPool;
+import AsteroidField.asteroids.field.families.WeightedFamilyEntry;
+import AsteroidField.asteroids.field.placement.BeltPlacementStrategy;
+import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import AsteroidField.asteroids.providers.MeshDiskCache;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.geometry.Point3D;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Transform;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trip of the FieldSnapshot binary layout: the 64-byte header, sector table and 48-byte instance
+ * records as written, and the instances, transforms and prototype meshes a Reader realizes from them.
+ */
+class FieldSnapshotTest {
+
+    private static final double SECTOR = 1_500;
+
+    @TempDir
+    static Path tmp;
+
+    private static Path previousCacheDir;
+    private static AsteroidField field;
+
+    @BeforeAll
+    static void buildField() {
+        previousCacheDir = MeshDiskCache.getDirectory();
+        MeshDiskCache.setDirectory(tmp.resolve("meshes"));
+
+        List<WeightedFamilyEntry> entries = new ArrayList<>();
+        AsteroidMeshProvider.PROVIDERS.values().forEach(p -> entries.add(new WeightedFamilyEntry(p)));
+        BeltPlacementStrategy belt = new BeltPlacementStrategy();
+        belt.setInnerRadius(2_000);
+        belt.setOuterRadius(4_000);
+        belt.setThicknessSigma(300);
+
+        AsteroidFieldGenerator.Config cfg = new AsteroidFieldGenerator.Config();
+        cfg.count = 150;
+        cfg.seed = 42L;
+        cfg.subdivisionsMin = 1;
+        cfg.subdivisionsMax = 2;
+        cfg.usePrototypes = true;
+        cfg.prototypeCount = 12;
+        field = new AsteroidFieldGenerator(new FamilyPool(entries), belt).build(cfg);
+    }
+
+    @AfterAll
+    static void restoreCache() {
+        MeshDiskCache.setDirectory(previousCacheDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void headerAndTablesFollowTheDocumentedLayout(boolean embed) throws IOException {
+        Path file = tmp.resolve("layout-" + embed + ".afs");
+        FieldSnapshot.write(file, field, SECTOR, embed);
+        ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+
+        int n = field.instances.size();
+        assertEquals(0x41465331, b.getInt(0), "magic");
+        assertEquals(FieldSnapshot.VERSION, b.getInt(4));
+        assertEquals(n, b.getInt(8));
+        int protos = b.getInt(12), sectors = b.getInt(16);
+        assertEquals(distinctMeshes(), protos);
+        assertEquals(embed ? 1 : 0, b.getInt(20), "flags");
+        assertEquals(SECTOR, b.getDouble(24));
+
+        long protoTable = b.getLong(32), sectorTable = b.getLong(40), instanceTable = b.getLong(48), meshes = b.getLong(56);
+        assertEquals(64, protoTable, "prototype table follows the 64-byte header");
+        assertTrue(sectorTable > protoTable);
+        assertEquals(sectorTable + sectors * 20L, instanceTable, "20-byte sector records");
+        long instancesEnd = instanceTable + n * 48L;
+        if (embed) {
+            assertEquals(instancesEnd, meshes, "mesh blobs follow the 48-byte instance records");
+            assertTrue(b.capacity() > meshes);
+        } else {
+            assertEquals(0, meshes);
+            assertEquals(instancesEnd, b.capacity());
+        }
+
+        // Sectors partition the instance table in order
+        int next = 0;
+        for (int s = 0; s < sectors; s++) {
+            int o = (int) sectorTable + s * 20;
+            assertEquals(next, b.getInt(o + 12), "sector " + s + " first instance");
+            int count = b.getInt(o + 16);
+            assertTrue(count > 0);
+            next += count;
+        }
+        assertEquals(n, next);
+        for (int k = 0; k < n; k++) {
+            int p = b.getInt((int) instanceTable + k * 48 + 44);
+            assertTrue(p >= 0 && p < protos, "prototype index of record " + k);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void readerRestoresInstancesTransformsAndMeshes(boolean embed) throws IOException {
+        Path file = tmp.resolve("roundtrip-" + embed + ".afs");
+        FieldSnapshot.write(file, field, SECTOR, embed);
+        FieldSnapshot.Reader r = FieldSnapshot.open(file);
+        assertEquals(field.instances.size(), r.instanceCount());
+        assertEquals(distinctMeshes(), r.prototypeCount());
+        assertEquals(embed, r.hasEmbeddedMeshes());
+        assertEquals(SECTOR, r.sectorSize());
+
+        Map<List<Float>, AsteroidInstance> byPosition = new HashMap<>();
+        for (AsteroidInstance ai : field.instances) assertNull(byPosition.put(key(ai.position()), ai));
+
+        AsteroidField loaded = r.loadAll(new PhongMaterial());
+        assertEquals(field.instances.size(), loaded.instances.size());
+        for (AsteroidInstance back : loaded.instances) {
+            AsteroidInstance orig = byPosition.remove(key(back.position()));
+            assertNotNull(orig, "no original asteroid at " + back.position());
+            assertEquals(orig.familyName(), back.familyName());
+            assertEquals((float) orig.approxRadius(), (float) back.approxRadius());
+            assertTransformsClose(orig.node().getLocalToParentTransform(), back.node().getLocalToParentTransform());
+            assertMeshEquals((TriangleMesh) orig.node().getMesh(), (TriangleMesh) back.node().getMesh());
+        }
+        assertTrue(byPosition.isEmpty());
+    }
+
+    @Test
+    void sectorsHoldTheInstancesOfTheirGridCell() throws IOException {
+        Path file = tmp.resolve("sectors.afs");
+        FieldSnapshot.write(file, field, SECTOR, true);
+        FieldSnapshot.Reader r = FieldSnapshot.open(file);
+
+        int total = 0;
+        for (int s = 0; s < r.sectorCount(); s++) {
+            int[] c = r.sectorCoords(s);
+            assertEquals(s, r.findSector(c[0], c[1], c[2]));
+            AsteroidField sector = r.loadSector(c[0], c[1], c[2], new PhongMaterial());
+            assertEquals(r.sectorInstanceCount(s), sector.instances.size());
+            for (AsteroidInstance ai : sector.instances) {
+                Point3D p = ai.position();
+                assertArrayEquals(c, new int[] {
+                    (int) Math.floor(p.getX() / SECTOR), (int) Math.floor(p.getY() / SECTOR), (int) Math.floor(p.getZ() / SECTOR)
+                });
+            }
+            total += sector.instances.size();
+        }
+        assertEquals(field.instances.size(), total);
+        assertNull(r.loadSector(Integer.MAX_VALUE / 2, 0, 0, new PhongMaterial()));
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        Path file = tmp.resolve("corrupt.afs");
+        FieldSnapshot.write(file, field, SECTOR, false);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = tmp.resolve("truncated.afs");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 48));
+        assertThrows(IOException.class, () -> FieldSnapshot.open(truncated));
+
+        Path badMagic = tmp.resolve("magic.afs");
+        byte[] wrong = bytes.clone();
+        wrong[0] ^= 0x7F;
+        Files.write(badMagic, wrong);
+        assertThrows(IOException.class, () -> FieldSnapshot.open(badMagic));
+
+        Path badVersion = tmp.resolve("version.afs");
+        byte[] future = bytes.clone();
+        future[4] = (byte) (FieldSnapshot.VERSION + 1);
+        Files.write(badVersion, future);
+        assertThrows(IOException.class, () -> FieldSnapshot.open(badVersion));
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+
+    private static int distinctMeshes() {
+        Map<Object, Boolean> meshes = new IdentityHashMap<>();
+        for (AsteroidInstance ai : field.instances) meshes.put(ai.node().getMesh(), Boolean.TRUE);
+        return meshes.size();
+    }
+
+    /** Positions are stored as floats. */
+    private static List<Float> key(Point3D p) {
+        return List.of((float) p.getX(), (float) p.getY(), (float) p.getZ());
+    }
+
+    private static void assertTransformsClose(Transform a, Transform b) {
+        double[] ea = a.toArray(javafx.scene.transform.MatrixType.MT_3D_3x4);
+        double[] eb = b.toArray(javafx.scene.transform.MatrixType.MT_3D_3x4);
+        for (int i = 0; i < ea.length; i++) {
+            double tol = (i % 4 == 3) ? 1e-2 : 1e-4 * Math.max(1, Math.abs(ea[i])); // translation is float
+            assertEquals(ea[i], eb[i], tol, "transform element " + i);
+        }
+    }
+
+    private static void assertMeshEquals(TriangleMesh a, TriangleMesh b) {
+        assertArrayEquals(a.getPoints().toArray(null), b.getPoints().toArray(null));
+        assertArrayEquals(a.getTexCoords().toArray(null), b.getTexCoords().toArray(null));
+        assertArrayEquals(a.getFaces().toArray(null), b.getFaces().toArray(null));
+    }
+}
@@ -0,0 +1,73 @@
+package AsteroidField.asteroids.field.families;
+
+import AsteroidField.asteroids.providers.AsteroidMeshProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javafx.beans.binding.DoubleBinding;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Alias-table picks follow weight and enabled edits made after the table was built,
+ * including edits that land while a rebuild is reading the entries.
+ */
+class FamilyPoolTest {
+
+    @Test
+    void picksFollowEditsAfterTheTableWasBuilt() {
+        List<WeightedFamilyEntry> entries = entries();
+        FamilyPool pool = new FamilyPool(entries);
+        Random rng = new Random(1);
+        pool.pick(rng);
+
+        WeightedFamilyEntry only = entries.get(1);
+        for (WeightedFamilyEntry e : entries) e.enabledProperty().set(e == only);
+        for (int i = 0; i < 1_000; i++) assertSame(only.provider(), pool.pick(rng));
+
+        for (WeightedFamilyEntry e : entries) e.enabledProperty().set(true);
+        for (WeightedFamilyEntry e : entries) e.weightProperty().set(e == only ? 0 : 1);
+        for (int i = 0; i < 1_000; i++) assertNotSame(only.provider(), pool.pick(rng));
+
+        for (WeightedFamilyEntry e : entries) e.enabledProperty().set(false);
+        assertThrows(IllegalStateException.class, () -> pool.pick(rng));
+    }
+
+    @Test
+    void editDuringRebuildIsNotLostToTheStaleTable() {
+        List<WeightedFamilyEntry> entries = entries();
+        FamilyPool pool = new FamilyPool(entries);
+        WeightedFamilyEntry first = entries.get(0), last = entries.get(entries.size() - 1);
+
+        // The last entry's weight is computed lazily while the table is built; that computation disables
+        // the first entry, which the build has already read as enabled
+        boolean[] armed = {false};
+        DoubleBinding weight = new DoubleBinding() {
+            @Override
+            protected double computeValue() {
+                if (armed[0]) {
+                    armed[0] = false;
+                    first.enabledProperty().set(false);
+                }
+                return 1.0;
+            }
+        };
+        last.weightProperty().bind(weight);
+        Random rng = new Random(3);
+        pool.pick(rng);
+
+        armed[0] = true;
+        weight.invalidate();
+        pool.pick(rng); // this rebuild races the edit
+        assertFalse(armed[0], "edit ran during the build");
+        for (int i = 0; i < 1_000; i++) assertNotSame(first.provider(), pool.pick(rng));
+    }
+
+    private static List<WeightedFamilyEntry> entries() {
+        List<WeightedFamilyEntry> entries = new ArrayList<>();
+        AsteroidMeshProvider.PROVIDERS.values().forEach(p -> entries.add(new WeightedFamilyEntry(p)));
+        assertTrue(entries.size() >= 3);
+        return entries;
+    }
+}
@@ -0,0 +1,147 @@
+package AsteroidField.asteroids.providers;
+
+import AsteroidField.asteroids.field.families.FamilySupport;
+import AsteroidField.asteroids.geometry.MeshBuffers;
+import AsteroidField.asteroids.parameters.AsteroidParameters;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import javafx.scene.shape.TriangleMesh;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MeshBuffers blob encode/decode and the MeshDiskCache entries built on it: miss then hit,
+ * recovery from a corrupt entry, and trimming to the byte budget.
+ */
+class MeshDiskCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private Path previousDir;
+    private long previousBudget;
+    private boolean previousEnabled;
+    private AsteroidMeshProvider provider;
+
+    @BeforeEach
+    void useTempDirectory() {
+        previousDir = MeshDiskCache.getDirectory();
+        previousBudget = MeshDiskCache.getBudgetBytes();
+        previousEnabled = MeshDiskCache.isEnabled();
+        MeshDiskCache.setDirectory(dir);
+        MeshDiskCache.setEnabled(true);
+        provider = AsteroidMeshProvider.PROVIDERS.values().iterator().next();
+    }
+
+    @AfterEach
+    void restore() {
+        MeshDiskCache.setDirectory(previousDir);
+        MeshDiskCache.setBudgetBytes(previousBudget);
+        MeshDiskCache.setEnabled(previousEnabled);
+    }
+
+    @Test
+    void blobRoundTripsEveryArray() {
+        TriangleMesh mesh = provider.generateMesh(params(7));
+        int size = MeshBuffers.encodedSize(mesh);
+        ByteBuffer buf = ByteBuffer.allocate(size + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(0xCAFE);
+        MeshBuffers.encode(mesh, buf);
+        assertEquals(4 + size, buf.position(), "encodedSize matches the bytes written");
+
+        buf.flip().position(4);
+        TriangleMesh back = MeshBuffers.decode(buf);
+        assertEquals(4 + size, buf.position(), "decode consumes exactly one blob");
+        assertMeshEquals(mesh, back);
+    }
+
+    @Test
+    void truncatedBlobIsRejected() {
+        TriangleMesh mesh = provider.generateMesh(params(7));
+        ByteBuffer buf = ByteBuffer.allocate(MeshBuffers.encodedSize(mesh)).order(ByteOrder.LITTLE_ENDIAN);
+        MeshBuffers.encode(mesh, buf);
+        buf.flip().limit(buf.limit() - 4);
+        assertThrows(BufferUnderflowException.class, () -> MeshBuffers.decode(buf));
+        assertThrows(IllegalArgumentException.class,
+                () -> MeshBuffers.decode(ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN)));
+    }
+
+    @Test
+    void missStoresAnEntryAndHitDecodesTheSameMesh() throws IOException {
+        AsteroidParameters p = params(11);
+        long hits = MeshDiskCache.hits(), misses = MeshDiskCache.misses();
+
+        TriangleMesh generated = MeshDiskCache.getOrGenerate(provider, p);
+        assertEquals(misses + 1, MeshDiskCache.misses());
+        assertEquals(1, entries().size());
+
+        TriangleMesh cached = MeshDiskCache.getOrGenerate(provider, p);
+        assertEquals(hits + 1, MeshDiskCache.hits());
+        assertNotSame(generated, cached);
+        assertMeshEquals(generated, cached);
+        assertMeshEquals(provider.generateMesh(p), cached);
+    }
+
+    @Test
+    void corruptEntryIsRegeneratedAndRewritten() throws IOException {
+        AsteroidParameters p = params(13);
+        TriangleMesh generated = MeshDiskCache.getOrGenerate(provider, p);
+        Path entry = entries().get(0);
+        byte[] bytes = Files.readAllBytes(entry);
+        Files.write(entry, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        long misses = MeshDiskCache.misses();
+        assertMeshEquals(generated, MeshDiskCache.getOrGenerate(provider, p));
+        assertEquals(misses + 1, MeshDiskCache.misses());
+        assertArrayEquals(bytes, Files.readAllBytes(entry));
+
+        long hits = MeshDiskCache.hits();
+        MeshDiskCache.getOrGenerate(provider, p);
+        assertEquals(hits + 1, MeshDiskCache.hits());
+    }
+
+    @Test
+    void shrinkingTheBudgetEvictsEntries() throws IOException {
+        for (int s = 0; s < 3; s++) MeshDiskCache.getOrGenerate(provider, params(100 + s));
+        List<Path> before = entries();
+        assertEquals(3, before.size());
+        long one = Files.size(before.get(0));
+
+        MeshDiskCache.setBudgetBytes(one);
+        assertTrue(entries().size() <= 1);
+        MeshDiskCache.setBudgetBytes(0);
+        assertTrue(entries().isEmpty());
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+
+    private AsteroidParameters params(long seed) {
+        return FamilySupport.createParams(provider, new Random(seed), 100, 2, 0.3);
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".afmesh")).toList();
+        }
+    }
+
+    private static void assertMeshEquals(TriangleMesh a, TriangleMesh b) {
+        assertArrayEquals(a.getPoints().toArray(null), b.getPoints().toArray(null));
+        assertArrayEquals(a.getTexCoords().toArray(null), b.getTexCoords().toArray(null));
+        assertArrayEquals(a.getFaces().toArray(null), b.getFaces().toArray(null));
+        assertArrayEquals(a.getFaceSmoothingGroups().toArray(null), b.getFaceSmoothingGroups().toArray(null));
+    }
+}
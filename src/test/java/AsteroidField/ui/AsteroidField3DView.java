@@ -6,6 +6,8 @@ import AsteroidField.asteroids.parameters.AsteroidParameters;
 import AsteroidField.asteroids.providers.AsteroidMeshProvider;
 import AsteroidField.physics.CraftIntegratorContributor;
 import AsteroidField.physics.PhysicsSystem;
+import AsteroidField.runtime.CollidableSource;
+import AsteroidField.runtime.RaycastWorld;
 import AsteroidField.spacecraft.FancyCraft;
 import AsteroidField.spacecraft.collision.SpacecraftCollisionContributor;
 import AsteroidField.spacecraft.CameraKinematicAdapter;
@@ -180,6 +182,11 @@ public class AsteroidField3DView extends Pane {
         // Collidables supplier (MeshViews only) – used by tethers & collisions
         java.util.function.Supplier<java.util.List<javafx.scene.Node>> collidables =
                 () -> new ArrayList<>(asteroidViews);
+        // Ray queries for tethers; the handful of views makes a content hash a cheap change counter
+        RaycastWorld raycastWorld = new RaycastWorld(world, new CollidableSource() {
+            @Override public List<Node> getCollidables() { return collidables.get(); }
+            @Override public long getVersion() { return asteroidViews.hashCode(); }
+        });
 
         // 1) Thrusters (forces from input)
         thrusterController = new ThrusterController(subScene, camera, cameraCraft);
@@ -192,7 +199,7 @@ public class AsteroidField3DView extends Pane {
         physics.addContributor(thrusterController);
 
         // 2) Tethers (spring forces + input gated by UI toggle)
-        tetherController = new TetherController(subScene, camera, world, collidables, cameraCraft);
+        tetherController = new TetherController(subScene, camera, world, raycastWorld, cameraCraft);
         tetherController.setSymmetricWingOffsets(20, 50, 5);
         tetherController.setTetherInputEnabled(false); // off by default; toggle controls this
         for (int i = 0; i < 2; i++) {
@@ -209,7 +216,9 @@ public class AsteroidField3DView extends Pane {
                 t.setDebugPersistOnMiss(true);
             }
         }
+        physics.addContributor(tetherController.getRopeSystem());
         physics.addContributor(tetherController);
+        physics.addContributor(tetherController.getRenderer());
 
         // 3) Craft integration (apply accumulated forces)
         physics.addContributor(new CraftIntegratorContributor(cameraCraft));
@@ -48,15 +48,12 @@ public class StarfieldWorkbenchApp extends Application {
         Button btnExportFaces = new Button("Export Faces (6 PNGs) …");
         btnExportFaces.setOnAction(e -> {
             try {
-                // Generate fresh atlas, then slice faces
-                var params = pane.getParams();
-                var faces = StarAtlasGenerator.generateFaces(params);
-
                 DirectoryChooser dc = new DirectoryChooser();
                 dc.setTitle("Choose Export Directory");
                 File dir = dc.showDialog(stage);
                 if (dir != null) {
-                    StarAtlasGenerator.saveFaces(faces, dir, "stars");
+                    // Fresh atlas sliced into faces, or (Direct faces) each face streamed to its PNG, no atlas
+                    StarAtlasGenerator.generateAndSaveFaces(pane.getParams(), dir, "stars");
                     System.out.println("Exported faces to: " + dir.getAbsolutePath());
                 }
             } catch (Exception ex) {